@@ -53,7 +53,14 @@ import org.openscience.cdk.tools.LoggingToolFactory;
 import org.openscience.smsd.tools.ExtAtomContainerManipulator;
 
 /**
- * Holds atom-atom mappings information between source and target molecules
+ * Holds atom-atom mappings information between source and target molecules.
+ * The mapping is kept as an array from query atom index to target atom index
+ * (-1 if the query atom is not mapped), equality and the hash are array
+ * operations. The mapping is filled with {@link #put} or given as an array,
+ * once built it is used as a value. The maps returned by
+ * {@link #getMappingsByAtoms()} and {@link #getMappingsByIndex()} are
+ * unmodifiable views of the array in the order of the query atoms, they are
+ * not affected by later changes.
  *
  *
  *
@@ -64,23 +71,28 @@ public final class AtomAtomMapping implements Serializable {
     private static final ILoggingTool LOGGER
             = LoggingToolFactory.createLoggingTool(AtomAtomMapping.class);
 
-    class MyQueryIAtomComp implements Comparator<IAtom> {
-
-        @Override
-        public int compare(IAtom o1, IAtom o2) {
-            int atomNumber1 = getQuery().indexOf(o1);
-            int atomNumber2 = getQuery().indexOf(o2);
-            return atomNumber1 - atomNumber2;
-        }
-    }
-    private static final long serialVersionUID = 1223637237262778L;
+    private static final long serialVersionUID = 1223637237262779L;
+    private static final int UNMAPPED = -1;
     private final IAtomContainer query;
     private final IAtomContainer target;
-    private final Map<IAtom, IAtom> mapping;
-    private final Map<Integer, Integer> mappingIndex;
+    private int[] queryToTarget;
+    /*
+     * The mapped atoms, as put or as found in the molecules on construction
+     */
+    private IAtom[] queryAtoms;
+    private IAtom[] targetAtoms;
+    private int count;
+    private int hash;
+    /*
+     * true once the arrays are shared with a view, the next change copies them
+     */
+    private boolean shared;
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
         if (obj == null) {
             return false;
         }
@@ -88,26 +100,39 @@ public final class AtomAtomMapping implements Serializable {
             return false;
         }
         final AtomAtomMapping other = (AtomAtomMapping) obj;
-        if (this.getQuery() != other.getQuery() && (this.getQuery() == null || !this.query.equals(other.query))) {
+        if (this.query != other.query && (this.query == null || !this.query.equals(other.query))) {
             return false;
         }
-        if (this.getTarget() != other.getTarget() && (this.getTarget() == null || !this.target.equals(other.target))) {
+        if (this.target != other.target && (this.target == null || !this.target.equals(other.target))) {
             return false;
         }
-        if (this.mapping != other.getMappingsByAtoms() && (this.mapping == null || !this.mapping.equals(other.mapping))) {
+        if (this.count != other.count || this.hashCode() != other.hashCode()) {
             return false;
         }
-        return this.mappingIndex == other.getMappingsByIndex() || (this.mappingIndex != null && this.mappingIndex.equals(other.mappingIndex));
+        int length = Math.max(this.queryToTarget.length, other.queryToTarget.length);
+        for (int i = 0; i < length; i++) {
+            if (this.mappedTarget(i) != other.mappedTarget(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        int hash = 7;
-        hash = 67 * hash + (this.getQuery() != null ? this.getQuery().hashCode() : 0);
-        hash = 67 * hash + (this.getTarget() != null ? this.getTarget().hashCode() : 0);
-        hash = 67 * hash + (this.mapping != null ? this.getMappingsByAtoms().hashCode() : 0);
-        hash = 67 * hash + (this.mappingIndex != null ? this.getMappingsByIndex().hashCode() : 0);
-        return hash;
+        int h = hash;
+        if (h == 0) {
+            h = 7;
+            h = 67 * h + (this.query != null ? this.query.hashCode() : 0);
+            h = 67 * h + (this.target != null ? this.target.hashCode() : 0);
+            for (int i = 0; i < queryToTarget.length; i++) {
+                if (queryToTarget[i] != UNMAPPED) {
+                    h = 67 * h + (31 * i + queryToTarget[i]);
+                }
+            }
+            hash = h;
+        }
+        return h;
     }
 
     /**
@@ -118,8 +143,37 @@ public final class AtomAtomMapping implements Serializable {
     public AtomAtomMapping(IAtomContainer query, IAtomContainer target) {
         this.query = query;
         this.target = target;
-        mapping = new TreeMap<>(new MyQueryIAtomComp());
-        this.mappingIndex = Collections.synchronizedSortedMap(new TreeMap<>());
+        this.queryToTarget = new int[query == null ? 0 : query.getAtomCount()];
+        Arrays.fill(queryToTarget, UNMAPPED);
+        this.queryAtoms = atoms(query);
+        this.targetAtoms = atoms(target);
+        this.count = 0;
+    }
+
+    /**
+     *
+     * @param query source molecule
+     * @param target target molecule
+     * @param queryToTarget target atom index for each query atom index, -1 if
+     * the query atom is not mapped (the array is copied)
+     */
+    public AtomAtomMapping(IAtomContainer query, IAtomContainer target, int[] queryToTarget) {
+        this.query = query;
+        this.target = target;
+        this.queryToTarget = queryToTarget.clone();
+        this.queryAtoms = atoms(query);
+        this.targetAtoms = atoms(target);
+        this.count = 0;
+        for (int i = 0; i < this.queryToTarget.length; i++) {
+            int j = this.queryToTarget[i];
+            if (j < 0) {
+                this.queryToTarget[i] = UNMAPPED;
+                continue;
+            }
+            setDefaultID(query.getAtom(i), i);
+            setDefaultID(target.getAtom(j), j);
+            count++;
+        }
     }
 
     /**
@@ -127,24 +181,90 @@ public final class AtomAtomMapping implements Serializable {
      * @param atom1
      * @param atom2
      */
-    public synchronized void put(IAtom atom1, IAtom atom2) {
+    public void put(IAtom atom1, IAtom atom2) {
         try {
-            atom1.setID(atom1.getID() == null ? getQuery().indexOf(atom1) + "" : atom1.getID());
-            atom2.setID(atom2.getID() == null ? getTarget().indexOf(atom2) + "" : atom2.getID());
-            mapping.put(atom1, atom2);
-            mappingIndex.put(getQuery().indexOf(atom1), getTarget().indexOf(atom2));
+            int i = getQuery().indexOf(atom1);
+            int j = getTarget().indexOf(atom2);
+            setDefaultID(atom1, i);
+            setDefaultID(atom2, j);
+            if (i < 0 || j < 0) {
+                LOGGER.debug("Error: Add Mapping to the Map, atom not found");
+                return;
+            }
+            put(i, j);
+            queryAtoms[i] = atom1;
+            targetAtoms[j] = atom2;
         } catch (Exception e) {
             LOGGER.error("Error: Add Mapping to the Map", e.getMessage());
         }
     }
 
+    /**
+     *
+     * @param queryIndex index of the query atom
+     * @param targetIndex index of the target atom
+     */
+    public void put(int queryIndex, int targetIndex) {
+        if (shared || queryIndex >= queryToTarget.length || targetIndex >= targetAtoms.length) {
+            int[] copy = Arrays.copyOf(queryToTarget, Math.max(queryToTarget.length, queryIndex + 1));
+            Arrays.fill(copy, queryToTarget.length, copy.length, UNMAPPED);
+            queryToTarget = copy;
+            queryAtoms = grow(queryAtoms, getQuery(), copy.length);
+            targetAtoms = grow(targetAtoms, getTarget(), Math.max(targetAtoms.length, targetIndex + 1));
+            shared = false;
+        }
+        if (queryToTarget[queryIndex] == UNMAPPED) {
+            count++;
+        }
+        queryToTarget[queryIndex] = targetIndex;
+        hash = 0;
+    }
+
+    private static IAtom[] atoms(IAtomContainer container) {
+        IAtom[] atoms = new IAtom[container == null ? 0 : container.getAtomCount()];
+        for (int i = 0; i < atoms.length; i++) {
+            atoms[i] = container.getAtom(i);
+        }
+        return atoms;
+    }
+
+    private static IAtom[] grow(IAtom[] atoms, IAtomContainer container, int length) {
+        IAtom[] copy = Arrays.copyOf(atoms, length);
+        for (int i = atoms.length; i < length && i < container.getAtomCount(); i++) {
+            copy[i] = container.getAtom(i);
+        }
+        return copy;
+    }
+
+    private static void setDefaultID(IAtom atom, int index) {
+        if (atom.getID() == null) {
+            atom.setID(index + "");
+        }
+    }
+
+    private int mappedTarget(int queryIndex) {
+        return queryIndex < queryToTarget.length ? queryToTarget[queryIndex] : UNMAPPED;
+    }
+
+    private boolean isMappedTarget(int targetIndex) {
+        if (targetIndex < 0) {
+            return false;
+        }
+        for (int j : queryToTarget) {
+            if (j == targetIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns String with MMP and AAM.
      *
      * @return string
      */
     @Override
-    public synchronized String toString() {
+    public String toString() {
         StringBuilder s = new StringBuilder();
         try {
             IReaction reaction = SilentChemObjectBuilder.getInstance().newInstance(IReaction.class);
@@ -154,12 +274,10 @@ public final class AtomAtomMapping implements Serializable {
             int counter = 1;
             for (IAtomContainer ac : reaction.getReactants().atomContainers()) {
                 for (IAtom a : ac.atoms()) {
-                    IAtom refAtom = getQuery().getAtom(ac.indexOf(a));
-                    if (mapping.containsKey(refAtom)) {
+                    int mappedAtomIndex = mappedTarget(ac.indexOf(a));
+                    if (mappedAtomIndex != UNMAPPED) {
                         a.setProperty(ATOM_ATOM_MAPPING, counter);
                         a.setFlag(MAPPED, true);
-                        IAtom mappedAtom = mapping.get(refAtom);
-                        int mappedAtomIndex = getTarget().indexOf(mappedAtom);
                         IAtom b = reaction.getProducts().getAtomContainer(0).getAtom(mappedAtomIndex);
                         b.setProperty(ATOM_ATOM_MAPPING, counter);
                         b.setFlag(MAPPED, true);
@@ -184,11 +302,11 @@ public final class AtomAtomMapping implements Serializable {
             }
 
             s.append("MMP: ").append(createReactionSMILES).append(", AAM:[");
-            mapping.keySet().stream().forEach((firstAtom) -> {
-                int keyIndex = getQuery().indexOf(firstAtom) + 1;
-                int valueIndex = getTarget().indexOf(mapping.get(firstAtom)) + 1;
-                s.append(keyIndex).append(":").append(valueIndex).append("|");
-            });
+            for (int i = 0; i < queryToTarget.length; i++) {
+                if (queryToTarget[i] != UNMAPPED) {
+                    s.append(i + 1).append(":").append(queryToTarget[i] + 1).append("|");
+                }
+            }
 
             s.append("]");
 
@@ -209,17 +327,24 @@ public final class AtomAtomMapping implements Serializable {
      *
      * @return true if 'query' is not isomorphic of 'target'
      */
-    public synchronized boolean isEmpty() {
-        return mapping.isEmpty();
+    public boolean isEmpty() {
+        return count == 0;
     }
 
     /**
      *
      * Clear mappings
      */
-    public synchronized void clear() {
-        mapping.clear();
-        mappingIndex.clear();
+    public void clear() {
+        if (shared) {
+            queryToTarget = new int[queryToTarget.length];
+            queryAtoms = queryAtoms.clone();
+            targetAtoms = targetAtoms.clone();
+            shared = false;
+        }
+        Arrays.fill(queryToTarget, UNMAPPED);
+        count = 0;
+        hash = 0;
     }
 
     /**
@@ -228,8 +353,8 @@ public final class AtomAtomMapping implements Serializable {
      *
      * @return mapping size
      */
-    public synchronized int getCount() {
-        return mapping.isEmpty() ? 0 : mapping.size();
+    public int getCount() {
+        return count;
     }
 
     /**
@@ -237,8 +362,9 @@ public final class AtomAtomMapping implements Serializable {
      *
      * @return atom-atom mappings
      */
-    public synchronized Map<IAtom, IAtom> getMappingsByAtoms() {
-        return Collections.unmodifiableMap(new LinkedHashMap<>(mapping));
+    public Map<IAtom, IAtom> getMappingsByAtoms() {
+        shared = true;
+        return new AtomView(queryAtoms, targetAtoms, queryToTarget, count);
     }
 
     /**
@@ -246,8 +372,28 @@ public final class AtomAtomMapping implements Serializable {
      *
      * @return atom-atom index mappings
      */
-    public synchronized Map<Integer, Integer> getMappingsByIndex() {
-        return Collections.unmodifiableSortedMap(new TreeMap<>(mappingIndex));
+    public Map<Integer, Integer> getMappingsByIndex() {
+        shared = true;
+        return new IndexView(queryToTarget, count);
+    }
+
+    /**
+     * Returns the mapped target atom index of a query atom index
+     *
+     * @param queryIndex
+     * @return target atom index or -1 if the query atom is not mapped
+     */
+    public int getMappedTargetIndex(int queryIndex) {
+        return queryIndex < 0 ? UNMAPPED : mappedTarget(queryIndex);
+    }
+
+    /**
+     * Returns the target atom index for each query atom index
+     *
+     * @return copy of the mapping array, -1 for the query atoms not mapped
+     */
+    public int[] getQueryToTargetIndex() {
+        return queryToTarget.clone();
     }
 
     /**
@@ -256,7 +402,7 @@ public final class AtomAtomMapping implements Serializable {
      * @param atom
      * @return
      */
-    public synchronized int getQueryIndex(IAtom atom) {
+    public int getQueryIndex(IAtom atom) {
         return getQuery().indexOf(atom);
     }
 
@@ -266,7 +412,7 @@ public final class AtomAtomMapping implements Serializable {
      * @param atom
      * @return
      */
-    public synchronized int getTargetIndex(IAtom atom) {
+    public int getTargetIndex(IAtom atom) {
         return getTarget().indexOf(atom);
     }
 
@@ -275,7 +421,7 @@ public final class AtomAtomMapping implements Serializable {
      *
      * @return the query
      */
-    public synchronized IAtomContainer getQuery() {
+    public IAtomContainer getQuery() {
         return query;
     }
 
@@ -284,7 +430,7 @@ public final class AtomAtomMapping implements Serializable {
      *
      * @return the target
      */
-    public synchronized IAtomContainer getTarget() {
+    public IAtomContainer getTarget() {
         return target;
     }
 
@@ -294,20 +440,20 @@ public final class AtomAtomMapping implements Serializable {
      * @return common mapped fragment in the query molecule
      * @throws CloneNotSupportedException
      */
-    public synchronized IAtomContainer getMapCommonFragmentOnQuery() throws CloneNotSupportedException {
+    public IAtomContainer getMapCommonFragmentOnQuery() throws CloneNotSupportedException {
         IAtomContainer ac = getQuery().clone();
         List<IAtom> uniqueAtoms = Collections.synchronizedList(new ArrayList<>());
-        for (IAtom atom : getQuery().atoms()) {
-            if (!mapping.containsKey(atom)) {
-                uniqueAtoms.add(ac.getAtom(getQueryIndex(atom)));
+        for (int i = 0; i < ac.getAtomCount(); i++) {
+            if (mappedTarget(i) == UNMAPPED) {
+                uniqueAtoms.add(ac.getAtom(i));
             }
         }
         Set<IBond> removeUncommonBonds = new HashSet<>();
         for (IBond bondQ : ac.bonds()) {
-            if (mapping.containsKey(bondQ.getBegin()) && mapping.containsKey(bondQ.getEnd())) {
-                IAtom atom1 = mapping.get(bondQ.getBegin());
-                IAtom atom2 = mapping.get(bondQ.getEnd());
-                IBond bondT = getTarget().getBond(atom1, atom2);
+            int i1 = mappedTarget(ac.indexOf(bondQ.getBegin()));
+            int i2 = mappedTarget(ac.indexOf(bondQ.getEnd()));
+            if (i1 != UNMAPPED && i2 != UNMAPPED) {
+                IBond bondT = getTarget().getBond(getTarget().getAtom(i1), getTarget().getAtom(i2));
                 if (bondT == null) {
                     removeUncommonBonds.add(bondQ);
                 }
@@ -335,13 +481,13 @@ public final class AtomAtomMapping implements Serializable {
      * @return common mapped fragment in the target molecule
      * @throws CloneNotSupportedException
      */
-    public synchronized IAtomContainer getMapCommonFragmentOnTarget() throws CloneNotSupportedException {
+    public IAtomContainer getMapCommonFragmentOnTarget() throws CloneNotSupportedException {
 
         IAtomContainer ac = getTarget().clone();
         List<IAtom> uniqueAtoms = Collections.synchronizedList(new ArrayList<>());
-        for (IAtom atom : getTarget().atoms()) {
-            if (!mapping.containsValue(atom)) {
-                uniqueAtoms.add(ac.getAtom(getTargetIndex(atom)));
+        for (int j = 0; j < ac.getAtomCount(); j++) {
+            if (!isMappedTarget(j)) {
+                uniqueAtoms.add(ac.getAtom(j));
             }
         }
 
@@ -357,12 +503,12 @@ public final class AtomAtomMapping implements Serializable {
      * @return common mapped fragment in the query molecule
      * @throws CloneNotSupportedException
      */
-    public synchronized IAtomContainer getCommonFragment() throws CloneNotSupportedException {
+    public IAtomContainer getCommonFragment() throws CloneNotSupportedException {
         IAtomContainer ac = getQuery().clone();
         List<IAtom> uniqueAtoms = Collections.synchronizedList(new ArrayList<>());
-        for (IAtom atom : getQuery().atoms()) {
-            if (!mapping.containsKey(atom)) {
-                uniqueAtoms.add(ac.getAtom(getQueryIndex(atom)));
+        for (int i = 0; i < ac.getAtomCount(); i++) {
+            if (mappedTarget(i) == UNMAPPED) {
+                uniqueAtoms.add(ac.getAtom(i));
             }
         }
 
@@ -372,14 +518,16 @@ public final class AtomAtomMapping implements Serializable {
          exist between atoms.
          */
         for (IBond bond : getQuery().bonds()) {
-            IAtom atom1ForBondInTarget = mapping.get(bond.getAtom(0));
-            IAtom atom2ForBondInTarget = mapping.get(bond.getAtom(1));
-            if (atom1ForBondInTarget == null) {
+            int i1 = mappedTarget(getQueryIndex(bond.getAtom(0)));
+            int i2 = mappedTarget(getQueryIndex(bond.getAtom(1)));
+            if (i1 == UNMAPPED) {
                 continue;
             }
-            if (atom2ForBondInTarget == null) {
+            if (i2 == UNMAPPED) {
                 continue;
             }
+            IAtom atom1ForBondInTarget = getTarget().getAtom(i1);
+            IAtom atom2ForBondInTarget = getTarget().getAtom(i2);
 
             IBond bondInTarget = getTarget().getBond(atom1ForBondInTarget, atom2ForBondInTarget);
             if (bondInTarget == null) {
@@ -417,7 +565,7 @@ public final class AtomAtomMapping implements Serializable {
      * @throws CloneNotSupportedException
      * @throws CDKException
      */
-    public synchronized String getCommonFragmentAsSMILES() throws CloneNotSupportedException, CDKException {
+    public String getCommonFragmentAsSMILES() throws CloneNotSupportedException, CDKException {
         SmilesGenerator smiles = new SmilesGenerator(
                 //                SmiFlavor.Unique|
                 //SmiFlavor.UseAromaticSymbols|
@@ -456,4 +604,155 @@ public final class AtomAtomMapping implements Serializable {
         return sortedMap;
     }
 
+
+    /*
+     * Read only map over a mapping array, in the order of the query atoms
+     */
+    private abstract static class ArrayView<K, V> extends AbstractMap<K, V> implements Serializable {
+
+        private static final long serialVersionUID = 7364728283647181L;
+        final int[] queryToTarget;
+        final int count;
+
+        ArrayView(int[] queryToTarget, int count) {
+            this.queryToTarget = queryToTarget;
+            this.count = count;
+        }
+
+        abstract K key(int queryIndex);
+
+        abstract V value(int targetIndex);
+
+        /*
+         * Index of the key in the query, -1 if it is not a key
+         */
+        abstract int queryIndex(Object key);
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            int i = queryIndex(key);
+            return i >= 0 && i < queryToTarget.length && queryToTarget[i] != UNMAPPED;
+        }
+
+        @Override
+        public V get(Object key) {
+            int i = queryIndex(key);
+            return i >= 0 && i < queryToTarget.length && queryToTarget[i] != UNMAPPED
+                    ? value(queryToTarget[i]) : null;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<Entry<K, V>>() {
+                @Override
+                public int size() {
+                    return count;
+                }
+
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new Iterator<Entry<K, V>>() {
+                        private int next = advance(0);
+
+                        private int advance(int i) {
+                            while (i < queryToTarget.length && queryToTarget[i] == UNMAPPED) {
+                                i++;
+                            }
+                            return i;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < queryToTarget.length;
+                        }
+
+                        @Override
+                        public Entry<K, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = next;
+                            next = advance(i + 1);
+                            return new SimpleImmutableEntry<>(key(i), value(queryToTarget[i]));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static final class AtomView extends ArrayView<IAtom, IAtom> {
+
+        private static final long serialVersionUID = 7364728283647182L;
+        private final IAtom[] queryAtoms;
+        private final IAtom[] targetAtoms;
+
+        AtomView(IAtom[] queryAtoms, IAtom[] targetAtoms, int[] queryToTarget, int count) {
+            super(queryToTarget, count);
+            this.queryAtoms = queryAtoms;
+            this.targetAtoms = targetAtoms;
+        }
+
+        @Override
+        IAtom key(int queryIndex) {
+            return queryAtoms[queryIndex];
+        }
+
+        @Override
+        IAtom value(int targetIndex) {
+            return targetAtoms[targetIndex];
+        }
+
+        @Override
+        int queryIndex(Object key) {
+            for (int i = 0; i < queryToTarget.length; i++) {
+                if (queryToTarget[i] != UNMAPPED && queryAtoms[i] == key) {
+                    return i;
+                }
+            }
+            return UNMAPPED;
+        }
+    }
+
+    private static final class IndexView extends ArrayView<Integer, Integer> {
+
+        private static final long serialVersionUID = 7364728283647183L;
+
+        IndexView(int[] queryToTarget, int count) {
+            super(queryToTarget, count);
+        }
+
+        @Override
+        Integer key(int queryIndex) {
+            return queryIndex;
+        }
+
+        @Override
+        Integer value(int targetIndex) {
+            return targetIndex;
+        }
+
+        @Override
+        int queryIndex(Object key) {
+            return key instanceof Integer ? (Integer) key : UNMAPPED;
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            if (value instanceof Integer) {
+                int j = (Integer) value;
+                for (int t : queryToTarget) {
+                    if (t == j && t != UNMAPPED) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -176,10 +176,15 @@ public class BaseMapping extends ChemicalFilters implements IAtomMapping {
         int stereoMisMatchScore = 0;
         if (getMappingCount() > 0) {
             AtomAtomMapping firstAtomMCS = getMCSList().iterator().next();
-            for (IAtom indexI : firstAtomMCS.getMappingsByAtoms().keySet()) {
-                IAtom indexJ = firstAtomMCS.getMappingsByAtoms().get(indexI);
-                for (IAtom indexIPlus : firstAtomMCS.getMappingsByAtoms().keySet()) {
-                    IAtom indexJPlus = firstAtomMCS.getMappingsByAtoms().get(indexIPlus);
+            IAtomContainer mappedQuery = firstAtomMCS.getQuery();
+            IAtomContainer mappedTarget = firstAtomMCS.getTarget();
+            Map<Integer, Integer> mappings = firstAtomMCS.getMappingsByIndex();
+            for (Map.Entry<Integer, Integer> i : mappings.entrySet()) {
+                IAtom indexI = mappedQuery.getAtom(i.getKey());
+                IAtom indexJ = mappedTarget.getAtom(i.getValue());
+                for (Map.Entry<Integer, Integer> iPlus : mappings.entrySet()) {
+                    IAtom indexIPlus = mappedQuery.getAtom(iPlus.getKey());
+                    IAtom indexJPlus = mappedTarget.getAtom(iPlus.getValue());
                     if (!indexI.equals(indexIPlus) && !indexJ.equals(indexJPlus)) {
 
                         IAtom sourceAtom1 = indexI;
@@ -35,6 +35,8 @@ import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
 import org.openscience.smsd.algorithm.single.SingleMappingHandler;
 import org.openscience.smsd.algorithm.ventofoggia.VF2Substructure;
+import org.openscience.smsd.helper.AtomEquivalence;
+import org.openscience.smsd.helper.SolutionSet;
 
 /**
  * This is an ultra fast method to report if query is a substructure for target
@@ -81,6 +83,8 @@ public final class Substructure extends BaseMapping {
 
     private final static boolean DEBUG = false;
     private int vfMappingSize = -1;
+    private final SolutionSet<AtomAtomMapping> uniqueMappings;
+    private final AtomEquivalence symmetry;
     private final ILoggingTool Logger
             = LoggingToolFactory.createLoggingTool(Substructure.class);
 
@@ -107,7 +111,60 @@ public final class Substructure extends BaseMapping {
             IAtomContainer target,
             AtomMatcher am, BondMatcher bm,
             boolean findAllSubgraph) throws CDKException {
+        this(query, target, am, bm, findAllSubgraph, SolutionSet.UNLIMITED);
+    }
+
+    /**
+     * Constructor for VF Substructure Algorithm
+     *
+     * @param query
+     * @param target
+     * @param am atom matcher
+     * @param bm bond matcher
+     * @param findAllSubgraph report all subgraphs
+     * @param solutionLimit maximum number of unique mappings of the largest
+     * size to store
+     * @throws CDKException
+     */
+    public Substructure(
+            IAtomContainer query,
+            IAtomContainer target,
+            AtomMatcher am, BondMatcher bm,
+            boolean findAllSubgraph,
+            int solutionLimit) throws CDKException {
+        this(query, target, am, bm, findAllSubgraph, solutionLimit, false);
+    }
+
+    /**
+     * Constructor for VF Substructure Algorithm. With moduloSymmetry only one
+     * of the mappings that differ by an automorphism of the target is
+     * reported, the others are given by {@link AtomEquivalence#expand(AtomAtomMapping, int)}.
+     * The VF2 search only tries the first query atom on one atom of each
+     * target orbit; the McGregor extension of the hits is not pruned, its
+     * equivalent mappings are filtered out. The reaction mapper does not set
+     * it, as it scores every alternative mapping.
+     *
+     * @param query
+     * @param target
+     * @param am atom matcher
+     * @param bm bond matcher
+     * @param findAllSubgraph report all subgraphs
+     * @param solutionLimit maximum number of unique mappings of the largest
+     * size to store
+     * @param moduloSymmetry report mappings up to target symmetry
+     * @throws CDKException
+     */
+    public Substructure(
+            IAtomContainer query,
+            IAtomContainer target,
+            AtomMatcher am, BondMatcher bm,
+            boolean findAllSubgraph,
+            int solutionLimit,
+            boolean moduloSymmetry) throws CDKException {
         super(query, target, am, bm);
+        this.uniqueMappings = new SolutionSet<>(solutionLimit);
+        this.symmetry = moduloSymmetry && !(target instanceof IQueryAtomContainer)
+                ? AtomEquivalence.of(target) : null;
         super.setSubgraph(findSubgraphs(findAllSubgraph));
     }
 
@@ -123,12 +180,28 @@ public final class Substructure extends BaseMapping {
             IQueryAtomContainer query,
             IAtomContainer target,
             boolean findAllSubgraphFlag) throws CDKException {
-        super(query, target, AtomMatcher.forQuery(), BondMatcher.forQuery());
-        super.setSubgraph(findSubgraphs(findAllSubgraphFlag));
+        this(query, target, findAllSubgraphFlag, SolutionSet.UNLIMITED);
     }
 
-    private synchronized boolean hasMap(AtomAtomMapping map, List<AtomAtomMapping> mapGlobal) {
-        return mapGlobal.stream().anyMatch((test) -> (test.equals(map)));
+    /**
+     * Constructor for VF Substructure Algorithm
+     *
+     * @param query
+     * @param target
+     * @param findAllSubgraphFlag report all subgraphs
+     * @param solutionLimit maximum number of unique mappings of the largest
+     * size to store
+     * @throws CDKException
+     */
+    public Substructure(
+            IQueryAtomContainer query,
+            IAtomContainer target,
+            boolean findAllSubgraphFlag,
+            int solutionLimit) throws CDKException {
+        super(query, target, AtomMatcher.forQuery(), BondMatcher.forQuery());
+        this.uniqueMappings = new SolutionSet<>(solutionLimit);
+        this.symmetry = null;
+        super.setSubgraph(findSubgraphs(findAllSubgraphFlag));
     }
 
     /**
@@ -172,7 +245,8 @@ public final class Substructure extends BaseMapping {
                 if (DEBUG) {
                     System.out.println("calling VF2Sub");
                 }
-                mapper = new VF2Substructure(getQuery(), getTarget(), atomMatcher, bondMatcher, findAllMatches);
+                mapper = new VF2Substructure(getQuery(), getTarget(), atomMatcher, bondMatcher, findAllMatches,
+                        symmetry != null);
                 if (DEBUG) {
                     System.out.println("done calling VF2Sub");
                 }
@@ -192,11 +266,25 @@ public final class Substructure extends BaseMapping {
     private synchronized void setVFMappings(List<AtomAtomMapping> mappingsVF2) {
         int counter = 0;
         for (AtomAtomMapping solution : mappingsVF2) {
-            AtomAtomMapping atomatomMapping = new AtomAtomMapping(getQuery(), getTarget());
             if (solution.getCount() > vfMappingSize) {
                 this.vfMappingSize = solution.getCount();
                 counter = 0;
+                /*
+                 * Only mappings of the largest size count towards the limit
+                 */
+                uniqueMappings.clear();
+            } else if (uniqueMappings.isFull()) {
+                continue;
             }
+            if (solution.getQuery() == getQuery() && solution.getTarget() == getTarget()) {
+                if (!solution.isEmpty() && solution.getCount() == vfMappingSize
+                        && uniqueMappings.add(symmetryKey(solution))) {
+                    getMCSList().add(counter, solution);
+                    counter++;
+                }
+                continue;
+            }
+            AtomAtomMapping atomatomMapping = new AtomAtomMapping(getQuery(), getTarget());
             solution.getMappingsByAtoms().entrySet().stream().forEach((mapping) -> {
                 IAtom qAtom;
                 IAtom tAtom;
@@ -214,14 +302,21 @@ public final class Substructure extends BaseMapping {
                     }
                 }
             });
-            if (!atomatomMapping.isEmpty() && !hasMap(atomatomMapping, getMCSList())
-                    && atomatomMapping.getCount() == vfMappingSize) {
+            if (!atomatomMapping.isEmpty() && atomatomMapping.getCount() == vfMappingSize
+                    && uniqueMappings.add(symmetryKey(atomatomMapping))) {
                 getMCSList().add(counter, atomatomMapping);
                 counter++;
             }
         }
     }
 
+    /*
+     * Mappings that differ by a target automorphism share the key
+     */
+    private AtomAtomMapping symmetryKey(AtomAtomMapping mapping) {
+        return symmetry == null ? mapping : symmetry.canonical(mapping);
+    }
+
     private synchronized boolean singleMapping() {
         SingleMappingHandler mcs;
         if (!(getQuery() instanceof IQueryAtomContainer) && !(getTarget() instanceof IQueryAtomContainer)) {
@@ -10,6 +10,8 @@ import org.openscience.cdk.CDKConstants;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IPseudoAtom;
 import org.openscience.cdk.isomorphism.matchers.IQueryAtom;
+import org.openscience.smsd.helper.RingInfo;
+import static org.openscience.smsd.helper.RingInfo.isExact;
 
 /**
  * CDK class adapted SMSD
@@ -31,6 +33,16 @@ public abstract class AtomMatcher {
      */
     public abstract boolean matches(IAtom atom1, IAtom atom2);
 
+    /**
+     * Checks of the matcher as {@link CompiledMatcher} flags.
+     *
+     * @return the checks, {@link CompiledMatcher#OBJECTS} if the matcher must
+     * be given the atoms
+     */
+    int checks() {
+        return CompiledMatcher.OBJECTS;
+    }
+
     /**
      * Atoms are always compatible.
      *
@@ -100,6 +112,11 @@ public abstract class AtomMatcher {
             return true;
         }
 
+        @Override
+        int checks() {
+            return 0;
+        }
+
         @Override
         public String toString() {
             return "AnyMatcher";
@@ -158,6 +175,11 @@ public abstract class AtomMatcher {
             throw new NullPointerException("an atom had unset atomic number");
         }
 
+        @Override
+        int checks() {
+            return CompiledMatcher.ELEMENT;
+        }
+
         @Override
         public String toString() {
             return "ElementMatcher";
@@ -198,6 +220,11 @@ public abstract class AtomMatcher {
 
         private boolean isRingSizeMatch(IAtom atom1, IAtom atom2) {
             if (atom1.isInRing() & atom2.isInRing()) {
+                Long maskQ = atom1.getProperty(RingInfo.RING_SIZE_MASK);
+                Long maskT = atom2.getProperty(RingInfo.RING_SIZE_MASK);
+                if (maskQ != null && maskT != null && isExact(maskQ) && isExact(maskT)) {
+                    return (maskQ & ~maskT) == 0 || (maskT & ~maskQ) == 0;
+                }
                 List<Integer> ringsizesQ = atom1.getProperty(CDKConstants.RING_SIZES);
                 List<Integer> ringsizesT = atom2.getProperty(CDKConstants.RING_SIZES);
                 if (ringsizesQ == null || ringsizesT == null) {
@@ -210,6 +237,11 @@ public abstract class AtomMatcher {
             return !atom1.isAromatic() && !atom2.isAromatic();
         }
 
+        @Override
+        int checks() {
+            return CompiledMatcher.ELEMENT | CompiledMatcher.RING_SIZE;
+        }
+
         @Override
         public String toString() {
             return "forRingElementMatcher";
@@ -256,6 +288,11 @@ public abstract class AtomMatcher {
             return rAtom.equals(tAtom);
         }
 
+        @Override
+        int checks() {
+            return CompiledMatcher.ELEMENT | CompiledMatcher.ATOM_TYPE;
+        }
+
         @Override
         public String toString() {
             return "forAtomTypeElementMatcher";
@@ -305,6 +342,11 @@ public abstract class AtomMatcher {
 
         private boolean isRingSizeMatch(IAtom atom1, IAtom atom2) {
             if (atom1.isInRing() & atom2.isInRing()) {
+                Long maskQ = atom1.getProperty(RingInfo.RING_SIZE_MASK);
+                Long maskT = atom2.getProperty(RingInfo.RING_SIZE_MASK);
+                if (maskQ != null && maskT != null && isExact(maskQ) && isExact(maskT)) {
+                    return (maskQ & ~maskT) == 0 || (maskT & ~maskQ) == 0;
+                }
                 List<Integer> ringsizesQ = atom1.getProperty(CDKConstants.RING_SIZES);
                 List<Integer> ringsizesT = atom2.getProperty(CDKConstants.RING_SIZES);
                 if (ringsizesQ == null || ringsizesT == null) {
@@ -317,6 +359,11 @@ public abstract class AtomMatcher {
             return !atom1.isAromatic() && !atom2.isAromatic();
         }
 
+        @Override
+        int checks() {
+            return CompiledMatcher.ELEMENT | CompiledMatcher.ATOM_TYPE | CompiledMatcher.RING_SIZE;
+        }
+
         @Override
         public String toString() {
             return "RingAtomTypeMatcher";
@@ -28,6 +28,16 @@ public abstract class BondMatcher {
      */
     public abstract boolean matches(IBond bond1, IBond bond2);
 
+    /**
+     * Check of the matcher as a {@link CompiledMatcher} bond check.
+     *
+     * @return the check, {@link CompiledMatcher#OBJECTS} if the matcher must
+     * be given the bonds
+     */
+    int check() {
+        return CompiledMatcher.OBJECTS;
+    }
+
     /**
      * All bonds are compatible.
      *
@@ -91,6 +101,11 @@ public abstract class BondMatcher {
                     || bond1.getOrder() == bond2.getOrder();
         }
 
+        @Override
+        int check() {
+            return CompiledMatcher.ORDER;
+        }
+
         @Override
         public String toString() {
             return "OrderMatcher";
@@ -114,6 +129,11 @@ public abstract class BondMatcher {
                     || (!bond1.isAromatic() && !bond2.isAromatic());
         }
 
+        @Override
+        int check() {
+            return CompiledMatcher.AROMATIC;
+        }
+
         @Override
         public String toString() {
             return "RingMatcher";
@@ -138,6 +158,11 @@ public abstract class BondMatcher {
                     || bond1.isAromatic() && bond2.isAromatic());
         }
 
+        @Override
+        int check() {
+            return CompiledMatcher.STRICT_ORDER;
+        }
+
         @Override
         public String toString() {
             return "StrictOrderMatcher";
@@ -158,6 +183,11 @@ public abstract class BondMatcher {
             return true;
         }
 
+        @Override
+        int check() {
+            return CompiledMatcher.ANY_BOND;
+        }
+
         @Override
         public String toString() {
             return "AnyMatcher";
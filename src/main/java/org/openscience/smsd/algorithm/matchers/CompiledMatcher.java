@@ -0,0 +1,336 @@
+/* Copyright (C) 2009-2018   Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package org.openscience.smsd.algorithm.matchers;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+import org.openscience.cdk.interfaces.IPseudoAtom;
+import org.openscience.smsd.helper.LabelEncoder;
+import org.openscience.smsd.helper.RingInfo;
+
+/**
+ * An atom and bond matcher compiled for one query and target pair. The atoms
+ * and bonds of both molecules are encoded once into primitive codes for the
+ * properties the matchers check (element, atom type, ring and aromatic flags,
+ * ring size mask, bond order), so the search loops compare atoms and bonds by
+ * index with integer and mask tests.
+ *
+ * Matchers that can't be encoded (query matchers, custom matchers) and atoms
+ * or bonds the codes don't decide (unset atomic numbers, inexact ring size
+ * masks) are passed to the original matchers, so the answers are always those
+ * of {@link AtomMatcher#matches(IAtom, IAtom)} and
+ * {@link BondMatcher#matches(IBond, IBond)}. The molecules must not change
+ * while the compiled matcher is in use.
+ *
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class CompiledMatcher {
+
+    /**
+     * Atom check: same element
+     */
+    static final int ELEMENT = 1;
+    /**
+     * Atom check: same atom type name (symbol if unset)
+     */
+    static final int ATOM_TYPE = 2;
+    /**
+     * Atom check: ring atoms share ring sizes, other atoms are not aromatic
+     */
+    static final int RING_SIZE = 4;
+    /**
+     * Matcher can't be encoded
+     */
+    static final int OBJECTS = -1;
+
+    /**
+     * Bond check: any bonds
+     */
+    static final int ANY_BOND = 0;
+    /**
+     * Bond check: both aromatic or same order
+     */
+    static final int ORDER = 1;
+    /**
+     * Bond check: same aromaticity
+     */
+    static final int AROMATIC = 2;
+    /**
+     * Bond check: same aromaticity and, unless aromatic, same order
+     */
+    static final int STRICT_ORDER = 3;
+
+    private static final int UNDECIDED = -1;
+    private static final byte IN_RING = 1;
+    private static final byte IS_AROMATIC = 2;
+    private static final byte EXACT_MASK = 4;
+
+    private final AtomMatcher atomMatcher;
+    private final BondMatcher bondMatcher;
+    private final int atomChecks;
+    private final int bondCheck;
+    private final Molecule query;
+    private final Molecule target;
+
+    private CompiledMatcher(AtomMatcher am, BondMatcher bm, IAtomContainer query, IAtomContainer target) {
+        this.atomMatcher = am;
+        this.bondMatcher = bm;
+        this.atomChecks = am.checks();
+        this.bondCheck = bm.check();
+        LabelEncoder types = new LabelEncoder();
+        this.query = new Molecule(query, atomChecks, types);
+        this.target = new Molecule(target, atomChecks, types);
+    }
+
+    /**
+     * @param am atom matcher
+     * @param bm bond matcher
+     * @param query query molecule
+     * @param target target molecule
+     * @return matchers encoded for the pair
+     */
+    public static CompiledMatcher compile(AtomMatcher am, BondMatcher bm, IAtomContainer query, IAtomContainer target) {
+        return new CompiledMatcher(am, bm, query, target);
+    }
+
+    /**
+     * @param queryAtom index of a query atom
+     * @param targetAtom index of a target atom
+     * @return the atoms are compatible
+     */
+    public boolean atomMatches(int queryAtom, int targetAtom) {
+        if (atomChecks == OBJECTS) {
+            return atomMatcher.matches(query.atoms[queryAtom], target.atoms[targetAtom]);
+        }
+        if ((atomChecks & ELEMENT) != 0) {
+            int e1 = query.elements[queryAtom];
+            int e2 = target.elements[targetAtom];
+            if (e1 == UNDECIDED || e2 == UNDECIDED) {
+                return atomMatcher.matches(query.atoms[queryAtom], target.atoms[targetAtom]);
+            }
+            if (e1 != e2) {
+                return false;
+            }
+        }
+        if ((atomChecks & ATOM_TYPE) != 0) {
+            int t1 = query.types[queryAtom];
+            int t2 = target.types[targetAtom];
+            if (t1 == UNDECIDED || t2 == UNDECIDED) {
+                return atomMatcher.matches(query.atoms[queryAtom], target.atoms[targetAtom]);
+            }
+            if (t1 != t2) {
+                return false;
+            }
+        }
+        if ((atomChecks & RING_SIZE) != 0) {
+            byte r1 = query.rings[queryAtom];
+            byte r2 = target.rings[targetAtom];
+            if ((r1 & r2 & IN_RING) != 0) {
+                if ((r1 & r2 & EXACT_MASK) == 0) {
+                    return atomMatcher.matches(query.atoms[queryAtom], target.atoms[targetAtom]);
+                }
+                long m1 = query.masks[queryAtom];
+                long m2 = target.masks[targetAtom];
+                return (m1 & ~m2) == 0 || (m2 & ~m1) == 0;
+            }
+            return ((r1 | r2) & IS_AROMATIC) == 0;
+        }
+        return true;
+    }
+
+    /**
+     * @param queryBond index of a query bond
+     * @param targetBond index of a target bond
+     * @return the bonds are compatible (the atoms are not checked)
+     */
+    public boolean bondMatches(int queryBond, int targetBond) {
+        int b1 = query.bonds[queryBond];
+        int b2 = target.bonds[targetBond];
+        switch (bondCheck) {
+            case ANY_BOND:
+                return true;
+            case ORDER:
+                return (b1 & b2 & 1) != 0 || (b1 >> 1) == (b2 >> 1);
+            case AROMATIC:
+                return ((b1 ^ b2) & 1) == 0;
+            case STRICT_ORDER:
+                return ((b1 ^ b2) & 1) == 0
+                        && ((b1 >> 1) == (b2 >> 1) || (b1 & b2 & 1) != 0);
+            default:
+                return bondMatcher.matches(query.bondObjects[queryBond], target.bondObjects[targetBond]);
+        }
+    }
+
+    /**
+     * Compiled {@link AtomBondMatcher#matchAtomAndBond(IBond, IBond, AtomMatcher, BondMatcher, boolean)}
+     * of undirected bonds
+     *
+     * @param queryBond index of a query bond
+     * @param targetBond index of a target bond
+     * @return the bonds and their atoms, in either direction, are compatible
+     */
+    public boolean matchAtomAndBond(int queryBond, int targetBond) {
+        int q0 = query.begin[queryBond];
+        int q1 = query.end[queryBond];
+        int t0 = target.begin[targetBond];
+        int t1 = target.end[targetBond];
+        if (q0 < 0 || q1 < 0 || t0 < 0 || t1 < 0) {
+            return AtomBondMatcher.matchAtomAndBond(query.bondObjects[queryBond], target.bondObjects[targetBond],
+                    atomMatcher, bondMatcher, true);
+        }
+        boolean atomMatch = atomMatches(q0, t0) && atomMatches(q1, t1);
+        boolean bondMatch = bondMatches(queryBond, targetBond);
+        atomMatch |= atomMatches(q0, t1) && atomMatches(q1, t0);
+        return atomMatch && bondMatch;
+    }
+
+    /**
+     * @param u query atom index
+     * @param v query atom index
+     * @return index of the query bond between the atoms, -1 if they are not
+     * bonded
+     */
+    public int queryBond(int u, int v) {
+        return query.bond(u, v);
+    }
+
+    /**
+     * @param u target atom index
+     * @param v target atom index
+     * @return index of the target bond between the atoms, -1 if they are not
+     * bonded
+     */
+    public int targetBond(int u, int v) {
+        return target.bond(u, v);
+    }
+
+    /*
+     * Codes of one molecule, atom type codes are shared through the encoder
+     */
+    private static final class Molecule {
+
+        private final IAtom[] atoms;
+        private final IBond[] bondObjects;
+        private final int[] elements;
+        private final int[] types;
+        private final byte[] rings;
+        private final long[] masks;
+        /*
+         * (order ordinal + 1) << 1 | aromatic, 0 order if unset
+         */
+        private final int[] bonds;
+        private final int[] begin;
+        private final int[] end;
+        private final int[][] neighbours;
+        private final int[][] neighbourBonds;
+
+        private Molecule(IAtomContainer container, int checks, LabelEncoder typeCodes) {
+            int n = container.getAtomCount();
+            this.atoms = new IAtom[n];
+            this.elements = new int[n];
+            this.types = new int[n];
+            this.rings = new byte[n];
+            this.masks = new long[n];
+            Map<IAtom, Integer> index = new IdentityHashMap<>(2 * n);
+            for (int i = 0; i < n; i++) {
+                IAtom atom = container.getAtom(i);
+                atoms[i] = atom;
+                index.put(atom, i);
+                if (checks == OBJECTS) {
+                    continue;
+                }
+                elements[i] = element(atom);
+                String type = atom.getAtomTypeName() == null ? atom.getSymbol() : atom.getAtomTypeName();
+                types[i] = type == null ? UNDECIDED : typeCodes.getLabelID(type);
+                Long mask = atom.getProperty(RingInfo.RING_SIZE_MASK);
+                rings[i] = (byte) ((atom.isInRing() ? IN_RING : 0)
+                        | (atom.isAromatic() ? IS_AROMATIC : 0)
+                        | (mask != null && RingInfo.isExact(mask) ? EXACT_MASK : 0));
+                masks[i] = mask == null ? 0 : mask;
+            }
+            int m = container.getBondCount();
+            this.bondObjects = new IBond[m];
+            this.bonds = new int[m];
+            this.begin = new int[m];
+            this.end = new int[m];
+            int[] degree = new int[n];
+            for (int i = 0; i < m; i++) {
+                IBond bond = container.getBond(i);
+                bondObjects[i] = bond;
+                bonds[i] = (bond.getOrder() == null ? 0 : bond.getOrder().ordinal() + 1) << 1
+                        | (bond.isAromatic() ? 1 : 0);
+                Integer a = index.get(bond.getBegin());
+                Integer b = index.get(bond.getEnd());
+                begin[i] = a == null ? UNDECIDED : a;
+                end[i] = b == null ? UNDECIDED : b;
+                if (a != null && b != null) {
+                    degree[a]++;
+                    degree[b]++;
+                }
+            }
+            this.neighbours = new int[n][];
+            this.neighbourBonds = new int[n][];
+            for (int i = 0; i < n; i++) {
+                neighbours[i] = new int[degree[i]];
+                neighbourBonds[i] = new int[degree[i]];
+                degree[i] = 0;
+            }
+            for (int i = 0; i < m; i++) {
+                int a = begin[i];
+                int b = end[i];
+                if (a < 0 || b < 0) {
+                    continue;
+                }
+                neighbours[a][degree[a]] = b;
+                neighbourBonds[a][degree[a]++] = i;
+                neighbours[b][degree[b]] = a;
+                neighbourBonds[b][degree[b]++] = i;
+            }
+        }
+
+        /*
+         * First bond between the atoms, as IAtomContainer.getBond(IAtom, IAtom)
+         */
+        private int bond(int u, int v) {
+            int[] nbrs = neighbours[u];
+            for (int k = 0; k < nbrs.length; k++) {
+                if (nbrs[k] == v) {
+                    return neighbourBonds[u][k];
+                }
+            }
+            return -1;
+        }
+
+        private static int element(IAtom atom) {
+            Integer elem = atom.getAtomicNumber();
+            if (elem != null) {
+                return elem;
+            }
+            return atom instanceof IPseudoAtom ? 0 : UNDECIDED;
+        }
+    }
+}
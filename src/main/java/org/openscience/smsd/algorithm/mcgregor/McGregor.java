@@ -30,13 +30,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
-import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
-import org.openscience.cdk.interfaces.IBond;
 import org.openscience.cdk.isomorphism.matchers.IQueryAtomContainer;
-import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
 import org.openscience.smsd.helper.BinaryTree;
 import org.openscience.smsd.tools.IterationManager;
 
@@ -61,6 +59,7 @@ public final class McGregor {
     private boolean timeout = false;
     final AtomMatcher atomMatcher;
     final BondMatcher bondMatcher;
+    private final CompiledMatcher matcher;
 
     /**
      * @return the timeout
@@ -130,6 +129,7 @@ public final class McGregor {
             BondMatcher bondMatcher) {
         this.atomMatcher = atomMatcher;
         this.bondMatcher = bondMatcher;
+        this.matcher = CompiledMatcher.compile(atomMatcher, bondMatcher, source, target);
 
         this.target = target;
         this.mappings = Collections.synchronizedList(mappings);
@@ -158,6 +158,7 @@ public final class McGregor {
     public McGregor(IQueryAtomContainer source, IAtomContainer target, List<List<Integer>> mappings) {
         this.atomMatcher = AtomMatcher.forQuery();
         this.bondMatcher = BondMatcher.forQuery();
+        this.matcher = CompiledMatcher.compile(atomMatcher, bondMatcher, source, target);
 
         this.target = target;
         this.mappings = Collections.synchronizedList(mappings);
@@ -319,9 +320,9 @@ public final class McGregor {
 //        //check possible mappings:
         boolean furtherMappingFlag;
         if (source instanceof IQueryAtomContainer) {
-            furtherMappingFlag = McGregorChecks.isFurtherMappingPossible((IQueryAtomContainer) source, target, mcGregorHelper, atomMatcher, bondMatcher);
+            furtherMappingFlag = McGregorChecks.isFurtherMappingPossible((IQueryAtomContainer) source, mcGregorHelper, matcher);
         } else {
-            furtherMappingFlag = McGregorChecks.isFurtherMappingPossible(source, target, mcGregorHelper, atomMatcher, bondMatcher);
+            furtherMappingFlag = McGregorChecks.isFurtherMappingPossible(source, mcGregorHelper, matcher);
         }
 
         if (neighborBondNumA == 0 || neighborBondNumB == 0 || mappingCheckFlag || !furtherMappingFlag) {
@@ -563,35 +564,23 @@ public final class McGregor {
                         && matchGAtoms(G1A, G2A, G1B, G2B)) {
                     int Index_I = iBondNeighborAtomsA.get(row * 3 + 0);
                     int Index_IPlus1 = iBondNeighborAtomsA.get(row * 3 + 1);
-
-                    IAtom R1_A = source.getAtom(Index_I);
-                    IAtom R2_A = source.getAtom(Index_IPlus1);
-                    IBond reactantBond = source.getBond(R1_A, R2_A);
+                    int reactantBond = matcher.queryBond(Index_I, Index_IPlus1);
 
                     int Index_J = iBondNeighborAtomsB.get(column * 3 + 0);
                     int Index_JPlus1 = iBondNeighborAtomsB.get(column * 3 + 1);
-
-                    IAtom P1_B = target.getAtom(Index_J);
-                    IAtom P2_B = target.getAtom(Index_JPlus1);
-                    IBond productBond = target.getBond(P1_B, P2_B);
-                    if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+                    int productBond = matcher.targetBond(Index_J, Index_JPlus1);
+                    if (matcher.matchAtomAndBond(reactantBond, productBond)) {
                         modifiedARCS.set(row * neighborBondNumB + column, 1);
                     }
                 } else if (source instanceof IQueryAtomContainer) {
                     int Index_I = iBondNeighborAtomsA.get(row * 3 + 0);
                     int Index_IPlus1 = iBondNeighborAtomsA.get(row * 3 + 1);
-
-                    IAtom R1_A = source.getAtom(Index_I);
-                    IAtom R2_A = source.getAtom(Index_IPlus1);
-                    IBond reactantBond = source.getBond(R1_A, R2_A);
+                    int reactantBond = matcher.queryBond(Index_I, Index_IPlus1);
 
                     int Index_J = iBondNeighborAtomsB.get(column * 3 + 0);
                     int Index_JPlus1 = iBondNeighborAtomsB.get(column * 3 + 1);
-
-                    IAtom P1_B = target.getAtom(Index_J);
-                    IAtom P2_B = target.getAtom(Index_JPlus1);
-                    IBond productBond = target.getBond(P1_B, P2_B);
-                    if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+                    int productBond = matcher.targetBond(Index_J, Index_JPlus1);
+                    if (matcher.matchAtomAndBond(reactantBond, productBond)) {
                         modifiedARCS.set(row * neighborBondNumB + column, 1);
                     }
                 }
@@ -835,16 +824,11 @@ public final class McGregor {
         int atom1_moleculeB = mcGregorHelper.getiBondNeighborAtomsB().get(yIndex * 3 + 0);
         int atom2_moleculeB = mcGregorHelper.getiBondNeighborAtomsB().get(yIndex * 3 + 1);
 
-        IAtom R1_A = source.getAtom(atom1_moleculeA);
-        IAtom R2_A = source.getAtom(atom2_moleculeA);
-        IBond reactantBond = source.getBond(R1_A, R2_A);
-
-        IAtom P1_B = target.getAtom(atom1_moleculeB);
-        IAtom P2_B = target.getAtom(atom2_moleculeB);
-        IBond productBond = target.getBond(P1_B, P2_B);
+        int reactantBond = matcher.queryBond(atom1_moleculeA, atom2_moleculeA);
+        int productBond = matcher.targetBond(atom1_moleculeB, atom2_moleculeB);
 
 //      Bond Order Check Introduced by Asad
-        if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+        if (matcher.matchAtomAndBond(reactantBond, productBond)) {
 
             for (int indexZ = 0; indexZ < mcGregorHelper.getMappedAtomCount(); indexZ++) {
 
@@ -33,6 +33,7 @@ import org.openscience.cdk.isomorphism.matchers.IQueryAtomContainer;
 import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
 import org.openscience.smsd.helper.BinaryTree;
 
 /**
@@ -530,10 +531,9 @@ public class McGregorChecks {
         return 0;
     }
 
-    static boolean isFurtherMappingPossible(IAtomContainer source, IAtomContainer target,
+    static boolean isFurtherMappingPossible(IAtomContainer source,
             McgregorHelper mcGregorHelper,
-            AtomMatcher atomMatcher,
-            BondMatcher bondMatcher) {
+            CompiledMatcher matcher) {
 
         int neighborBondNumA = mcGregorHelper.getNeighborBondNumA();
         int neighborBondNumB = mcGregorHelper.getNeighborBondNumB();
@@ -561,16 +561,10 @@ public class McGregorChecks {
                         int Index_J = iBondNeighborAtomsB.get(column * 3 + 0);
                         int Index_JPlus1 = iBondNeighborAtomsB.get(column * 3 + 1);
 
-                        IAtom r1_A = source.getAtom(Index_I);
-                        IAtom r2_A = source.getAtom(Index_IPlus1);
-                        IBond reactantBond = source.getBond(r1_A, r2_A);
-
-                        IAtom p1_B = target.getAtom(Index_J);
-                        IAtom p2_B = target.getAtom(Index_JPlus1);
-                        IBond productBond = target.getBond(p1_B, p2_B);
+                        int reactantBond = matcher.queryBond(Index_I, Index_IPlus1);
+                        int productBond = matcher.targetBond(Index_J, Index_JPlus1);
 
-                        if (AtomBondMatcher.
-                                matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+                        if (matcher.matchAtomAndBond(reactantBond, productBond)) {
                             return true;
                         }
                     } catch (Exception e) {
@@ -585,15 +579,10 @@ public class McGregorChecks {
                         int Index_J = iBondNeighborAtomsB.get(column * 3 + 0);
                         int Index_JPlus1 = iBondNeighborAtomsB.get(column * 3 + 1);
 
-                        IAtom r1_A = source.getAtom(Index_I);
-                        IAtom r2_A = source.getAtom(Index_IPlus1);
-                        IBond reactantBond = source.getBond(r1_A, r2_A);
+                        int reactantBond = matcher.queryBond(Index_I, Index_IPlus1);
+                        int productBond = matcher.targetBond(Index_J, Index_JPlus1);
 
-                        IAtom p1_B = target.getAtom(Index_J);
-                        IAtom p2_B = target.getAtom(Index_JPlus1);
-                        IBond productBond = target.getBond(p1_B, p2_B);
-
-                        if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+                        if (matcher.matchAtomAndBond(reactantBond, productBond)) {
                             return true;
                         }
                     } catch (Exception e) {
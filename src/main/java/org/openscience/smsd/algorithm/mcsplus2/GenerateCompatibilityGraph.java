@@ -36,13 +36,12 @@ import java.util.Objects;
 import java.util.Set;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
-import org.openscience.cdk.interfaces.IBond;
 import org.openscience.cdk.isomorphism.matchers.IQueryAtom;
-import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
 import org.openscience.smsd.graph.Edge;
-import org.openscience.smsd.helper.LabelContainer;
+import org.openscience.smsd.helper.LabelEncoder;
 
 /**
  * This class generates compatibility graph between query and target molecule.
@@ -64,8 +63,8 @@ public final class GenerateCompatibilityGraph implements Serializable {
     private int dEdgesSize = 0;
     private final IAtomContainer source;
     private final IAtomContainer target;
-    private final AtomMatcher atomMatcher;
-    private final BondMatcher bondMatcher;
+    private final LabelEncoder labels;
+    private final CompiledMatcher matcher;
 
     /**
      * Generates a compatibility graph between two molecules
@@ -81,10 +80,10 @@ public final class GenerateCompatibilityGraph implements Serializable {
             IAtomContainer source,
             IAtomContainer target,
             AtomMatcher am, BondMatcher bm) throws IOException {
-        this.atomMatcher = am;
-        this.bondMatcher = bm;
         this.source = source;
         this.target = target;
+        this.labels = new LabelEncoder();
+        this.matcher = CompiledMatcher.compile(am, bm, source, target);
         compGraphNodes = new ArrayList<>();
         compGraphNodesCZero = new ArrayList<>();
         cEdges = Collections.synchronizedList(new ArrayList<>());
@@ -248,17 +247,14 @@ public final class GenerateCompatibilityGraph implements Serializable {
                         && (!Objects.equals(compGraphNodes.get(a), compGraphNodes.get(b)))
                         && (!Objects.equals(compGraphNodes.get(a + 1), compGraphNodes.get(b + 1)))) {
 
-                    IBond reactantBond;
-                    IBond productBond;
-
 //                    System.out.println("a " + compGraphNodes.get(a) + " b " + compGraphNodes.get(b));
                     //exists a bond in molecule 2, so that molecule 1 pair is connected?
-                    reactantBond = source.getBond(source.getAtom(compGraphNodes.get(a)), source.getAtom(compGraphNodes.get(b)));
-                    productBond = target.getBond(target.getAtom(compGraphNodes.get(a + 1)), target.getAtom(compGraphNodes.get(b + 1)));
+                    int reactantBond = matcher.queryBond(compGraphNodes.get(a), compGraphNodes.get(b));
+                    int productBond = matcher.targetBond(compGraphNodes.get(a + 1), compGraphNodes.get(b + 1));
 
-                    if (reactantBond != null && productBond != null) {
+                    if (reactantBond >= 0 && productBond >= 0) {
                         addEdges(reactantBond, productBond, a, b);
-                    } else if (reactantBond == null && productBond == null) {
+                    } else if (reactantBond < 0 && productBond < 0) {
                         Edge edge = new Edge(((a / 3) + 1), ((b / 3) + 1));
                         dEdges.add(edge);
                     }
@@ -270,8 +266,8 @@ public final class GenerateCompatibilityGraph implements Serializable {
         return 0;
     }
 
-    private void addEdges(IBond reactantBond, IBond productBond, int iIndex, int jIndex) {
-        if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+    private void addEdges(int reactantBond, int productBond, int iIndex, int jIndex) {
+        if (matcher.matchAtomAndBond(reactantBond, productBond)) {
             Edge edge = new Edge(((iIndex / 3) + 1), ((jIndex / 3) + 1));
             cEdges.add(edge);
         } else {
@@ -290,9 +286,9 @@ public final class GenerateCompatibilityGraph implements Serializable {
     private Integer compatibilityGraphNodesIfCEdgeIsZero() throws IOException {
 
         int count_nodes = 1;
-        List<String> list = new ArrayList<>();
         compGraphNodesCZero = new ArrayList<>(); //Initialize the compGraphNodesCZero List
-        LabelContainer labelContainer = LabelContainer.getInstance();
+        int[] sourceLabels = labels.getLabelIDs(source);
+        int[] targetLabels = labels.getLabelIDs(target);
         compGraphNodes.clear();
 
         for (int i = 0; i < source.getAtomCount(); i++) {
@@ -302,32 +298,27 @@ public final class GenerateCompatibilityGraph implements Serializable {
 
                 //You can also check object equal or charge, hydrogen count etc
                 if ((atom1 instanceof IQueryAtom)
-                        && ((IQueryAtom) atom1).matches(atom2)
-                        && !list.contains(i + "_" + j)) {
+                        && ((IQueryAtom) atom1).matches(atom2)) {
                     compGraphNodesCZero.add(i);
                     compGraphNodesCZero.add(j);
-                    compGraphNodesCZero.add(labelContainer.getLabelID(atom2.getSymbol())); //i.e C is label 1
+                    compGraphNodesCZero.add(targetLabels[j]); //i.e C is label 1
                     compGraphNodesCZero.add(count_nodes);
                     compGraphNodes.add(i);
                     compGraphNodes.add(j);
                     compGraphNodes.add(count_nodes);
                     count_nodes += 1;
-                    list.add(i + "_" + j);
-                } else if (atom1.getSymbol().equalsIgnoreCase(atom2.getSymbol())
-                        && !list.contains(i + "_" + j)) {
+                } else if (atom1.getSymbol().equalsIgnoreCase(atom2.getSymbol())) {
                     compGraphNodesCZero.add(i);
                     compGraphNodesCZero.add(j);
-                    compGraphNodesCZero.add(labelContainer.getLabelID(atom1.getSymbol())); //i.e C is label 1
+                    compGraphNodesCZero.add(sourceLabels[i]); //i.e C is label 1
                     compGraphNodesCZero.add(count_nodes);
                     compGraphNodes.add(i);
                     compGraphNodes.add(j);
                     compGraphNodes.add(count_nodes);
                     count_nodes += 1;
-                    list.add(i + "_" + j);
                 }
             }
         }
-        list.clear();
         //System.out.println("count_nodes " + count_nodes);
         return count_nodes;
     }
@@ -354,19 +345,16 @@ public final class GenerateCompatibilityGraph implements Serializable {
                 if ((a != b) && (index_a != index_b)
                         && (index_aPlus1 != index_bPlus1)) {
 
-                    IBond reactantBond;
-                    IBond productBond;
-
-                    reactantBond = source.getBond(source.getAtom(index_a), source.getAtom(index_b));
-                    productBond = target.getBond(target.getAtom(index_aPlus1), target.getAtom(index_bPlus1));
+                    int reactantBond = matcher.queryBond(index_a, index_b);
+                    int productBond = matcher.targetBond(index_aPlus1, index_bPlus1);
 
-                    if (reactantBond != null && productBond != null) {
+                    if (reactantBond >= 0 && productBond >= 0) {
                         addZeroEdges(reactantBond, productBond, a, b);
-                    } else if (reactantBond == null && productBond == null
+                    } else if (reactantBond < 0 && productBond < 0
                             && dEdges.size() < compGraphNodes.size()) {
                         Edge edge = new Edge(((a / 4) + 1), ((b / 4) + 1));
                         dEdges.add(edge);
-                    } else if (reactantBond == null && productBond == null
+                    } else if (reactantBond < 0 && productBond < 0
                             && source.getAtomCount() < 50 && target.getAtomCount() < 50) {
                         //50 unique condition to speed up the AAM
                         Edge edge = new Edge(((a / 4) + 1), ((b / 4) + 1));
@@ -385,8 +373,8 @@ public final class GenerateCompatibilityGraph implements Serializable {
         return 0;
     }
 
-    private void addZeroEdges(IBond reactantBond, IBond productBond, int indexI, int indexJ) {
-        if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+    private void addZeroEdges(int reactantBond, int productBond, int indexI, int indexJ) {
+        if (matcher.matchAtomAndBond(reactantBond, productBond)) {
             Edge edge = new Edge(((indexI / 4) + 1), ((indexJ / 4) + 1));
             cEdges.add(edge);
         } else {
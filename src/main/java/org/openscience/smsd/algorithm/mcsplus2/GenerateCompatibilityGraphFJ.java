@@ -14,15 +14,14 @@ import java.util.Set;
 import java.util.concurrent.RecursiveTask;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
-import org.openscience.cdk.interfaces.IBond;
 import org.openscience.cdk.isomorphism.matchers.IQueryAtom;
 import org.openscience.cdk.tools.ILoggingTool;
 import org.openscience.cdk.tools.LoggingToolFactory;
-import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
 import org.openscience.smsd.graph.Edge;
-import org.openscience.smsd.helper.LabelContainer;
+import org.openscience.smsd.helper.LabelEncoder;
 
 /**
  * This class generates compatibility graph between query and target molecule.
@@ -45,8 +44,8 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
 
     private final IAtomContainer source;
     private final IAtomContainer target;
-    private final AtomMatcher atomMatcher;
-    private final BondMatcher bondMatcher;
+    private final CompiledMatcher matcher;
+    private final LabelEncoder labels;
 
     /**
      *
@@ -63,12 +62,25 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
             IAtomContainer target,
             AtomMatcher atomMatcher,
             BondMatcher bondMatcher) {
+        this(startIndex, endIndex, source, target,
+                CompiledMatcher.compile(atomMatcher, bondMatcher, source, target), new LabelEncoder());
+    }
+
+    /*
+     * Subtasks share the matcher and the labels of the root task
+     */
+    private GenerateCompatibilityGraphFJ(int startIndex,
+            int endIndex,
+            IAtomContainer source,
+            IAtomContainer target,
+            CompiledMatcher matcher,
+            LabelEncoder labels) {
         this.endIndex = endIndex;
         this.source = source;
         this.target = target;
         this.startIndex = startIndex;
-        this.atomMatcher = atomMatcher;
-        this.bondMatcher = bondMatcher;
+        this.matcher = matcher;
+        this.labels = labels;
     }
 
     @Override
@@ -106,8 +118,8 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
         List<GenerateCompatibilityGraphFJ> dividedTasks = new ArrayList<>();
         int middle = (endIndex + startIndex) / 2;
 
-        GenerateCompatibilityGraphFJ partOne = new GenerateCompatibilityGraphFJ(startIndex, middle, source, target, atomMatcher, bondMatcher);
-        GenerateCompatibilityGraphFJ partTwo = new GenerateCompatibilityGraphFJ(middle, endIndex, source, target, atomMatcher, bondMatcher);
+        GenerateCompatibilityGraphFJ partOne = new GenerateCompatibilityGraphFJ(startIndex, middle, source, target, matcher, labels);
+        GenerateCompatibilityGraphFJ partTwo = new GenerateCompatibilityGraphFJ(middle, endIndex, source, target, matcher, labels);
         dividedTasks.add(partOne);
         dividedTasks.add(partTwo);
 
@@ -169,8 +181,8 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
     private Integer compatibilityGraphNodesIfCEdgeIsZero(int startIndex, int endIndex, Result result, List<Integer> compGraphNodesCZero) {
 
         int count_nodes = 1;
-        List<String> list = new ArrayList<>();
-        LabelContainer labelContainer = LabelContainer.getInstance();
+        int[] sourceLabels = labels.getLabelIDs(source);
+        int[] targetLabels = labels.getLabelIDs(target);
 
         for (int i = startIndex; i < endIndex; i++) {
             for (int j = 0; j < target.getAtomCount(); j++) {
@@ -179,32 +191,27 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
 
                 //You can also check object equal or charge, hydrogen count etc
                 if ((atom1 instanceof IQueryAtom)
-                        && ((IQueryAtom) atom1).matches(atom2)
-                        && !list.contains(i + "_" + j)) {
+                        && ((IQueryAtom) atom1).matches(atom2)) {
                     compGraphNodesCZero.add(i);
                     compGraphNodesCZero.add(j);
-                    compGraphNodesCZero.add(labelContainer.getLabelID(atom2.getSymbol())); //i.e C is label 1
+                    compGraphNodesCZero.add(targetLabels[j]); //i.e C is label 1
                     compGraphNodesCZero.add(count_nodes);
                     result.compGraphNodes.add(i);
                     result.compGraphNodes.add(j);
                     result.compGraphNodes.add(count_nodes);
                     count_nodes += 1;
-                    list.add(i + "_" + j);
-                } else if (atom1.getSymbol().equalsIgnoreCase(atom2.getSymbol())
-                        && !list.contains(i + "_" + j)) {
+                } else if (atom1.getSymbol().equalsIgnoreCase(atom2.getSymbol())) {
                     compGraphNodesCZero.add(i);
                     compGraphNodesCZero.add(j);
-                    compGraphNodesCZero.add(labelContainer.getLabelID(atom1.getSymbol())); //i.e C is label 1
+                    compGraphNodesCZero.add(sourceLabels[i]); //i.e C is label 1
                     compGraphNodesCZero.add(count_nodes);
                     result.compGraphNodes.add(i);
                     result.compGraphNodes.add(j);
                     result.compGraphNodes.add(count_nodes);
                     count_nodes += 1;
-                    list.add(i + "_" + j);
                 }
             }
         }
-        list.clear();
         if (DEBUG) {
             System.out.println("count_nodes " + count_nodes);
         }
@@ -233,13 +240,10 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
                 if ((a != b) && (index_a != index_b)
                         && (index_aPlus1 != index_bPlus1)) {
 
-                    IBond reactantBond;
-                    IBond productBond;
-
-                    reactantBond = source.getBond(source.getAtom(index_a), source.getAtom(index_b));
-                    productBond = target.getBond(target.getAtom(index_aPlus1), target.getAtom(index_bPlus1));
+                    int reactantBond = matcher.queryBond(index_a, index_b);
+                    int productBond = matcher.targetBond(index_aPlus1, index_bPlus1);
 
-                    if (reactantBond != null && productBond != null) {
+                    if (reactantBond >= 0 && productBond >= 0) {
                         addZeroEdges(result.cEdges, result.dEdges, reactantBond, productBond, a, b);
                     } //                    else if (reactantBond == null && productBond == null
                     //                            && ((source.getAtomCount() < (COMPLEX_MAX_GRAPH_NODE_COUNT)
@@ -251,7 +255,7 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
                     //                            result.dEdges.add(edge);
                     //                        }
                     //                    }
-                    else if (reactantBond == null && productBond == null) {
+                    else if (reactantBond < 0 && productBond < 0) {
                         //50 unique condition to speed up the AAM
                         Edge edge = new Edge(((a / 4) + 1), ((b / 4) + 1));
                         if (!result.dEdges.contains(edge)) {
@@ -272,9 +276,9 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
     }
 
     private void addZeroEdges(List<Edge> cEdges, List<Edge> dEdges,
-            IBond reactantBond, IBond productBond,
+            int reactantBond, int productBond,
             int indexI, int indexJ) {
-        if (AtomBondMatcher.matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+        if (matcher.matchAtomAndBond(reactantBond, productBond)) {
             Edge edge = new Edge(((indexI / 4) + 1), ((indexJ / 4) + 1));
             if (!cEdges.contains(edge)) {
                 cEdges.add(edge);
@@ -418,31 +422,28 @@ public class GenerateCompatibilityGraphFJ extends RecursiveTask<List<Result>> {
                         && (!Objects.equals(result.compGraphNodes.get(a), result.compGraphNodes.get(b)))
                         && (!Objects.equals(result.compGraphNodes.get(a + 1), result.compGraphNodes.get(b + 1)))) {
 
-                    IBond reactantBond;
-                    IBond productBond;
                     if (DEBUG) {
                         System.out.println("a " + result.compGraphNodes.get(a) + " b " + result.compGraphNodes.get(b));
                     }//exists a bond in molecule 2, so that molecule 1 pair is connected?
-                    reactantBond = source.getBond(source.getAtom(result.compGraphNodes.get(a)), source.getAtom(result.compGraphNodes.get(b)));
-                    productBond = target.getBond(target.getAtom(result.compGraphNodes.get(a + 1)), target.getAtom(result.compGraphNodes.get(b + 1)));
+                    int reactantBond = matcher.queryBond(result.compGraphNodes.get(a), result.compGraphNodes.get(b));
+                    int productBond = matcher.targetBond(result.compGraphNodes.get(a + 1), result.compGraphNodes.get(b + 1));
 
                     boolean connectedFlag = false;
                     boolean disConnectedFlag = false;
                     boolean matchBondFlag = false;
 
-                    if (reactantBond != null
-                            && productBond != null) {
+                    if (reactantBond >= 0
+                            && productBond >= 0) {
                         connectedFlag = true;
                     }
 
-                    if (reactantBond == null
-                            && productBond == null) {
+                    if (reactantBond < 0
+                            && productBond < 0) {
                         disConnectedFlag = true;
                     }
 
                     if (connectedFlag
-                            && AtomBondMatcher.
-                                    matchAtomAndBond(reactantBond, productBond, atomMatcher, bondMatcher, true)) {
+                            && matcher.matchAtomAndBond(reactantBond, productBond)) {
                         matchBondFlag = true;
                     }
 
@@ -38,6 +38,7 @@ import org.openscience.cdk.tools.LoggingToolFactory;
 import org.openscience.smsd.AtomAtomMapping;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.helper.SolutionSet;
 import org.openscience.smsd.interfaces.IResults;
 
 /**
@@ -176,6 +177,7 @@ public class CDKMCSHandler implements IResults {
 
         //System.out.println("Output of the final FinalMappings: ");
         try {
+            SolutionSet<Map<Integer, Integer>> unique = new SolutionSet<>();
             int counter = 0;
             for (Map<Integer, Integer> final_solution : solutions) {
                 TreeMap<Integer, Integer> atomMappings = new TreeMap<>();
@@ -189,8 +191,8 @@ public class CDKMCSHandler implements IResults {
                         atomMappings.put(jIndex, iIndex);
                     }
                 });
-                if (!allMCS.contains(atomMappings)) {
-                    if (!atomMappings.isEmpty()) {
+                if (!atomMappings.isEmpty()) {
+                    if (unique.add(atomMappings)) {
                         allMCS.add(counter, atomMappings);
                         counter += 1;
                     }
@@ -29,8 +29,11 @@
  */
 package org.openscience.smsd.algorithm.rgraph;
 
+import static java.lang.Long.bitCount;
+import static java.lang.Long.numberOfTrailingZeros;
 import static java.lang.System.getProperty;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
@@ -90,10 +93,12 @@ import org.openscience.cdk.exception.CDKException;
  * may be reused in other graph context (conceptual graphs,....)
  *
  * <p>
- * <bitSet>Important note</bitSet>: This implementation of the algorithm has not
- * been optimized for speed at this stage. It has been written with the goal to
- * clearly retrace the principle of the underlined search method. There is room
- * for optimization in many ways including the the algorithm itself.
+ * <bitSet>Important note</bitSet>: The nodes are built with {@link BitSet}s,
+ * the parsing packs their extension and forbidden sets into fixed width
+ * <code>long</code> words (one row per node) and works on per depth word
+ * buffers in place. Solutions keep their projections on G1 and G2 with their
+ * cardinality, so the subsumption tests against them are word wise and most
+ * of them are rejected on the size alone.
  *
  * <p>
  * This algorithm derives from the algorithm described in {
@@ -113,7 +118,7 @@ public class CDKRGraph {
 
     static final String NEW_LINE = getProperty("line.separator");
 
-    private List<CDKRNode> graph = null;
+    private final List<CDKRNode> graph;
     // maximal number of iterations before
     // search break
     private int maxIteration = -1;
@@ -121,10 +126,10 @@ public class CDKRGraph {
     private int firstGraphSize = 0;
     private int secondGraphSize = 0;
     // constrains
-    private BitSet sourceBitSet = null;
-    private BitSet targetBitSet = null;
-    // current solution list
-    private List<BitSet> solutionList = null;
+    private long[] sourceWords = null;
+    private long[] targetWords = null;
+    // current solution list, no solution is included in another one
+    private final List<Solution> solutionList;
     // flag to define if we want to get all possible 'mappings'
     private boolean findAllMap = false;
     // flag to define if we want to get all possible 'structures'
@@ -132,7 +137,22 @@ public class CDKRGraph {
     // working variables
     private boolean stop = false;
     private int nbIteration = 0;
-    private BitSet graphBitSet = null;
+    // packed graph: words per node set, extension and forbidden rows
+    private int words = 0;
+    private long[] extensions = null;
+    private long[] forbiddens = null;
+    private int[] id1 = null;
+    private int[] id2 = null;
+    private int g1Words = 0;
+    private int g2Words = 0;
+    // per depth traversed/extension/forbidden buffers
+    private final List<long[]> traversedStack;
+    private final List<long[]> extensionStack;
+    private final List<long[]> forbiddenStack;
+    // scratch sets for mustContinue
+    private long[] potential = null;
+    private long[] potentialG1 = null;
+    private long[] potentialG2 = null;
     // -1 for infinite search and one min is 1
 
     /**
@@ -141,7 +161,9 @@ public class CDKRGraph {
     public CDKRGraph() {
         graph = new ArrayList<>();
         solutionList = new ArrayList<>();
-        graphBitSet = new BitSet();
+        traversedStack = new ArrayList<>();
+        extensionStack = new ArrayList<>();
+        forbiddenStack = new ArrayList<>();
     }
 
     /**
@@ -149,7 +171,7 @@ public class CDKRGraph {
      *
      * @return The size of the first of the two compared graphs
      */
-    public synchronized int getFirstGraphSize() {
+    public int getFirstGraphSize() {
         return firstGraphSize;
     }
 
@@ -158,7 +180,7 @@ public class CDKRGraph {
      *
      * @return The size of the second of the two compared graphs
      */
-    public synchronized int getSecondGraphSize() {
+    public int getSecondGraphSize() {
         return secondGraphSize;
     }
 
@@ -167,7 +189,7 @@ public class CDKRGraph {
      *
      * @param graphSize The size of the second of the two compared graphs
      */
-    public synchronized void setFirstGraphSize(int graphSize) {
+    public void setFirstGraphSize(int graphSize) {
         firstGraphSize = graphSize;
     }
 
@@ -176,16 +198,15 @@ public class CDKRGraph {
      *
      * @param graphSize The size of the second of the two compared graphs
      */
-    public synchronized void setSecondGraphSize(int graphSize) {
+    public void setSecondGraphSize(int graphSize) {
         secondGraphSize = graphSize;
     }
 
     /**
      * Re initialisation of the TGraph.
      */
-    public synchronized void clear() {
+    public void clear() {
         getGraph().clear();
-        getGraphBitSet().clear();
     }
 
     /**
@@ -193,7 +214,7 @@ public class CDKRGraph {
      *
      * @return The graph object, a list
      */
-    public synchronized List<CDKRNode> getGraph() {
+    public List<CDKRNode> getGraph() {
         return this.graph;
     }
 
@@ -202,9 +223,8 @@ public class CDKRGraph {
      *
      * @param newNode The node to add to the graph
      */
-    public synchronized void addNode(CDKRNode newNode) {
+    public void addNode(CDKRNode newNode) {
         getGraph().add(newNode);
-        getGraphBitSet().set(getGraph().size() - 1);
     }
 
     /**
@@ -220,99 +240,106 @@ public class CDKRGraph {
      * @param findAllMap true is we want all possible 'mappings'
      * @throws CDKException
      */
-    public synchronized void parse(BitSet sourceBitSet, BitSet targetBitSet, boolean findAllStructure, boolean findAllMap) throws CDKException {
+    public void parse(BitSet sourceBitSet, BitSet targetBitSet, boolean findAllStructure, boolean findAllMap) throws CDKException {
         // initialize the list of solution
         getSolutionList().clear();
 
-        // builds the set of starting nodes
-        // according to the constrains
-        BitSet bitSet = buildB(sourceBitSet, targetBitSet);
+        // packs the nodes and builds the set of starting
+        // nodes according to the constrains
+        pack();
+        long[] initial = buildB(sourceBitSet, targetBitSet);
 
         // setup options
         setAllStructure(findAllStructure);
         setAllMap(findAllMap);
 
         // parse recursively the CDKRGraph
-        parseRec(new BitSet(bitSet.size()), bitSet, new BitSet(bitSet.size()));
+        long[] traversed = buffer(traversedStack, 0);
+        long[] extension = buffer(extensionStack, 0);
+        long[] forbidden = buffer(forbiddenStack, 0);
+        Arrays.fill(traversed, 0L);
+        System.arraycopy(initial, 0, extension, 0, words);
+        Arrays.fill(forbidden, 0L);
+        parseRec(0);
     }
 
     /**
      * Parsing of the CDKRGraph. This is the recursive method to perform a
      * query. The method will recursively parse the CDKRGraph thru connected
      * nodes and visiting the CDKRGraph using allowed adjacency relationship.
+     * The node already parsed (traversed), the possible extension nodes
+     * (allowed neighbors) and the forbidden nodes (set of node incompatible
+     * with the current solution) of this depth are in the depth buffers.
      *
-     * @param traversed node already parsed
-     * @param extension possible extension node (allowed neighbors)
-     * @param forbiden node forbidden (set of node incompatible with the current
-     * solution)
+     * @param depth size of the current partial solution
      */
-    private void parseRec(BitSet traversed, BitSet extension, BitSet forbidden) throws CDKException {
-        BitSet newTraversed;
-        BitSet newExtension;
-        BitSet newForbidden;
-        BitSet potentialNode;
+    private void parseRec(int depth) throws CDKException {
+        long[] traversed = traversedStack.get(depth);
+        long[] extension = extensionStack.get(depth);
+        long[] forbidden = forbiddenStack.get(depth);
 
         boolean timeOut = checkTimeout();
         if (timeOut) {
-//            System.out.println(timeOut + ", is Timeout ");
             this.stop = true;
             return;
         }
 
         // if there is no more extension possible we
         // have reached a potential new solution
-        if (extension.isEmpty()) {
+        if (isEmpty(extension)) {
             solution(traversed);
         } // carry on with each possible extension
         else {
             // calculates the set of nodes that may still
             // be reached at this stage (not forbidden)
-            potentialNode = ((BitSet) getGraphBitSet().clone());
-            potentialNode.andNot(forbidden);
-            potentialNode.or(traversed);
+            int n = getGraph().size();
+            for (int w = 0; w < words; w++) {
+                potential[w] = (~forbidden[w] | traversed[w]) & mask(w, n);
+            }
 
             // checks if we must continue the search
             // according to the potential node set
-            if (mustContinue(potentialNode)) {
+            if (mustContinue(potential)) {
                 // carry on research and update iteration count
                 setNbIteration(getNbIteration() + 1);
 
+                boolean first = isEmpty(traversed);
+                long[] newTraversed = buffer(traversedStack, depth + 1);
+                long[] newExtension = buffer(extensionStack, depth + 1);
+                long[] newForbidden = buffer(forbiddenStack, depth + 1);
+
                 // for each node in the set of possible extension (neighbors of
                 // the current partial solution, include the node to the solution
                 // and parse recursively the CDKRGraph with the new context.
-                for (int x = extension.nextSetBit(0); x >= 0 && !this.stop; x = extension.nextSetBit(x + 1)) {
-                    // evaluates the new set of forbidden nodes
-                    // by including the nodes not compatible with the
-                    // newly accepted node.
-                    newForbidden = (BitSet) forbidden.clone();
-                    newForbidden.or((getGraph().get(x)).getForbidden());
-
-                    // if maxIterator is the first time we are here then
-                    // traversed is empty and we initialize the set of
-                    // possible extensions to the extension of the first
-                    // accepted node in the solution.
-                    if (traversed.isEmpty()) {
-                        newExtension = (BitSet) ((getGraph().get(x)).getExtension().clone());
-                    } // else we simply update the set of solution by
-                    // including the neighbors of the newly accepted node
-                    else {
-                        newExtension = (BitSet) extension.clone();
-                        newExtension.or((getGraph().get(x)).getExtension());
+                for (int w = 0; w < words && !this.stop; w++) {
+                    for (long bits = extension[w]; bits != 0 && !this.stop; bits &= bits - 1) {
+                        int x = (w << 6) + numberOfTrailingZeros(bits);
+                        int row = x * words;
+                        for (int k = 0; k < words; k++) {
+                            // evaluates the new set of forbidden nodes
+                            // by including the nodes not compatible with the
+                            // newly accepted node.
+                            newForbidden[k] = forbidden[k] | forbiddens[row + k];
+                            // if it is the first time we are here then
+                            // traversed is empty and the possible extensions
+                            // are the extension of the first accepted node,
+                            // else the neighbors of the newly accepted node
+                            // are added. Extension may not contain forbidden
+                            // nodes
+                            newExtension[k] = (first ? extensions[row + k]
+                                    : extension[k] | extensions[row + k]) & ~newForbidden[k];
+                            newTraversed[k] = traversed[k];
+                        }
+
+                        // update the current partial solution with x
+                        // and add x to the set of forbidden node
+                        // (a node may only appear once in a solution)
+                        newTraversed[w] |= 1L << x;
+                        forbidden[w] |= 1L << x;
+
+                        // parse recursively the CDKRGraph
+                        parseRec(depth + 1);
                     }
-
-                    // extension my not contain forbidden nodes
-                    newExtension.andNot(newForbidden);
-
-                    // create the new set of traversed node
-                    // (update current partial solution)
-                    // and add x to the set of forbidden node
-                    // (a node may only appear once in a solution)
-                    newTraversed = (BitSet) traversed.clone();
-                    newTraversed.set(x);
-                    forbidden.set(x);
-
-                    // parse recursively the CDKRGraph
-                    parseRec(newTraversed, newExtension, newForbidden);
                 }
             }
         }
@@ -324,29 +351,31 @@ public class CDKRGraph {
      *
      * @param traversed new potential solution
      */
-    private void solution(BitSet traversed) throws CDKException {
+    private void solution(long[] traversed) throws CDKException {
         boolean included = false;
-        BitSet projG1 = projectG1(traversed);
-        BitSet projG2 = projectG2(traversed);
+        long[] projG1 = new long[g1Words];
+        long[] projG2 = new long[g2Words];
+        project(traversed, projG1, projG2);
 
         // the solution must follows the search constrains
         // (must contain the mandatory elements in G1 an G2)
-        if (isContainedIn(getSourceBitSet(), projG1) && isContainedIn(getTargetBitSet(), projG2)) {
+        if (isContainedIn(sourceWords, projG1) && isContainedIn(targetWords, projG2)) {
+            Solution candidate = new Solution(traversed.clone(), projG1, projG2);
             // the solution should not be included in a previous solution
             // at the CDKRGraph level. So we check against all previous solution
             // On the other hand if a previous solution is included in the
             // new one, the previous solution is removed.
-            for (Iterator<BitSet> i = getSolutionList().listIterator(); i.hasNext() && !included;) {
-                BitSet sol = i.next();
-                if (!sol.equals(traversed)) {
+            for (Iterator<Solution> i = getSolutionList().iterator(); i.hasNext() && !included;) {
+                Solution sol = i.next();
+                if (!sol.sameNodes(candidate)) {
                     // if we asked to save all 'mappings' then keep this mapping
-                    if (isFindAllMap() && (projG1.equals(projectG1(sol)) || projG2.equals(projectG2(sol)))) {
+                    if (isFindAllMap() && sol.sameProjection(candidate)) {
                         // do nothing
-                    } // if the new solution is included mark maxIterator as included
-                    else if (isContainedIn(projG1, projectG1(sol)) || isContainedIn(projG2, projectG2(sol))) {
+                    } // if the new solution is included mark it as included
+                    else if (sol.covers(candidate)) {
                         included = true;
                     } // if the previous solution is contained in the new one, remove the previous solution
-                    else if (isContainedIn(projectG1(sol), projG1) || isContainedIn(projectG2(sol), projG2)) {
+                    else if (candidate.covers(sol)) {
                         i.remove();
                     }
                 } else {
@@ -356,9 +385,9 @@ public class CDKRGraph {
             }
 
             if (included == false) {
-                // if maxIterator is really a new solution add maxIterator to the
+                // if it is really a new solution add it to the
                 // list of current solution
-                getSolutionList().add(traversed);
+                getSolutionList().add(candidate);
             }
 
             if (!isFindAllStructure()) {
@@ -374,41 +403,36 @@ public class CDKRGraph {
      * Determine if there are potential solution remaining.
      *
      * @param potentialNode set of remaining potential nodes
-     * @return true if maxIterator is worse to continue the search
+     * @return true if it is worth to continue the search
      */
-    private boolean mustContinue(BitSet potentialNode) {
-        boolean result = true;
-        boolean cancel = false;
-        BitSet projG1 = projectG1(potentialNode);
-        BitSet projG2 = projectG2(potentialNode);
-
+    private boolean mustContinue(long[] potentialNode) {
         // if we reached the maximum number of
         // search iterations than do not continue
         if (getMaxIteration() != -1 && getNbIteration() >= getMaxIteration()) {
             return false;
         }
 
+        project(potentialNode, potentialG1, potentialG2);
+
         // if constrains may no more be fulfilled then stop.
-        if (!isContainedIn(sourceBitSet, projG1) || !isContainedIn(targetBitSet, projG2)) {
+        if (!isContainedIn(sourceWords, potentialG1) || !isContainedIn(targetWords, potentialG2)) {
             return false;
         }
 
         // check if the solution potential is not included in an already
         // existing solution
-        for (Iterator<BitSet> i = getSolutionList().iterator(); i.hasNext() && !cancel;) {
-            BitSet sol = i.next();
-
+        int card1 = cardinality(potentialG1);
+        int card2 = cardinality(potentialG2);
+        for (Solution sol : getSolutionList()) {
             // if we want every 'mappings' do not stop
-            if (isFindAllMap() && (projG1.equals(projectG1(sol)) || projG2.equals(projectG2(sol)))) {
+            if (isFindAllMap() && sol.sameProjection(potentialG1, card1, potentialG2, card2)) {
                 // do nothing
-            } // if maxIterator is not possible to do better than an already existing solution than stop.
-            else if (isContainedIn(projG1, projectG1(sol)) || isContainedIn(projG2, projectG2(sol))) {
-                result = false;
-                cancel = true;
+            } // if it is not possible to do better than an already existing solution than stop.
+            else if (sol.covers(potentialG1, card1, potentialG2, card2)) {
+                return false;
             }
         }
-
-        return result;
+        return true;
     }
 
     /**
@@ -420,20 +444,69 @@ public class CDKRGraph {
      * @param targetBitSet constraint in the graph G2
      * @return
      */
-    private BitSet buildB(BitSet sourceBitSet, BitSet targetBitSet) throws CDKException {
-        this.setSourceBitSet(sourceBitSet);
-        this.setTargetBitSet(targetBitSet);
+    private long[] buildB(BitSet sourceBitSet, BitSet targetBitSet) throws CDKException {
+        this.sourceWords = sourceBitSet.toLongArray();
+        this.targetWords = targetBitSet.toLongArray();
 
-        BitSet bistSet = new BitSet();
+        long[] initial = new long[words];
 
         // only nodes that fulfill the initial constrains
         // are allowed in the initial extension set : targetBitSet
-        getGraph().stream().filter((rNode) -> ((sourceBitSet.get(rNode.getRMap().getId1())
-                || sourceBitSet.isEmpty()) && (targetBitSet.get(rNode.getRMap().getId2())
-                || targetBitSet.isEmpty()))).forEachOrdered((rNode) -> {
-            bistSet.set(getGraph().indexOf(rNode));
-        });
-        return bistSet;
+        for (int x = 0; x < getGraph().size(); x++) {
+            if ((sourceBitSet.isEmpty() || sourceBitSet.get(id1[x]))
+                    && (targetBitSet.isEmpty() || targetBitSet.get(id2[x]))) {
+                initial[x >> 6] |= 1L << x;
+            }
+        }
+        return initial;
+    }
+
+    /**
+     * Packs the extension and forbidden sets of the nodes into word rows and
+     * sizes the work buffers.
+     */
+    private void pack() {
+        int n = getGraph().size();
+        this.words = Math.max(1, (n + 63) >> 6);
+        this.extensions = new long[n * words];
+        this.forbiddens = new long[n * words];
+        this.id1 = new int[n];
+        this.id2 = new int[n];
+        int size1 = getFirstGraphSize();
+        int size2 = getSecondGraphSize();
+        for (int x = 0; x < n; x++) {
+            CDKRNode node = getGraph().get(x);
+            copy(node.getExtension(), extensions, x * words, n);
+            copy(node.getForbidden(), forbiddens, x * words, n);
+            id1[x] = node.getRMap().getId1();
+            id2[x] = node.getRMap().getId2();
+            size1 = Math.max(size1, id1[x] + 1);
+            size2 = Math.max(size2, id2[x] + 1);
+        }
+        this.g1Words = Math.max(1, (size1 + 63) >> 6);
+        this.g2Words = Math.max(1, (size2 + 63) >> 6);
+        this.potential = new long[words];
+        this.potentialG1 = new long[g1Words];
+        this.potentialG2 = new long[g2Words];
+        traversedStack.clear();
+        extensionStack.clear();
+        forbiddenStack.clear();
+    }
+
+    private static void copy(BitSet set, long[] rows, int offset, int n) {
+        for (int x = set.nextSetBit(0); x >= 0 && x < n; x = set.nextSetBit(x + 1)) {
+            rows[offset + (x >> 6)] |= 1L << x;
+        }
+    }
+
+    /*
+     * Buffers are allocated once per depth and reused by every branch
+     */
+    private long[] buffer(List<long[]> stack, int depth) {
+        while (stack.size() <= depth) {
+            stack.add(new long[words]);
+        }
+        return stack.get(depth);
     }
 
     /**
@@ -441,8 +514,12 @@ public class CDKRGraph {
      *
      * @return The solution list
      */
-    public synchronized List<BitSet> getSolutions() {
-        return getSolutionList();
+    public List<BitSet> getSolutions() {
+        List<BitSet> solutions = new ArrayList<>(getSolutionList().size());
+        getSolutionList().forEach((sol) -> {
+            solutions.add(BitSet.valueOf(sol.nodes));
+        });
+        return solutions;
     }
 
     /**
@@ -453,7 +530,7 @@ public class CDKRGraph {
      * @param set the BitSet
      * @return the CDKRMap list
      */
-    synchronized List<CDKRMap> bitSetToRMap(BitSet set) {
+    List<CDKRMap> bitSetToRMap(BitSet set) {
         List<CDKRMap> rMapList = new ArrayList<>();
 
         for (int x = set.nextSetBit(0); x >= 0; x = set.nextSetBit(x + 1)) {
@@ -502,14 +579,15 @@ public class CDKRGraph {
      */
     @Override
     public String toString() {
-        String message = "";
+        StringBuilder message = new StringBuilder();
         int jIndex = 0;
 
         for (CDKRNode rNode : getGraph()) {
-            message += "-------------" + NEW_LINE + "CDKRNode " + jIndex + NEW_LINE + rNode.toString() + NEW_LINE;
+            message.append("-------------").append(NEW_LINE).append("CDKRNode ").append(jIndex)
+                    .append(NEW_LINE).append(rNode.toString()).append(NEW_LINE);
             jIndex++;
         }
-        return message;
+        return message.toString();
     }
 
     /////////////////////////////////
@@ -522,11 +600,9 @@ public class CDKRGraph {
      */
     public BitSet projectG1(BitSet set) {
         BitSet projection = new BitSet(getFirstGraphSize());
-        CDKRNode xNode;
 
         for (int x = set.nextSetBit(0); x >= 0; x = set.nextSetBit(x + 1)) {
-            xNode = getGraph().get(x);
-            projection.set(xNode.getRMap().getId1());
+            projection.set(getGraph().get(x).getRMap().getId1());
         }
         return projection;
     }
@@ -539,37 +615,68 @@ public class CDKRGraph {
      */
     public BitSet projectG2(BitSet set) {
         BitSet projection = new BitSet(getSecondGraphSize());
-        CDKRNode xNode;
 
         for (int x = set.nextSetBit(0); x >= 0; x = set.nextSetBit(x + 1)) {
-            xNode = getGraph().get(x);
-            projection.set(xNode.getRMap().getId2());
+            projection.set(getGraph().get(x).getRMap().getId2());
         }
         return projection;
     }
 
-    /**
-     * Test if set sourceBitSet is contained in set targetBitSet.
-     *
-     * @param sourceBitSet a bitSet
-     * @param targetBitSet a bitSet
-     * @return true if sourceBitSet is contained in targetBitSet
+    /*
+     * Projects packed nodes on G1 and G2, overwriting the projections
      */
-    private boolean isContainedIn(BitSet sourceBitSet, BitSet targetBitSet) {
-        boolean result = false;
+    private void project(long[] nodes, long[] projG1, long[] projG2) {
+        Arrays.fill(projG1, 0L);
+        Arrays.fill(projG2, 0L);
+        for (int w = 0; w < words; w++) {
+            for (long bits = nodes[w]; bits != 0; bits &= bits - 1) {
+                int x = (w << 6) + numberOfTrailingZeros(bits);
+                projG1[id1[x] >> 6] |= 1L << id1[x];
+                projG2[id2[x] >> 6] |= 1L << id2[x];
+            }
+        }
+    }
 
-        if (sourceBitSet.isEmpty()) {
-            return true;
+    /**
+     * Test if set a is contained in set b, the sets may differ in length.
+     *
+     * @param a packed set
+     * @param b packed set
+     * @return true if a is contained in b
+     */
+    private static boolean isContainedIn(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            long other = w < b.length ? b[w] : 0L;
+            if ((a[w] & ~other) != 0) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        BitSet setA = (BitSet) sourceBitSet.clone();
-        setA.and(targetBitSet);
+    private static boolean isEmpty(long[] set) {
+        for (long word : set) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (setA.equals(sourceBitSet)) {
-            result = true;
+    private static int cardinality(long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += bitCount(word);
         }
+        return count;
+    }
 
-        return result;
+    /*
+     * Bits of word w that are nodes of the graph
+     */
+    private static long mask(int w, int n) {
+        int remaining = n - (w << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
     }
 
     /**
@@ -589,38 +696,10 @@ public class CDKRGraph {
     /**
      * @return the solutionList
      */
-    private List<BitSet> getSolutionList() {
+    private List<Solution> getSolutionList() {
         return solutionList;
     }
 
-    /**
-     * @return the targetBitSet
-     */
-    private BitSet getTargetBitSet() {
-        return targetBitSet;
-    }
-
-    /**
-     * @param targetBitSet the targetBitSet to set
-     */
-    private void setTargetBitSet(BitSet targetBitSet) {
-        this.targetBitSet = targetBitSet;
-    }
-
-    /**
-     * @return the sourceBitSet
-     */
-    private BitSet getSourceBitSet() {
-        return sourceBitSet;
-    }
-
-    /**
-     * @param sourceBitSet the sourceBitSet to set
-     */
-    private void setSourceBitSet(BitSet sourceBitSet) {
-        this.sourceBitSet = sourceBitSet;
-    }
-
     /**
      * @return the maxIteration
      */
@@ -656,13 +735,6 @@ public class CDKRGraph {
         this.nbIteration = nbIteration;
     }
 
-    /**
-     * @return the graphBitSet
-     */
-    private BitSet getGraphBitSet() {
-        return graphBitSet;
-    }
-
     private boolean checkTimeout() {
         if (CDKMCS.getIterationManager().isMaxIteration()) {
             CDKMCS.timeout = true;
@@ -671,4 +743,53 @@ public class CDKRGraph {
         CDKMCS.getIterationManager().increment();
         return false;
     }
+
+    /*
+     * A solution with its projections on G1 and G2 and their cardinality: a
+     * set can only be contained in a set at least as big
+     */
+    private static final class Solution {
+
+        private final long[] nodes;
+        private final long[] g1;
+        private final long[] g2;
+        private final int card1;
+        private final int card2;
+
+        Solution(long[] nodes, long[] g1, long[] g2) {
+            this.nodes = nodes;
+            this.g1 = g1;
+            this.g2 = g2;
+            this.card1 = cardinality(g1);
+            this.card2 = cardinality(g2);
+        }
+
+        boolean sameNodes(Solution other) {
+            return Arrays.equals(nodes, other.nodes);
+        }
+
+        boolean sameProjection(Solution other) {
+            return sameProjection(other.g1, other.card1, other.g2, other.card2);
+        }
+
+        /*
+         * Equal projection on G1 or on G2
+         */
+        boolean sameProjection(long[] p1, int c1, long[] p2, int c2) {
+            return (c1 == card1 && Arrays.equals(p1, g1))
+                    || (c2 == card2 && Arrays.equals(p2, g2));
+        }
+
+        boolean covers(Solution other) {
+            return covers(other.g1, other.card1, other.g2, other.card2);
+        }
+
+        /*
+         * Projection on G1 or on G2 contained in the one of this solution
+         */
+        boolean covers(long[] p1, int c1, long[] p2, int c2) {
+            return (c1 <= card1 && isContainedIn(p1, g1))
+                    || (c2 <= card2 && isContainedIn(p2, g2));
+        }
+    }
 }
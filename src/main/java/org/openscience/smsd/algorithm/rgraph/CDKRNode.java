@@ -71,7 +71,7 @@ public class CDKRNode {
      *
      * @param rMap The new rMap value
      */
-    synchronized void setRMap(CDKRMap rMap) {
+    void setRMap(CDKRMap rMap) {
         this.setrMap(rMap);
     }
 
@@ -80,7 +80,7 @@ public class CDKRNode {
      *
      * @param extension The new extension value
      */
-    public synchronized void setExtension(BitSet extension) {
+    public void setExtension(BitSet extension) {
         this.extension = extension;
     }
 
@@ -89,7 +89,7 @@ public class CDKRNode {
      *
      * @param forbidden The new forbidden value
      */
-    public synchronized void setForbidden(BitSet forbidden) {
+    public void setForbidden(BitSet forbidden) {
         this.forbidden = forbidden;
     }
 
@@ -98,7 +98,7 @@ public class CDKRNode {
      *
      * @return The rMap value
      */
-    public synchronized CDKRMap getRMap() {
+    public CDKRMap getRMap() {
         return getrMap();
     }
 
@@ -107,7 +107,7 @@ public class CDKRNode {
      *
      * @return The extension value
      */
-    public synchronized BitSet getExtension() {
+    public BitSet getExtension() {
         return extension;
     }
 
@@ -116,7 +116,7 @@ public class CDKRNode {
      *
      * @return The forbidden value
      */
-    public synchronized BitSet getForbidden() {
+    public BitSet getForbidden() {
         return forbidden;
     }
 
@@ -126,7 +126,7 @@ public class CDKRNode {
      * @return the string representation of the RNode
      */
     @Override
-    public synchronized String toString() {
+    public String toString() {
         return ("id1 : " + getrMap().getId1() + ", id2 : " + getrMap().getId2()
                 + NEW_LINE + "extension : " + getExtension() + NEW_LINE + "forbiden : " + getForbidden());
     }
@@ -136,7 +136,7 @@ public class CDKRNode {
      *
      * @return the rMap
      */
-    synchronized CDKRMap getrMap() {
+    CDKRMap getrMap() {
         return rMap;
     }
 
@@ -145,7 +145,7 @@ public class CDKRNode {
      *
      * @param rMap the rMap to set
      */
-    synchronized void setrMap(CDKRMap rMap) {
+    void setrMap(CDKRMap rMap) {
         this.rMap = rMap;
     }
 }
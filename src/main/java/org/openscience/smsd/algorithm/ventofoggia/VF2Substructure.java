@@ -37,7 +37,9 @@ import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
 import org.openscience.smsd.algorithm.mcgregor.McGregor;
 import org.openscience.smsd.graph.algorithm.VentoFoggia;
+import org.openscience.smsd.helper.AtomEquivalence;
 import org.openscience.smsd.helper.Mappings;
+import org.openscience.smsd.helper.SolutionSet;
 import org.openscience.smsd.interfaces.IResults;
 
 /**
@@ -61,6 +63,8 @@ public class VF2Substructure implements IResults {
     private final List<AtomAtomMapping> allAtomMCSCopy;
     private final List<Map<Integer, Integer>> allMCS;
     private final List<Map<Integer, Integer>> allMCSCopy;
+    private final SolutionSet<Map<Integer, Integer>> uniqueMCS;
+    private final SolutionSet<Map<Integer, Integer>> uniqueMCSCopy;
     private List<Map<IAtom, IAtom>> vfLibSolutions;
     private final IAtomContainer source;
     private final IAtomContainer target;
@@ -72,6 +76,7 @@ public class VF2Substructure implements IResults {
             = createLoggingTool(VF2Substructure.class);
     private final AtomMatcher atomMatcher;
     private final BondMatcher bondMatcher;
+    private final AtomEquivalence symmetry;
 
     /**
      * Constructor for an extended VF Algorithm for the MCS search
@@ -87,15 +92,39 @@ public class VF2Substructure implements IResults {
             AtomMatcher am,
             BondMatcher bm,
             boolean findallMatches) {
+        this(source, target, am, bm, findallMatches, false);
+    }
+
+    /**
+     * Constructor for an extended VF Algorithm for the MCS search
+     *
+     * @param source
+     * @param target
+     * @param am atom matcher
+     * @param bm bond matcher
+     * @param findallMatches Find all SubGraphs
+     * @param moduloSymmetry keep one of the mappings that differ only by an
+     * automorphism of the target, the VF2 search starts from one atom of each
+     * target orbit
+     */
+    public VF2Substructure(IAtomContainer source, IAtomContainer target,
+            AtomMatcher am,
+            BondMatcher bm,
+            boolean findallMatches,
+            boolean moduloSymmetry) {
         this.source = source;
         this.target = target;
         this.atomMatcher = am;
         this.bondMatcher = bm;
+        this.symmetry = moduloSymmetry && !(target instanceof IQueryAtomContainer)
+                ? AtomEquivalence.of(target) : null;
 
         allAtomMCS = new ArrayList<>();
         allAtomMCSCopy = new ArrayList<>();
         allMCS = new ArrayList<>();
         allMCSCopy = new ArrayList<>();
+        uniqueMCS = new SolutionSet<>();
+        uniqueMCSCopy = new SolutionSet<>();
         if (findallMatches) {
             this.isSubgraph = findSubgraphs();
         } else {
@@ -116,11 +145,14 @@ public class VF2Substructure implements IResults {
         this.target = target;
         this.atomMatcher = am;
         this.bondMatcher = bm;
+        this.symmetry = null;
 
         allAtomMCS = new ArrayList<>();
         allAtomMCSCopy = new ArrayList<>();
         allMCS = new ArrayList<>();
         allMCSCopy = new ArrayList<>();
+        uniqueMCS = new SolutionSet<>();
+        uniqueMCSCopy = new SolutionSet<>();
         if (findallMatches) {
             this.isSubgraph = findSubgraphs();
         } else {
@@ -147,6 +179,7 @@ public class VF2Substructure implements IResults {
                 && allAtomMCSCopy.iterator().next().getCount() == source.getAtomCount()) {
             allAtomMCS.addAll(allAtomMCSCopy);
             allMCS.addAll(allMCSCopy);
+            allMCSCopy.forEach(m -> uniqueMCS.add(symmetryKey(m)));
         }
         return !allAtomMCS.isEmpty()
                 && allAtomMCS.iterator().next().getCount()
@@ -190,6 +223,7 @@ public class VF2Substructure implements IResults {
                 && allAtomMCSCopy.iterator().next().getCount() == source.getAtomCount()) {
             allAtomMCS.addAll(allAtomMCSCopy);
             allMCS.addAll(allMCSCopy);
+            allMCSCopy.forEach(m -> uniqueMCS.add(symmetryKey(m)));
         }
         return !allAtomMCS.isEmpty()
                 && allAtomMCS.iterator().next().getCount()
@@ -201,10 +235,6 @@ public class VF2Substructure implements IResults {
         return commonAtomCount > bestHitSize;
     }
 
-    private boolean hasMap(Map<Integer, Integer> maps, List<Map<Integer, Integer>> mapGlobal) {
-        return mapGlobal.stream().anyMatch((test) -> (test.equals(maps)));
-    }
-
     /**
      * {@inheritDoc}
      *
@@ -318,7 +348,9 @@ public class VF2Substructure implements IResults {
         } else if (countR <= countP) {
 
             VentoFoggia findSubstructure = VentoFoggia.findSubstructure(source, atomMatcher, bondMatcher); // create pattern
-            Mappings matchAll = findSubstructure.matchAll(target);
+            Mappings matchAll = symmetry != null
+                    ? findSubstructure.matchAllModuloSymmetry(target)
+                    : findSubstructure.matchAll(target);
             Iterable<Map<IAtom, IAtom>> toAtomMap = matchAll.limit(10).toAtomMap();
             for (Map<IAtom, IAtom> map : toAtomMap) {
                 vfLibSolutions.add(map);
@@ -402,10 +434,11 @@ public class VF2Substructure implements IResults {
                 bestHitSize = indexindexMapping.size();
                 allAtomMCSCopy.clear();
                 allMCSCopy.clear();
+                uniqueMCSCopy.clear();
                 counter = 0;
             }
-            if (!atomatomMapping.isEmpty() && !hasMap(indexindexMapping, allMCSCopy)
-                    && indexindexMapping.size() == bestHitSize) {
+            if (!atomatomMapping.isEmpty() && indexindexMapping.size() == bestHitSize
+                    && uniqueMCSCopy.add(symmetryKey(indexindexMapping))) {
 //                System.out.println("\nvfMCSSize: " + bestHitSize);
                 allAtomMCSCopy.add(counter, atomatomMapping);
                 allMCSCopy.add(counter, indexindexMapping);
@@ -451,11 +484,12 @@ public class VF2Substructure implements IResults {
                 bestHitSize = indexindexMapping.size();
                 allAtomMCS.clear();
                 allMCS.clear();
+                uniqueMCS.clear();
                 counter = 0;
             }
 
-            if (!atomatomMapping.isEmpty() && !hasMap(indexindexMapping, allMCS)
-                    && (indexindexMapping.size()) == bestHitSize) {
+            if (!atomatomMapping.isEmpty() && (indexindexMapping.size()) == bestHitSize
+                    && uniqueMCS.add(symmetryKey(indexindexMapping))) {
                 allAtomMCS.add(counter, atomatomMapping);
                 allMCS.add(counter, indexindexMapping);
                 counter++;
@@ -463,6 +497,13 @@ public class VF2Substructure implements IResults {
         }
     }
 
+    /*
+     * Mappings that differ by a target automorphism share the key
+     */
+    private Map<Integer, Integer> symmetryKey(Map<Integer, Integer> indexindexMapping) {
+        return symmetry == null ? indexindexMapping : symmetry.canonical(indexindexMapping);
+    }
+
     private synchronized IAtomContainer getReactantMol() {
         return source;
     }
@@ -46,6 +46,7 @@
  ******************************************************************************/
 package org.openscience.smsd.algorithm.vflib.substructure;
 
+import java.util.Arrays;
 import java.util.List;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
@@ -55,6 +56,7 @@ import org.openscience.smsd.AtomAtomMapping;
 import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.helper.SolutionSet;
 
 /**
  * This class finds mapping states between query and target molecules.
@@ -121,14 +123,14 @@ final class State {
         this.source = source;
         this.target = target;
         this.ownSharedState = true;
+        this.am = am;
+        this.bm = bm;
         this.matches = new boolean[this.source.getAtomCount()][this.target.getAtomCount()];
         this.isMatchPossible = isFeasible();
 
         this.lastAddition = new Pair<>(-1, -1);
         this.sharedState = new SharedState(source.getAtomCount(),
                 target.getAtomCount());
-        this.am = am;
-        this.bm = bm;
     }
 
     State(IQueryAtomContainer source, IAtomContainer target) {
@@ -138,14 +140,14 @@ final class State {
         this.source = source;
         this.target = target;
         this.ownSharedState = true;
+        this.am = AtomMatcher.forQuery();
+        this.bm = BondMatcher.forQuery();
         this.matches = new boolean[this.source.getAtomCount()][this.target.getAtomCount()];
         this.isMatchPossible = isFeasible();
 
         this.lastAddition = new Pair<>(-1, -1);
         this.sharedState = new SharedState(source.getAtomCount(),
                 target.getAtomCount());
-        this.am = AtomMatcher.forQuery();
-        this.bm = BondMatcher.forQuery();
     }
 
     State(State state) {
@@ -193,13 +195,10 @@ final class State {
     // Returns the current isomorphism for the state in an AtomMapping
     // object.
     AtomAtomMapping getMapping() {
-        AtomAtomMapping mapping = new AtomAtomMapping(source, target);
-
-        for (int i = 0; i < size; i++) {
-            mapping.put(source.getAtom(i),
-                    target.getAtom(sharedState.sourceMapping[i]));
-        }
-        return mapping;
+        int[] queryToTarget = new int[source.getAtomCount()];
+        Arrays.fill(queryToTarget, -1);
+        System.arraycopy(sharedState.sourceMapping, 0, queryToTarget, 0, size);
+        return new AtomAtomMapping(source, target, queryToTarget);
     }
 
     // Returns the next candidate pair (sourceAtom, targetAtom) to be added
@@ -441,12 +440,16 @@ final class State {
 
     /* TO DO: Fix the match all results*/
     void matchAll(State state, List<AtomAtomMapping> mappings) {
+        matchAll(state, mappings, new SolutionSet<>());
+    }
+
+    void matchAll(State state, List<AtomAtomMapping> mappings, SolutionSet<AtomAtomMapping> unique) {
 //        System.out.println("Matched " + state.size + " out of " + state.source.getAtomCount());
 
         if (state.isGoal()) {
             AtomAtomMapping map = state.getMapping();
-            if (!hasMap(map, mappings)) {
-                mappings.add(state.getMapping());
+            if (unique.add(map)) {
+                mappings.add(map);
             }
             return;
         }
@@ -459,8 +462,11 @@ final class State {
             if (state.isMatchFeasible(lastCandidate)) {
                 State nextState = new State(state);
                 nextState.nextState(candidate);
-                matchAll(nextState, mappings);
+                matchAll(nextState, mappings, unique);
                 nextState.backTrack();
+                if (unique.isFull()) {
+                    return;
+                }
             }
         }
     }
@@ -483,8 +489,4 @@ final class State {
     boolean matchAtoms(IAtom sourceAtom, IAtom targetAtom) {
         return AtomBondMatcher.matches(sourceAtom, targetAtom, am);
     }
-
-    private boolean hasMap(AtomAtomMapping map, List<AtomAtomMapping> mappings) {
-        return mappings.stream().anyMatch((test) -> (test.equals(map)));
-    }
 }
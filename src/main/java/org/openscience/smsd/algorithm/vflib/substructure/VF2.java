@@ -87,10 +87,10 @@ public final class VF2 implements IResults {
     public VF2(IAtomContainer source, IAtomContainer target, AtomMatcher am, BondMatcher bm) {
         this.source = source;
         this.target = target;
-        this.allAtomMCS = new ArrayList<>();
-        this.isSubgraph = findSubgraph();
         this.am = am;
         this.bm = bm;
+        this.allAtomMCS = new ArrayList<>();
+        this.isSubgraph = findSubgraph();
     }
 
     /**
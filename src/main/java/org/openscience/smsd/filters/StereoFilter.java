@@ -338,8 +338,8 @@ public final class StereoFilter extends Sotter implements IChemicalFilter<Double
 
     private synchronized double getRingMatchScore(List<IAtomContainer> list) throws CloneNotSupportedException {
         double lScore = 0;
-        IAtomContainer listMap = list.get(0).clone();
-        IAtomContainer subGraph = list.get(1).clone();
+        IAtomContainer listMap = list.get(0);
+        IAtomContainer subGraph = list.get(1);
         try {
             Cycles cycles = Cycles.all(subGraph);
             lScore = getRingMatch(cycles.toRingSet(), listMap);
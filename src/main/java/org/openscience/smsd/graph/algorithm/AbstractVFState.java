@@ -53,6 +53,9 @@ abstract class AbstractVFState extends State {
     /** Size of current solution - the number of vertices matched. */
     protected int              size;
 
+    /** Target vertices the first query vertex may map to, null for all. */
+    private boolean[]          roots;
+
     /**
      * Create a state which will be used to match g1 in g2.
      *
@@ -71,6 +74,17 @@ abstract class AbstractVFState extends State {
         Arrays.fill(m2, UNMAPPED);
     }
 
+    /**
+     * Restrict the target vertices the first query vertex is mapped to. Used
+     * to try one vertex of each target orbit when mappings are only wanted
+     * up to the target symmetry.
+     *
+     * @param roots allowed target vertices, null for all
+     */
+    final void restrictRoots(boolean[] roots) {
+        this.roots = roots;
+    }
+
     /**
      * Given the current query candidate (n), find the next candidate. The next
      * candidate is the next vertex > n (in some ordering) that is unmapped and
@@ -103,7 +117,11 @@ abstract class AbstractVFState extends State {
      */
     @Override
     final int nextM(int n, int m) {
-        if (size == 0) return m + 1;
+        if (size == 0) {
+            for (int i = m + 1; i < g2.length; i++)
+                if (roots == null || roots[i]) return i;
+            return mMax();
+        }
         // if the query vertex 'n' is in the terminal set (t1) then the
         // target vertex must be in the terminal set (t2)
         for (int i = m + 1; i < g2.length; i++)
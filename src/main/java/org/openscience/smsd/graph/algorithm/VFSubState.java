@@ -23,12 +23,7 @@
  */
 package org.openscience.smsd.graph.algorithm;
 
-import org.openscience.cdk.interfaces.IAtomContainer;
-import org.openscience.cdk.interfaces.IBond;
-
-import static org.openscience.cdk.graph.GraphUtil.EdgeToBondMap;
-import org.openscience.smsd.algorithm.matchers.AtomMatcher;
-import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
 
 /**
  * Vento-Foggia (VF) state for matching subgraph-monomorphisms. The original
@@ -50,50 +45,22 @@ import org.openscience.smsd.algorithm.matchers.BondMatcher;
 final class VFSubState extends AbstractVFState {
 
     /**
-     * The query (container1) and target (container2) of the subgraph matching.
-     */
-    private final IAtomContainer container1, container2;
-
-    /**
-     * Lookup for the query bonds (bonds1) and target bonds (bonds2) of the
-     * subgraph matching.
-     */
-    private final EdgeToBondMap bonds1, bonds2;
-
-    /**
-     * Defines how atoms are matched.
-     */
-    private final AtomMatcher atomMatcher;
-
-    /**
-     * Defines how bonds are matched.
+     * Defines how atoms and bonds of the query and target, by index, are
+     * matched.
      */
-    private final BondMatcher bondMatcher;
+    private final CompiledMatcher matcher;
 
     /**
      * Create a VF state for matching subgraph-monomorphism. The query is passed
-     * first and should read as, find container1 in container2.
+     * first and should read as, find the query in the target.
      *
-     * @param container1 the molecule to search for (query)
-     * @param container2 the molecule to search in (target)
      * @param g1 adjacency list of the query
      * @param g2 adjacency list of the target
-     * @param bonds1 bond lookup of the query
-     * @param bonds2 bond lookup of the target
-     * @param atomMatcher what semantic attributes (symbol, charge, query)
-     * determines atoms to be compatible
-     * @param bondMatcher what semantic attributes (order/aromatic, query)
-     * determines bonds to be compatible
+     * @param matcher atom and bond matchers compiled for the query and target
      */
-    VFSubState(IAtomContainer container1, IAtomContainer container2, int[][] g1, int[][] g2, EdgeToBondMap bonds1,
-            EdgeToBondMap bonds2, AtomMatcher atomMatcher, BondMatcher bondMatcher) {
+    VFSubState(int[][] g1, int[][] g2, CompiledMatcher matcher) {
         super(g1, g2);
-        this.container1 = container1;
-        this.container2 = container2;
-        this.bonds1 = bonds1;
-        this.bonds2 = bonds2;
-        this.atomMatcher = atomMatcher;
-        this.bondMatcher = bondMatcher;
+        this.matcher = matcher;
     }
 
     /**
@@ -121,7 +88,7 @@ final class VFSubState extends AbstractVFState {
     boolean feasible(int n, int m) {
 
         // verify atom semantic feasibility
-        if (!atomMatcher.matches(container1.getAtom(n), container2.getAtom(m))) {
+        if (!matcher.atomMatches(n, m)) {
             return false;
         }
 
@@ -137,13 +104,13 @@ final class VFSubState extends AbstractVFState {
 
             // v is already mapped, there should be an edge {m, w} in g2.
             if (m_prime != UNMAPPED) {
-                IBond bond2 = bonds2.get(m, m_prime);
-                if (bond2 == null) // the bond is not present in the target
+                int bond2 = matcher.targetBond(m, m_prime);
+                if (bond2 < 0) // the bond is not present in the target
                 {
                     return false;
                 }
                 // verify bond semantic feasibility
-                if (!bondMatcher.matches(bonds1.get(n, n_prime), bond2)) {
+                if (!matcher.bondMatches(matcher.queryBond(n, n_prime), bond2)) {
                     return false;
                 }
             } else {
@@ -31,9 +31,10 @@ import org.openscience.cdk.isomorphism.matchers.IQueryAtomContainer;
 import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
-import static org.openscience.cdk.graph.GraphUtil.EdgeToBondMap;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
+import org.openscience.smsd.helper.AtomEquivalence;
 import org.openscience.smsd.helper.Mappings;
 
 /**
@@ -88,11 +89,6 @@ public final class VentoFoggia {
      */
     private final int[][] g1;
 
-    /**
-     * The bonds of the query structure.
-     */
-    private final EdgeToBondMap bonds1;
-
     /**
      * The atom matcher to determine atom feasibility.
      */
@@ -123,8 +119,7 @@ public final class VentoFoggia {
         this.query = query;
         this.atomMatcher = atomMatcher;
         this.bondMatcher = bondMatcher;
-        this.bonds1 = EdgeToBondMap.withSpaceFor(query);
-        this.g1 = GraphUtil.toAdjList(query, bonds1);
+        this.g1 = GraphUtil.toAdjList(query);
         this.subgraph = substructure;
     }
 
@@ -139,8 +134,32 @@ public final class VentoFoggia {
      * {@inheritDoc}
      */
     public Mappings matchAll(final IAtomContainer target) {
+        return matchAll(target, null);
+    }
+
+    /**
+     * Find the mappings of the query that differ by more than an automorphism
+     * of the target. The first query atom is only tried on one atom of each
+     * target orbit, which prunes the search, and the mappings left that are
+     * still equivalent are filtered out.
+     *
+     * @param target the target structure
+     * @return one mapping of each symmetry class
+     */
+    public Mappings matchAllModuloSymmetry(final IAtomContainer target) {
+        AtomEquivalence symmetry = AtomEquivalence.of(target);
+        if (!symmetry.isSymmetric()) {
+            return matchAll(target);
+        }
+        boolean[] roots = new boolean[target.getAtomCount()];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = symmetry.getOrbit(i) == i;
+        }
+        return matchAll(target, roots).uniqueModuloSymmetry();
+    }
+
+    private Mappings matchAll(final IAtomContainer target, boolean[] roots) {
 
-        final EdgeToBondMap bonds2;
         final int[][] g2;
 
         AdjListCache cached = target.getProperty(AdjListCache.class.getName());
@@ -149,14 +168,11 @@ public final class VentoFoggia {
             target.setProperty(AdjListCache.class.getName(), cached);
         }
 
-        bonds2 = cached.bmap;
         g2 = cached.g;
 
-        Iterable<int[]> iterable = new VFIterable(query, target,
-                g1, g2,
-                bonds1, bonds2,
-                atomMatcher, bondMatcher,
-                subgraph);
+        Iterable<int[]> iterable = new VFIterable(g1, g2,
+                CompiledMatcher.compile(atomMatcher, bondMatcher, query, target),
+                subgraph, roots);
         return new Mappings(query, target, iterable);
     }
 
@@ -220,61 +236,44 @@ public final class VentoFoggia {
 
     private static final class VFIterable implements Iterable<int[]> {
 
-        /**
-         * Query and target containers.
-         */
-        private final IAtomContainer container1, container2;
-
         /**
          * Query and target adjacency lists.
          */
         private final int[][] g1, g2;
 
         /**
-         * Query and target bond lookup.
+         * How atoms and bonds are matched.
          */
-        private final EdgeToBondMap bonds1, bonds2;
+        private final CompiledMatcher matcher;
 
         /**
-         * How are atoms are matched.
-         */
-        private final AtomMatcher atomMatcher;
-
-        /**
-         * How are bonds are match.
+         * The query is a subgraph.
          */
-        private final BondMatcher bondMatcher;
+        private final boolean subgraph;
 
         /**
-         * The query is a subgraph.
+         * Target atoms the first query atom may map to, null for all.
          */
-        private final boolean subgraph;
+        private final boolean[] roots;
 
         /**
          * Create a match for the following parameters.
          *
-         * @param container1 query structure
-         * @param container2 target structure
          * @param g1 query adjacency list
          * @param g2 target adjacency list
-         * @param bonds1 query bond map
-         * @param bonds2 target bond map
-         * @param atomMatcher how atoms are matched
-         * @param bondMatcher how bonds are matched
+         * @param matcher atom and bond matchers compiled for the query and
+         * target
          * @param subgraph perform subgraph search
+         * @param roots target atoms the first query atom may map to, null for
+         * all
          */
-        private VFIterable(IAtomContainer container1, IAtomContainer container2, int[][] g1, int[][] g2,
-                EdgeToBondMap bonds1, EdgeToBondMap bonds2, AtomMatcher atomMatcher, BondMatcher bondMatcher,
-                boolean subgraph) {
-            this.container1 = container1;
-            this.container2 = container2;
+        private VFIterable(int[][] g1, int[][] g2, CompiledMatcher matcher, boolean subgraph,
+                boolean[] roots) {
             this.g1 = g1;
             this.g2 = g2;
-            this.bonds1 = bonds1;
-            this.bonds2 = bonds2;
-            this.atomMatcher = atomMatcher;
-            this.bondMatcher = bondMatcher;
+            this.matcher = matcher;
             this.subgraph = subgraph;
+            this.roots = roots;
         }
 
         /**
@@ -282,12 +281,11 @@ public final class VentoFoggia {
          */
         @Override
         public Iterator<int[]> iterator() {
-            if (subgraph) {
-                return new StateStream(new VFSubState(container1, container2, g1, g2, bonds1, bonds2, atomMatcher,
-                        bondMatcher));
-            }
-            return new StateStream(
-                    new VFState(container1, container2, g1, g2, bonds1, bonds2, atomMatcher, bondMatcher));
+            AbstractVFState state = subgraph
+                    ? new VFSubState(g1, g2, matcher)
+                    : new VFState(g1, g2, matcher);
+            state.restrictRoots(roots);
+            return new StateStream(state);
         }
     }
 
@@ -297,13 +295,11 @@ public final class VentoFoggia {
         private static final long MAX_AGE = TimeUnit.MILLISECONDS.toNanos(100);
 
         private final int[][] g;
-        private final EdgeToBondMap bmap;
         private final int numAtoms, numBonds;
         private final long tInit;
 
         private AdjListCache(IAtomContainer mol) {
-            this.bmap = EdgeToBondMap.withSpaceFor(mol);
-            this.g = GraphUtil.toAdjList(mol, bmap);
+            this.g = GraphUtil.toAdjList(mol);
             this.numAtoms = mol.getAtomCount();
             this.numBonds = mol.getBondCount();
             this.tInit = System.nanoTime();
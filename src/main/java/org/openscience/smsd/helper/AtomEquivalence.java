@@ -0,0 +1,353 @@
+/* Copyright (C) 2009-2018  Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.openscience.smsd.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import org.openscience.cdk.group.Partition;
+import org.openscience.cdk.group.PartitionRefinement;
+import org.openscience.cdk.group.Permutation;
+import org.openscience.cdk.group.PermutationGroup;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.smsd.AtomAtomMapping;
+
+/**
+ * Symmetry of a molecule: its automorphism group and the atom equivalence
+ * classes (orbits). Atoms are only considered equivalent if they agree on
+ * element, charge, hydrogens, mass number, atom type and the aromatic and
+ * ring flags, and bonds on their order, so equivalent atoms can't be told
+ * apart by the matchers.
+ *
+ * Mappings onto a molecule that differ only by one of its automorphisms are
+ * equivalent: the search keeps one of them (see {@link #canonical(int[])})
+ * and the others are produced on request with {@link #expand(int[], int)}.
+ *
+ * The symmetry is computed once per molecule and kept in a weak map until the
+ * molecule changes.
+ *
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class AtomEquivalence {
+
+    /**
+     * Groups of a bigger order are not enumerated to find the canonical
+     * mapping
+     */
+    private static final long MAX_ENUMERATED = 5040;
+    private static final Map<IAtomContainer, AtomEquivalence> CACHE = new WeakHashMap<>();
+
+    private final long stamp;
+    private final int[] orbits;
+    private final int orbitCount;
+    private final PermutationGroup group;
+    private final List<Permutation> automorphisms;
+
+    private AtomEquivalence(IAtomContainer container, long stamp) {
+        int n = container.getAtomCount();
+        this.stamp = stamp;
+        this.group = n == 0
+                ? new PermutationGroup(0)
+                : PartitionRefinement.forAtoms().create().getAutomorphismGroup(container, initialPartition(container));
+        this.orbits = orbits(group, n);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (orbits[i] == i) {
+                count++;
+            }
+        }
+        this.orbitCount = count;
+        this.automorphisms = count < n && group.order() <= MAX_ENUMERATED ? group.all() : null;
+    }
+
+    /**
+     * @param container
+     * @return symmetry of the container as it is now
+     */
+    public static AtomEquivalence of(IAtomContainer container) {
+        long stamp = PerceptionState.modificationStamp(container);
+        synchronized (CACHE) {
+            AtomEquivalence cached = CACHE.get(container);
+            if (cached != null && cached.stamp == stamp) {
+                return cached;
+            }
+        }
+        AtomEquivalence equivalence = new AtomEquivalence(container, stamp);
+        synchronized (CACHE) {
+            CACHE.put(container, equivalence);
+        }
+        return equivalence;
+    }
+
+    /**
+     * @param atomIndex
+     * @return orbit of the atom, the smallest atom index in it
+     */
+    public int getOrbit(int atomIndex) {
+        return orbits[atomIndex];
+    }
+
+    /**
+     * @return orbit of each atom, the smallest atom index in it
+     */
+    public int[] getOrbits() {
+        return orbits.clone();
+    }
+
+    /**
+     * @return number of atom equivalence classes
+     */
+    public int getOrbitCount() {
+        return orbitCount;
+    }
+
+    /**
+     * @param i
+     * @param j
+     * @return true if an automorphism maps atom i onto atom j
+     */
+    public boolean isEquivalent(int i, int j) {
+        return orbits[i] == orbits[j];
+    }
+
+    /**
+     * @return true if two or more atoms are equivalent
+     */
+    public boolean isSymmetric() {
+        return orbitCount < orbits.length;
+    }
+
+    /**
+     * @return number of automorphisms
+     */
+    public long getAutomorphismCount() {
+        return group.order();
+    }
+
+    /**
+     * The representative of all mappings onto this molecule that differ by
+     * an automorphism: the lexicographically smallest image. If the group is
+     * too big to enumerate the mapping itself is returned, so mappings are
+     * never wrongly merged.
+     *
+     * @param queryToTarget target atom index of each query atom, -1 if
+     * unmapped
+     * @return the canonical mapping (a new array)
+     */
+    public int[] canonical(int[] queryToTarget) {
+        int[] best = queryToTarget.clone();
+        if (automorphisms == null) {
+            return best;
+        }
+        int[] image = new int[queryToTarget.length];
+        for (Permutation p : automorphisms) {
+            boolean smaller = false;
+            for (int i = 0; i < queryToTarget.length; i++) {
+                image[i] = queryToTarget[i] < 0 ? queryToTarget[i] : p.get(queryToTarget[i]);
+                if (!smaller) {
+                    if (image[i] > best[i]) {
+                        break;
+                    }
+                    smaller = image[i] < best[i];
+                }
+            }
+            if (smaller) {
+                System.arraycopy(image, 0, best, 0, image.length);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param mapping mapping onto this molecule
+     * @return the canonical mapping
+     * @see #canonical(int[])
+     */
+    public AtomAtomMapping canonical(AtomAtomMapping mapping) {
+        if (automorphisms == null) {
+            return mapping;
+        }
+        return new AtomAtomMapping(mapping.getQuery(), mapping.getTarget(),
+                canonical(mapping.getQueryToTargetIndex()));
+    }
+
+    /**
+     * @param mapping query to target atom index mapping onto this molecule
+     * @return the canonical mapping
+     * @see #canonical(int[])
+     */
+    public Map<Integer, Integer> canonical(Map<Integer, Integer> mapping) {
+        if (automorphisms == null || mapping.isEmpty()) {
+            return mapping;
+        }
+        int size = 0;
+        for (Integer q : mapping.keySet()) {
+            size = Math.max(size, q + 1);
+        }
+        int[] queryToTarget = new int[size];
+        Arrays.fill(queryToTarget, -1);
+        mapping.forEach((q, t) -> queryToTarget[q] = t);
+        int[] best = canonical(queryToTarget);
+        Map<Integer, Integer> canonical = new TreeMap<>();
+        for (int q = 0; q < best.length; q++) {
+            if (best[q] >= 0) {
+                canonical.put(q, best[q]);
+            }
+        }
+        return canonical;
+    }
+
+    /**
+     * All mappings equivalent to the given one, i.e. its images under the
+     * automorphisms of this molecule, the mapping itself first.
+     *
+     * @param queryToTarget target atom index of each query atom, -1 if
+     * unmapped
+     * @param limit maximum number of mappings to return
+     * @return distinct equivalent mappings
+     */
+    public List<int[]> expand(int[] queryToTarget, int limit) {
+        List<int[]> images = new ArrayList<>();
+        SolutionSet<List<Integer>> unique = new SolutionSet<>(limit);
+        unique.add(asList(queryToTarget));
+        images.add(queryToTarget.clone());
+        group.apply(new PermutationGroup.Backtracker() {
+
+            @Override
+            public void applyTo(Permutation p) {
+                int[] image = new int[queryToTarget.length];
+                for (int i = 0; i < image.length; i++) {
+                    image[i] = queryToTarget[i] < 0 ? queryToTarget[i] : p.get(queryToTarget[i]);
+                }
+                if (unique.add(asList(image))) {
+                    images.add(image);
+                }
+            }
+
+            @Override
+            public boolean isFinished() {
+                return unique.isFull();
+            }
+        });
+        return images;
+    }
+
+    /**
+     * @param mapping mapping onto this molecule
+     * @param limit maximum number of mappings to return
+     * @return distinct equivalent mappings, the mapping itself first
+     * @see #expand(int[], int)
+     */
+    public List<AtomAtomMapping> expand(AtomAtomMapping mapping, int limit) {
+        List<AtomAtomMapping> mappings = new ArrayList<>();
+        for (int[] image : expand(mapping.getQueryToTargetIndex(), limit)) {
+            mappings.add(new AtomAtomMapping(mapping.getQuery(), mapping.getTarget(), image));
+        }
+        return mappings;
+    }
+
+    private static List<Integer> asList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int v : values) {
+            list.add(v);
+        }
+        return list;
+    }
+
+    /*
+     * One cell per atom invariant, so automorphisms only exchange atoms the
+     * matchers can't tell apart
+     */
+    private static Partition initialPartition(IAtomContainer container) {
+        Map<String, List<Integer>> cells = new TreeMap<>();
+        for (int i = 0; i < container.getAtomCount(); i++) {
+            cells.computeIfAbsent(invariant(container.getAtom(i)), k -> new ArrayList<>()).add(i);
+        }
+        Partition partition = new Partition();
+        cells.values().forEach(partition::addCell);
+        return partition;
+    }
+
+    private static String invariant(IAtom atom) {
+        return atom.getSymbol()
+                + ',' + Objects.toString(atom.getFormalCharge())
+                + ',' + Objects.toString(atom.getImplicitHydrogenCount())
+                + ',' + Objects.toString(atom.getMassNumber())
+                + ',' + Objects.toString(atom.getAtomTypeName())
+                + ',' + atom.isAromatic()
+                + ',' + atom.isInRing();
+    }
+
+    /*
+     * Orbits from the automorphisms stored in the Schreier-Sims table, which
+     * generate the group
+     */
+    private static int[] orbits(PermutationGroup group, int n) {
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        for (int level = 0; level < n; level++) {
+            for (int j = 0; j < n; j++) {
+                Permutation p = group.get(level, j);
+                if (p == null || p.isIdentity()) {
+                    continue;
+                }
+                for (int x = 0; x < n; x++) {
+                    union(parent, x, p.get(x));
+                }
+            }
+        }
+        int[] orbits = new int[n];
+        for (int i = 0; i < n; i++) {
+            orbits[i] = find(parent, i);
+        }
+        return orbits;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /*
+     * The smaller root wins, so each orbit is named by its smallest atom
+     */
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra < rb) {
+            parent[rb] = ra;
+        } else if (rb < ra) {
+            parent[ra] = rb;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/* Copyright (C) 2009-2018  Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.openscience.smsd.helper;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.isomorphism.matchers.IQueryAtom;
+
+/**
+ * Assigns dense integer codes to atom labels (symbols), "X" being 0 and "R"
+ * 1. An encoder belongs to one matching session, e.g. one compatibility
+ * graph, and is dropped with it. Lookups are hashed and lock free, so the
+ * tasks of a session may share it.
+ *
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class LabelEncoder implements Serializable {
+
+    private static final long serialVersionUID = 5387210493176620113L;
+
+    private final Map<String, Integer> codes;
+    private final Map<Integer, String> labels;
+    private final AtomicInteger counter;
+
+    /**
+     * New encoder knowing only "X" and "R"
+     */
+    public LabelEncoder() {
+        this.codes = new ConcurrentHashMap<>();
+        this.labels = new ConcurrentHashMap<>();
+        this.counter = new AtomicInteger();
+        getLabelID("X");
+        getLabelID("R");
+    }
+
+    /**
+     * Returns the code of the label, assigning the next free one to a new
+     * label
+     *
+     * @param label
+     * @return labelID
+     */
+    public int getLabelID(String label) {
+        return codes.computeIfAbsent(label, l -> {
+            int code = counter.getAndIncrement();
+            labels.put(code, l);
+            return code;
+        });
+    }
+
+    /**
+     * Codes of the atom symbols of a container, "*" for query atoms without
+     * symbol
+     *
+     * @param container
+     * @return labelID of each atom, by atom index
+     */
+    public int[] getLabelIDs(IAtomContainer container) {
+        int[] ids = new int[container.getAtomCount()];
+        for (int i = 0; i < ids.length; i++) {
+            IAtom atom = container.getAtom(i);
+            String symbol = atom.getSymbol();
+            if (symbol == null && atom instanceof IQueryAtom) {
+                symbol = "*";
+            }
+            ids[i] = getLabelID(symbol == null ? "X" : symbol);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns Label of a given ID
+     *
+     * @param labelID
+     * @return label, null if the code was not assigned
+     */
+    public String getLabel(int labelID) {
+        return labels.get(labelID);
+    }
+
+    /**
+     * Returns label count
+     *
+     * @return size of the labels
+     */
+    public int getSize() {
+        return counter.get();
+    }
+}
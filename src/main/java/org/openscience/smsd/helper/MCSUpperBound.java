@@ -0,0 +1,224 @@
+/* Copyright (C) 2009-2018  Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.openscience.smsd.helper;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+
+/**
+ * Cheap upper bounds on the MCS of two molecules, to decide before a search
+ * whether it can find anything worth having. A molecule is reduced once to
+ * sorted integer arrays: its element label of each atom with the atom degree,
+ * and the element pair of each bond. Two profiles are then compared by a
+ * linear merge of the arrays.
+ *
+ * The bounds hold for every atom matcher that at least matches elements and
+ * for bond order insensitive matching. Atoms without an atomic number (R
+ * groups, pseudo atoms) share one label.
+ *
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class MCSUpperBound {
+
+    private static final int DEGREE_BITS = 4;
+    private static final int MAX_DEGREE = (1 << DEGREE_BITS) - 1;
+    private static final int LABELS = 128;
+
+    private final int atomCount;
+    /*
+     * element << DEGREE_BITS | degree, sorted
+     */
+    private final int[] atomKeys;
+    /*
+     * smaller element * LABELS + bigger element, sorted
+     */
+    private final int[] bondKeys;
+
+    private MCSUpperBound(IAtomContainer container) {
+        this.atomCount = container.getAtomCount();
+        int[] elements = new int[atomCount];
+        int[] degrees = new int[atomCount];
+        Map<IAtom, Integer> index = new IdentityHashMap<>(2 * atomCount);
+        for (int i = 0; i < atomCount; i++) {
+            IAtom atom = container.getAtom(i);
+            index.put(atom, i);
+            elements[i] = element(atom);
+        }
+        int[] pairs = new int[container.getBondCount()];
+        int bonds = 0;
+        for (IBond bond : container.bonds()) {
+            Integer a = index.get(bond.getBegin());
+            Integer b = index.get(bond.getEnd());
+            if (a == null || b == null) {
+                continue;
+            }
+            degrees[a]++;
+            degrees[b]++;
+            pairs[bonds++] = Math.min(elements[a], elements[b]) * LABELS + Math.max(elements[a], elements[b]);
+        }
+        this.bondKeys = Arrays.copyOf(pairs, bonds);
+        Arrays.sort(bondKeys);
+        this.atomKeys = new int[atomCount];
+        for (int i = 0; i < atomCount; i++) {
+            atomKeys[i] = elements[i] << DEGREE_BITS | Math.min(degrees[i], MAX_DEGREE);
+        }
+        Arrays.sort(atomKeys);
+    }
+
+    /**
+     * @param container
+     * @return label and degree profile of the container as it is now
+     */
+    public static MCSUpperBound of(IAtomContainer container) {
+        return new MCSUpperBound(container);
+    }
+
+    /**
+     * @return number of atoms profiled
+     */
+    public int getAtomCount() {
+        return atomCount;
+    }
+
+    /**
+     * Upper bound on the number of atoms of a common substructure: the
+     * overlap of the two element multisets.
+     *
+     * @param other
+     * @return maximum number of mapped atoms
+     */
+    public int atomBound(MCSUpperBound other) {
+        int bound = 0;
+        int i = 0;
+        int j = 0;
+        while (i < atomKeys.length && j < other.atomKeys.length) {
+            int e1 = atomKeys[i] >>> DEGREE_BITS;
+            int e2 = other.atomKeys[j] >>> DEGREE_BITS;
+            if (e1 < e2) {
+                i = next(atomKeys, i);
+            } else if (e2 < e1) {
+                j = next(other.atomKeys, j);
+            } else {
+                int end1 = next(atomKeys, i);
+                int end2 = next(other.atomKeys, j);
+                bound += Math.min(end1 - i, end2 - j);
+                i = end1;
+                j = end2;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Upper bound on the number of bonds of a common substructure: the
+     * overlap of the two multisets of bonded element pairs.
+     *
+     * @param other
+     * @return maximum number of mapped bonds
+     */
+    public int bondBound(MCSUpperBound other) {
+        int bound = 0;
+        int i = 0;
+        int j = 0;
+        while (i < bondKeys.length && j < other.bondKeys.length) {
+            if (bondKeys[i] < other.bondKeys[j]) {
+                i++;
+            } else if (other.bondKeys[j] < bondKeys[i]) {
+                j++;
+            } else {
+                bound++;
+                i++;
+                j++;
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Elements are counted as in a substructure: each element of this
+     * molecule occurs at least as often in the other one.
+     *
+     * @param other
+     * @return false if this molecule can't be a substructure of the other
+     */
+    public boolean isElementSubset(MCSUpperBound other) {
+        return atomBound(other) == atomCount;
+    }
+
+    /**
+     * Necessary condition for this molecule to be a substructure of the
+     * other: element by element, the degrees of its atoms, in decreasing
+     * order, never exceed the degrees of the atoms of the other molecule.
+     *
+     * @param other
+     * @return false if this molecule can't be a substructure of the other
+     */
+    public boolean isPossibleSubgraph(MCSUpperBound other) {
+        if (!isElementSubset(other)) {
+            return false;
+        }
+        int j = 0;
+        for (int i = 0; i < atomKeys.length; i = next(atomKeys, i)) {
+            int element = atomKeys[i] >>> DEGREE_BITS;
+            while ((other.atomKeys[j] >>> DEGREE_BITS) < element) {
+                j = next(other.atomKeys, j);
+            }
+            int end1 = next(atomKeys, i);
+            int end2 = next(other.atomKeys, j);
+            /*
+             * Keys sort by degree within an element, compare the highest
+             * degrees of both sides
+             */
+            for (int k = 1; k <= end1 - i; k++) {
+                if (atomKeys[end1 - k] > other.atomKeys[end2 - k]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * End of the run of atom keys with the element of position i
+     */
+    private static int next(int[] keys, int i) {
+        int element = keys[i] >>> DEGREE_BITS;
+        int j = i + 1;
+        while (j < keys.length && (keys[j] >>> DEGREE_BITS) == element) {
+            j++;
+        }
+        return j;
+    }
+
+    private static int element(IAtom atom) {
+        Integer number = atom.getAtomicNumber();
+        if (number == null || number < 0 || number >= LABELS) {
+            return 0;
+        }
+        return number;
+    }
+}
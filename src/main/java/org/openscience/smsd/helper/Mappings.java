@@ -30,6 +30,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashSet;
 import org.openscience.cdk.graph.GraphUtil;
@@ -296,6 +297,27 @@ public final class Mappings implements Iterable<int[]> {
         });
     }
 
+    /**
+     * Filter the mappings for those which are not equivalent under an
+     * automorphism of the target, i.e. one mapping per symmetric set is kept.
+     * The others can be recovered with {@link AtomEquivalence#expand(int[], int)}.
+     *
+     * @return fluent-api instance
+     * @see AtomEquivalence
+     */
+    public Mappings uniqueModuloSymmetry() {
+        // we need the unique predicate to be reset for each new iterator -
+        // otherwise multiple iterations are always filtered (seen before)
+        final AtomEquivalence symmetry = AtomEquivalence.of(target);
+        return new Mappings(query, target, new Iterable<int[]>() {
+
+            @Override
+            public Iterator<int[]> iterator() {
+                return Iterators.filter(iterable.iterator(), new UniqueSymmetricMatches(symmetry));
+            }
+        });
+    }
+
     /**
      * Mappings are lazily generated and best used in a loop. However if all
      * mappings are required this method can provide a fixed size array of
@@ -702,6 +724,61 @@ public final class Mappings implements Iterable<int[]> {
         }
     }
 
+    final class UniqueSymmetricMatches implements Predicate<int[]> {
+
+        /**
+         * Canonical forms of the mappings we have seen already.
+         */
+        private final Set<IntArrayKey> unique;
+
+        /**
+         * Symmetry of the target.
+         */
+        private final AtomEquivalence symmetry;
+
+        /**
+         * Create filter for matches unique up to the target symmetry.
+         *
+         * @param symmetry symmetry of the target
+         */
+        UniqueSymmetricMatches(AtomEquivalence symmetry) {
+            this.unique = Sets.newHashSetWithExpectedSize(10);
+            this.symmetry = symmetry;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean apply(int[] input) {
+            return unique.add(new IntArrayKey(symmetry.canonical(input)));
+        }
+    }
+
+    /**
+     * Value based key of a mapping.
+     */
+    private static final class IntArrayKey {
+
+        private final int[] values;
+        private final int hash;
+
+        private IntArrayKey(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IntArrayKey && Arrays.equals(values, ((IntArrayKey) o).values);
+        }
+    }
+
     final class UniqueBondMatches implements Predicate<int[]> {
 
         /**
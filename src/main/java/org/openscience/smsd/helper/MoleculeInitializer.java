@@ -23,7 +23,6 @@
 package org.openscience.smsd.helper;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import static java.util.Collections.sort;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -34,8 +33,6 @@ import java.util.logging.Level;
 import org.openscience.cdk.CDKConstants;
 import static org.openscience.cdk.CDKConstants.UNSET;
 import org.openscience.cdk.exception.CDKException;
-import org.openscience.cdk.graph.CycleFinder;
-import org.openscience.cdk.graph.Cycles;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IBond;
@@ -48,6 +45,9 @@ import org.openscience.cdk.tools.LoggingToolFactory;
 import org.openscience.cdk.tools.manipulator.RingSetManipulator;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import static org.openscience.smsd.helper.PerceptionState.Perception.INITIALIZED;
+import static org.openscience.smsd.helper.PerceptionState.isPerceived;
+import static org.openscience.smsd.helper.PerceptionState.setPerceived;
 import org.openscience.smsd.tools.ExtAtomContainerManipulator;
 import static org.openscience.smsd.tools.ExtAtomContainerManipulator.aromatizeCDK;
 import static org.openscience.smsd.tools.ExtAtomContainerManipulator.aromatizeDayLight;
@@ -85,7 +85,7 @@ public class MoleculeInitializer {
      * finding code.
      */
     public synchronized static void initializeMolecule(IAtomContainer atomContainer) throws CDKException {
-        if (atomContainer == null) {
+        if (atomContainer == null || isPerceived(atomContainer, INITIALIZED)) {
             return;
         }
         try {
@@ -145,27 +145,19 @@ public class MoleculeInitializer {
             valencesTable.put("Mn", 2);
             valencesTable.put("Co", 2);
 
-            // do all ring perception
-            IRingSet allRings = null;
-            CycleFinder cycleFinder = Cycles.or(Cycles.all(),
-                    Cycles.or(Cycles.relevant(),
-                            Cycles.essential()));
-
-            Cycles cycles = cycleFinder.find(atomContainer);
-            allRings = cycles.toRingSet();
+            // do all ring perception, shared with the later stages
+            RingInfo ringInfo = RingInfo.of(atomContainer);
+            IRingSet allRings = ringInfo.getAllRings();
             /*
              * Mark aromatic rings
              */
             RingSetManipulator.markAromaticRings(allRings);
 
             // sets SSSR information
-            //IRingSet sssr = new SSSRFinder(atomContainer).findEssentialRings();
-            //New Method
-            CycleFinder cf = Cycles.essential();
-            cycles = cf.find(atomContainer); // ignore error - essential cycles do not check tractability
-            IRingSet sssr = cycles.toRingSet();
+            IRingSet sssr = ringInfo.getEssentialRings();
 
-            for (IAtom atom : atomContainer.atoms()) {
+            for (int atomIndex = 0; atomIndex < atomContainer.getAtomCount(); atomIndex++) {
+                IAtom atom = atomContainer.getAtom(atomIndex);
                 if (atom == null) {
                     continue;
                 }
@@ -173,24 +165,22 @@ public class MoleculeInitializer {
                 // add a property to each ring atom that will be an array of
                 // Integers, indicating what size ring the given atom belongs to
                 // Add SSSR ring counts
-                if (allRings != null && allRings.contains(atom)) { // it's in a ring
+                if (ringInfo.isInRing(atomIndex)) { // it's in a ring
                     atom.setIsInRing(true);
                     atom.setIsAromatic(true);
                     atom.setFlag(CDKConstants.ISINRING, true);
                     atom.setFlag(CDKConstants.ISALIPHATIC, false);
                     // lets find which ring sets it is a part of
                     List<Integer> ringsizes = new ArrayList<>();
-                    IRingSet currentRings = allRings.getRings(atom);
                     int min = 0;
-                    for (int i = 0; i < currentRings.getAtomContainerCount(); i++) {
-                        int size = currentRings.getAtomContainer(i).getAtomCount();
+                    for (int size : ringInfo.getAtomRingSizes(atomIndex)) {
                         if (min > size) {
                             min = size;
                         }
                         ringsizes.add(size);
                     }
-                    Collections.sort(ringsizes);
                     atom.setProperty(CDKConstants.RING_SIZES, ringsizes);
+                    atom.setProperty(RingInfo.RING_SIZE_MASK, ringInfo.getAtomRingSizeMask(atomIndex));
                     atom.setProperty(CDKConstants.SMALLEST_RINGS, sssr.getRings(atom));
                     atom.setProperty(SMALLEST_RING_SIZE, min);
                 } else {
@@ -224,8 +214,9 @@ public class MoleculeInitializer {
                 }
             }
 
-            for (IBond bond : atomContainer.bonds()) {
-                if (allRings != null && allRings.getRings(bond).getAtomContainerCount() > 0) {
+            for (int bondIndex = 0; bondIndex < atomContainer.getBondCount(); bondIndex++) {
+                IBond bond = atomContainer.getBond(bondIndex);
+                if (ringInfo.isBondInRing(bondIndex)) {
                     bond.setFlag(CDKConstants.ISINRING, true);
                     bond.setFlag(CDKConstants.ISALIPHATIC, false);
 
@@ -253,7 +244,7 @@ public class MoleculeInitializer {
 
             ExtAtomContainerManipulator.aromatizeMolecule(atomContainer);
         }
-
+        setPerceived(atomContainer, INITIALIZED);
     }
 
     /*
@@ -0,0 +1,181 @@
+/* Copyright (C) 2009-2018  Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.openscience.smsd.helper;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+
+/**
+ * Remembers which perceptions (atom typing, aromaticity, ring marking) were
+ * run on a container and in which state the container was left. The state is
+ * a stamp over the atoms and bonds (identity, element, charge, hydrogens,
+ * atom type, hybridisation, bond order and the aromatic and ring flags), so
+ * any structural change or a different perception overwriting the flags
+ * invalidates it and the perception runs again on that container only.
+ *
+ * The stamps are kept in a weak map, they do not keep containers alive.
+ *
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class PerceptionState {
+
+    /**
+     * Kinds of perception
+     */
+    public enum Perception {
+
+        /**
+         * CDK atom types configured
+         */
+        ATOM_TYPES,
+        /**
+         * CDK electron donation aromaticity
+         */
+        CDK_AROMATICITY,
+        /**
+         * Daylight electron donation aromaticity over all/relevant cycles
+         */
+        DAYLIGHT_AROMATICITY,
+        /**
+         * Daylight electron donation aromaticity over all/relevant/essential
+         * cycles
+         */
+        DAYLIGHT_ALL_CYCLES_AROMATICITY,
+        /**
+         * MoleculeInitializer (atom types, aromaticity and ring properties)
+         */
+        INITIALIZED
+    }
+
+    private static final Map<IAtomContainer, Map<Perception, Long>> STATES = new WeakHashMap<>();
+
+    private PerceptionState() {
+    }
+
+    /**
+     * @param container
+     * @param perception
+     * @return true if the perception was run and the container has not
+     * changed since
+     */
+    public static boolean isPerceived(IAtomContainer container, Perception perception) {
+        Long stamp;
+        synchronized (STATES) {
+            Map<Perception, Long> state = STATES.get(container);
+            stamp = state == null ? null : state.get(perception);
+        }
+        return stamp != null && stamp == modificationStamp(container);
+    }
+
+    /**
+     * Record that the perception was run on the container as it is now.
+     *
+     * @param container
+     * @param perception
+     */
+    public static void setPerceived(IAtomContainer container, Perception perception) {
+        long stamp = modificationStamp(container);
+        synchronized (STATES) {
+            STATES.computeIfAbsent(container, c -> new EnumMap<>(Perception.class)).put(perception, stamp);
+        }
+    }
+
+    /**
+     * Carry the still valid perceptions of a container over to a faithful
+     * copy (atoms and bonds cloned with their flags and properties).
+     *
+     * @param source
+     * @param copy
+     */
+    public static void copy(IAtomContainer source, IAtomContainer copy) {
+        Map<Perception, Long> state;
+        synchronized (STATES) {
+            state = STATES.get(source);
+            if (state == null) {
+                return;
+            }
+            state = new EnumMap<>(state);
+        }
+        long sourceStamp = modificationStamp(source);
+        long copyStamp = modificationStamp(copy);
+        Map<Perception, Long> copied = new EnumMap<>(Perception.class);
+        for (Map.Entry<Perception, Long> e : state.entrySet()) {
+            if (e.getValue() == sourceStamp) {
+                copied.put(e.getKey(), copyStamp);
+            }
+        }
+        if (!copied.isEmpty()) {
+            synchronized (STATES) {
+                STATES.put(copy, copied);
+            }
+        }
+    }
+
+    /**
+     * Forget all perceptions of the container.
+     *
+     * @param container
+     */
+    public static void clear(IAtomContainer container) {
+        synchronized (STATES) {
+            STATES.remove(container);
+        }
+    }
+
+    /**
+     * @param container
+     * @return stamp of the structure and perceived state of the container
+     */
+    public static long modificationStamp(IAtomContainer container) {
+        long stamp = 1125899906842597L;
+        stamp = 31 * stamp + container.getAtomCount();
+        stamp = 31 * stamp + container.getBondCount();
+        for (IAtom atom : container.atoms()) {
+            stamp = 31 * stamp + System.identityHashCode(atom);
+            stamp = 31 * stamp + hash(atom.getSymbol());
+            stamp = 31 * stamp + hash(atom.getFormalCharge());
+            stamp = 31 * stamp + hash(atom.getImplicitHydrogenCount());
+            stamp = 31 * stamp + hash(atom.getAtomTypeName());
+            stamp = 31 * stamp + hash(atom.getHybridization());
+            stamp = 31 * stamp + (atom.isAromatic() ? 1 : 2);
+            stamp = 31 * stamp + (atom.isInRing() ? 1 : 2);
+        }
+        for (IBond bond : container.bonds()) {
+            stamp = 31 * stamp + System.identityHashCode(bond);
+            stamp = 31 * stamp + System.identityHashCode(bond.getBegin());
+            stamp = 31 * stamp + System.identityHashCode(bond.getEnd());
+            stamp = 31 * stamp + hash(bond.getOrder());
+            stamp = 31 * stamp + (bond.isAromatic() ? 1 : 2);
+            stamp = 31 * stamp + (bond.isInRing() ? 1 : 2);
+        }
+        return stamp;
+    }
+
+    private static int hash(Object o) {
+        return o == null ? 0 : o.hashCode();
+    }
+}
@@ -0,0 +1,279 @@
+/* Copyright (C) 2009-2018  Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.openscience.smsd.helper;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.openscience.cdk.exception.Intractable;
+import org.openscience.cdk.graph.CycleFinder;
+import org.openscience.cdk.graph.Cycles;
+import org.openscience.cdk.graph.GraphUtil;
+import org.openscience.cdk.graph.GraphUtil.EdgeToBondMap;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+import org.openscience.cdk.interfaces.IRing;
+import org.openscience.cdk.interfaces.IRingSet;
+
+/**
+ * Ring perception of a molecule, done once and shared by the initializer,
+ * the aromaticity code, the matchers and the mapping stages: all rings
+ * (all, else relevant, else essential cycles), the essential rings and the
+ * number of vertex short cycles, with the ring sizes of each atom and bond as
+ * bit masks.
+ *
+ * The cycles are kept as atom index paths in a weak map and rebuilt into new
+ * {@link IRingSet}s on request, so callers may flag the rings freely. They
+ * are found again only when the connectivity of the molecule changes.
+ *
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class RingInfo {
+
+    /**
+     * Atom property holding the ring size mask of the atom (Long), set by
+     * {@link MoleculeInitializer}
+     */
+    public static final String RING_SIZE_MASK = "RING_SIZE_MASK";
+    /**
+     * Mask bit of rings of this size or bigger
+     */
+    public static final int LARGE_RING = 63;
+    private static final CycleFinder ALL_CYCLES = Cycles.or(Cycles.all(),
+            Cycles.or(Cycles.relevant(),
+                    Cycles.essential()));
+    private static final Map<IAtomContainer, RingInfo> CACHE = new WeakHashMap<>();
+
+    private final WeakReference<IAtomContainer> container;
+    private final long stamp;
+    private final int[][] allPaths;
+    private final long[] atomMasks;
+    private final long[] bondMasks;
+    private final int[][] atomRingSizes;
+    private int[][] essentialPaths;
+    private int shortCycleCount;
+
+    private RingInfo(IAtomContainer container, long stamp) throws Intractable {
+        this.container = new WeakReference<>(container);
+        this.stamp = stamp;
+        this.allPaths = ALL_CYCLES.find(container).paths();
+        this.atomMasks = new long[container.getAtomCount()];
+        this.bondMasks = new long[container.getBondCount()];
+        int[] counts = new int[atomMasks.length];
+        for (int[] path : allPaths) {
+            for (int i = 0; i < path.length - 1; i++) {
+                counts[path[i]]++;
+            }
+        }
+        this.atomRingSizes = new int[atomMasks.length][];
+        for (int i = 0; i < atomRingSizes.length; i++) {
+            atomRingSizes[i] = new int[counts[i]];
+        }
+        Arrays.fill(counts, 0);
+        EdgeToBondMap bonds = EdgeToBondMap.withSpaceFor(container);
+        GraphUtil.toAdjList(container, bonds);
+        Map<IBond, Integer> bondIndex = new IdentityHashMap<>();
+        for (int i = 0; i < bondMasks.length; i++) {
+            bondIndex.put(container.getBond(i), i);
+        }
+        for (int[] path : allPaths) {
+            int size = path.length - 1;
+            long bit = 1L << Math.min(size, LARGE_RING);
+            for (int i = 0; i < size; i++) {
+                atomMasks[path[i]] |= bit;
+                atomRingSizes[path[i]][counts[path[i]]++] = size;
+                bondMasks[bondIndex.get(bonds.get(path[i], path[i + 1]))] |= bit;
+            }
+        }
+        for (int[] sizes : atomRingSizes) {
+            Arrays.sort(sizes);
+        }
+        this.essentialPaths = null;
+        this.shortCycleCount = -1;
+    }
+
+    /**
+     * @param container
+     * @return ring information of the container as it is connected now
+     * @throws Intractable if the rings can't be found
+     */
+    public static RingInfo of(IAtomContainer container) throws Intractable {
+        long stamp = connectivityStamp(container);
+        synchronized (CACHE) {
+            RingInfo cached = CACHE.get(container);
+            if (cached != null && cached.stamp == stamp) {
+                return cached;
+            }
+        }
+        RingInfo info = new RingInfo(container, stamp);
+        synchronized (CACHE) {
+            CACHE.put(container, info);
+        }
+        return info;
+    }
+
+    /**
+     * @return all rings, in the order of the cycle finder
+     */
+    public IRingSet getAllRings() {
+        return toRingSet(allPaths);
+    }
+
+    /**
+     * @return number of rings in {@link #getAllRings()}
+     */
+    public int getRingCount() {
+        return allPaths.length;
+    }
+
+    /**
+     * @return essential rings (SSSR common to all minimum cycle bases)
+     * @throws Intractable
+     */
+    public synchronized IRingSet getEssentialRings() throws Intractable {
+        if (essentialPaths == null) {
+            essentialPaths = Cycles.essential().find(container()).paths();
+        }
+        return toRingSet(essentialPaths);
+    }
+
+    /**
+     * @return number of vertex short cycles
+     * @throws Intractable
+     */
+    public synchronized int getShortCycleCount() throws Intractable {
+        if (shortCycleCount < 0) {
+            shortCycleCount = Cycles.vertexShort().find(container()).numberOfCycles();
+        }
+        return shortCycleCount;
+    }
+
+    /**
+     * @param atomIndex
+     * @return true if the atom is in a ring
+     */
+    public boolean isInRing(int atomIndex) {
+        return atomMasks[atomIndex] != 0;
+    }
+
+    /**
+     * @param bondIndex
+     * @return true if the bond is in a ring
+     */
+    public boolean isBondInRing(int bondIndex) {
+        return bondMasks[bondIndex] != 0;
+    }
+
+    /**
+     * @param atomIndex
+     * @return bit s set for each size s of the rings of the atom,
+     * {@link #LARGE_RING} for the bigger ones
+     */
+    public long getAtomRingSizeMask(int atomIndex) {
+        return atomMasks[atomIndex];
+    }
+
+    /**
+     * @param bondIndex
+     * @return bit s set for each size s of the rings of the bond,
+     * {@link #LARGE_RING} for the bigger ones
+     */
+    public long getBondRingSizeMask(int bondIndex) {
+        return bondMasks[bondIndex];
+    }
+
+    /**
+     * @param atomIndex
+     * @return sorted size of each ring of the atom
+     */
+    public int[] getAtomRingSizes(int atomIndex) {
+        return atomRingSizes[atomIndex].clone();
+    }
+
+    /**
+     * Ring size masks compare exactly as sets of ring sizes unless a big ring
+     * is involved.
+     *
+     * @param mask ring size mask
+     * @return true if the mask only has exact ring sizes
+     */
+    public static boolean isExact(long mask) {
+        return (mask & (1L << LARGE_RING)) == 0;
+    }
+
+    private IAtomContainer container() {
+        IAtomContainer ac = container.get();
+        if (ac == null) {
+            throw new IllegalStateException("The molecule of the ring information was released");
+        }
+        return ac;
+    }
+
+    private IRingSet toRingSet(int[][] paths) {
+        IAtomContainer ac = container.get();
+        if (ac == null) {
+            return null;
+        }
+        IRingSet rings = ac.getBuilder().newInstance(IRingSet.class);
+        if (paths.length == 0) {
+            return rings;
+        }
+        EdgeToBondMap bonds = EdgeToBondMap.withSpaceFor(ac);
+        GraphUtil.toAdjList(ac, bonds);
+        for (int[] path : paths) {
+            int size = path.length - 1;
+            IAtom[] atoms = new IAtom[size];
+            IBond[] ringBonds = new IBond[size];
+            for (int i = 0; i < size; i++) {
+                atoms[i] = ac.getAtom(path[i]);
+                ringBonds[i] = bonds.get(path[i], path[i + 1]);
+            }
+            IAtomContainer cycle = ac.getBuilder().newInstance(IAtomContainer.class, 0, 0, 0, 0);
+            cycle.setAtoms(atoms);
+            cycle.setBonds(ringBonds);
+            rings.addAtomContainer(ac.getBuilder().newInstance(IRing.class, cycle));
+        }
+        return rings;
+    }
+
+    /*
+     * Rings only depend on which atoms are bonded
+     */
+    private static long connectivityStamp(IAtomContainer container) {
+        long stamp = 1125899906842597L;
+        stamp = 31 * stamp + container.getAtomCount();
+        stamp = 31 * stamp + container.getBondCount();
+        for (IAtom atom : container.atoms()) {
+            stamp = 31 * stamp + System.identityHashCode(atom);
+        }
+        for (IBond bond : container.bonds()) {
+            stamp = 31 * stamp + System.identityHashCode(bond);
+            stamp = 31 * stamp + System.identityHashCode(bond.getBegin());
+            stamp = 31 * stamp + System.identityHashCode(bond.getEnd());
+        }
+        return stamp;
+    }
+}
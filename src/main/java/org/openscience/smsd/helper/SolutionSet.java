@@ -0,0 +1,110 @@
+/* Copyright (C) 2009-2018  Syed Asad Rahman <asad at ebi.ac.uk>
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.openscience.smsd.helper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Hashed gate for collecting unique solutions (mappings) of a search. The
+ * solutions are kept in the caller's ordered list, this set only answers in
+ * constant time whether a solution was seen before and stops accepting once
+ * the limit on stored solutions is reached. Solutions must not change after
+ * they are added.
+ *
+ * @param <T> solution type, with value based equals and hashCode
+ * @author Syed Asad Rahman <asad at ebi.ac.uk>
+ */
+public final class SolutionSet<T> {
+
+    /**
+     * No limit on the number of stored solutions
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final Set<T> solutions;
+    private final int limit;
+
+    /**
+     * Unlimited solution set
+     */
+    public SolutionSet() {
+        this(UNLIMITED);
+    }
+
+    /**
+     * @param limit maximum number of solutions to accept
+     */
+    public SolutionSet(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Solution limit must be positive: " + limit);
+        }
+        this.solutions = new HashSet<>();
+        this.limit = limit;
+    }
+
+    /**
+     * @param solution
+     * @return true if the solution is new and the limit is not reached, the
+     * caller should then store it
+     */
+    public boolean add(T solution) {
+        return solutions.size() < limit && solutions.add(solution);
+    }
+
+    /**
+     * @param solution
+     * @return true if the solution was accepted before
+     */
+    public boolean contains(T solution) {
+        return solutions.contains(solution);
+    }
+
+    /**
+     * @return true if no more solutions are accepted
+     */
+    public boolean isFull() {
+        return solutions.size() >= limit;
+    }
+
+    /**
+     * @return number of accepted solutions
+     */
+    public int size() {
+        return solutions.size();
+    }
+
+    /**
+     * @return maximum number of solutions accepted
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Forget all solutions, e.g. when a bigger solution size was found.
+     */
+    public void clear() {
+        solutions.clear();
+    }
+}
@@ -35,7 +35,6 @@ import org.openscience.cdk.aromaticity.ElectronDonation;
 import org.openscience.cdk.atomtype.CDKAtomTypeMatcher;
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.graph.ConnectivityChecker;
-import org.openscience.cdk.graph.CycleFinder;
 import org.openscience.cdk.graph.Cycles;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomType;
@@ -56,6 +55,14 @@ import static org.openscience.cdk.tools.manipulator.AtomContainerManipulator.con
 import static org.openscience.cdk.tools.manipulator.AtomContainerManipulator.suppressHydrogens;
 import org.openscience.cdk.tools.manipulator.AtomTypeManipulator;
 import org.openscience.cdk.tools.manipulator.RingSetManipulator;
+import org.openscience.smsd.helper.PerceptionState;
+import org.openscience.smsd.helper.RingInfo;
+import static org.openscience.smsd.helper.PerceptionState.Perception.ATOM_TYPES;
+import static org.openscience.smsd.helper.PerceptionState.Perception.CDK_AROMATICITY;
+import static org.openscience.smsd.helper.PerceptionState.Perception.DAYLIGHT_AROMATICITY;
+import static org.openscience.smsd.helper.PerceptionState.Perception.DAYLIGHT_ALL_CYCLES_AROMATICITY;
+import static org.openscience.smsd.helper.PerceptionState.isPerceived;
+import static org.openscience.smsd.helper.PerceptionState.setPerceived;
 
 /**
  * Class that handles some customised features for atom containers.
@@ -73,6 +80,13 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
     private static final ILoggingTool LOGGER
             = LoggingToolFactory.createLoggingTool(ExtAtomContainerManipulator.class);
     static final long serialVersionUID = 1786786539472837495L;
+    private static final Aromaticity DAYLIGHT_AROMATICITY_MODEL
+            = new Aromaticity(ElectronDonation.daylight(), Cycles.or(Cycles.all(), Cycles.relevant()));
+    private static final Aromaticity DAYLIGHT_ALL_CYCLES_AROMATICITY_MODEL
+            = new Aromaticity(ElectronDonation.daylight(), Cycles.or(Cycles.all(),
+                    Cycles.or(Cycles.relevant(), Cycles.essential())));
+    private static final Aromaticity CDK_AROMATICITY_MODEL
+            = new Aromaticity(ElectronDonation.cdk(), Cycles.cdkAromaticSet());
 
     /**
      * Create an copy of the {@code org} structure with explicit hydrogens
@@ -190,12 +204,7 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
             // need to find rings and aromaticity again since added H's
             IRingSet ringSet = null;
             try {
-//                AllRingsFinder arf = new AllRingsFinder();
-//                ringSet = arf.findAllRings(mol);
-                CycleFinder cycleFinder = Cycles.or(Cycles.all(),
-                        Cycles.or(Cycles.relevant(),
-                                Cycles.essential()));
-                ringSet = cycleFinder.find(mol).toRingSet();
+                ringSet = RingInfo.of(mol).getAllRings();
                 RingSetManipulator.markAromaticRings(ringSet);
             } catch (CDKException e) {
                 LOGGER.error(Level.WARNING, "Error in find and assigning rings in the molecule. ", mol.getID(), e.getMessage());
@@ -280,6 +289,7 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
         ac.setFlags(container.getFlags());
         ac.setID(container.getID());
         ac.notifyChanged();
+        PerceptionState.copy(container, ac);
         return ac;
     }
 
@@ -390,6 +400,9 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
      * @throws CDKException
      */
     public static void percieveAtomTypesAndConfigureAtoms(IAtomContainer container) throws CDKException {
+        if (isPerceived(container, ATOM_TYPES)) {
+            return;
+        }
         CDKAtomTypeMatcher matcher = CDKAtomTypeMatcher.getInstance(container.getBuilder());
         for (IAtom atom : container.atoms()) {
             if (!(atom instanceof IPseudoAtom)) {
@@ -404,6 +417,7 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
                 }
             }
         }
+        setPerceived(container, ATOM_TYPES);
     }
 
     /**
@@ -447,11 +461,12 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
      * @throws CDKException
      */
     public static void aromatizeDayLight(IAtomContainer molecule) throws CDKException {
-        ElectronDonation model = ElectronDonation.daylight();
-        CycleFinder cycles = Cycles.or(Cycles.all(), Cycles.relevant());
-        Aromaticity aromaticity = new Aromaticity(model, cycles);
+        if (isPerceived(molecule, DAYLIGHT_AROMATICITY)) {
+            return;
+        }
         try {
-            aromaticity.apply(molecule);
+            DAYLIGHT_AROMATICITY_MODEL.apply(molecule);
+            setPerceived(molecule, DAYLIGHT_AROMATICITY);
         } catch (CDKException e) {
             LOGGER.error(Level.WARNING,
                     "Aromaticity detection failed due to presence of unset "
@@ -459,18 +474,34 @@ public class ExtAtomContainerManipulator extends AtomContainerManipulator implem
         }
     }
 
+    /**
+     * Daylight aromaticity over all, relevant and essential cycles, skipped if
+     * the molecule is unchanged since it was last applied.
+     *
+     * @param molecule
+     * @throws CDKException
+     */
+    public static void aromatizeDayLightAllCycles(IAtomContainer molecule) throws CDKException {
+        if (isPerceived(molecule, DAYLIGHT_ALL_CYCLES_AROMATICITY)) {
+            return;
+        }
+        DAYLIGHT_ALL_CYCLES_AROMATICITY_MODEL.apply(molecule);
+        setPerceived(molecule, DAYLIGHT_ALL_CYCLES_AROMATICITY);
+    }
+
     /**
      *
      * @param molecule
      * @throws CDKException
      */
     public static void aromatizeCDK(IAtomContainer molecule) throws CDKException {
-        ElectronDonation model = ElectronDonation.cdk();
-        CycleFinder cycles = Cycles.cdkAromaticSet();
-        Aromaticity aromaticity = new Aromaticity(model, cycles);
+        if (isPerceived(molecule, CDK_AROMATICITY)) {
+            return;
+        }
         ExtAtomContainerManipulator.percieveAtomTypesAndConfigureAtoms(molecule);
         try {
-            aromaticity.apply(molecule);
+            CDK_AROMATICITY_MODEL.apply(molecule);
+            setPerceived(molecule, CDK_AROMATICITY);
         } catch (CDKException e) {
             LOGGER.error(Level.WARNING,
                     "Aromaticity detection failed due to presence of unset "
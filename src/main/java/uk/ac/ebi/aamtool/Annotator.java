@@ -185,58 +185,24 @@ public class Annotator extends Helper {
         File rcMatrix = new File(rootPath, jobID + "_Reaction_Centre" + ".mat");
         File stMatrix = new File(rootPath, jobID + "_Structure_Similarity" + ".mat");
 
-        FileWriter writerBC = new FileWriter(bcMatrix);
-        BufferedWriter bufferedWriterBC = new BufferedWriter(writerBC);
-
-        FileWriter writerRC = new FileWriter(rcMatrix);
-        BufferedWriter bufferedWriterRC = new BufferedWriter(writerRC);
-
-        FileWriter writerST = new FileWriter(stMatrix);
-        BufferedWriter bufferedWriterST = new BufferedWriter(writerST);
-
-        bufferedWriterBC.newLine();
-        try {
-            for (SimilarityResult s : results) {
-                if (s.getSimilarityReactions().containsKey("BC")) {
-                    bufferedWriterBC.write("\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB + s.getSimilarityReactions().get("BC"));
-                    bufferedWriterBC.newLine();
-                } else {
-                    bufferedWriterBC.write("\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB + "NA");
-                    bufferedWriterBC.newLine();
-                }
-            }
-        } finally {
-            bufferedWriterBC.close();
-        }
-
-        try {
-            for (SimilarityResult s : results) {
-                if (s.getSimilarityReactions().containsKey("RC")) {
-                    bufferedWriterRC.write("\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB + s.getSimilarityReactions().get("RC"));
-                    bufferedWriterRC.newLine();
-                } else {
-                    bufferedWriterRC.write("\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB + "NA");
-                    bufferedWriterRC.newLine();
-                }
-            }
-        } finally {
-            bufferedWriterRC.close();
-        }
-
-        try {
+        try (BufferedWriter bufferedWriterBC = new BufferedWriter(new FileWriter(bcMatrix));
+                BufferedWriter bufferedWriterRC = new BufferedWriter(new FileWriter(rcMatrix));
+                BufferedWriter bufferedWriterST = new BufferedWriter(new FileWriter(stMatrix))) {
+            bufferedWriterBC.newLine();
+            /*
+             * One pass over the results fills the three matrices
+             */
             for (SimilarityResult s : results) {
-                if (s.getSimilarityReactions().containsKey("ST")) {
-                    bufferedWriterST.write("\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB + s.getSimilarityReactions().get("ST"));
-                    bufferedWriterST.newLine();
-                } else {
-                    bufferedWriterST.write("\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB + "NA");
-                    bufferedWriterST.newLine();
-                }
+                String pair = "\"" + s.getQuery() + "\"" + TAB + "\"" + s.getTarget() + "\"" + TAB;
+                Map<String, String> scores = s.getSimilarityReactions();
+                bufferedWriterBC.write(pair + scores.getOrDefault("BC", "NA"));
+                bufferedWriterBC.newLine();
+                bufferedWriterRC.write(pair + scores.getOrDefault("RC", "NA"));
+                bufferedWriterRC.newLine();
+                bufferedWriterST.write(pair + scores.getOrDefault("ST", "NA"));
+                bufferedWriterST.newLine();
             }
-        } finally {
-            bufferedWriterST.close();
         }
-
     }
 
     private void printRPAIRPatternAsText(MappingSolution s, StringBuilder sb) throws CloneNotSupportedException {
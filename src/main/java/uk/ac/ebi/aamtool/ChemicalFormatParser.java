@@ -26,11 +26,15 @@ import java.io.IOException;
 import static java.lang.String.format;
 import static java.lang.System.exit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import static java.util.logging.Level.INFO;
 import static java.util.logging.Level.SEVERE;
 import static java.util.logging.Level.WARNING;
 import org.openscience.cdk.AtomContainer;
+import org.openscience.cdk.DefaultChemObjectBuilder;
 import org.openscience.cdk.Reaction;
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.exception.InvalidSmilesException;
@@ -46,7 +50,7 @@ import org.openscience.cdk.smiles.SmilesParser;
 import org.openscience.cdk.tools.ILoggingTool;
 import org.openscience.cdk.tools.LoggingToolFactory;
 import static uk.ac.ebi.aamtool.Annotator.NEW_LINE;
-import uk.ac.ebi.reactionblast.tools.rxnfile.MDLRXNV2000Reader;
+import uk.ac.ebi.reactionblast.tools.rxnfile.IteratingRXNReader;
 import uk.ac.ebi.reactionblast.tools.rxnfile.MDLV2000Reader;
 
 /**
@@ -57,6 +61,10 @@ class ChemicalFormatParser {
 
     private static final ILoggingTool LOGGER
             = LoggingToolFactory.createLoggingTool(ChemicalFormatParser.class);
+    /*
+     * RDF/RXN files larger than this are memory mapped while streaming
+     */
+    private static final long MEMORY_MAP_THRESHOLD = 16L * 1024L * 1024L;
 
     protected IReaction parseCML(String input) throws FileNotFoundException, CDKException {
         File f = new File(input);
@@ -75,6 +83,18 @@ class ChemicalFormatParser {
     }
 
     protected List<IReaction> parseRXN(String fileNames) {
+        return parseRXN(fileNames, true);
+    }
+
+    /**
+     * Parse one or more (";" separated) RXN files.
+     *
+     * @param fileNames
+     * @param roundTripSMILES normalise each reaction through a SMILES round
+     * trip, can be skipped for clean input
+     * @return reactions read from the files
+     */
+    protected List<IReaction> parseRXN(String fileNames, boolean roundTripSMILES) {
         /*
          split of file extension
          */
@@ -91,26 +111,74 @@ class ChemicalFormatParser {
                 LOGGER.error(WARNING, format("RXN file not found! %s", filepath.getName()));
                 exit(1);
             }
-            try {
-                LOGGER.error(INFO, "Annotating Reaction {0}", filepath.getName());
-                IReaction rxnReactions;
-                try (MDLRXNV2000Reader reader = new MDLRXNV2000Reader(new FileReader(filepath));) {
+            LOGGER.error(INFO, "Annotating Reaction {0}", filepath.getName());
+            Iterator<IReaction> iterator = iterateRXN(filepath, roundTripSMILES);
+            while (iterator.hasNext()) {
+                reactions.add(iterator.next());
+            }
+        }
+        return reactions;
+    }
+
+    /**
+     * Stream reactions from an RDF file, a file with several RXN records or a
+     * directory of RXN files. Only one reaction is read ahead of the caller.
+     *
+     * @param fileOrDirectory
+     * @param roundTripSMILES normalise each reaction through a SMILES round
+     * trip, can be skipped for clean input
+     * @return lazy iterator over the reactions, empty if the input could not
+     * be opened
+     */
+    protected Iterator<IReaction> iterateRXN(File fileOrDirectory, boolean roundTripSMILES) {
+        final IteratingRXNReader reader;
+        try {
+            reader = new IteratingRXNReader(fileOrDirectory, DefaultChemObjectBuilder.getInstance(),
+                    RELAXED, fileOrDirectory.length() > MEMORY_MAP_THRESHOLD);
+        } catch (IOException ex) {
+            LOGGER.debug("Failed to Read and Annotate RXN File ");
+            LOGGER.error(SEVERE, null, ex);
+            return Collections.<IReaction>emptyIterator();
+        }
+        reader.setSkipErrors(true);
+        return new Iterator<IReaction>() {
+
+            private IReaction next = null;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && reader.hasNext()) {
+                    IReaction reaction = reader.next();
+                    if (!roundTripSMILES) {
+                        next = reaction;
+                        break;
+                    }
+                    try {
+                        next = convertRoundTripRXNSMILES(reaction);
+                    } catch (CDKException ex) {
+                        LOGGER.debug("ERROR in Reading Reaction file " + reaction.getID() + NEW_LINE + ex);
+                    }
+                }
+                if (next == null) {
                     try {
-                        rxnReactions = reader.read(new Reaction());
                         reader.close();
-                        rxnReactions.setID(filepath.getName().split(".rxn")[0]);
-                        rxnReactions = convertRoundTripRXNSMILES(rxnReactions);
-                        reactions.add(rxnReactions);
-                    } catch (IOException | CDKException ex) {
-                        LOGGER.debug("ERROR in Reading Reaction file " + filepath + NEW_LINE + ex);
+                    } catch (IOException ex) {
+                        LOGGER.debug(ex);
                     }
                 }
-            } catch (IOException ex) {
-                LOGGER.debug("Failed to Read and Annotate RXN File ");
-                LOGGER.error(SEVERE, null, ex);
+                return next != null;
             }
-        }
-        return reactions;
+
+            @Override
+            public IReaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                IReaction reaction = next;
+                next = null;
+                return reaction;
+            }
+        };
     }
 
     protected IReaction convertRoundTripRXNSMILES(IReaction r) throws CDKException {
@@ -51,7 +51,7 @@ public class CommandLineOptions {
         optionsAAM.addOption("m", "mappings", false, "Report all mappings");
         optionsAAM.addOption("u", "premap", false, "use user defined mappings");
         optionsAAM.addOption("p", "prefix", true, "Job prefix");
-        optionsAAM.addOption("f", "formatO", true, "Output format (TEXT/XML)");
+        optionsAAM.addOption("f", "formatO", true, "Output format (TEXT/XML/BOTH/JSONL)");
         optionsAAM.addOption("c", "complexMode", true, "Use Rings etc. bit time comsuming");
 
         return optionsAAM;
@@ -70,7 +70,7 @@ public class CommandLineOptions {
         optionsCompare.addOption("u", "premap", false, "use user defined mappings");
         optionsCompare.addOption("g", "image", false, "create png of the mapping");
         optionsCompare.addOption("p", "prefix", true, "Job prefix");
-        optionsCompare.addOption("f", "formatO", true, "Output format (TEXT/XML/BOTH)");
+        optionsCompare.addOption("f", "formatO", true, "Output format (TEXT/XML/BOTH/JSONL)");
         optionsCompare.addOption("x", "patterns", false, "Report all matched molecular pairs (RPAIR type)");
         optionsCompare.addOption("c", "complexMode", true, "Use Rings etc. bit time comsuming");
         return optionsCompare;
@@ -91,7 +91,7 @@ public class CommandLineOptions {
         optionsCompare.addOption("j", "job", true, "Task (COMPARE)");
         optionsCompare.addOption("g", "image", false, "create png of the mapping");
         optionsCompare.addOption("p", "prefix", true, "Job prefix");
-        optionsCompare.addOption("f", "formatO", true, "Output format (TEXT/XML/BOTH)");
+        optionsCompare.addOption("f", "formatO", true, "Output format (TEXT/XML/BOTH/JSONL)");
         optionsCompare.addOption("x", "patterns", false, "Report all matched molecular pairs (RPAIR type)");
         optionsCompare.addOption("c", "complexMode", true, "Use Rings etc. bit time comsuming");
         return optionsCompare;
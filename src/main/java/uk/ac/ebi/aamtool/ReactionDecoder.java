@@ -18,30 +18,15 @@
  */
 package uk.ac.ebi.aamtool;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
-import java.io.Writer;
 import static java.lang.System.out;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import static java.util.logging.Level.SEVERE;
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import static javax.xml.transform.OutputKeys.ENCODING;
-import static javax.xml.transform.OutputKeys.INDENT;
-import static javax.xml.transform.OutputKeys.METHOD;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Options;
@@ -51,6 +36,7 @@ import org.openscience.cdk.tools.ILoggingTool;
 import org.openscience.cdk.tools.LoggingToolFactory;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import uk.ac.ebi.reactionblast.mechanism.ReactionMechanismTool;
 
 /**
@@ -147,47 +133,87 @@ public class ReactionDecoder extends Annotator {
         super();
     }
 
-    private void FormatXMLToFile(Document doc, String fileName) throws TransformerConfigurationException, TransformerException {
-
-        // write xml to file
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    /*
+     * Reactions of the query, all of them are reported
+     */
+    private List<IReaction> parseQuery(String format, String optionValue, Options options) {
+        switch (format) {
+            case "SMI":
+                if (optionValue.contains(">>")) {
+                    return parseReactionSMILES(optionValue);
+                }
+                LOGGER.debug("Not a valid reaction SMILES");
+                return new ArrayList<>();
+            case "RXN":
+                return parseRXN(optionValue);
+            default:
+                displayBlankLines(2, out);
+                out.println("-- USAGE --");
+                printHelp(out, options);
+                return new ArrayList<>();
+        }
+    }
 
-        Transformer transformer = transformerFactory.newTransformer();
-        transformer.setOutputProperty(METHOD, "xml");
-        transformer.setOutputProperty(ENCODING, "UTF-8");
-        transformer.setOutputProperty(INDENT, "yes");
-        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+    private String jobFileName(String id, String task) {
+        if (!PREFIX.isEmpty()) {
+            return PREFIX + "_ECBLAST_" + id + task;
+        }
+        return "ECBLAST_" + id + task;
+    }
 
+    private static Document newDocument() throws ParserConfigurationException {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
         doc.setXmlStandalone(true);
-        DOMSource source = new DOMSource(doc);
-
-        /*
-         Write to a File
-         */
-        File file = new File(fileName + ".xml");
-        StreamResult result = new StreamResult(file);
-        transformer.transform(source, result);
-
-        out.println("Output is presented in xml format: " + file.getAbsolutePath());
+        return doc;
+    }
 
-        if (DEBUG) {
-            // Show output on console during development
-            result = new StreamResult(out);
-            transformer.transform(source, result);
+    /*
+     * One ANNOTATION record per reaction
+     */
+    private void writeAnnotation(ReportWriter report, String id, boolean label,
+            ReactionMechanismTool annotateReaction, String reactionID)
+            throws ParserConfigurationException, CloneNotSupportedException, IOException {
+        Element record = null;
+        if (report.isXML() || report.isJSONLines()) {
+            Document doc = newDocument();
+            Element rootElement = doc.createElement("EC_BLAST");
+            doc.appendChild(rootElement);
+            annotateReactionAsXML(annotateReaction, reactionID, doc, rootElement);
+            record = (Element) rootElement.getFirstChild();
+        }
+        StringBuilder sb = null;
+        if (report.isText()) {
+            sb = new StringBuilder();
+            annotateReactionAsText(annotateReaction, reactionID, sb);
         }
+        report.write(id, label, record, sb);
     }
 
-    private void FormatTextToFile(StringBuilder doc, String fileName) throws UnsupportedEncodingException, FileNotFoundException, IOException {
-        File file = new File(fileName + ".txt");
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
-            writer.write(doc.toString());
+    /*
+     * Map (and annotate) each reaction of the query, writing its record as
+     * soon as it is done
+     */
+    private void annotateReactions(List<IReaction> reactions, String task, String format,
+            Options options, boolean complexMappingFlag) throws Exception {
+        if (reactions.isEmpty()) {
+            return;
         }
-
-        out.println("Output is presented in text format: " + file.getAbsolutePath());
-
-        if (DEBUG) {
-            // Show output on console during development
-            out.println(doc.toString());
+        ReportWriter report = ReportWriter.forFormat(format, jobFileName(reactions.get(0).getID(), task));
+        if (report == null) {
+            displayBlankLines(2, out);
+            out.println("-- USAGE --");
+            printHelp(out, options);
+            return;
+        }
+        boolean label = reactions.size() > 1;
+        try (ReportWriter r = report) {
+            for (IReaction reaction : reactions) {
+                String jobFileName = jobFileName(reaction.getID(), task);
+                ReactionMechanismTool annotateReaction = getReactionMechanismTool(reaction, REMAP, complexMappingFlag);
+                if (writeFiles(jobFileName, annotateReaction)) {
+                    writeAnnotation(r, reaction.getID(), label, annotateReaction, jobFileName);
+                }
+            }
         }
     }
 
@@ -214,88 +240,8 @@ public class ReactionDecoder extends Annotator {
             REMAP = false;
         }
 
-        IReaction reaction = null;
-
-        switch (aamLine.getOptionValue("Q")) {
-            case "SMI":
-                if (optionValue.contains(">>")) {
-                    List<IReaction> parseReactions = parseReactionSMILES(optionValue);
-                    if (parseReactions.iterator().hasNext()) {
-                        reaction = parseReactions.iterator().next();
-                    }
-                } else {
-                    LOGGER.debug("Not a valid reaction SMILES");
-                }
-                break;
-            case "RXN":
-                List<IReaction> parseReactions = parseRXN(optionValue);
-                if (parseReactions.iterator().hasNext()) {
-                    reaction = parseReactions.iterator().next();
-                }
-                break;
-            default:
-                displayBlankLines(2, out);
-                out.println("-- USAGE --");
-                printHelp(out, createAAMOptions);
-                break;
-        }
-        if (reaction == null) {
-            return;
-        }
-
-        String jobFileName;
-
-        if (!PREFIX.isEmpty()) {
-            jobFileName = PREFIX + "_ECBLAST_" + reaction.getID() + "_AAM";
-        } else {
-            jobFileName = "ECBLAST_" + reaction.getID() + "_AAM";
-        }
-
-        ReactionMechanismTool annotateReaction = getReactionMechanismTool(reaction, REMAP, complexMappingFlag);
-        boolean writeFiles = writeFiles(jobFileName, annotateReaction);
-
-        if (writeFiles && aamLine.getOptionValue("f").equalsIgnoreCase("XML")) {
-            DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-            // root element
-            org.w3c.dom.Document doc = docBuilder.newDocument();
-
-            org.w3c.dom.Element rootElement = doc.createElement("EC_BLAST");
-            doc.appendChild(rootElement);
-            annotateReactionAsXML(annotateReaction, jobFileName, doc, rootElement);
-            FormatXMLToFile(doc, jobFileName);
-            out.println("XML File saved!");
-
-        } else if (writeFiles && aamLine.getOptionValue("f").equalsIgnoreCase("TEXT")) {
-            StringBuilder sb = new StringBuilder();
-            annotateReactionAsText(annotateReaction, reaction.getID() + "_AAM", sb);
-            FormatTextToFile(sb, jobFileName);
-        } else if (writeFiles && aamLine.getOptionValue("f").equalsIgnoreCase("BOTH")) {
-
-            DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-            // root element
-            org.w3c.dom.Document doc = docBuilder.newDocument();
-
-            org.w3c.dom.Element rootElement = doc.createElement("EC_BLAST");
-            doc.appendChild(rootElement);
-            annotateReactionAsXML(annotateReaction, jobFileName, doc, rootElement);
-
-            StringBuilder sb = new StringBuilder();
-            annotateReactionAsText(annotateReaction, jobFileName, sb);
-
-            /*
-             Write XML and TEXT file
-             */
-            FormatTextToFile(sb, jobFileName);
-            FormatXMLToFile(doc, jobFileName);
-            out.println("XML File saved!");
-
-        } else {
-            displayBlankLines(2, out);
-            out.println("-- USAGE --");
-            printHelp(out, createAAMOptions);
-        }
+        List<IReaction> reactions = parseQuery(aamLine.getOptionValue("Q"), optionValue, createAAMOptions);
+        annotateReactions(reactions, "_AAM", aamLine.getOptionValue("f"), createAAMOptions, complexMappingFlag);
     }
 
     private void CompareTask(CommandLine compareLine, Options createCompareOptions, boolean complexMappingFlag)
@@ -325,83 +271,24 @@ public class ReactionDecoder extends Annotator {
             REPORT_MMP = true;
         }
 
-        IReaction queryReaction = null;
-
-        switch (compareLine.getOptionValue("Q")) {
-
-            case "SMI":
-                if (optionValueQ.contains(">>")) {
-                    List<IReaction> parseReactions = parseReactionSMILES(optionValueQ);
-                    if (parseReactions.iterator().hasNext()) {
-                        queryReaction = parseReactions.iterator().next();
-                    }
-                } else {
-                    LOGGER.debug("Not a valid reaction SMILES");
-                }
-                break;
-
-            case "RXN":
-                List<IReaction> parseReactions = parseRXN(optionValueQ);
-                if (parseReactions.iterator().hasNext()) {
-                    queryReaction = parseReactions.iterator().next();
-                }
-                break;
-            default:
-                displayBlankLines(2, out);
-                out.println("-- USAGE --");
-                printHelp(out, createCompareOptions);
-                break;
-        }
-        IReaction targetReaction = null;
-        switch (compareLine.getOptionValue("T")) {
-
-            case "SMI":
-                if (optionValueT.contains(">>")) {
-                    List<IReaction> parseReactions = parseReactionSMILES(optionValueT);
-                    if (parseReactions.iterator().hasNext()) {
-                        targetReaction = parseReactions.iterator().next();
-                    }
-                } else {
-                    LOGGER.debug("Not a valid reaction SMILES");
-                }
-                break;
-
-            case "RXN":
-                List<IReaction> parseReactions = parseRXN(optionValueT);
-                if (parseReactions.iterator().hasNext()) {
-                    targetReaction = parseReactions.iterator().next();
-                }
-                break;
-            default:
-                displayBlankLines(2, out);
-                out.println("-- USAGE --");
-                printHelp(out, createCompareOptions);
-                break;
-        }
-
-        if (queryReaction == null || targetReaction == null) {
+        List<IReaction> queryReactions = parseQuery(compareLine.getOptionValue("Q"), optionValueQ, createCompareOptions);
+        List<IReaction> targetReactions = parseQuery(compareLine.getOptionValue("T"), optionValueT, createCompareOptions);
+        if (queryReactions.isEmpty() || targetReactions.isEmpty()) {
             return;
         }
+        IReaction queryReaction = queryReactions.get(0);
+        IReaction targetReaction = targetReactions.get(0);
 
-        String jobFileName;
-        if (!PREFIX.isEmpty()) {
-            jobFileName = PREFIX + "_ECBLAST_" + queryReaction.getID() + "_" + targetReaction.getID() + "_COMPARE";
-        } else {
-            jobFileName = "ECBLAST_" + queryReaction.getID() + "_" + targetReaction.getID() + "_COMPARE";
-        }
-
-        String jobFileNameQuery;
-        if (!PREFIX.isEmpty()) {
-            jobFileNameQuery = PREFIX + "_ECBLAST_" + queryReaction.getID() + "_Query";
-        } else {
-            jobFileNameQuery = "ECBLAST_" + queryReaction.getID() + "_Query";
-        }
+        String jobFileName = jobFileName(queryReaction.getID() + "_" + targetReaction.getID(), "_COMPARE");
+        String jobFileNameQuery = jobFileName(queryReaction.getID(), "_Query");
+        String jobFileNameTarget = jobFileName(targetReaction.getID(), "_Target");
 
-        String jobFileNameTarget;
-        if (!PREFIX.isEmpty()) {
-            jobFileNameTarget = PREFIX + "_ECBLAST_" + targetReaction.getID() + "_Target";
-        } else {
-            jobFileNameTarget = "ECBLAST_" + targetReaction.getID() + "_Target";
+        ReportWriter report = ReportWriter.forFormat(compareLine.getOptionValue("f"), jobFileName);
+        if (report == null) {
+            displayBlankLines(2, out);
+            out.println("-- USAGE --");
+            printHelp(out, createCompareOptions);
+            return;
         }
 
         ReactionMechanismTool annotateReactionQ;
@@ -415,53 +302,27 @@ public class ReactionDecoder extends Annotator {
         boolean writeFiles = writeFiles1 && writeFiles2;
 
         if (writeFiles && annotateReactionQ != null && annotateReactionT != null) {
-            if (compareLine.getOptionValue("f").equalsIgnoreCase("XML")) {
-                DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                // root element
-                org.w3c.dom.Document doc = docBuilder.newDocument();
-                org.w3c.dom.Element rootElement = doc.createElement("EC_BLAST");
-                doc.appendChild(rootElement);
-                compareRXNXML(annotateReactionQ, jobFileNameQuery, annotateReactionT, jobFileNameTarget, doc, rootElement);
-                FormatXMLToFile(doc, jobFileName);
-                out.println("XML File saved!");
-            } else if (writeFiles && compareLine.getOptionValue("f").equalsIgnoreCase("TEXT")) {
-                StringBuilder sb = new StringBuilder();
-                compareRXNText(annotateReactionQ, jobFileNameQuery, annotateReactionT, jobFileNameTarget, sb);
-                FormatTextToFile(sb, jobFileName);
-            } else if (writeFiles && compareLine.getOptionValue("f").equalsIgnoreCase("BOTH")) {
-                DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                // root element for XML
-                org.w3c.dom.Document doc = docBuilder.newDocument();
-                org.w3c.dom.Element rootElement = doc.createElement("EC_BLAST");
-                doc.appendChild(rootElement);
-                compareRXNXML(annotateReactionQ, jobFileNameQuery, annotateReactionT, jobFileNameTarget, doc, rootElement);
-
-                // root element for TEXT
-                StringBuilder sb = new StringBuilder();
-                compareRXNText(annotateReactionQ, jobFileNameQuery, annotateReactionT, jobFileNameTarget, sb);
-
-                /*
-                 Write XML and TEXT file
-                 */
-                FormatTextToFile(sb, jobFileName);
-                FormatXMLToFile(doc, jobFileName);
-                out.println("XML File saved!");
-            } else {
-                displayBlankLines(2, out);
-                out.println("-- USAGE --");
-                printHelp(out, createCompareOptions);
+            try (ReportWriter r = report) {
+                Element record = null;
+                if (r.isXML() || r.isJSONLines()) {
+                    Document doc = newDocument();
+                    Element rootElement = doc.createElement("EC_BLAST");
+                    doc.appendChild(rootElement);
+                    compareRXNXML(annotateReactionQ, jobFileNameQuery, annotateReactionT, jobFileNameTarget, doc, rootElement);
+                    record = (Element) rootElement.getFirstChild();
+                }
+                StringBuilder sb = null;
+                if (r.isText()) {
+                    sb = new StringBuilder();
+                    compareRXNText(annotateReactionQ, jobFileNameQuery, annotateReactionT, jobFileNameTarget, sb);
+                }
+                r.write(queryReaction.getID() + "_" + targetReaction.getID(), false, record, sb);
             }
         }
     }
 
     private void AnnotateTask(CommandLine annotateLine, Options createAnnotateOptions, boolean complexMappingFlag)
-            throws TransformerException,
-            CloneNotSupportedException,
-            FileNotFoundException,
-            IOException,
-            Exception {
+            throws Exception {
 
         String optionValue = annotateLine.getOptionValue("q");
 
@@ -485,95 +346,15 @@ public class ReactionDecoder extends Annotator {
         if (annotateLine.hasOption('u')) {
             REMAP = false;
         }
-        IReaction reaction = null;
 
-        switch (annotateLine.getOptionValue("Q")) {
-            case "SMI":
-                if (optionValue.contains(">>")) {
-                    List<IReaction> parseReactions = parseReactionSMILES(optionValue);
-                    if (parseReactions.iterator().hasNext()) {
-                        reaction = parseReactions.iterator().next();
-                    }
-                } else {
-                    LOGGER.debug("Not a valid reaction SMILES");
-                }
-                break;
-            case "RXN":
-                List<IReaction> parseReactions = parseRXN(optionValue);
-                if (parseReactions.iterator().hasNext()) {
-                    reaction = parseReactions.iterator().next();
-                }
-                break;
-            default:
-                displayBlankLines(2, out);
-                out.println("-- USAGE --");
-                printHelp(out, createAnnotateOptions);
-                break;
-        }
-        if (reaction == null) {
-            return;
-        }
-
-        String jobFileName;
-
-        if (!PREFIX.isEmpty()) {
-            jobFileName = PREFIX + "_ECBLAST_" + reaction.getID() + "_ANNONATE";
-        } else {
-            jobFileName = "ECBLAST_" + reaction.getID() + "_ANNONATE";
-        }
-
-        ReactionMechanismTool annotateReaction = getReactionMechanismTool(reaction, REMAP, complexMappingFlag);
-        boolean writeFiles = writeFiles(jobFileName, annotateReaction);
+        List<IReaction> reactions = parseQuery(annotateLine.getOptionValue("Q"), optionValue, createAnnotateOptions);
         try {
-            if (writeFiles && annotateLine.getOptionValue("f").equalsIgnoreCase("XML")) {
-                DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                // root element
-                org.w3c.dom.Document doc = docBuilder.newDocument();
-
-                org.w3c.dom.Element rootElement = doc.createElement("EC_BLAST");
-                doc.appendChild(rootElement);
-                annotateReactionAsXML(annotateReaction, jobFileName, doc, rootElement);
-                FormatXMLToFile(doc, jobFileName);
-                out.println("XML File saved!");
-
-            } else if (writeFiles && annotateLine.getOptionValue("f").equalsIgnoreCase("TEXT")) {
-                StringBuilder sb = new StringBuilder();
-                annotateReactionAsText(annotateReaction, reaction.getID() + "_AAM", sb);
-                FormatTextToFile(sb, jobFileName);
-            } else if (writeFiles && annotateLine.getOptionValue("f").equalsIgnoreCase("BOTH")) {
-
-                DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-                // root element
-                org.w3c.dom.Document doc = docBuilder.newDocument();
-
-                org.w3c.dom.Element rootElement = doc.createElement("EC_BLAST");
-                doc.appendChild(rootElement);
-                annotateReactionAsXML(annotateReaction, jobFileName, doc, rootElement);
-
-                StringBuilder sb = new StringBuilder();
-                annotateReactionAsText(annotateReaction, jobFileName, sb);
-
-                /*
-             Write XML and TEXT file
-                 */
-                FormatTextToFile(sb, jobFileName);
-                FormatXMLToFile(doc, jobFileName);
-                out.println("XML File saved!");
-
-            } else {
-                displayBlankLines(2, out);
-                out.println("-- USAGE --");
-                printHelp(out, createAnnotateOptions);
-            }
+            annotateReactions(reactions, "_ANNONATE", annotateLine.getOptionValue("f"),
+                    createAnnotateOptions, complexMappingFlag);
         } catch (IOException
                 | CloneNotSupportedException
                 | ParserConfigurationException
-                | TransformerException
                 | DOMException e) {
-            //System.out.println("Error " + e.getCause());
-            //e.printStackTrace();
             LOGGER.error(SEVERE, null, e);
         }
     }
@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.aamtool;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import static java.lang.System.out;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Locale.ROOT;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.openscience.cdk.tools.ILoggingTool;
+import org.openscience.cdk.tools.LoggingToolFactory;
+import static uk.ac.ebi.aamtool.Annotator.NEW_LINE;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Writes the report of a job one reaction record at a time, as XML (the
+ * EC_BLAST document), TEXT and/or JSON lines (one object per record). Each
+ * record is written and flushed as soon as it is complete, so nothing but the
+ * current record is held in memory and a failed job leaves the records
+ * written before the failure.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+class ReportWriter implements Closeable {
+
+    private static final ILoggingTool LOGGER
+            = LoggingToolFactory.createLoggingTool(ReportWriter.class);
+    private static final String ROOT_ELEMENT = "EC_BLAST";
+    private static final String INDENT = "  ";
+
+    private final File xmlFile;
+    private final File textFile;
+    private final File jsonFile;
+    private Writer xmlWriter;
+    private XMLStreamWriter xml;
+    private Writer text;
+    private Writer json;
+    private boolean open;
+
+    /**
+     * @param format output format (XML/TEXT/BOTH/JSONL)
+     * @param fileName output file name without extension
+     * @return writer or null if the format is unknown
+     */
+    static ReportWriter forFormat(String format, String fileName) {
+        if (format == null) {
+            return null;
+        }
+        switch (format.toUpperCase(ROOT)) {
+            case "XML":
+                return new ReportWriter(fileName, true, false, false);
+            case "TEXT":
+                return new ReportWriter(fileName, false, true, false);
+            case "BOTH":
+                return new ReportWriter(fileName, true, true, false);
+            case "JSONL":
+                return new ReportWriter(fileName, false, false, true);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @param fileName output file name without extension
+     * @param writeXML write fileName.xml
+     * @param writeText write fileName.txt
+     * @param writeJSON write fileName.jsonl
+     */
+    ReportWriter(String fileName, boolean writeXML, boolean writeText, boolean writeJSON) {
+        this.xmlFile = writeXML ? new File(fileName + ".xml") : null;
+        this.textFile = writeText ? new File(fileName + ".txt") : null;
+        this.jsonFile = writeJSON ? new File(fileName + ".jsonl") : null;
+        this.open = false;
+    }
+
+    /**
+     * @return true if the XML record is written
+     */
+    boolean isXML() {
+        return xmlFile != null;
+    }
+
+    /**
+     * @return true if the TEXT record is written
+     */
+    boolean isText() {
+        return textFile != null;
+    }
+
+    /**
+     * @return true if a JSON line is written
+     */
+    boolean isJSONLines() {
+        return jsonFile != null;
+    }
+
+    /*
+     * The files are created with the first record, a job without any result
+     * leaves no files behind
+     */
+    private void open() throws IOException {
+        if (open) {
+            return;
+        }
+        open = true;
+        xmlWriter = open(xmlFile);
+        text = open(textFile);
+        json = open(jsonFile);
+        if (xmlWriter != null) {
+            try {
+                xml = XMLOutputFactory.newInstance().createXMLStreamWriter(xmlWriter);
+                xml.writeStartDocument("UTF-8", "1.0");
+                xml.writeCharacters(NEW_LINE);
+                xml.writeStartElement(ROOT_ELEMENT);
+                xml.flush();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Write and flush one record.
+     *
+     * @param id reaction (or job) ID of the record, may be null
+     * @param label add the ID to the XML and TEXT records (JSON lines always
+     * carry it), needed when a job reports several reactions
+     * @param xmlRecord record element (ANNOTATION/COMPARISON), needed for XML
+     * and JSON lines
+     * @param textRecord record text, needed for TEXT
+     * @throws IOException
+     */
+    void write(String id, boolean label, Element xmlRecord, CharSequence textRecord) throws IOException {
+        open();
+        if (json != null && xmlRecord != null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"ID\":");
+            quote(id, sb);
+            sb.append(',');
+            quote(xmlRecord.getTagName(), sb);
+            sb.append(':');
+            toJSON(xmlRecord, sb);
+            sb.append('}').append('\n');
+            json.write(sb.toString());
+            json.flush();
+        }
+        if (xml != null && xmlRecord != null) {
+            if (label && id != null) {
+                xmlRecord.setAttribute("ID", id);
+            }
+            try {
+                writeElement(xmlRecord, 1);
+                xml.flush();
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+            xmlWriter.flush();
+        }
+        if (text != null && textRecord != null) {
+            if (label) {
+                text.write(NEW_LINE + "//" + NEW_LINE + "REACTION " + id + NEW_LINE);
+            }
+            text.write(textRecord.toString());
+            text.flush();
+        }
+    }
+
+    /**
+     * Close the XML document and the files.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        IOException failure = null;
+        if (xml != null) {
+            try {
+                xml.writeCharacters(NEW_LINE);
+                xml.writeEndElement();
+                xml.writeCharacters(NEW_LINE);
+                xml.writeEndDocument();
+                xml.close();
+            } catch (XMLStreamException e) {
+                failure = new IOException(e);
+            }
+        }
+        for (Writer w : new Writer[]{xmlWriter, text, json}) {
+            if (w == null) {
+                continue;
+            }
+            try {
+                w.close();
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (xmlFile != null) {
+            out.println("Output is presented in xml format: " + xmlFile.getAbsolutePath());
+        }
+        if (textFile != null) {
+            out.println("Output is presented in text format: " + textFile.getAbsolutePath());
+        }
+        if (jsonFile != null) {
+            out.println("Output is presented in json lines format: " + jsonFile.getAbsolutePath());
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static Writer open(File file) throws IOException {
+        return file == null ? null : new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), UTF_8));
+    }
+
+    /*
+     * Elements either hold text or child elements, indented by two spaces
+     */
+    private void writeElement(Element element, int depth) throws XMLStreamException {
+        indent(depth);
+        List<Element> children = children(element);
+        String content = element.getTextContent();
+        if (children.isEmpty() && (content == null || content.isEmpty())) {
+            xml.writeEmptyElement(element.getTagName());
+            writeAttributes(element);
+            return;
+        }
+        xml.writeStartElement(element.getTagName());
+        writeAttributes(element);
+        if (children.isEmpty()) {
+            xml.writeCharacters(content);
+        } else {
+            for (Element child : children) {
+                writeElement(child, depth + 1);
+            }
+            indent(depth);
+        }
+        xml.writeEndElement();
+    }
+
+    private void writeAttributes(Element element) throws XMLStreamException {
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attr = (Attr) attributes.item(i);
+            xml.writeAttribute(attr.getName(), attr.getValue());
+        }
+    }
+
+    private void indent(int depth) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder(NEW_LINE);
+        for (int i = 0; i < depth; i++) {
+            sb.append(INDENT);
+        }
+        xml.writeCharacters(sb.toString());
+    }
+
+    private static List<Element> children(Element element) {
+        List<Element> children = new ArrayList<>();
+        NodeList nodes = element.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+                children.add((Element) nodes.item(i));
+            }
+        }
+        return children;
+    }
+
+    /*
+     * An element with only text becomes a string, otherwise an object of its
+     * attributes and children, repeated children becoming an array
+     */
+    private static void toJSON(Element element, StringBuilder sb) {
+        List<Element> children = children(element);
+        NamedNodeMap attributes = element.getAttributes();
+        if (children.isEmpty() && attributes.getLength() == 0) {
+            quote(element.getTextContent(), sb);
+            return;
+        }
+        Map<String, List<Element>> members = new LinkedHashMap<>();
+        for (Element child : children) {
+            members.computeIfAbsent(child.getTagName(), k -> new ArrayList<>()).add(child);
+        }
+        sb.append('{');
+        boolean first = true;
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attr = (Attr) attributes.item(i);
+            first = member(attr.getName(), first, sb);
+            quote(attr.getValue(), sb);
+        }
+        if (children.isEmpty() && !element.getTextContent().isEmpty()) {
+            first = member("VALUE", first, sb);
+            quote(element.getTextContent(), sb);
+        }
+        for (Map.Entry<String, List<Element>> e : members.entrySet()) {
+            first = member(e.getKey(), first, sb);
+            if (e.getValue().size() == 1) {
+                toJSON(e.getValue().get(0), sb);
+                continue;
+            }
+            sb.append('[');
+            for (int i = 0; i < e.getValue().size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                toJSON(e.getValue().get(i), sb);
+            }
+            sb.append(']');
+        }
+        sb.append('}');
+    }
+
+    private static boolean member(String name, boolean first, StringBuilder sb) {
+        if (!first) {
+            sb.append(',');
+        }
+        quote(name, sb);
+        sb.append(':');
+        return false;
+    }
+
+    private static void quote(String value, StringBuilder sb) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format(ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.aamtool.rgroup;
+
+import java.util.ArrayList;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
+import java.util.List;
+import org.openscience.cdk.aromaticity.Aromaticity;
+import org.openscience.cdk.exception.CDKException;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+import org.openscience.cdk.interfaces.IDoubleBondStereochemistry;
+import static org.openscience.cdk.interfaces.IDoubleBondStereochemistry.Conformation.TOGETHER;
+import org.openscience.cdk.interfaces.IStereoElement;
+import org.openscience.cdk.interfaces.ITetrahedralChirality;
+import static org.openscience.cdk.interfaces.ITetrahedralChirality.Stereo.CLOCKWISE;
+import static org.openscience.smsd.tools.ExtAtomContainerManipulator.removeHydrogensExceptSingleAndPreserveAtomID;
+
+/**
+ * Circular (radius 1..n) atom environments of one molecule as canonical 64 bit
+ * hashes. The molecule is hydrogen suppressed and aromatised once; each root
+ * atom costs a single breadth first expansion and every radius is hashed on
+ * the induced sub-graph in place, without building fragment containers.
+ *
+ * Environments that would give the same unique SMILES get the same hash (the
+ * radius is not part of the hash). Atom labels are refined over the fragment
+ * bonds (element, charge, isotope, hydrogen count, aromaticity, bond order)
+ * for a number of rounds that only depends on the fragment size, tetrahedral
+ * and double bond stereo is then folded in relative to the refined neighbour
+ * labels, and the sorted labels are folded into the hash.
+ *
+ * Instances reuse their scratch arrays and are not thread safe.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+class CircularEnvironments {
+
+    private final IAtomContainer molecule;
+    private final int[][] neighbours;
+    private final int[][] bondLabels;
+    private final long[] invariants;
+    /*
+     * Tetrahedral centres: carriers (the focus itself stands for an implicit
+     * hydrogen) and winding, null where the atom is not a centre
+     */
+    private final int[][] tetrahedralCarriers;
+    private final int[] tetrahedralWinding;
+    /*
+     * Double bond stereo: begin, end, begin carrier, end carrier, together
+     */
+    private final int[][] doubleBondStereo;
+
+    private final int[] distance;
+    private final int[] queue;
+    private long[] labels;
+    private long[] refined;
+    private final long[] scratch;
+
+    /**
+     * @param mol molecule, left untouched
+     * @param aromaticity model used to perceive aromaticity on the hydrogen
+     * suppressed copy
+     * @throws CDKException
+     */
+    CircularEnvironments(IAtomContainer mol, Aromaticity aromaticity) throws CDKException {
+        this.molecule = removeHydrogensExceptSingleAndPreserveAtomID(mol);
+        aromaticity.apply(molecule);
+
+        int n = molecule.getAtomCount();
+        this.neighbours = new int[n][];
+        this.bondLabels = new int[n][];
+        this.invariants = new long[n];
+        int[] degree = new int[n];
+        for (IBond bond : molecule.bonds()) {
+            degree[molecule.indexOf(bond.getBegin())]++;
+            degree[molecule.indexOf(bond.getEnd())]++;
+        }
+        int maxDegree = 0;
+        for (int i = 0; i < n; i++) {
+            neighbours[i] = new int[degree[i]];
+            bondLabels[i] = new int[degree[i]];
+            maxDegree = Math.max(maxDegree, degree[i]);
+            degree[i] = 0;
+            invariants[i] = atomInvariant(molecule.getAtom(i));
+        }
+        for (IBond bond : molecule.bonds()) {
+            int u = molecule.indexOf(bond.getBegin());
+            int v = molecule.indexOf(bond.getEnd());
+            int label = bondLabel(bond);
+            neighbours[u][degree[u]] = v;
+            bondLabels[u][degree[u]++] = label;
+            neighbours[v][degree[v]] = u;
+            bondLabels[v][degree[v]++] = label;
+        }
+
+        this.tetrahedralCarriers = new int[n][];
+        this.tetrahedralWinding = new int[n];
+        List<int[]> doubleBonds = new ArrayList<>();
+        for (IStereoElement<?, ?> se : molecule.stereoElements()) {
+            if (se instanceof ITetrahedralChirality) {
+                ITetrahedralChirality tc = (ITetrahedralChirality) se;
+                int focus = molecule.indexOf(tc.getChiralAtom());
+                IAtom[] ligands = tc.getLigands();
+                int[] carriers = new int[ligands.length];
+                for (int i = 0; i < ligands.length; i++) {
+                    carriers[i] = molecule.indexOf(ligands[i]);
+                }
+                if (focus >= 0 && carriers.length == 4 && min(carriers) >= 0) {
+                    tetrahedralCarriers[focus] = carriers;
+                    tetrahedralWinding[focus] = tc.getStereo() == CLOCKWISE ? 0 : 1;
+                }
+            } else if (se instanceof IDoubleBondStereochemistry) {
+                IDoubleBondStereochemistry db = (IDoubleBondStereochemistry) se;
+                IBond focus = db.getStereoBond();
+                IBond[] bonds = db.getBonds();
+                int begin = molecule.indexOf(focus.getBegin());
+                int end = molecule.indexOf(focus.getEnd());
+                IAtom beginCarrier = bonds[0].getOther(focus.getBegin());
+                IAtom endCarrier = bonds[1].getOther(focus.getEnd());
+                if (beginCarrier == null || endCarrier == null) {
+                    beginCarrier = bonds[0].getOther(focus.getEnd());
+                    endCarrier = bonds[1].getOther(focus.getBegin());
+                    int swap = begin;
+                    begin = end;
+                    end = swap;
+                }
+                int a = beginCarrier == null ? -1 : molecule.indexOf(beginCarrier);
+                int b = endCarrier == null ? -1 : molecule.indexOf(endCarrier);
+                if (begin >= 0 && end >= 0 && a >= 0 && b >= 0) {
+                    doubleBonds.add(new int[]{begin, end, a, b, db.getStereo() == TOGETHER ? 1 : 0});
+                }
+            }
+        }
+        this.doubleBondStereo = doubleBonds.toArray(new int[doubleBonds.size()][]);
+
+        this.distance = new int[n];
+        fill(distance, -1);
+        this.queue = new int[n];
+        this.labels = new long[n];
+        this.refined = new long[n];
+        this.scratch = new long[Math.max(n, maxDegree)];
+    }
+
+    /**
+     * @return the hydrogen suppressed, aromatised molecule the environments
+     * refer to
+     */
+    IAtomContainer getMolecule() {
+        return molecule;
+    }
+
+    /**
+     * @return number of root atoms
+     */
+    int getAtomCount() {
+        return molecule.getAtomCount();
+    }
+
+    /**
+     * Hash the environments of radius 1..hashes.length around the root atom.
+     *
+     * @param root index of the root atom in {@link #getMolecule()}
+     * @param hashes receives the hash for radius r at index r - 1
+     */
+    void hash(int root, long[] hashes) {
+        int maxRadius = hashes.length;
+        /*
+         * One BFS; atoms come out ordered by distance, so the environment of
+         * radius r is a prefix of the queue
+         */
+        int head = 0, tail = 0;
+        queue[tail++] = root;
+        distance[root] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            if (distance[u] == maxRadius) {
+                continue;
+            }
+            for (int v : neighbours[u]) {
+                if (distance[v] < 0) {
+                    distance[v] = distance[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        int size = 0;
+        for (int radius = 1; radius <= maxRadius; radius++) {
+            while (size < tail && distance[queue[size]] <= radius) {
+                size++;
+            }
+            hashes[radius - 1] = hashEnvironment(size, radius, 2 * maxRadius);
+        }
+
+        for (int i = 0; i < tail; i++) {
+            distance[queue[i]] = -1;
+        }
+    }
+
+    private long hashEnvironment(int size, int radius, int maxRounds) {
+        for (int i = 0; i < size; i++) {
+            int u = queue[i];
+            labels[u] = invariants[u];
+        }
+        /*
+         * Refine up to the largest fragment diameter; the number of rounds
+         * must not depend on the radius, or equal fragments found at
+         * different radii would hash differently
+         */
+        int rounds = Math.min(maxRounds, size);
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < size; i++) {
+                int u = queue[i];
+                int count = 0;
+                for (int j = 0; j < neighbours[u].length; j++) {
+                    int v = neighbours[u][j];
+                    int d = distance[v];
+                    if (d >= 0 && d <= radius) {
+                        scratch[count++] = mix(labels[v] * 31 + bondLabels[u][j]);
+                    }
+                }
+                sort(scratch, 0, count);
+                long h = labels[u];
+                for (int k = 0; k < count; k++) {
+                    h = mix(h * 31 + scratch[k]);
+                }
+                refined[u] = h;
+            }
+            long[] swap = labels;
+            labels = refined;
+            refined = swap;
+        }
+        addStereo(size, radius);
+        for (int i = 0; i < size; i++) {
+            scratch[i] = labels[queue[i]];
+        }
+        sort(scratch, 0, size);
+        long h = size;
+        for (int i = 0; i < size; i++) {
+            h = mix(h * 31 + scratch[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Fold the stereo configurations, which are complete inside the fragment,
+     * into the atom labels. The configuration is expressed relative to the
+     * refined labels of the carriers; when carriers cannot be told apart the
+     * configuration is ambiguous and gets its own token.
+     */
+    private void addStereo(int size, int radius) {
+        for (int i = 0; i < size; i++) {
+            int u = queue[i];
+            refined[u] = 0;
+            int[] carriers = tetrahedralCarriers[u];
+            if (carriers == null || !inFragment(carriers, radius)) {
+                continue;
+            }
+            int inversions = 0;
+            boolean ambiguous = false;
+            for (int a = 0; a < carriers.length; a++) {
+                for (int b = a + 1; b < carriers.length; b++) {
+                    long la = carrierLabel(u, carriers[a]);
+                    long lb = carrierLabel(u, carriers[b]);
+                    if (la == lb) {
+                        ambiguous = true;
+                    } else if (la > lb) {
+                        inversions++;
+                    }
+                }
+            }
+            refined[u] = ambiguous ? 3 : 1 + ((inversions + tetrahedralWinding[u]) & 1);
+        }
+        for (int[] db : doubleBondStereo) {
+            int begin = db[0], end = db[1];
+            if (!inFragment(db, radius)) {
+                continue;
+            }
+            int flipBegin = otherCarrier(begin, end, db[2], radius);
+            int flipEnd = otherCarrier(end, begin, db[3], radius);
+            long token = flipBegin < 0 || flipEnd < 0 ? 3 : 1 + ((db[4] + flipBegin + flipEnd) & 1);
+            refined[begin] = mix(refined[begin] * 31 + token);
+            refined[end] = mix(refined[end] * 31 + token);
+        }
+        for (int i = 0; i < size; i++) {
+            int u = queue[i];
+            if (refined[u] != 0) {
+                labels[u] = mix(labels[u] * 31 + refined[u]);
+            }
+        }
+    }
+
+    private boolean inFragment(int[] atoms, int radius) {
+        for (int i = 0; i < atoms.length && i < 4; i++) {
+            int d = distance[atoms[i]];
+            if (d < 0 || d > radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long carrierLabel(int focus, int carrier) {
+        return carrier == focus ? Long.MIN_VALUE : labels[carrier];
+    }
+
+    /**
+     * @return 0 if the carrier has the higher label of the substituents on
+     * this end of the double bond, 1 if lower, -1 if they cannot be told apart
+     */
+    private int otherCarrier(int atom, int partner, int carrier, int radius) {
+        for (int v : neighbours[atom]) {
+            int d = distance[v];
+            if (v == partner || v == carrier || d < 0 || d > radius) {
+                continue;
+            }
+            if (labels[v] == labels[carrier]) {
+                return -1;
+            }
+            return labels[carrier] > labels[v] ? 0 : 1;
+        }
+        return 0;
+    }
+
+    private static int min(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int v : values) {
+            min = Math.min(min, v);
+        }
+        return min;
+    }
+
+    private static long atomInvariant(IAtom atom) {
+        long h = atom.getSymbol() == null ? 0 : atom.getSymbol().hashCode();
+        h = h * 31 + (atom.getFormalCharge() == null ? 0 : atom.getFormalCharge());
+        h = h * 31 + (atom.getMassNumber() == null ? 0 : atom.getMassNumber());
+        h = h * 31 + (atom.getImplicitHydrogenCount() == null ? 0 : atom.getImplicitHydrogenCount());
+        h = h * 31 + (atom.isAromatic() ? 1 : 0);
+        return mix(h);
+    }
+
+    private static int bondLabel(IBond bond) {
+        if (bond.isAromatic()) {
+            return 5;
+        }
+        return bond.getOrder() == null ? 0 : bond.getOrder().numeric();
+    }
+
+    /*
+     * 64 bit finaliser (splitmix64)
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import static java.util.stream.Collectors.toMap;
 import static java.util.logging.Level.SEVERE;
 import org.openscience.cdk.Reaction;
 import org.openscience.cdk.exception.CDKException;
@@ -66,7 +67,11 @@ public class ECRgroupFrequency {
      */
     public ECRgroupFrequency(String[] args) {
         out.println("------------------------------------------------------");
-        Map<String, MultiReactionContainer> reactionMap = new TreeMap<>();
+        /*
+         * Group the EC directories by EC number first, then build one
+         * container per EC number in parallel
+         */
+        Map<String, List<File>> ecDirectories = new TreeMap<>();
         for (String dir : args) {
             File f = new File(dir);
             if (f.isDirectory()) {
@@ -79,34 +84,20 @@ public class ECRgroupFrequency {
                     files = subList.toArray(new File[subList.size()]);
                 }
                 for (File ec : files) {
-                    String ecNumber = ec.getName();
                     if (ec.isDirectory()) {
-                        File[] listReactionFiles = ec.listFiles();
-                        for (File reactionFile : listReactionFiles) {
-                            String reactionName = reactionFile.getName().split("\\.")[0];
-                            MDLRXNV2000Reader mdlrxnV2000Reader;
-                            try {
-                                mdlrxnV2000Reader = new MDLRXNV2000Reader(new FileReader(reactionFile));
-                                Reaction reaction = mdlrxnV2000Reader.read(new Reaction());
-                                mdlrxnV2000Reader.close();
-                                if (reactionMap.containsKey(ecNumber)) {
-                                    reactionMap.get(ecNumber).addReaction(reaction, reactionName);
-                                } else {
-                                    MultiReactionContainer r = new MultiReactionContainer(ecNumber);
-                                    r.addReaction(reaction, reactionName);
-                                    reactionMap.put(ecNumber, r);
-                                }
-                            } catch (FileNotFoundException ex) {
-                                LOGGER.error(SEVERE, null, ex);
-                            } catch (CDKException | IOException ex) {
-                                LOGGER.error(SEVERE, null, ex);
-                            }
-                        }
+                        ecDirectories.computeIfAbsent(ec.getName(), k -> new ArrayList<>()).add(ec);
                     }
                 }
             }
         }
 
+        EnvironmentDictionary dictionary = new EnvironmentDictionary();
+        Map<String, MultiReactionContainer> reactionMap = new TreeMap<>(
+                ecDirectories.entrySet().parallelStream()
+                        .map(e -> readECDirectories(e.getKey(), e.getValue(), dictionary))
+                        .filter(r -> r != null)
+                        .collect(toMap(MultiReactionContainer::getEnzyme, r -> r)));
+
         if (DEBUG) {
             out.println("Number of EC parsed " + reactionMap.size());
         }
@@ -129,9 +120,9 @@ public class ECRgroupFrequency {
         int no_common_fragment_in_r_group = 0;
         int no_common_fragment_in_either = 0;
 
-        Map<String, Set<String>> commonCommonMap = new TreeMap<>();
-        Map<String, Set<String>> commonDifferenceMap = new TreeMap<>();
-        Map<String, Set<String>> commonUnionMap = new TreeMap<>();
+        Map<String, Set<Long>> commonCommonMap = new TreeMap<>();
+        Map<String, Set<Long>> commonDifferenceMap = new TreeMap<>();
+        Map<String, Set<Long>> commonUnionMap = new TreeMap<>();
 
         Set<String> r_group_ec = new TreeSet<>();
 
@@ -156,8 +147,8 @@ public class ECRgroupFrequency {
                 if (DEBUG) {
                     out.println("Processing EC: " + ec
                             + ", R-found: " + reactionMap.get(ec).isRGroup()
-                            + ", common fragment: " + reactionMap.get(ec).getCommonCommonFP()
-                            + ", difference fragment: " + reactionMap.get(ec).getCommonDifferenceFP()
+                            + ", common fragment: " + dictionary.getSMILES(reactionMap.get(ec).getCommonCommonFP())
+                            + ", difference fragment: " + dictionary.getSMILES(reactionMap.get(ec).getCommonDifferenceFP())
                             + ", reaction count: " + reactionMap.get(ec).getReactionCount());
                 }
             }
@@ -169,8 +160,8 @@ public class ECRgroupFrequency {
 
                     out.println("Processing EC: " + ec
                             + ", R-found: " + reactionMap.get(ec).isRGroup()
-                            + ", common fragment: " + reactionMap.get(ec).getCommonCommonFP()
-                            + ", difference fragment: " + reactionMap.get(ec).getCommonDifferenceFP()
+                            + ", common fragment: " + dictionary.getSMILES(reactionMap.get(ec).getCommonCommonFP())
+                            + ", difference fragment: " + dictionary.getSMILES(reactionMap.get(ec).getCommonDifferenceFP())
                             + ", reaction count: " + reactionMap.get(ec).getReactionCount());
                 }
             }
@@ -181,8 +172,8 @@ public class ECRgroupFrequency {
                 if (DEBUG) {
                     out.println("Processing EC: " + ec
                             + ", R-found: " + reactionMap.get(ec).isRGroup()
-                            + ", common fragment: " + reactionMap.get(ec).getCommonCommonFP()
-                            + ", difference fragment: " + reactionMap.get(ec).getCommonDifferenceFP()
+                            + ", common fragment: " + dictionary.getSMILES(reactionMap.get(ec).getCommonCommonFP())
+                            + ", difference fragment: " + dictionary.getSMILES(reactionMap.get(ec).getCommonDifferenceFP())
                             + ", reaction count: " + reactionMap.get(ec).getReactionCount());
                 }
             }
@@ -299,9 +290,9 @@ public class ECRgroupFrequency {
             if (DEBUG) {
                 if (commonUnionMap.get(ec).isEmpty()) {
                     out.println("EC: " + ec
-                            + ", Common Signature: " + commonCommonMap.get(ec)
-                            + ", Difference Signature " + commonDifferenceMap.get(ec)
-                            + ", Union Common Signature " + commonUnionMap.get(ec));
+                            + ", Common Signature: " + dictionary.getSMILES(commonCommonMap.get(ec))
+                            + ", Difference Signature " + dictionary.getSMILES(commonDifferenceMap.get(ec))
+                            + ", Union Common Signature " + dictionary.getSMILES(commonUnionMap.get(ec)));
                 }
             }
 
@@ -347,4 +338,37 @@ public class ECRgroupFrequency {
         out.println("------------------------------------------------------");
     }
 
+    /**
+     * Read all reaction files of one EC number into a container.
+     *
+     * @param ecNumber
+     * @param directories
+     * @param dictionary
+     * @return container or null if no reaction could be read
+     */
+    private static MultiReactionContainer readECDirectories(String ecNumber, List<File> directories,
+            EnvironmentDictionary dictionary) {
+        MultiReactionContainer r = null;
+        for (File ec : directories) {
+            File[] listReactionFiles = ec.listFiles();
+            for (File reactionFile : listReactionFiles) {
+                String reactionName = reactionFile.getName().split("\\.")[0];
+                MDLRXNV2000Reader mdlrxnV2000Reader;
+                try {
+                    mdlrxnV2000Reader = new MDLRXNV2000Reader(new FileReader(reactionFile));
+                    Reaction reaction = mdlrxnV2000Reader.read(new Reaction());
+                    mdlrxnV2000Reader.close();
+                    if (r == null) {
+                        r = new MultiReactionContainer(ecNumber, dictionary);
+                    }
+                    r.addReaction(reaction, reactionName);
+                } catch (FileNotFoundException ex) {
+                    LOGGER.error(SEVERE, null, ex);
+                } catch (CDKException | IOException ex) {
+                    LOGGER.error(SEVERE, null, ex);
+                }
+            }
+        }
+        return r;
+    }
 }
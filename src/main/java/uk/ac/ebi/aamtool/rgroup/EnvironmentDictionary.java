@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.aamtool.rgroup;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import static java.util.logging.Level.SEVERE;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.smiles.SmiFlavor;
+import org.openscience.cdk.smiles.SmilesGenerator;
+import org.openscience.cdk.tools.ILoggingTool;
+import org.openscience.cdk.tools.LoggingToolFactory;
+import static uk.ac.ebi.reactionblast.mechanism.helper.Utility.getCircularFragment;
+
+/**
+ * Remembers one representative (molecule, root atom, radius) per environment
+ * hash so that the unique SMILES of an environment is only generated when it
+ * is reported. Shared between threads.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+class EnvironmentDictionary {
+
+    private static final ILoggingTool LOGGER
+            = LoggingToolFactory.createLoggingTool(EnvironmentDictionary.class);
+
+    private final Map<Long, Environment> environments;
+    private final Map<Long, String> smiles;
+
+    EnvironmentDictionary() {
+        this.environments = new ConcurrentHashMap<>();
+        this.smiles = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Register the environment unless one with the same hash is known.
+     *
+     * @param hash
+     * @param molecule
+     * @param root
+     * @param radius
+     */
+    void register(long hash, IAtomContainer molecule, int root, int radius) {
+        if (!environments.containsKey(hash)) {
+            environments.putIfAbsent(hash, new Environment(molecule, root, radius));
+        }
+    }
+
+    /**
+     * @param hash
+     * @return unique SMILES of the environment, null if unknown
+     */
+    String getSMILES(Long hash) {
+        Environment environment = environments.get(hash);
+        if (environment == null) {
+            return null;
+        }
+        return smiles.computeIfAbsent(hash, (Long h) -> environment.toSMILES());
+    }
+
+    /**
+     * @param hashes
+     * @return sorted unique SMILES of the environments
+     */
+    Set<String> getSMILES(Collection<Long> hashes) {
+        Set<String> result = new TreeSet<>();
+        for (Long hash : hashes) {
+            String s = getSMILES(hash);
+            if (s != null) {
+                result.add(s);
+            }
+        }
+        return result;
+    }
+
+    private static class Environment {
+
+        private final IAtomContainer molecule;
+        private final int root;
+        private final int radius;
+
+        Environment(IAtomContainer molecule, int root, int radius) {
+            this.molecule = molecule;
+            this.root = root;
+            this.radius = radius;
+        }
+
+        String toSMILES() {
+            SmilesGenerator sm = new SmilesGenerator(
+                    SmiFlavor.Unique
+                    | SmiFlavor.UseAromaticSymbols
+                    | SmiFlavor.Stereo);
+            try {
+                synchronized (molecule) {
+                    return sm.create(getCircularFragment(molecule, root, radius));
+                }
+            } catch (Exception ex) {
+                LOGGER.error(SEVERE, null, ex);
+                return "";
+            }
+        }
+    }
+}
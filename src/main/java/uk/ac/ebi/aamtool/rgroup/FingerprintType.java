@@ -30,9 +30,9 @@ public class FingerprintType {
     private static final ILoggingTool LOGGER
             = LoggingToolFactory.createLoggingTool(FingerprintType.class);
 
-    private final Set<String> commonCommonFP;
-    private final Set<String> commonDifferenceFP;
-    private final Set<String> allPatternsFP;
+    private final Set<Long> commonCommonFP;
+    private final Set<Long> commonDifferenceFP;
+    private final Set<Long> allPatternsFP;
 
     /**
      *
@@ -40,7 +40,7 @@ public class FingerprintType {
      * @param commonDifferenceFP
      * @param allPatternsFP
      */
-    public FingerprintType(Set<String> commonCommonFP, Set<String> commonDifferenceFP, Set<String> allPatternsFP) {
+    public FingerprintType(Set<Long> commonCommonFP, Set<Long> commonDifferenceFP, Set<Long> allPatternsFP) {
         this.commonCommonFP = commonCommonFP;
         this.commonDifferenceFP = commonDifferenceFP;
         this.allPatternsFP = allPatternsFP;
@@ -49,21 +49,21 @@ public class FingerprintType {
     /**
      * @return the commonCommonFP
      */
-    public Set<String> getCommonCommonFP() {
+    public Set<Long> getCommonCommonFP() {
         return commonCommonFP;
     }
 
     /**
      * @return the commonDifferenceFP
      */
-    public Set<String> getCommonDifferenceFP() {
+    public Set<Long> getCommonDifferenceFP() {
         return commonDifferenceFP;
     }
 
     /**
      * @return the allPatternsFP
      */
-    public Set<String> getAllPatternsFP() {
+    public Set<Long> getAllPatternsFP() {
         return allPatternsFP;
     }
 
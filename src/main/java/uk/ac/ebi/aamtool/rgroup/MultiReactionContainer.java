@@ -32,13 +32,9 @@ import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IPseudoAtom;
 import org.openscience.cdk.interfaces.IReaction;
-import org.openscience.cdk.smiles.SmiFlavor;
-import org.openscience.cdk.smiles.SmilesGenerator;
 import org.openscience.cdk.tools.ILoggingTool;
 import org.openscience.cdk.tools.LoggingToolFactory;
 import static org.openscience.cdk.tools.manipulator.ReactionManipulator.getAllAtomContainers;
-import static org.openscience.smsd.tools.ExtAtomContainerManipulator.removeHydrogensExceptSingleAndPreserveAtomID;
-import static uk.ac.ebi.reactionblast.mechanism.helper.Utility.getCircularFragment;
 
 /**
  * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
@@ -53,9 +49,12 @@ class MultiReactionContainer {
     private final String enzyme;
     private boolean RGroup;
     private final FingerprintType fp;
+    private final EnvironmentDictionary dictionary;
+    private static final int MAX_RADIUS = 3;
 
-    MultiReactionContainer(String enzyme) {
+    MultiReactionContainer(String enzyme, EnvironmentDictionary dictionary) {
         this.enzyme = enzyme;
+        this.dictionary = dictionary;
         this.reaction = new TreeSet<>();
         this.RGroup = false;
         fp = new FingerprintType(new TreeSet<>(), new TreeSet<>(), new TreeSet<>());
@@ -137,12 +136,8 @@ class MultiReactionContainer {
     }
 
     private void calculateCommonFingerprint(IReaction reaction) {
-        Set<String> l = new HashSet<>();
-        Set<String> r = new HashSet<>();
-        SmilesGenerator sm = new SmilesGenerator(
-                SmiFlavor.Unique
-                | SmiFlavor.UseAromaticSymbols
-                | SmiFlavor.Stereo);
+        Set<Long> l = new HashSet<>();
+        Set<Long> r = new HashSet<>();
 
         Aromaticity aromaticity = new Aromaticity(daylight(),
                 Cycles.or(Cycles.all(),
@@ -150,69 +145,24 @@ class MultiReactionContainer {
                                 Cycles.essential())));
 
         for (IAtomContainer a : reaction.getReactants().atomContainers()) {
-            IAtomContainer ac = null;
-            ac = removeHydrogensExceptSingleAndPreserveAtomID(a);
-            for (int i = 0; i < ac.getAtomCount(); i++) {
-                try {
-                    aromaticity.apply(ac);
-                    IAtomContainer circularFragment = getCircularFragment(ac, i, 1);
-                    String smiles = sm.create(circularFragment);
-                    l.add(smiles);
-                    getAllFP().add(smiles);
-                    circularFragment = getCircularFragment(ac, i, 2);
-                    smiles = sm.create(circularFragment);
-                    l.add(smiles);
-                    getAllFP().add(smiles);
-
-                    circularFragment = getCircularFragment(ac, i, 3);
-                    smiles = sm.create(circularFragment);
-                    l.add(smiles);
-                    getAllFP().add(smiles);
-
-                } catch (Exception ex) {
-                    LOGGER.error(SEVERE, null, ex);
-                }
-            }
+            addEnvironments(a, aromaticity, l);
         }
 
         for (IAtomContainer a : reaction.getProducts().atomContainers()) {
-            IAtomContainer ac = null;
-            ac = removeHydrogensExceptSingleAndPreserveAtomID(a);
-            for (int i = 0; i < ac.getAtomCount(); i++) {
-                try {
-                    aromaticity.apply(ac);
-                    IAtomContainer circularFragment = getCircularFragment(ac, i, 1);
-                    String smiles = sm.create(circularFragment);
-                    r.add(smiles);
-                    getAllFP().add(smiles);
-
-                    circularFragment = getCircularFragment(ac, i, 2);
-                    smiles = sm.create(circularFragment);
-                    r.add(smiles);
-                    getAllFP().add(smiles);
-
-                    circularFragment = getCircularFragment(ac, i, 3);
-                    smiles = sm.create(circularFragment);
-                    r.add(smiles);
-                    getAllFP().add(smiles);
-
-                } catch (Exception ex) {
-                    LOGGER.error(SEVERE, null, ex);
-                }
-            }
+            addEnvironments(a, aromaticity, r);
         }
-        Set<String> common = new HashSet<>(l);
+        Set<Long> common = new HashSet<>(l);
         boolean intersection = common.retainAll(r);
 
         if (DEBUG) {
-            out.println("intersection " + common);
+            out.println("intersection " + dictionary.getSMILES(common));
         }
 
-        Set<String> difference = new TreeSet<>(l);
+        Set<Long> difference = new TreeSet<>(l);
         difference.addAll(r);
         boolean removeAll = difference.removeAll(common);
         if (DEBUG) {
-            out.println("difference " + difference);
+            out.println("difference " + dictionary.getSMILES(difference));
         }
         /*
          if no reaction is present then add all the patterns
@@ -233,10 +183,41 @@ class MultiReactionContainer {
         }
     }
 
+    /**
+     * Hash the radius 1..3 environments of every atom of the molecule. The
+     * molecule is hydrogen suppressed and aromatised once, SMILES are only
+     * generated later for reported hashes.
+     */
+    private void addEnvironments(IAtomContainer a, Aromaticity aromaticity, Set<Long> side) {
+        try {
+            CircularEnvironments environments = new CircularEnvironments(a, aromaticity);
+            long[] hashes = new long[MAX_RADIUS];
+            for (int i = 0; i < environments.getAtomCount(); i++) {
+                environments.hash(i, hashes);
+                for (int radius = 1; radius <= MAX_RADIUS; radius++) {
+                    long hash = hashes[radius - 1];
+                    dictionary.register(hash, environments.getMolecule(), i, radius);
+                    side.add(hash);
+                    getAllFP().add(hash);
+                }
+            }
+        } catch (Exception ex) {
+            LOGGER.error(SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * @param hashes environment hashes of this container
+     * @return unique SMILES of the environments
+     */
+    public Set<String> toSMILES(Set<Long> hashes) {
+        return dictionary.getSMILES(hashes);
+    }
+
     /**
      * @return the commonommonCommonFP
      */
-    public Set<String> getCommonCommonFP() {
+    public Set<Long> getCommonCommonFP() {
         return fp.getCommonCommonFP();
     }
 
@@ -257,14 +238,14 @@ class MultiReactionContainer {
     /**
      * @return the commonommonDifferencommoneFP
      */
-    public Set<String> getCommonDifferenceFP() {
+    public Set<Long> getCommonDifferenceFP() {
         return fp.getCommonDifferenceFP();
     }
 
     /**
      * @return the commonommonDifferencommoneFP
      */
-    public Set<String> getAllFP() {
+    public Set<Long> getAllFP() {
         return fp.getAllPatternsFP();
     }
 }
@@ -76,6 +76,15 @@ public interface Centre<A> extends Ligand<A> {
             PriorityRule<A> rule,
             SignCalculator<A> calculator);
 
+    /**
+     * Atoms the descriptor of this centre was derived from: the centre atoms
+     * and the atoms of its digraph expanded so far. A centre left undecided
+     * gets the same result again until one of them changes.
+     *
+     * @return atoms the perception depends on
+     */
+    public Set<A> getDependentAtoms();
+
     /**
      * Clean up the digraph
      */
@@ -18,6 +18,7 @@
 package uk.ac.ebi.centres;
 
 import java.util.List;
+import java.util.Set;
 import uk.ac.ebi.centres.graph.Arc;
 
 /**
@@ -65,6 +66,14 @@ public interface ConnectionProvider<A> {
      */
     public void reroot(Ligand<A> ligand);
 
+    /**
+     * Atoms whose ligands have been expanded so far, the digraph only grows
+     * as far as the comparisons needed.
+     *
+     * @return view of the expanded atoms
+     */
+    public Set<A> getExpandedAtoms();
+
     /**
      * Clear the digraph ready for GC
      */
@@ -19,11 +19,13 @@ package uk.ac.ebi.centres;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import static java.util.Collections.disjoint;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import java.util.Set;
 import org.openscience.cdk.tools.ILoggingTool;
 import org.openscience.cdk.tools.LoggingToolFactory;
 import static uk.ac.ebi.centres.descriptor.General.NONE;
@@ -40,8 +42,6 @@ public class DefaultPerceptor<A> implements Perceptor<A> {
 
     private final CentrePerceptor<A> mainPerceptor;
     private final CentrePerceptor<A> auxPerceptor;
-    private ExecutorService executor = newSingleThreadExecutor();
-    private long timeout = 250;
 
     /**
      *
@@ -77,17 +77,36 @@ public class DefaultPerceptor<A> implements Perceptor<A> {
         List<Centre<A>> perceived = new ArrayList<>();
         Map<Centre<A>, Descriptor> map = new LinkedHashMap<>();
 
+        /*
+         * Undecided centres and the atoms their result depended on, a centre
+         * is only perceived again once one of those atoms got a descriptor
+         */
+        Map<Centre<A>, Set<A>> undecided = new HashMap<>();
+        Set<A> assigned = new HashSet<>();
+
         do {
 
             map.clear();
 
             unperceived.forEach((centre) -> {
+                Set<A> dependent = undecided.get(centre);
+                if (dependent != null && disjoint(dependent, assigned)) {
+                    return;
+                }
                 Descriptor descriptor = perceptor.perceive(centre, unperceived);
                 if (descriptor != UNKNOWN) {
                     map.put(centre, descriptor);
+                } else {
+                    undecided.put(centre, centre.getDependentAtoms());
                 }
             });
 
+            assigned.clear();
+            map.keySet().forEach((centre) -> {
+                undecided.remove(centre);
+                assigned.addAll(centre.getAtoms());
+            });
+
             // transfer descriptors
             map.entrySet().stream().map((entry) -> {
                 unperceived.remove(entry.getKey());
@@ -144,14 +163,6 @@ public class DefaultPerceptor<A> implements Perceptor<A> {
 
     }
 
-    /**
-     * Shutdown the internal executor
-     */
-    @Override
-    public void shutdown() {
-        executor.shutdownNow();
-    }
-
     abstract class CentrePerceptor<A> {
 
         private final PriorityRule<A> rule;
@@ -20,6 +20,14 @@ package uk.ac.ebi.centres;
 import java.util.concurrent.TimeoutException;
 
 /**
+ * Perceives the descriptors of the centres of a molecule.
+ * <p>
+ * Lifecycle: a perceptor is created once and reused for any number of
+ * molecules. The priority rules it holds are not thread safe, so an instance
+ * must only be used by one thread at a time; services should keep one
+ * instance per worker thread. A perceptor owns no threads, {@link #shutdown()}
+ * only has to be called by implementations which hold resources of their own.
+ *
  * @author John May
  * @param <A>
  */
@@ -35,7 +43,9 @@ public interface Perceptor<A> {
             DescriptorManager<A> manager) throws TimeoutException;
 
     /**
-     *
+     * Release the resources held by the perceptor, the default perceptors hold
+     * none.
      */
-    public void shutdown();
+    public default void shutdown() {
+    }
 }
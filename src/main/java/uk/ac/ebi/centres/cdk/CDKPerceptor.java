@@ -43,6 +43,17 @@ public class CDKPerceptor extends DefaultPerceptor<IAtom> {
 
     private static final ILoggingTool LOGGER
             = LoggingToolFactory.createLoggingTool(CDKPerceptor.class);
+    private static final ThreadLocal<CDKPerceptor> PERCEPTORS = ThreadLocal.withInitial(CDKPerceptor::new);
+
+    /**
+     * The perceptor of the calling thread, created on first use and reused for
+     * every later molecule perceived by the thread.
+     *
+     * @return perceptor of the current thread
+     */
+    public static CDKPerceptor getInstance() {
+        return PERCEPTORS.get();
+    }
 
     /**
      *
@@ -81,11 +92,26 @@ public class CDKPerceptor extends DefaultPerceptor<IAtom> {
      * @param container
      */
     public void perceive(IAtomContainer container) {
+        perceive(container, true);
+    }
+
+    /**
+     * Perceive the centres on the 2D coordinates of the container. Without
+     * coordinates a layout is made first if asked for, else nothing is
+     * perceived.
+     *
+     * @param container
+     * @param generate2D lay out the container if it has no 2D coordinates
+     */
+    public void perceive(IAtomContainer container, boolean generate2D) {
         try {
             /*
             Check for 2D co-ordinates for EC-BLAST, must else it will fail!
              */
             if (!has2DCoordinates(container)) {
+                if (!generate2D) {
+                    return;
+                }
                 try {
                     /*
                     Clone it else it will loose mol ID
@@ -22,12 +22,14 @@ import com.google.common.collect.ListMultimap;
 import static java.lang.System.err;
 import java.util.ArrayList;
 import java.util.Collection;
+import static java.util.Collections.unmodifiableSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Set;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import uk.ac.ebi.centres.ConnectionProvider;
@@ -223,6 +225,11 @@ public abstract class AbstractDigraph<A> implements Digraph<A>,
 
     }
 
+    @Override
+    public Set<A> getExpandedAtoms() {
+        return unmodifiableSet(ligandMap.keySet());
+    }
+
     /**
      *
      * @param atom
@@ -20,6 +20,7 @@ package uk.ac.ebi.centres.ligand;
 import static com.google.common.collect.Sets.newHashSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.openscience.cdk.interfaces.IAtom;
@@ -205,6 +206,13 @@ public class PlanarCentre<A> extends AbstractLigand<A> implements Centre<A> {
 
     }
 
+    @Override
+    public Set<A> getDependentAtoms() {
+        Set<A> dependent = new HashSet<>(getProvider().getExpandedAtoms());
+        dependent.addAll(getAtoms());
+        return dependent;
+    }
+
     @Override
     public void dispose() {
         getProvider().dispose();
@@ -20,6 +20,7 @@ package uk.ac.ebi.centres.ligand;
 import java.util.Collection;
 import static java.util.Collections.singleton;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -203,6 +204,13 @@ public class TetrahedralCentre<A>
         return parent.equals(atom);
     }
 
+    @Override
+    public Set<A> getDependentAtoms() {
+        Set<A> dependent = new HashSet<>(getProvider().getExpandedAtoms());
+        dependent.addAll(getAtoms());
+        return dependent;
+    }
+
     @Override
     public void dispose() {
         getProvider().dispose();
@@ -18,6 +18,8 @@
  */
 package uk.ac.ebi.reactionblast.interfaces;
 
+import java.util.List;
+
 /**
  * A store to put data into, for example a filesystem or database.
  *
@@ -35,4 +37,17 @@ public interface IDataStore<T> {
      */
     void store(T obj);
 
+    /**
+     * Store a batch of objects. Stores which can group several objects per
+     * file (or per transaction) should override this, the default stores
+     * them one by one.
+     *
+     * @param batch the objects to store, in output order
+     */
+    default void storeAll(List<T> batch) {
+        for (T obj : batch) {
+            store(obj);
+        }
+    }
+
 }
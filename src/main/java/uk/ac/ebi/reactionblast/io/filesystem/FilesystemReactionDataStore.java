@@ -18,9 +18,13 @@
  */
 package uk.ac.ebi.reactionblast.io.filesystem;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import static java.lang.String.format;
+import java.util.List;
 
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.interfaces.IReaction;
@@ -37,11 +41,27 @@ public class FilesystemReactionDataStore implements IDataStore<IReaction> {
 
     private MDLV2000RXNWriter rxnWriter;
 
+    private final boolean batchAsRDF;
+
+    private int batchCount;
+
     /**
      *
      * @param reactionPath
      */
     public FilesystemReactionDataStore(String reactionPath) {
+        this(reactionPath, false);
+    }
+
+    /**
+     *
+     * @param reactionPath
+     * @param batchAsRDF write each batch passed to storeAll into a single RDF
+     * file (batch_NNNNNN.rdf) instead of one RXN file per reaction
+     */
+    public FilesystemReactionDataStore(String reactionPath, boolean batchAsRDF) {
+        this.batchAsRDF = batchAsRDF;
+        this.batchCount = 0;
         if (reactionPath != null) {
             this.reactionDir = new File(reactionPath);
             if (!reactionDir.exists()) {
@@ -69,4 +89,44 @@ public class FilesystemReactionDataStore implements IDataStore<IReaction> {
 
     }
 
+    @Override
+    public synchronized void storeAll(List<IReaction> batch) {
+        if (!batchAsRDF) {
+            for (IReaction reaction : batch) {
+                store(reaction);
+            }
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchCount++;
+        File file = new File(reactionDir, format("batch_%06d.rdf", batchCount));
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("$RDFILE 1");
+            writer.newLine();
+            writer.write("$DATM");
+            writer.newLine();
+            for (IReaction reaction : batch) {
+                /*
+                 * Each record is rendered on its own so that a reaction which
+                 * cannot be written leaves no partial record in the file, and
+                 * no SD delimiters end up between the RDF records
+                 */
+                StringWriter record = new StringWriter();
+                try (MDLV2000RXNWriter recordWriter = new MDLV2000RXNWriter(record)) {
+                    recordWriter.write(reaction);
+                } catch (CDKException e) {
+                    e.printStackTrace();
+                    continue;
+                }
+                writer.write("$RFMT $RIREG " + reaction.getID());
+                writer.newLine();
+                writer.write(record.toString());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
 }
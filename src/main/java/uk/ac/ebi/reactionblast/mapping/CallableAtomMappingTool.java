@@ -42,6 +42,7 @@ import org.openscience.cdk.interfaces.IReaction;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import uk.ac.ebi.reactionblast.interfaces.IStandardizer;
+import uk.ac.ebi.reactionblast.mapping.algorithm.GameTheoryOptions;
 import uk.ac.ebi.reactionblast.mapping.cache.ThreadSafeCache;
 import uk.ac.ebi.reactionblast.mapping.graph.MCSSolution;
 import uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm;
@@ -104,15 +105,35 @@ public class CallableAtomMappingTool implements Serializable {
             IStandardizer standardizer,
             boolean removeHydrogen,
             boolean checkComplex) throws Exception {
+        this(reaction, standardizer, removeHydrogen, checkComplex, GameTheoryOptions.DEFAULT);
+    }
+
+    /**
+     * Takes a standardizer to standardize the reaction before mapping.
+     *
+     * @param reaction
+     * @param standardizer
+     * @param removeHydrogen
+     * @param checkComplex will check complex mapping like ring systems
+     * @param options round limits and listener of the game theory mappings
+     * @throws Exception
+     */
+    public CallableAtomMappingTool(
+            IReaction reaction,
+            IStandardizer standardizer,
+            boolean removeHydrogen,
+            boolean checkComplex,
+            GameTheoryOptions options) throws Exception {
         solution = synchronizedMap(new EnumMap<>(IMappingAlgorithm.class));
-        generateAtomAtomMapping(reaction, standardizer, removeHydrogen, checkComplex);
+        generateAtomAtomMapping(reaction, standardizer, removeHydrogen, checkComplex, options);
     }
 
     private synchronized void generateAtomAtomMapping(
             IReaction reaction,
             IStandardizer standardizer,
             boolean removeHydrogen,
-            boolean checkComplex) {
+            boolean checkComplex,
+            GameTheoryOptions options) {
         /*
          * Mapping cache initialized
          */
@@ -155,7 +176,7 @@ public class CallableAtomMappingTool implements Serializable {
             if (DEBUG) {
                 out.println(NEW_LINE + "STEP a: Calling Mapping Models" + NEW_LINE);
             }
-            MappingThread maxThread = new MappingThread("IMappingAlgorithm.MAX", cleanedReaction1, MAX, removeHydrogen);
+            MappingThread maxThread = new MappingThread("IMappingAlgorithm.MAX", cleanedReaction1, MAX, removeHydrogen, options);
             cs.submit(maxThread);
             jobCounter++;
             /*
@@ -174,7 +195,7 @@ public class CallableAtomMappingTool implements Serializable {
                 LOGGER.debug("ERROR: in AtomMappingTool: " + e.getMessage());
                 LOGGER.error(e);
             }
-            MappingThread minThread = new MappingThread("IMappingAlgorithm.MIN", cleanedReaction2, MIN, removeHydrogen);
+            MappingThread minThread = new MappingThread("IMappingAlgorithm.MIN", cleanedReaction2, MIN, removeHydrogen, options);
             cs.submit(minThread);
             jobCounter++;
             /*
@@ -193,7 +214,7 @@ public class CallableAtomMappingTool implements Serializable {
                 LOGGER.debug("ERROR: in AtomMappingTool: " + e.getMessage());
                 LOGGER.error(e);
             }
-            MappingThread maxMixtureThread = new MappingThread("IMappingAlgorithm.MIXTURE", cleanedReaction3, MIXTURE, removeHydrogen);
+            MappingThread maxMixtureThread = new MappingThread("IMappingAlgorithm.MIXTURE", cleanedReaction3, MIXTURE, removeHydrogen, options);
             cs.submit(maxMixtureThread);
             jobCounter++;
 
@@ -213,7 +234,7 @@ public class CallableAtomMappingTool implements Serializable {
                     LOGGER.debug("ERROR: in AtomMappingTool: " + e.getMessage());
                     LOGGER.error(e);
                 }
-                MappingThread ringThread = new MappingThread("IMappingAlgorithm.RINGS", cleanedReaction4, RINGS, removeHydrogen);
+                MappingThread ringThread = new MappingThread("IMappingAlgorithm.RINGS", cleanedReaction4, RINGS, removeHydrogen, options);
                 cs.submit(ringThread);
                 jobCounter++;
             }
@@ -23,6 +23,7 @@ import java.util.concurrent.Callable;
 import org.openscience.cdk.interfaces.IReaction;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
+import uk.ac.ebi.reactionblast.mapping.algorithm.GameTheoryOptions;
 import uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm;
 
 /**
@@ -36,6 +37,7 @@ class MappingThread implements Callable<Reactor> {
     private final IReaction cleanedReaction;
     private final IMappingAlgorithm algorithm;
     private final boolean removeHydrogen;
+    private final GameTheoryOptions options;
 
     /**
      *
@@ -43,13 +45,15 @@ class MappingThread implements Callable<Reactor> {
      * @param removeHydrogen true (map without hydrogen, for faster mapping)
      * else false for complete with Hydrogen
      * @param algorithm
+     * @param options round limits and listener of the game theory mapping
      *
      * @return Mapped Object
      */
-    MappingThread(String message, IReaction cleanedReaction, IMappingAlgorithm algorithm, boolean removeHydrogen) {
+    MappingThread(String message, IReaction cleanedReaction, IMappingAlgorithm algorithm, boolean removeHydrogen, GameTheoryOptions options) {
         this.cleanedReaction = cleanedReaction;
         this.algorithm = algorithm;
         this.removeHydrogen = removeHydrogen;
+        this.options = options;
         LOGGER.info("|++++++++++++++++++++++++++++|");
         LOGGER.info("|Atom Atom Mapping Tool Initialized for " + message);
     }
@@ -58,7 +62,7 @@ class MappingThread implements Callable<Reactor> {
     public Reactor call() throws Exception {
         try {
             Reactor reactor;
-            reactor = new Reactor(cleanedReaction, removeHydrogen, algorithm);
+            reactor = new Reactor(cleanedReaction, removeHydrogen, algorithm, options);
             LOGGER.info("|Done " + reactor.getAlgorithm() + " |");
             return reactor;
         } catch (Exception ex) {
@@ -48,6 +48,7 @@ import static org.openscience.cdk.smiles.SmilesGenerator.generic;
 import static org.openscience.cdk.smiles.SmilesGenerator.unique;
 import static org.openscience.cdk.tools.manipulator.AtomContainerSetManipulator.getTotalFormalCharge;
 import uk.ac.ebi.reactionblast.mapping.algorithm.CalculationProcess;
+import uk.ac.ebi.reactionblast.mapping.algorithm.GameTheoryOptions;
 import uk.ac.ebi.reactionblast.mapping.container.MoleculeMoleculeMapping;
 import uk.ac.ebi.reactionblast.mapping.helper.AbstractReactor;
 import uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm;
@@ -91,6 +92,7 @@ public class Reactor extends AbstractReactor implements Serializable {
     private final IReaction reactionWithSTOICHIOMETRY;
     private final boolean partialMapping;
     private final IMappingAlgorithm algorithm;
+    private final GameTheoryOptions options;
     private MoleculeMoleculeMapping reactionBlastMolMapping;
     private Integer substrateAtomCounter;
     private Integer productAtomCounter;
@@ -113,6 +115,22 @@ public class Reactor extends AbstractReactor implements Serializable {
             boolean partialMapping,
             IMappingAlgorithm algorithm)
             throws Exception {
+        this(reaction, partialMapping, algorithm, GameTheoryOptions.DEFAULT);
+    }
+
+    /**
+     *
+     * @param reaction Reaction
+     * @param partialMapping (without Hydrogens is set True, its faster)
+     * @param algorithm
+     * @param options round limits and listener of the game theory mapping
+     * @throws Exception
+     */
+    Reactor(IReaction reaction,
+            boolean partialMapping,
+            IMappingAlgorithm algorithm,
+            GameTheoryOptions options)
+            throws Exception {
 
         //SmilesGenerator smiles = new SmilesGenerator(SmiFlavor.Unique | SmiFlavor.UseAromaticSymbols | SmiFlavor.AtomAtomMap);
         if (partialMapping) {
@@ -134,6 +152,7 @@ public class Reactor extends AbstractReactor implements Serializable {
 //        System.LOGGER.debug("Input reaction to be mapped " + withAtomClasses.createReactionSMILES(reaction));
         this.partialMapping = partialMapping;
         this.algorithm = algorithm;
+        this.options = options;
         this.reactionWithSTOICHIOMETRY = reaction.getBuilder().newInstance(IReaction.class);
         this.reactionWithUniqueSTOICHIOMETRY = reaction.getBuilder().newInstance(IReaction.class);
         this.balanceFlag = true;
@@ -380,7 +399,7 @@ public class Reactor extends AbstractReactor implements Serializable {
         try {
             IReaction reactionCopy = copyReaction(reactionWithUniqueSTOICHIOMETRY, partialMapping);
             CalculationProcess calP
-                    = new CalculationProcess(partialMapping, reactionCopy, getAlgorithm());
+                    = new CalculationProcess(partialMapping, reactionCopy, getAlgorithm(), options);
             delta = calP.getDelta();
             IReaction mappedReaction = calP.getMappedReaction();
             reactionWithUniqueSTOICHIOMETRY = getMapping(mappedReaction);
@@ -18,6 +18,13 @@
  */
 package uk.ac.ebi.reactionblast.mapping.algorithm;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FP_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FRAGMENT;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 import java.io.IOException;
 import java.io.Serializable;
 import static java.lang.String.valueOf;
@@ -43,8 +50,6 @@ import org.openscience.cdk.PseudoAtom;
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.fingerprint.CircularFingerprinter;
 import org.openscience.cdk.fingerprint.IBitFingerprint;
-import org.openscience.cdk.graph.CycleFinder;
-import org.openscience.cdk.graph.Cycles;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IPseudoAtom;
@@ -58,6 +63,7 @@ import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
 import org.openscience.smsd.helper.MoleculeInitializer;
+import org.openscience.smsd.helper.RingInfo;
 import org.openscience.smsd.interfaces.Algorithm;
 import org.openscience.smsd.tools.ExtAtomContainerManipulator;
 import static uk.ac.ebi.reactionblast.fingerprints.tools.Similarity.getTanimotoSimilarity;
@@ -150,8 +156,8 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                             System.out.println(" educt Index " + substrateIndex + ", product Index " + productIndex);
                             System.out.println(" educt count " + educt.getAtomCount() + ", product count " + product.getAtomCount());
 
-                            System.out.println("mh.getGraphSimilarityMatrix().getValue(substrateIndex, productIndex) "
-                                    + mh.getGraphSimilarityMatrix().getValue(substrateIndex, productIndex));
+                            System.out.println("mh.getScores().get(GRAPH_SIMILARITY, substrateIndex, productIndex) "
+                                    + mh.getScores().get(GRAPH_SIMILARITY, substrateIndex, productIndex));
                             System.out.println("reactionStructureInformation.isEductModified(substrateIndex) "
                                     + reactionStructureInformation.isEductModified(substrateIndex));
                             System.out.println("reactionStructureInformation.isProductModified(productIndex) "
@@ -160,7 +166,7 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                         if ((educt != null && product != null)
                                 && (reactionStructureInformation.getEduct(substrateIndex).getAtomCount() > 0
                                 && reactionStructureInformation.getProduct(productIndex).getAtomCount() > 0)
-                                || mh.getGraphSimilarityMatrix().getValue(substrateIndex, productIndex) == -1) {
+                                || mh.getScores().get(GRAPH_SIMILARITY, substrateIndex, productIndex) == -1) {
                             if (reactionStructureInformation.isEductModified(substrateIndex)
                                     || reactionStructureInformation.isProductModified(productIndex)) {
                                 refillMatrixWithNewData(mh, substrateIndex, productIndex, mcsSolutions);
@@ -168,13 +174,7 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                                 refillMatrixWithOldData(mh, substrateIndex, productIndex);
                             }
                         } else {
-                            mh.getGraphSimilarityMatrix().setValue(substrateIndex, productIndex, 0.0);
-                            mh.getStereoMatrix().setValue(substrateIndex, productIndex, 0.0);
-                            mh.getCliqueMatrix().setValue(substrateIndex, productIndex, 0.0);
-                            mh.getCarbonOverlapMatrix().setValue(substrateIndex, productIndex, 0.0);
-                            mh.getFragmentMatrix().setValue(substrateIndex, productIndex, 0.0);
-                            mh.getEnergyMatrix().setValue(substrateIndex, productIndex, 0.0);
-                            mh.getFPSimilarityMatrix().setValue(substrateIndex, productIndex, 0.0);
+                            mh.getScores().setAll(substrateIndex, productIndex, 0.0);
                         }
                     } catch (IOException | CDKException ex) {
                         LOGGER.error(SEVERE, null, ex);
@@ -220,7 +220,7 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                     if ((educt != null && product != null)
                             && (reactionStructureInformation.getEduct(substrateIndex).getAtomCount() > 0
                             && reactionStructureInformation.getProduct(productIndex).getAtomCount() > 0)
-                            || mh.getGraphSimilarityMatrix().getValue(substrateIndex, productIndex) == -1) {
+                            || mh.getScores().get(GRAPH_SIMILARITY, substrateIndex, productIndex) == -1) {
                         if (reactionStructureInformation.isEductModified(substrateIndex)
                                 || reactionStructureInformation.isProductModified(productIndex)) {
                             refillMatrixWithNewData(mh, substrateIndex, productIndex, mcsSolutions);
@@ -228,14 +228,7 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                             refillMatrixWithOldData(mh, substrateIndex, productIndex);
                         }
                     } else {
-                        mh.getGraphSimilarityMatrix().setValue(substrateIndex, productIndex, 0.0);
-                        mh.getStereoMatrix().setValue(substrateIndex, productIndex, 0.0);
-                        mh.getCliqueMatrix().setValue(substrateIndex, productIndex, 0.0);
-                        mh.getCarbonOverlapMatrix().setValue(substrateIndex, productIndex, 0.0);
-                        mh.getFragmentMatrix().setValue(substrateIndex, productIndex, 0.0);
-
-                        mh.getEnergyMatrix().setValue(substrateIndex, productIndex, 0.0);
-                        mh.getFPSimilarityMatrix().setValue(substrateIndex, productIndex, 0.0);
+                        mh.getScores().setAll(substrateIndex, productIndex, 0.0);
                     }
                 }
             }
@@ -334,13 +327,13 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                 }
             }
 
-            holder.getCliqueMatrix().setValue(substrateIndex, productIndex, mappingSize);
-            holder.getGraphSimilarityMatrix().setValue(substrateIndex, productIndex, graphSimilarity);
-            holder.getStereoMatrix().setValue(substrateIndex, productIndex, stereoVal);
-            holder.getCarbonOverlapMatrix().setValue(substrateIndex, productIndex, carbonCount);
-            holder.getFragmentMatrix().setValue(substrateIndex, productIndex, fragmentVal);
-            holder.getEnergyMatrix().setValue(substrateIndex, productIndex, energyVal);
-            holder.getFPSimilarityMatrix().setValue(substrateIndex, productIndex, fpSim);
+            holder.getScores().set(CLIQUE, substrateIndex, productIndex, mappingSize);
+            holder.getScores().set(GRAPH_SIMILARITY, substrateIndex, productIndex, graphSimilarity);
+            holder.getScores().set(STEREO, substrateIndex, productIndex, stereoVal);
+            holder.getScores().set(CARBON_OVERLAP, substrateIndex, productIndex, carbonCount);
+            holder.getScores().set(FRAGMENT, substrateIndex, productIndex, fragmentVal);
+            holder.getScores().set(ENERGY, substrateIndex, productIndex, energyVal);
+            holder.getScores().set(FP_SIMILARITY, substrateIndex, productIndex, fpSim);
 
         } catch (IOException | CDKException ex) {
             LOGGER.error(SEVERE, null, ex);
@@ -424,18 +417,14 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
         }
 
         try {
-            CycleFinder cycles = Cycles.vertexShort();
-            Cycles rings = cycles.find(educt);
+            int numberOfCyclesEduct = RingInfo.of(educt).getShortCycleCount();
             if (DEBUG) {
                 System.out.println("Done Finding cycles educt");
             }
-
-            int numberOfCyclesEduct = rings.numberOfCycles();
-            rings = cycles.find(product);
             if (DEBUG) {
                 System.out.println("Finding cycles product");
             }
-            int numberOfCyclesProduct = rings.numberOfCycles();
+            int numberOfCyclesProduct = RingInfo.of(product).getShortCycleCount();
 
             String key = generateUniqueKey(
                     educt, product,
@@ -541,13 +530,13 @@ public abstract class BaseGameTheory extends Debugger implements IGameTheory, Se
                 }
             }
 
-            holder.getCliqueMatrix().setValue(substrateIndex, productIndex, mappingSize);
-            holder.getGraphSimilarityMatrix().setValue(substrateIndex, productIndex, graphSimilarity);
-            holder.getStereoMatrix().setValue(substrateIndex, productIndex, stereoVal);
-            holder.getCarbonOverlapMatrix().setValue(substrateIndex, productIndex, carbonCount);
-            holder.getFragmentMatrix().setValue(substrateIndex, productIndex, fragmentVal);
-            holder.getEnergyMatrix().setValue(substrateIndex, productIndex, energyVal);
-            holder.getFPSimilarityMatrix().setValue(substrateIndex, productIndex, fpSim);
+            holder.getScores().set(CLIQUE, substrateIndex, productIndex, mappingSize);
+            holder.getScores().set(GRAPH_SIMILARITY, substrateIndex, productIndex, graphSimilarity);
+            holder.getScores().set(STEREO, substrateIndex, productIndex, stereoVal);
+            holder.getScores().set(CARBON_OVERLAP, substrateIndex, productIndex, carbonCount);
+            holder.getScores().set(FRAGMENT, substrateIndex, productIndex, fragmentVal);
+            holder.getScores().set(ENERGY, substrateIndex, productIndex, energyVal);
+            holder.getScores().set(FP_SIMILARITY, substrateIndex, productIndex, fpSim);
         } catch (CDKException ex) {
             LOGGER.debug(SEVERE, null, ex);
         } catch (IOException ex) {
@@ -54,6 +54,7 @@ public class CalculationProcess extends IsomeraseHandler implements Serializable
     private int delta = 0;
     private MoleculeMoleculeMapping reactionBlastMolMapping;
     private final IMappingAlgorithm algorithm;
+    private final GameTheoryOptions options;
 
     /**
      *
@@ -66,6 +67,22 @@ public class CalculationProcess extends IsomeraseHandler implements Serializable
             boolean removeHydrogen,
             IReaction reaction,
             IMappingAlgorithm algorithm) throws Intractable {
+        this(removeHydrogen, reaction, algorithm, GameTheoryOptions.DEFAULT);
+    }
+
+    /**
+     *
+     * @param removeHydrogen
+     * @param reaction
+     * @param algorithm
+     * @param options round limits and listener of the game theory mapping
+     * @throws org.openscience.cdk.exception.Intractable
+     */
+    public CalculationProcess(
+            boolean removeHydrogen,
+            IReaction reaction,
+            IMappingAlgorithm algorithm,
+            GameTheoryOptions options) throws Intractable {
 
         /*
          * This case handles rings cases where 6 membered ring reduces to 5 membered rings Example KEGG reaction R01432
@@ -79,6 +96,7 @@ public class CalculationProcess extends IsomeraseHandler implements Serializable
         LOGGER.debug("Performing Atom-Atom Mapping ....... " + reaction.getID() + " .......");
         LOGGER.debug(NEW_LINE + "|++++++++++++++++++++++++++++|");
         this.algorithm = algorithm;
+        this.options = options;
         run();
     }
 
@@ -136,7 +154,8 @@ public class CalculationProcess extends IsomeraseHandler implements Serializable
                     removeHydrogen,
                     educts,
                     products,
-                    EDSH);
+                    EDSH,
+                    options);
 
             if (DEBUG) {
                 System.out.println("=====DONE AGORITHM====" + theory);
@@ -48,27 +48,43 @@ public class GameTheoryFactory implements Serializable {
      * @throws Exception
      */
     public static synchronized IGameTheory make(IMappingAlgorithm theory, IReaction reaction, boolean removeHydrogen, Map<Integer, IAtomContainer> educts, Map<Integer, IAtomContainer> products, GameTheoryMatrix rpsh) throws Exception {
+        return make(theory, reaction, removeHydrogen, educts, products, rpsh, GameTheoryOptions.DEFAULT);
+    }
+
+    /**
+     *
+     * @param theory
+     * @param reaction
+     * @param removeHydrogen
+     * @param educts
+     * @param products
+     * @param rpsh
+     * @param options round limits and listener of this mapping run
+     * @return
+     * @throws Exception
+     */
+    public static synchronized IGameTheory make(IMappingAlgorithm theory, IReaction reaction, boolean removeHydrogen, Map<Integer, IAtomContainer> educts, Map<Integer, IAtomContainer> products, GameTheoryMatrix rpsh, GameTheoryOptions options) throws Exception {
         switch (theory) {
             case MIXTURE:
                 return new GameTheoryMixture(
                         reaction, removeHydrogen,
                         educts, products,
-                        rpsh);
+                        rpsh, options);
             case MIN:
                 return new GameTheoryMin(
                         reaction, removeHydrogen,
                         educts, products,
-                        rpsh);
+                        rpsh, options);
             case MAX:
                 return new GameTheoryMax(
                         reaction, removeHydrogen,
                         educts, products,
-                        rpsh);
+                        rpsh, options);
             case RINGS:
                 return new GameTheoryRings(
                         reaction, removeHydrogen,
                         educts, products,
-                        rpsh);
+                        rpsh, options);
             default:
                 return null;
         }
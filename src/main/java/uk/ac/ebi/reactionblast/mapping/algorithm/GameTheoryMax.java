@@ -66,9 +66,6 @@ import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
 import uk.ac.ebi.reactionblast.mapping.container.helper.MolMapping;
 import uk.ac.ebi.reactionblast.mapping.graph.GraphMatching;
 import uk.ac.ebi.reactionblast.mapping.interfaces.AbstractGraphMatching;
-import uk.ac.ebi.reactionblast.tools.CDKSMILES;
-import uk.ac.ebi.reactionblast.tools.labelling.ICanonicalMoleculeLabeller;
-import uk.ac.ebi.reactionblast.tools.labelling.SmilesMoleculeLabeller;
 
 final class GameTheoryMax extends BaseGameTheory {
 
@@ -87,7 +84,7 @@ final class GameTheoryMax extends BaseGameTheory {
     private Holder mh;
     private int delta = 0;
     private Integer stepIndex = 0;
-    private final ICanonicalMoleculeLabeller canonLabeler;
+    private final GameTheoryRounds rounds;
 
     //~--- constructors -------------------------------------------------------
     GameTheoryMax(
@@ -95,12 +92,13 @@ final class GameTheoryMax extends BaseGameTheory {
             boolean removeHydrogen,
             Map<Integer, IAtomContainer> _educts,
             Map<Integer, IAtomContainer> _products,
-            GameTheoryMatrix rpsh)
+            GameTheoryMatrix rpsh,
+            GameTheoryOptions options)
             throws Exception {
         if (DEBUG) {
             out.println("I am MAX");
         }
-        this.canonLabeler = new SmilesMoleculeLabeller();
+        this.rounds = new GameTheoryRounds(reaction.getID(), "MAX", options);
         this.removeHydrogen = removeHydrogen;
         this.reaction = reaction;
         this.educts = _educts;
@@ -118,75 +116,77 @@ final class GameTheoryMax extends BaseGameTheory {
 
     private synchronized void GenerateMapping(boolean flag) throws Exception {
         boolean ruleMatchingFlag = flag;
-        if (DEBUG) {
-            out.println("**********Orignal Matrix**************");
-            printMatrixAtomContainer(mh, eductList, productList);
-            printSimMatrix(mh, eductList, productList);
-            printCliqueMatrix(mh, eductList, productList);
-//            printStereoMatrix(mh, eductList, productList);
-//            printFragmentMatrix(mh, eductList, productList);
-//            printEnergyMatrix(mh, eductList, productList);
-        }
-
-        boolean conditionmet = false;
-        if (!ruleMatchingFlag) {
+        while (rounds.startRound()) {
             if (DEBUG) {
-                out.println("CHECK Rule Based Mapping Handler Match");
+                out.println("**********Orignal Matrix**************");
+                printMatrixAtomContainer(mh, eductList, productList);
+                printSimMatrix(mh, eductList, productList);
+                printCliqueMatrix(mh, eductList, productList);
+//                printStereoMatrix(mh, eductList, productList);
+//                printFragmentMatrix(mh, eductList, productList);
+//                printEnergyMatrix(mh, eductList, productList);
             }
-            RuleBasedMappingHandler ruleBasedMappingHandler = new RuleBasedMappingHandler(mh, eductList, productList);
-            if (ruleBasedMappingHandler.isMatchFound()) {
+
+            boolean conditionmet = false;
+            if (!ruleMatchingFlag) {
                 if (DEBUG) {
-                    out.println("Rule Based Mapping Handler Match Found");
+                    out.println("CHECK Rule Based Mapping Handler Match");
+                }
+                RuleBasedMappingHandler ruleBasedMappingHandler = new RuleBasedMappingHandler(mh, eductList, productList);
+                if (ruleBasedMappingHandler.isMatchFound()) {
+                    if (DEBUG) {
+                        out.println("Rule Based Mapping Handler Match Found");
+                    }
+                    mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
+                    conditionmet = true;
+                }
+                ruleMatchingFlag = true;
+                if (DEBUG) {
+                    out.println("DONE CHECK Rule Based Mapping Handler");
+                }
+            }
+            if (!conditionmet) {
+                if (DEBUG) {
+                    out.println("Subgraph/Exact Match Test");
+                }
+                MaxSelection select = new MaxSelection(mh, eductList, productList);
+                if (select.isSubAndCompleteMatchFlag()) {
+//                System.out.println("Subgraph/Exact Match");
+                    mh = select.getUpdatedHolder();
                 }
-                mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
-                conditionmet = true;
             }
-            ruleMatchingFlag = true;
             if (DEBUG) {
-                out.println("DONE CHECK Rule Based Mapping Handler");
+                out.println("**********Modified Matrix**************");
+//                printMatrixAtomContainer(mh, eductList, productList);
+                printSimMatrix(mh, eductList, productList);
+                printCliqueMatrix(mh, eductList, productList);
+//                printStereoMatrix(mh, eductList, productList);
+//                printFragmentMatrix(mh, eductList, productList);
+//                printEnergyMatrix(mh, eductList, productList);
             }
-        }
-        if (!conditionmet) {
+
+            winner.searchWinners(educts, products, mh);
             if (DEBUG) {
-                out.println("Subgraph/Exact Match Test");
+                printFlagMatrix(winner, eductList, productList);
             }
-            MaxSelection select = new MaxSelection(mh, eductList, productList);
-            if (select.isSubAndCompleteMatchFlag()) {
-//            System.out.println("Subgraph/Exact Match");
-                mh = select.getUpdatedHolder();
+            if (!rounds.winnersSearched(winner.getFlag())) {
+                break;
             }
-        }
-        if (DEBUG) {
-            out.println("**********Modified Matrix**************");
-//            printMatrixAtomContainer(mh, eductList, productList);
-            printSimMatrix(mh, eductList, productList);
-            printCliqueMatrix(mh, eductList, productList);
-//            printStereoMatrix(mh, eductList, productList);
-//            printFragmentMatrix(mh, eductList, productList);
-//            printEnergyMatrix(mh, eductList, productList);
-        }
-        winner.searchWinners(educts, products, mh);
-        if (DEBUG) {
-            printFlagMatrix(winner, eductList, productList);
-        }
-        if (winner.getFlag()) {
             if (DEBUG) {
                 out.println("**********Updated Mapping**************");
             }
-            UpdateMapping();
+            rounds.winnersMapped(UpdateMapping());
             if (DEBUG) {
                 out.println("**********Updated Matrix**************");
             }
             UpdateMatrix(mh, removeHydrogen);
-            if (DEBUG) {
-                out.println("**********Generate Mapping**************");
-            }
-            GenerateMapping(ruleMatchingFlag);
+            rounds.matrixUpdated();
         }
     }
 
-    private synchronized void UpdateMapping() throws Exception {
+    private synchronized int UpdateMapping() throws Exception {
         boolean[][] FlagMatrix = winner.getFlagMatrix();
+        int pairsSolved = 0;
 
         ReactionContainer reactionStructureInformation = mh.getReactionContainer();
 
@@ -213,6 +213,7 @@ final class GameTheoryMax extends BaseGameTheory {
 //                    System.out.println("Mol Size E: " + ac1.getAtomCount() + " , Mol Size P: " + ac2.getAtomCount());
                     boolean mcsMatch = GM.mcsMatch(mh, removeHydrogen, substrateIndex, productIndex, A, B);
                     if (mcsMatch) {
+                        pairsSolved++;
                         delta += GM.removeMatchedAtomsAndUpdateAAM(reaction);
                         List<MolMapping> rMap = getReactionMolMapping().
                                 getMapping(rid, this.eductList.get(substrateIndex), this.productList.get(productIndex));
@@ -220,13 +221,7 @@ final class GameTheoryMax extends BaseGameTheory {
                             map.setReactionMapping(true);
                             return map;
                         }).forEach((map) -> {
-                            try {
-                                IAtomContainer mol = GM.getMatchedPart();
-                                mol = canonLabeler.getCanonicalMolecule(mol);
-                                CDKSMILES cdkSmiles = new CDKSMILES(mol, true, false);
-                                map.setMatchedSMILES(cdkSmiles.getCanonicalSMILES(), ++stepIndex);
-                            } catch (CloneNotSupportedException e) {
-                            }
+                            map.setMatchedFragment(GM.getMatchedFragment(), ++stepIndex);
                         });
                     }
                     IAtomContainer remainingEduct = GM.getRemainingEduct();
@@ -241,6 +236,7 @@ final class GameTheoryMax extends BaseGameTheory {
                 }
             }
         }
+        return pairsSolved;
     }
 
     /**
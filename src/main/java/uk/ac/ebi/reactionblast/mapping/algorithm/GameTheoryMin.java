@@ -64,9 +64,6 @@ import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
 import uk.ac.ebi.reactionblast.mapping.container.helper.MolMapping;
 import uk.ac.ebi.reactionblast.mapping.graph.GraphMatching;
 import uk.ac.ebi.reactionblast.mapping.interfaces.AbstractGraphMatching;
-import uk.ac.ebi.reactionblast.tools.CDKSMILES;
-import uk.ac.ebi.reactionblast.tools.labelling.ICanonicalMoleculeLabeller;
-import uk.ac.ebi.reactionblast.tools.labelling.SmilesMoleculeLabeller;
 import uk.ac.ebi.reactionblast.mapping.algorithm.checks.Selector;
 import static java.util.Collections.synchronizedList;
 import uk.ac.ebi.reactionblast.mapping.algorithm.checks.MinSelection;
@@ -88,7 +85,7 @@ final class GameTheoryMin extends BaseGameTheory {
     private Map<Integer, IAtomContainer> products = null;
     private int delta = 0;
     private Integer stepIndex = 0;
-    private final ICanonicalMoleculeLabeller canonLabeler;
+    private final GameTheoryRounds rounds;
 
     //~--- constructors -------------------------------------------------------
     GameTheoryMin(
@@ -96,12 +93,13 @@ final class GameTheoryMin extends BaseGameTheory {
             boolean removeHydrogen,
             Map<Integer, IAtomContainer> _educts,
             Map<Integer, IAtomContainer> _products,
-            GameTheoryMatrix rpsh)
+            GameTheoryMatrix rpsh,
+            GameTheoryOptions options)
             throws Exception {
         if (DEBUG) {
             out.println("I am MIN MIX");
         }
-        this.canonLabeler = new SmilesMoleculeLabeller();
+        this.rounds = new GameTheoryRounds(reaction.getID(), "MIN", options);
         this.removeHydrogen = removeHydrogen;
         this.reaction = reaction;
         this.educts = _educts;
@@ -130,100 +128,94 @@ final class GameTheoryMin extends BaseGameTheory {
     }
 
     private synchronized void GenerateIsoMorphismMapping() throws Exception {
-
+        if (!rounds.startRound()) {
+            return;
+        }
         winner.searchWinners(educts, products, mh);
-
-        if (winner.getFlag()) {
-
-            if (DEBUG) {
-                System.out.println("**********Updated Mapping**************");
-            }
-            UpdateMapping();
-            if (DEBUG) {
-                System.out.println("**********Updated Matrix**************");
-            }
+        if (rounds.winnersSearched(winner.getFlag())) {
+            rounds.winnersMapped(UpdateMapping());
             UpdateMatrix(mh, removeHydrogen);
-            if (DEBUG) {
-                System.out.println("**********Generate Mapping**************");
-            }
+            rounds.matrixUpdated();
             GenerateMapping(false);
         }
     }
 
     private synchronized void GenerateMapping(boolean flag) throws Exception {
         boolean ruleMatchingFlag = flag;
-        if (DEBUG) {
-            System.out.println("**********Orignal Matrix**************");
-            printMatrixAtomContainer(mh, eductList, productList);
-            printSimMatrix(mh, eductList, productList);
-            printCliqueMatrix(mh, eductList, productList);
-//            printStereoMatrix(mh, eductList, productList);
-//            printFragmentMatrix(mh, eductList, productList);
-//            printEnergyMatrix(mh, eductList, productList);
-        }
-        boolean conditionmet = false;
-        if (!ruleMatchingFlag) {
+        while (rounds.startRound()) {
             if (DEBUG) {
-                out.println("CHECK Rule Based Mapping Handler Match");
+                System.out.println("**********Orignal Matrix**************");
+                printMatrixAtomContainer(mh, eductList, productList);
+                printSimMatrix(mh, eductList, productList);
+                printCliqueMatrix(mh, eductList, productList);
+//                printStereoMatrix(mh, eductList, productList);
+//                printFragmentMatrix(mh, eductList, productList);
+//                printEnergyMatrix(mh, eductList, productList);
             }
-            RuleBasedMappingHandler ruleBasedMappingHandler = new RuleBasedMappingHandler(mh, eductList, productList);
-            if (ruleBasedMappingHandler.isMatchFound()) {
+            boolean conditionmet = false;
+            if (!ruleMatchingFlag) {
                 if (DEBUG) {
-                    out.println("Rule Based Mapping Handler Match Found");
+                    out.println("CHECK Rule Based Mapping Handler Match");
+                }
+                RuleBasedMappingHandler ruleBasedMappingHandler = new RuleBasedMappingHandler(mh, eductList, productList);
+                if (ruleBasedMappingHandler.isMatchFound()) {
+                    if (DEBUG) {
+                        out.println("Rule Based Mapping Handler Match Found");
+                    }
+                    mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
+                    conditionmet = true;
+                }
+                ruleMatchingFlag = true;
+                if (DEBUG) {
+                    out.println("DONE CHECK Rule Based Mapping Handler");
+                }
+            }
+
+            if (!conditionmet) {
+                if (DEBUG) {
+                    out.println("Subgraph/Exact Match Test");
+                }
+                MinSelection select
+                        = new MinSelection(mh, eductList, productList);
+                if (select.isSubAndCompleteMatchFlag()) {
+                    if (DEBUG) {
+                        out.println("Subgraph/Exact Match");
+                    }
+                    mh = select.getUpdatedHolder();
                 }
-                mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
-                conditionmet = true;
             }
-            ruleMatchingFlag = true;
             if (DEBUG) {
-                out.println("DONE CHECK Rule Based Mapping Handler");
+                out.println("**********Modified Matrix**************");
+//                printMatrixAtomContainer(mh, eductList, productList);
+                printSimMatrix(mh, eductList, productList);
+                printCliqueMatrix(mh, eductList, productList);
+//                printStereoMatrix(mh, eductList, productList);
+//                printFragmentMatrix(mh, eductList, productList);
+//                printEnergyMatrix(mh, eductList, productList);
             }
-        }
 
-        if (!conditionmet) {
+            winner.searchWinners(educts, products, mh);
             if (DEBUG) {
-                out.println("Subgraph/Exact Match Test");
+                printFlagMatrix(winner, eductList, productList);
             }
-            MinSelection select
-                    = new MinSelection(mh, eductList, productList);
-            if (select.isSubAndCompleteMatchFlag()) {
-                if (DEBUG) {
-                    out.println("Subgraph/Exact Match");
-                }
-                mh = select.getUpdatedHolder();
+            if (!rounds.winnersSearched(winner.getFlag())) {
+                break;
             }
-        }
-        if (DEBUG) {
-            out.println("**********Modified Matrix**************");
-//            printMatrixAtomContainer(mh, eductList, productList);
-            printSimMatrix(mh, eductList, productList);
-            printCliqueMatrix(mh, eductList, productList);
-//            printStereoMatrix(mh, eductList, productList);
-//            printFragmentMatrix(mh, eductList, productList);
-//            printEnergyMatrix(mh, eductList, productList);
-        }
-        winner.searchWinners(educts, products, mh);
-        if (DEBUG) {
-            printFlagMatrix(winner, eductList, productList);
-        }
-        if (winner.getFlag()) {
             if (DEBUG) {
                 out.println("**********Updated Mapping**************");
             }
-            UpdateMapping();
+            rounds.winnersMapped(UpdateMapping());
             if (DEBUG) {
                 out.println("**********Updated Matrix**************");
             }
             UpdateMatrix(mh, removeHydrogen);
-            if (DEBUG) {
-                out.println("**********Generate Mapping**************");
-            }
-            GenerateMapping(ruleMatchingFlag);
+            rounds.matrixUpdated();
         }
     }
 
-    private synchronized void UpdateMapping() throws Exception {
+    private synchronized int UpdateMapping() throws Exception {
         boolean[][] FlagMatrix = winner.getFlagMatrix();
+        int pairsSolved = 0;
 
         ReactionContainer reactionStructureInformationContainer = mh.getReactionContainer();
 
@@ -252,6 +244,7 @@ final class GameTheoryMin extends BaseGameTheory {
                         out.println("Mol Size E: " + ac1.getAtomCount() + " , Mol Size P: " + ac2.getAtomCount());
                     }
                     if (mcsMatch) {
+                        pairsSolved++;
                         if (DEBUG) {
                             out.println(eductList.get(substrateIndex) + " <=> " + productList.get(productIndex));
                         }
@@ -260,10 +253,7 @@ final class GameTheoryMin extends BaseGameTheory {
                                 getMapping(reactionName, this.eductList.get(substrateIndex), this.productList.get(productIndex));
                         for (MolMapping map : rMap) {
                             map.setReactionMapping(true);
-                            IAtomContainer mol = graphMatching.getMatchedPart();
-                            mol = canonLabeler.getCanonicalMolecule(mol);
-                            CDKSMILES cdkSmiles = new CDKSMILES(mol, true, false);
-                            map.setMatchedSMILES(cdkSmiles.getCanonicalSMILES(), ++stepIndex);
+                            map.setMatchedFragment(graphMatching.getMatchedFragment(), ++stepIndex);
                         }
                     }
                     IAtomContainer remainingEduct = graphMatching.getRemainingEduct();
@@ -276,6 +266,7 @@ final class GameTheoryMin extends BaseGameTheory {
                 }
             }
         }
+        return pairsSolved;
     }
 
     /**
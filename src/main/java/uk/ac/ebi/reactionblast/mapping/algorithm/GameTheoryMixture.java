@@ -63,9 +63,6 @@ import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
 import uk.ac.ebi.reactionblast.mapping.container.helper.MolMapping;
 import uk.ac.ebi.reactionblast.mapping.graph.GraphMatching;
 import uk.ac.ebi.reactionblast.mapping.interfaces.AbstractGraphMatching;
-import uk.ac.ebi.reactionblast.tools.CDKSMILES;
-import uk.ac.ebi.reactionblast.tools.labelling.ICanonicalMoleculeLabeller;
-import uk.ac.ebi.reactionblast.tools.labelling.SmilesMoleculeLabeller;
 import static java.util.Collections.synchronizedList;
 
 final class GameTheoryMixture extends BaseGameTheory {
@@ -85,7 +82,7 @@ final class GameTheoryMixture extends BaseGameTheory {
     private Map<Integer, IAtomContainer> products = null;
     private int delta = 0;
     private Integer stepIndex = 0;
-    private final ICanonicalMoleculeLabeller canonLabeler;
+    private final GameTheoryRounds rounds;
 
     //~--- constructors -------------------------------------------------------
     GameTheoryMixture(
@@ -93,12 +90,13 @@ final class GameTheoryMixture extends BaseGameTheory {
             boolean removeHydrogen,
             Map<Integer, IAtomContainer> _educts,
             Map<Integer, IAtomContainer> _products,
-            GameTheoryMatrix rpsh)
+            GameTheoryMatrix rpsh,
+            GameTheoryOptions options)
             throws Exception {
         if (DEBUG) {
             out.println("I am MIXTURE");
         }
-        this.canonLabeler = new SmilesMoleculeLabeller();
+        this.rounds = new GameTheoryRounds(reaction.getID(), "MIXTURE", options);
         this.removeHydrogen = removeHydrogen;
         this.reaction = reaction;
         this.educts = _educts;
@@ -133,67 +131,65 @@ final class GameTheoryMixture extends BaseGameTheory {
 //~--- methods ------------------------------------------------------------
 
     private synchronized void GenerateIsoMorphismMapping() throws Exception {
-
+        if (!rounds.startRound()) {
+            return;
+        }
         winner.searchWinners(educts, products, mh);
-
-        if (winner.getFlag()) {
-
-//            System.out.println("**********Updated Mapping**************");
-            UpdateMapping();
-//            System.out.println("**********Updated Matrix**************");
+        if (rounds.winnersSearched(winner.getFlag())) {
+            rounds.winnersMapped(UpdateMapping());
             UpdateMatrix(mh, removeHydrogen);
-//            System.out.println("**********Generate Mapping**************");
+            rounds.matrixUpdated();
             GenerateMapping(false);
         }
     }
 
     private synchronized void GenerateMapping(boolean flag) throws Exception {
         boolean ruleMatchingFlag = flag;
-        if (DEBUG) {
-            printMatrixAtomContainer(mh, eductList, productList);
-            out.println("**********Orignal Matrix**************");
-            printSimMatrix(mh, eductList, productList);
-            printCliqueMatrix(mh, eductList, productList);
-//        printStereoMatrix(mh, eductList, productList);
-//        printFragmentMatrix(mh, eductList, productList);
-//        printEnergyMatrix(mh, eductList, productList);
-        }
+        while (rounds.startRound()) {
+            if (DEBUG) {
+                printMatrixAtomContainer(mh, eductList, productList);
+                out.println("**********Orignal Matrix**************");
+                printSimMatrix(mh, eductList, productList);
+                printCliqueMatrix(mh, eductList, productList);
+//            printStereoMatrix(mh, eductList, productList);
+//            printFragmentMatrix(mh, eductList, productList);
+//            printEnergyMatrix(mh, eductList, productList);
+            }
 
-//        if (!ruleMatchingFlag) {
-//            RuleBasedMappingHandler ruleBasedMappingHandler = 
-//                    new RuleBasedMappingHandler(mh, eductList, productList);
-//            if (ruleBasedMappingHandler.isMatchFound()) {
-//                if (DEBUG) {
-//                    out.println("Rule Based Mapping Handler Match Found");
+//            if (!ruleMatchingFlag) {
+//                RuleBasedMappingHandler ruleBasedMappingHandler = 
+//                        new RuleBasedMappingHandler(mh, eductList, productList);
+//                if (ruleBasedMappingHandler.isMatchFound()) {
+//                    if (DEBUG) {
+//                        out.println("Rule Based Mapping Handler Match Found");
+//                    }
+//                    mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
 //                }
-//                mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
+//                ruleMatchingFlag = true;
 //            }
-//            ruleMatchingFlag = true;
-//        }
-
-        winner.searchWinners(educts, products, mh);
-        if (DEBUG) {
-            printFlagMatrix(winner, eductList, productList);
-        }
-        if (winner.getFlag()) {
 
+            winner.searchWinners(educts, products, mh);
             if (DEBUG) {
-                System.out.println("**********Updated Mapping**************");
+                printFlagMatrix(winner, eductList, productList);
+            }
+            if (!rounds.winnersSearched(winner.getFlag())) {
+                break;
             }
-            UpdateMapping();
             if (DEBUG) {
-                System.out.println("**********Updated Matrix**************");
+                out.println("**********Updated Mapping**************");
             }
-            UpdateMatrix(mh, removeHydrogen);
+            rounds.winnersMapped(UpdateMapping());
             if (DEBUG) {
-                System.out.println("**********Generate Mapping**************");
+                out.println("**********Updated Matrix**************");
             }
-            GenerateMapping(ruleMatchingFlag);
+            UpdateMatrix(mh, removeHydrogen);
+            rounds.matrixUpdated();
         }
     }
 
-    private synchronized void UpdateMapping() throws Exception {
+    private synchronized int UpdateMapping() throws Exception {
         boolean[][] FlagMatrix = winner.getFlagMatrix();
+        int pairsSolved = 0;
 
         ReactionContainer reactionStructureInformationContainer = mh.getReactionContainer();
 
@@ -220,16 +216,14 @@ final class GameTheoryMixture extends BaseGameTheory {
                     boolean mcsMatch = GM.mcsMatch(mh, removeHydrogen, substrateIndex, productIndex, A, B);
 //                    System.out.println("Mol Size E: " + ac1.getAtomCount() + " , Mol Size P: " + ac2.getAtomCount());
                     if (mcsMatch) {
+                        pairsSolved++;
 //                        System.out.println(eductList.get(substrateIndex) + " <=> " + productList.get(productIndex));
                         delta += GM.removeMatchedAtomsAndUpdateAAM(reaction);
                         List<MolMapping> rMap = getReactionMolMapping().
                                 getMapping(RID, this.eductList.get(substrateIndex), this.productList.get(productIndex));
                         for (MolMapping map : rMap) {
                             map.setReactionMapping(true);
-                            IAtomContainer mol = GM.getMatchedPart();
-                            mol = canonLabeler.getCanonicalMolecule(mol);
-                            CDKSMILES cdkSmiles = new CDKSMILES(mol, true, false);
-                            map.setMatchedSMILES(cdkSmiles.getCanonicalSMILES(), ++stepIndex);
+                            map.setMatchedFragment(GM.getMatchedFragment(), ++stepIndex);
                         }
                     }
                     IAtomContainer RemainingEduct = GM.getRemainingEduct();
@@ -242,6 +236,7 @@ final class GameTheoryMixture extends BaseGameTheory {
                 }
             }
         }
+        return pairsSolved;
     }
 
     /**
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2003-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.algorithm;
+
+import java.io.Serializable;
+import uk.ac.ebi.reactionblast.mapping.interfaces.IGameTheoryRoundListener;
+
+/**
+ * Limits and round listener of one game theory mapping run. Each run takes its
+ * own options, so runs mapped in parallel don't share them.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public final class GameTheoryOptions implements Serializable {
+
+    private static final long serialVersionUID = 3318652890714451273L;
+
+    /**
+     * No round or time limit and no listener
+     */
+    public static final GameTheoryOptions DEFAULT
+            = new GameTheoryOptions(Integer.MAX_VALUE, 0, null);
+
+    private final int maxRounds;
+    private final long timeBudget;
+    private final transient IGameTheoryRoundListener roundListener;
+
+    /**
+     * @param maxRounds maximum number of winner selection rounds per mapping,
+     * atoms left unmapped after the last round stay unmapped
+     * @param timeBudget time budget in milliseconds per mapping, checked
+     * before each round; 0 for no limit
+     * @param roundListener listener notified after each winner selection
+     * round, null for none
+     */
+    public GameTheoryOptions(int maxRounds, long timeBudget, IGameTheoryRoundListener roundListener) {
+        if (maxRounds < 1) {
+            throw new IllegalArgumentException("At least one round is required");
+        }
+        if (timeBudget < 0) {
+            throw new IllegalArgumentException("Time budget must not be negative");
+        }
+        this.maxRounds = maxRounds;
+        this.timeBudget = timeBudget;
+        this.roundListener = roundListener;
+    }
+
+    /**
+     * @return maximum number of winner selection rounds per mapping
+     */
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * @return time budget in milliseconds per mapping, 0 for no limit
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @return the round listener, null if none is set
+     */
+    public IGameTheoryRoundListener getRoundListener() {
+        return roundListener;
+    }
+}
@@ -66,9 +66,6 @@ import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
 import uk.ac.ebi.reactionblast.mapping.container.helper.MolMapping;
 import uk.ac.ebi.reactionblast.mapping.graph.GraphMatching;
 import uk.ac.ebi.reactionblast.mapping.interfaces.AbstractGraphMatching;
-import uk.ac.ebi.reactionblast.tools.CDKSMILES;
-import uk.ac.ebi.reactionblast.tools.labelling.ICanonicalMoleculeLabeller;
-import uk.ac.ebi.reactionblast.tools.labelling.SmilesMoleculeLabeller;
 import static java.util.Collections.synchronizedList;
 
 final class GameTheoryRings extends BaseGameTheory {
@@ -88,7 +85,7 @@ final class GameTheoryRings extends BaseGameTheory {
     private Map<Integer, IAtomContainer> products = null;
     private int delta = 0;
     private Integer stepIndex = 0;
-    private final ICanonicalMoleculeLabeller canonLabeler;
+    private final GameTheoryRounds rounds;
 
     //~--- constructors -------------------------------------------------------
     GameTheoryRings(
@@ -96,13 +93,14 @@ final class GameTheoryRings extends BaseGameTheory {
             boolean removeHydrogen,
             Map<Integer, IAtomContainer> _educts,
             Map<Integer, IAtomContainer> _products,
-            GameTheoryMatrix rpsh)
+            GameTheoryMatrix rpsh,
+            GameTheoryOptions options)
             throws Exception {
 
         if (DEBUG) {
             System.out.println("I am Ring");
         }
-        this.canonLabeler = new SmilesMoleculeLabeller();
+        this.rounds = new GameTheoryRounds(reaction.getID(), "RINGS", options);
         this.removeHydrogen = removeHydrogen;
         this.reaction = reaction;
         this.educts = _educts;
@@ -136,7 +134,9 @@ final class GameTheoryRings extends BaseGameTheory {
 //~--- methods ------------------------------------------------------------
 
     private synchronized void GenerateIsoMorphismMapping() throws Exception {
-
+        if (!rounds.startRound()) {
+            return;
+        }
         RuleBasedMappingHandler ph
                 = new RuleBasedMappingHandler(mh, eductList, productList);
         if (ph.isMatchFound()) {
@@ -147,69 +147,58 @@ final class GameTheoryRings extends BaseGameTheory {
         }
 
         winner.searchWinners(educts, products, mh);
-
-        if (winner.getFlag()) {
-
-            if (DEBUG) {
-                System.out.println("**********Updated Mapping**************");
-            }
-            UpdateMapping();
-            if (DEBUG) {
-                System.out.println("**********Updated Matrix**************");
-            }
+        if (rounds.winnersSearched(winner.getFlag())) {
+            rounds.winnersMapped(UpdateMapping());
             UpdateMatrix(mh, removeHydrogen);
-            if (DEBUG) {
-                System.out.println("**********Generate Mapping**************");
-            }
+            rounds.matrixUpdated();
             GenerateMapping();
         }
     }
 
     private synchronized void GenerateMapping() throws Exception {
-        if (DEBUG) {
-            System.out.println("GenerateMapping");
-        }
-        if (DEBUG) {
-            out.println("**********Orignal Matrix**************");
-            printMatrixAtomContainer(mh, eductList, productList);
-            printSimMatrix(mh, eductList, productList);
-            printCliqueMatrix(mh, eductList, productList);
-//            printStereoMatrix(mh, eductList, productList);
-//            printFragmentMatrix(mh, eductList, productList);
-//            printEnergyMatrix(mh, eductList, productList);
-        }
-
-        RuleBasedMappingHandler ruleBasedMappingHandler = new RuleBasedMappingHandler(mh, eductList, productList);
-        if (ruleBasedMappingHandler.isMatchFound()) {
-//            System.out.println("RuleBasedMappingHandler Match");
-            mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
-//            printSimMatrix(mh, eductList, productList);
-        }
-
-        winner.searchWinners(educts, products, mh);
+        while (rounds.startRound()) {
+            if (DEBUG) {
+                System.out.println("GenerateMapping");
+            }
+            if (DEBUG) {
+                out.println("**********Orignal Matrix**************");
+                printMatrixAtomContainer(mh, eductList, productList);
+                printSimMatrix(mh, eductList, productList);
+                printCliqueMatrix(mh, eductList, productList);
+//                printStereoMatrix(mh, eductList, productList);
+//                printFragmentMatrix(mh, eductList, productList);
+//                printEnergyMatrix(mh, eductList, productList);
+            }
 
-        if (DEBUG) {
-            printFlagMatrix(winner, eductList, productList);
-        }
-        if (winner.getFlag()) {
+            RuleBasedMappingHandler ruleBasedMappingHandler = new RuleBasedMappingHandler(mh, eductList, productList);
+            if (ruleBasedMappingHandler.isMatchFound()) {
+//                System.out.println("RuleBasedMappingHandler Match");
+                mh = Selector.modifyMatrix(ruleBasedMappingHandler.getMatrixHolder());
+//                printSimMatrix(mh, eductList, productList);
+            }
 
+            winner.searchWinners(educts, products, mh);
             if (DEBUG) {
-                System.out.println("**********Updated Mapping**************");
+                printFlagMatrix(winner, eductList, productList);
+            }
+            if (!rounds.winnersSearched(winner.getFlag())) {
+                break;
             }
-            UpdateMapping();
             if (DEBUG) {
-                System.out.println("**********Updated Matrix**************");
+                out.println("**********Updated Mapping**************");
             }
-            UpdateMatrix(mh, removeHydrogen);
+            rounds.winnersMapped(UpdateMapping());
             if (DEBUG) {
-                System.out.println("**********Generate Mapping**************");
+                out.println("**********Updated Matrix**************");
             }
-            GenerateMapping();
+            UpdateMatrix(mh, removeHydrogen);
+            rounds.matrixUpdated();
         }
     }
 
-    private synchronized void UpdateMapping() throws Exception {
+    private synchronized int UpdateMapping() throws Exception {
         boolean[][] FlagMatrix = winner.getFlagMatrix();
+        int pairsSolved = 0;
 
         ReactionContainer reactionStructureInformationContainer = mh.getReactionContainer();
 
@@ -238,6 +227,7 @@ final class GameTheoryRings extends BaseGameTheory {
                         System.out.println("Mol Size E: " + ac1.getAtomCount() + " , Mol Size P: " + ac2.getAtomCount());
                     }
                     if (mcsMatch) {
+                        pairsSolved++;
                         if (DEBUG) {
                             System.out.println(eductList.get(substrateIndex) + " <=> " + productList.get(productIndex));
                         }
@@ -246,10 +236,7 @@ final class GameTheoryRings extends BaseGameTheory {
                                 getMapping(RID, this.eductList.get(substrateIndex), this.productList.get(productIndex));
                         for (MolMapping map : rMap) {
                             map.setReactionMapping(true);
-                            IAtomContainer mol = GM.getMatchedPart();
-                            mol = canonLabeler.getCanonicalMolecule(mol);
-                            CDKSMILES cdkSmiles = new CDKSMILES(mol, true, false);
-                            map.setMatchedSMILES(cdkSmiles.getCanonicalSMILES(), ++stepIndex);
+                            map.setMatchedFragment(GM.getMatchedFragment(), ++stepIndex);
                         }
                     }
                     IAtomContainer remainingEduct = GM.getRemainingEduct();
@@ -264,6 +251,7 @@ final class GameTheoryRings extends BaseGameTheory {
                 }
             }
         }
+        return pairsSolved;
     }
 
     /**
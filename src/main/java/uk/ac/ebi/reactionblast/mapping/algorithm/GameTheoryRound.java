@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2003-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.algorithm;
+
+import java.io.Serializable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Metrics of one winner selection round of a game theory mapping.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public final class GameTheoryRound implements Serializable {
+
+    private static final long serialVersionUID = 7806546734829736621L;
+    private final String reactionID;
+    private final String algorithm;
+    private final int round;
+    private final int pairsSolved;
+    private final long winnerSearchTime;
+    private final long mappingTime;
+    private final long matrixUpdateTime;
+
+    GameTheoryRound(String reactionID, String algorithm, int round,
+            int pairsSolved,
+            long winnerSearchTime, long mappingTime, long matrixUpdateTime) {
+        this.reactionID = reactionID;
+        this.algorithm = algorithm;
+        this.round = round;
+        this.pairsSolved = pairsSolved;
+        this.winnerSearchTime = winnerSearchTime;
+        this.mappingTime = mappingTime;
+        this.matrixUpdateTime = matrixUpdateTime;
+    }
+
+    /**
+     * @return the reaction ID
+     */
+    public String getReactionID() {
+        return reactionID;
+    }
+
+    /**
+     * @return the algorithm (MIN, MAX, MIXTURE or RINGS)
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the round number, starting at 1
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * @return number of educt/product pairs mapped in this round
+     */
+    public int getPairsSolved() {
+        return pairsSolved;
+    }
+
+    /**
+     * @return time spent in selection and winner search, in nanoseconds
+     */
+    public long getWinnerSearchTime() {
+        return winnerSearchTime;
+    }
+
+    /**
+     * @return time spent mapping the winners, in nanoseconds
+     */
+    public long getMappingTime() {
+        return mappingTime;
+    }
+
+    /**
+     * @return time spent updating the score matrices, in nanoseconds
+     */
+    public long getMatrixUpdateTime() {
+        return matrixUpdateTime;
+    }
+
+    @Override
+    public String toString() {
+        return reactionID + " " + algorithm + " round " + round
+                + ": pairs " + pairsSolved
+                + ", winner search " + NANOSECONDS.toMillis(winnerSearchTime) + " ms"
+                + ", mapping " + NANOSECONDS.toMillis(mappingTime) + " ms"
+                + ", matrix update " + NANOSECONDS.toMillis(matrixUpdateTime) + " ms";
+    }
+}
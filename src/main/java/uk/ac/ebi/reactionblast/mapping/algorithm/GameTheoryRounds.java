@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2003-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.algorithm;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import org.openscience.cdk.tools.ILoggingTool;
+import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
+import uk.ac.ebi.reactionblast.mapping.interfaces.IGameTheoryRoundListener;
+
+/**
+ * Drives the winner selection rounds of a game theory mapping. Each round
+ * goes through SEARCH (selection and winner search), MAP (map the winners) and
+ * UPDATE (refresh the score matrices); the next round is only started while
+ * the round and time limits of the run's {@link GameTheoryOptions} allow it.
+ *
+ * <pre>
+ * while (rounds.startRound()) {
+ *     winner.searchWinners(educts, products, mh);
+ *     if (!rounds.winnersSearched(winner.getFlag())) {
+ *         break;
+ *     }
+ *     rounds.winnersMapped(UpdateMapping());
+ *     UpdateMatrix(mh, removeHydrogen);
+ *     rounds.matrixUpdated();
+ * }
+ * </pre>
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+final class GameTheoryRounds {
+
+    private final static ILoggingTool LOGGER
+            = createLoggingTool(GameTheoryRounds.class);
+
+    enum State {
+        IDLE, SEARCH, MAP, UPDATE, DONE
+    }
+
+    private final String reactionID;
+    private final String algorithm;
+    private final IGameTheoryRoundListener listener;
+    private final int maxRounds;
+    private final long deadline;
+    private State state;
+    private int round;
+    private GameTheoryRound lastRound;
+    /*
+     * Metrics of the round in progress
+     */
+    private long roundStart;
+    private long winnerSearchTime;
+    private long mappingTime;
+    private int pairsSolved;
+
+    GameTheoryRounds(String reactionID, String algorithm, GameTheoryOptions options) {
+        this.reactionID = reactionID;
+        this.algorithm = algorithm;
+        this.listener = options.getRoundListener();
+        this.maxRounds = options.getMaxRounds();
+        long budget = options.getTimeBudget();
+        this.deadline = budget > 0 ? nanoTime() + MILLISECONDS.toNanos(budget) : 0;
+        this.state = State.IDLE;
+        this.round = 0;
+        this.lastRound = null;
+    }
+
+    /**
+     * Start the next round.
+     *
+     * @return false if the mapping is complete or a limit has been reached
+     */
+    boolean startRound() {
+        if (state == State.DONE) {
+            return false;
+        }
+        check(State.IDLE);
+        if (round >= maxRounds || (deadline != 0 && nanoTime() - deadline > 0)) {
+            LOGGER.warn("Game theory mapping of " + reactionID + " (" + algorithm
+                    + ") stopped after " + round + " rounds, limit reached");
+            state = State.DONE;
+            if (listener != null) {
+                listener.limitReached(lastRound);
+            }
+            return false;
+        }
+        round++;
+        state = State.SEARCH;
+        roundStart = nanoTime();
+        return true;
+    }
+
+    /**
+     * @param winnersFound true if the winner search found pairs to map
+     * @return true if the winners should be mapped, else the mapping is
+     * complete
+     */
+    boolean winnersSearched(boolean winnersFound) {
+        check(State.SEARCH);
+        winnerSearchTime = nanoTime() - roundStart;
+        state = winnersFound ? State.MAP : State.DONE;
+        return winnersFound;
+    }
+
+    /**
+     * @param pairsSolved number of educt/product pairs mapped
+     */
+    void winnersMapped(int pairsSolved) {
+        check(State.MAP);
+        this.pairsSolved = pairsSolved;
+        this.mappingTime = nanoTime() - roundStart - winnerSearchTime;
+        state = State.UPDATE;
+    }
+
+    /**
+     * Complete the round and report it.
+     */
+    void matrixUpdated() {
+        check(State.UPDATE);
+        long matrixUpdateTime = nanoTime() - roundStart - winnerSearchTime - mappingTime;
+        lastRound = new GameTheoryRound(reactionID, algorithm, round, pairsSolved,
+                winnerSearchTime, mappingTime, matrixUpdateTime);
+        LOGGER.debug(lastRound.toString());
+        if (listener != null) {
+            listener.roundCompleted(lastRound);
+        }
+        state = State.IDLE;
+    }
+
+    /**
+     * @return number of rounds started
+     */
+    int getRounds() {
+        return round;
+    }
+
+    private void check(State expected) {
+        if (state != expected) {
+            throw new IllegalStateException("Game theory round in state " + state
+                    + ", expected " + expected);
+        }
+    }
+}
@@ -20,12 +20,12 @@ package uk.ac.ebi.reactionblast.mapping.algorithm;
 
 import java.io.IOException;
 import java.io.Serializable;
-import static java.lang.System.arraycopy;
 import static java.lang.System.out;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 import static java.util.logging.Level.SEVERE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FP_SIMILARITY;
 import static uk.ac.ebi.reactionblast.fingerprints.tools.Similarity.getTanimotoSimilarity;
 import uk.ac.ebi.reactionblast.mapping.container.HydrogenFreeFingerPrintContainer;
 import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
@@ -33,7 +33,6 @@ import uk.ac.ebi.reactionblast.mapping.container.helper.MolMapping;
 import uk.ac.ebi.reactionblast.mapping.helper.Debugger;
 import uk.ac.ebi.reactionblast.mapping.interfaces.BestMatch;
 import uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm;
-import uk.ac.ebi.reactionblast.tools.EBIMatrix;
 import static java.util.Collections.synchronizedList;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
@@ -52,13 +51,7 @@ public class Holder extends Debugger implements Cloneable, Serializable {
      Final methods
      */
     private final List<MolMapping> mappingMolPair;
-    private final EBIMatrix stereoMatrix;
-    private final EBIMatrix cliqueMatrix;
-    private final EBIMatrix graphSimilarityMatrix;
-    private final EBIMatrix fragmentMatrix;
-    private final EBIMatrix energyMatrix;
-    private final EBIMatrix carbonOverlapMatrix;
-    private final EBIMatrix fpSimMatrixWithoutHydrogen;
+    private final ScoreTable scores;
     private final int row;
     private final int coloumn;
 
@@ -119,64 +112,17 @@ public class Holder extends Debugger implements Cloneable, Serializable {
     public Holder(int row, int column) {
         this.row = row;
         this.coloumn = column;
-        this.graphSimilarityMatrix = new EBIMatrix(row, column);
-        this.stereoMatrix = new EBIMatrix(row, column);
-        this.cliqueMatrix = new EBIMatrix(row, column);
-        this.fragmentMatrix = new EBIMatrix(row, column);
-        this.carbonOverlapMatrix = new EBIMatrix(row, column);
-        this.fpSimMatrixWithoutHydrogen = new EBIMatrix(row, column);
-        this.energyMatrix = new EBIMatrix(row, column);
+        this.scores = new ScoreTable(row, column);
         this.mappingMolPair = synchronizedList(new ArrayList<>());
-        if (DEBUG) {
-            out.println("initialize the Matrix");
-        }
-        initialize();
-    }
-
-    /**
-     * @return the stereoMatrix
-     */
-    public synchronized EBIMatrix getStereoMatrix() {
-        return stereoMatrix;
-    }
-
-    /**
-     * @return the cliqueMatrix
-     */
-    public synchronized EBIMatrix getCliqueMatrix() {
-        return cliqueMatrix;
-    }
-
-    /**
-     * @return the graphSimilarityMatrix
-     */
-    public synchronized EBIMatrix getGraphSimilarityMatrix() {
-        return graphSimilarityMatrix;
     }
 
     /**
-     * @return the fragmentMatrix
-     */
-    public synchronized EBIMatrix getFragmentMatrix() {
-        return fragmentMatrix;
-    }
-
-    /**
-     * @return the energyMatrix
+     * The score table is owned by this holder and is not synchronised.
+     *
+     * @return the educt x product scores
      */
-    public synchronized EBIMatrix getEnergyMatrix() {
-        return energyMatrix;
-    }
-
-    private void initialize() {
-//        System.out.println("\nInitialize Matrix with Zero\n");
-        graphSimilarityMatrix.initMatrix(0.0);
-        stereoMatrix.initMatrix(0.0);
-        cliqueMatrix.initMatrix(0.0);
-        fragmentMatrix.initMatrix(0.0);
-        fpSimMatrixWithoutHydrogen.initMatrix(0.0);
-        energyMatrix.initMatrix(0.0);
-        carbonOverlapMatrix.initMatrix(0.0);
+    public ScoreTable getScores() {
+        return scores;
     }
 
     private void setFingerprint() {
@@ -191,7 +137,7 @@ public class Holder extends Debugger implements Cloneable, Serializable {
                     if (DEBUG) {
                         out.println("FP " + hydrogenSimVal);
                     }
-                    fpSimMatrixWithoutHydrogen.setValue(i, j, hydrogenSimVal);
+                    scores.set(FP_SIMILARITY, i, j, hydrogenSimVal);
                 } catch (Exception ex) {
                     LOGGER.error(SEVERE, null, ex);
                 }
@@ -214,13 +160,6 @@ public class Holder extends Debugger implements Cloneable, Serializable {
         }
     }
 
-    /**
-     * @return the fpSimMatrixWithoutHydrogen
-     */
-    public synchronized EBIMatrix getFPSimilarityMatrix() {
-        return fpSimMatrixWithoutHydrogen;
-    }
-
     /**
      * @return the structureInformation
      */
@@ -236,7 +175,8 @@ public class Holder extends Debugger implements Cloneable, Serializable {
     }
 
     /**
-     * Cloned EBIMatrix Objects
+     * Copy of the holder with its own score table, the reaction container and
+     * best match container are shared
      *
      * @return
      * @throws CloneNotSupportedException
@@ -245,55 +185,12 @@ public class Holder extends Debugger implements Cloneable, Serializable {
     public synchronized Object clone() throws CloneNotSupportedException {
         Holder mhClone = new Holder(this.row, this.coloumn);
         mhClone.setTheory(this.getTheory());
-
-        double[][] arrayCopy = this.getGraphSimilarityMatrix().getArrayCopy();
-        EBIMatrix matrix = mhClone.getGraphSimilarityMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
-        arrayCopy = this.getFragmentMatrix().getArrayCopy();
-        matrix = mhClone.getFragmentMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
-        arrayCopy = this.getStereoMatrix().getArrayCopy();
-        matrix = mhClone.getStereoMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
-        arrayCopy = this.getCliqueMatrix().getArrayCopy();
-        matrix = mhClone.getCliqueMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
-        arrayCopy = this.getEnergyMatrix().getArrayCopy();
-        matrix = mhClone.getEnergyMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
-        arrayCopy = this.getCarbonOverlapMatrix().getArrayCopy();
-        matrix = mhClone.getCarbonOverlapMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
-        arrayCopy = this.getFPSimilarityMatrix().getArrayCopy();
-        matrix = mhClone.getFPSimilarityMatrix();
-        setData(arrayCopy, matrix, row, coloumn);
-
+        mhClone.scores.copyFrom(this.scores);
         mhClone.structureInformation = this.getReactionContainer();
         mhClone.bestMatchContainer = this.getBestMatchContainer();
         return mhClone;
     }
 
-    /**
-     * Make a deep duplicate of a matrix
-     *
-     * @param sourceData
-     * @param sinkMatrix
-     * @param rows
-     * @param coloumns
-     */
-    private void setData(double[][] sourceData, EBIMatrix sinkMatrix, int rows, int coloumns) {
-        double[][] newDataMatrix = sinkMatrix.getArray();
-        for (int i = 0; i < rows; i++) {
-            arraycopy(sourceData[i], 0, newDataMatrix[i], 0, coloumns);
-        }
-    }
-
     /**
      * @return the bestMatchContainer
      */
@@ -314,11 +211,4 @@ public class Holder extends Debugger implements Cloneable, Serializable {
     public void setTheory(IMappingAlgorithm theory) {
         this.theory = theory;
     }
-
-    /**
-     * @return the carbonOverlapMatrix
-     */
-    public EBIMatrix getCarbonOverlapMatrix() {
-        return carbonOverlapMatrix;
-    }
 }
@@ -50,6 +50,7 @@ import org.openscience.cdk.smiles.SmilesParser;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import org.openscience.smsd.helper.MoleculeInitializer;
+import org.openscience.smsd.helper.RingInfo;
 import static org.openscience.smsd.tools.Utility.findSubgraph;
 import static org.openscience.smsd.tools.Utility.isMatch;
 
@@ -100,19 +101,8 @@ class IsomeraseHandler {
                 LOGGER.error(SEVERE, null, ex);
             }
             // sets SSSR information
-//            SSSRFinder finder = new SSSRFinder(educt);
-//            sssrEduct = finder.findEssentialRings();
-
-            //New Method
-            CycleFinder cf = Cycles.essential();
-
-            Cycles cycles = cf.find(educt); // ignore error - essential cycles do not check tractability
-            sssrEduct = cycles.toRingSet();
-
-//            finder = new SSSRFinder(product);
-//            sssrProduct = finder.findEssentialRings();
-            cycles = cf.find(product); // ignore error - essential cycles do not check tractability
-            sssrProduct = cycles.toRingSet();
+            sssrEduct = RingInfo.of(educt).getEssentialRings();
+            sssrProduct = RingInfo.of(product).getEssentialRings();
             boolean chipBondInTheRing = chipBondInTheRing(educt, product);
 
         } else {
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2003-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.algorithm;
+
+import java.io.Serializable;
+import static java.lang.System.arraycopy;
+
+/**
+ * Educt x product score table of the game theory mapping, stored as one
+ * row-major double[] per metric. The table belongs to one {@link Holder} and
+ * is not synchronised; use {@link #copy()} to hand a snapshot to another owner.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public final class ScoreTable implements Serializable {
+
+    private static final long serialVersionUID = 1875098767232546743L;
+
+    /**
+     * Scores kept for each educt/product pair
+     */
+    public enum Metric {
+
+        /**
+         * MCS size / (educt size + product size - MCS size)
+         */
+        GRAPH_SIMILARITY,
+        /**
+         * MCS size
+         */
+        CLIQUE,
+        /**
+         * stereo score of the MCS
+         */
+        STEREO,
+        /**
+         * number of fragments left by the MCS
+         */
+        FRAGMENT,
+        /**
+         * bond energy of the changes implied by the MCS
+         */
+        ENERGY,
+        /**
+         * number of carbon atoms in the MCS
+         */
+        CARBON_OVERLAP,
+        /**
+         * fingerprint similarity without hydrogens
+         */
+        FP_SIMILARITY
+    }
+
+    private static final Metric[] METRICS = Metric.values();
+    private final int rows;
+    private final int columns;
+    private final double[][] values;
+
+    /**
+     * Table of zero scores
+     *
+     * @param rows number of educts
+     * @param columns number of products
+     */
+    public ScoreTable(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new double[METRICS.length][rows * columns];
+    }
+
+    /**
+     * @return number of educts
+     */
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * @return number of products
+     */
+    public int getColumnCount() {
+        return columns;
+    }
+
+    /**
+     * @param metric
+     * @param row
+     * @param column
+     * @return score of the educt/product pair
+     */
+    public double get(Metric metric, int row, int column) {
+        return values[metric.ordinal()][row * columns + column];
+    }
+
+    /**
+     * @param metric
+     * @param row
+     * @param column
+     * @param value score of the educt/product pair
+     */
+    public void set(Metric metric, int row, int column, double value) {
+        values[metric.ordinal()][row * columns + column] = value;
+    }
+
+    /**
+     * Set all metrics of a pair to the same value
+     *
+     * @param row
+     * @param column
+     * @param value
+     */
+    public void setAll(int row, int column, double value) {
+        int index = row * columns + column;
+        for (double[] metric : values) {
+            metric[index] = value;
+        }
+    }
+
+    /**
+     * The backing row-major array of a metric (cell i,j at i * columns + j),
+     * for scans over the whole table. Writes go to the table.
+     *
+     * @param metric
+     * @return
+     */
+    public double[] values(Metric metric) {
+        return values[metric.ordinal()];
+    }
+
+    /**
+     * Overwrite this table with the scores of another table of the same size
+     *
+     * @param other
+     */
+    public void copyFrom(ScoreTable other) {
+        if (other.rows != rows || other.columns != columns) {
+            throw new IllegalArgumentException("Score tables differ in size");
+        }
+        for (int m = 0; m < values.length; m++) {
+            arraycopy(other.values[m], 0, values[m], 0, values[m].length);
+        }
+    }
+
+    /**
+     * @return an independent copy of this table
+     */
+    public ScoreTable copy() {
+        ScoreTable copy = new ScoreTable(rows, columns);
+        copy.copyFrom(this);
+        return copy;
+    }
+}
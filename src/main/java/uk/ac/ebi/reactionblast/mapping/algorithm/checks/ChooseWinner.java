@@ -36,10 +36,15 @@ import java.util.Map;
 
 import org.openscience.cdk.interfaces.IAtomContainer;
 import uk.ac.ebi.reactionblast.mapping.algorithm.Holder;
-import uk.ac.ebi.reactionblast.tools.EBIMatrix;
-import static java.util.Collections.synchronizedList;
+import uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 
 /**
+ * Picks the educt/product pair to map next. The scores are read straight from
+ * the row-major arrays of the holder's {@link ScoreTable}.
  *
  * @author Syed Asad Rahman, EMBL-EBI, Cambridge, UK
  * @contact asad@ebi.ac.uk
@@ -48,11 +53,10 @@ public class ChooseWinner extends Selector implements Serializable {
 
     private final static boolean DEBUG = false;
     private static final long serialVersionUID = 0x296558709L;
-    private EBIMatrix stereoMatrix;
-    private EBIMatrix energyMatrix;
-    private EBIMatrix carbonOverlapMatrix;
-
-    private EBIMatrix similarityMatrix = null;
+    private double[] similarity;
+    private double[] stereo;
+    private double[] energy;
+    private double[] carbonOverlap;
     private List<Cell> crossMappingTracer = null;
     private Map<Integer, IAtomContainer> educts = null;
     private Map<Integer, IAtomContainer> products = null;
@@ -72,41 +76,6 @@ public class ChooseWinner extends Selector implements Serializable {
         this.flagMatrix = new boolean[rowSize][colSize];
     }
 
-    /**
-     * @return the stereoMatrix
-     */
-    public EBIMatrix getStereoMatrix() {
-        return stereoMatrix;
-    }
-
-    /**
-     * @param stereoMatrix the stereoMatrix to set
-     */
-    public void setStereoMatrix(EBIMatrix stereoMatrix) {
-        this.stereoMatrix = stereoMatrix;
-    }
-
-    /**
-     * @return the energyMatrix
-     */
-    public EBIMatrix getEnergyMatrix() {
-        return energyMatrix;
-    }
-
-    /**
-     * @return the energyMatrix
-     */
-    public EBIMatrix getCarbonOverlapMatrix() {
-        return carbonOverlapMatrix;
-    }
-
-    /**
-     * @param energyMatrix the energyMatrix to set
-     */
-    public void setEnergyMatrix(EBIMatrix energyMatrix) {
-        this.energyMatrix = energyMatrix;
-    }
-
     /**
      *
      * @param eductMap
@@ -117,48 +86,32 @@ public class ChooseWinner extends Selector implements Serializable {
         initFlagMatrix();
         this.educts = eductMap;
         this.products = productMap;
-        this.similarityMatrix = mHolder.getGraphSimilarityMatrix();
-        this.setStereoMatrix(mHolder.getStereoMatrix());
-        this.setEnergyMatrix(mHolder.getEnergyMatrix());
-        this.setCarbonOverlapMatrix(mHolder.getCarbonOverlapMatrix());
-
-        this.crossMappingTracer = synchronizedList(new ArrayList<>());
+        ScoreTable scores = mHolder.getScores();
+        this.similarity = scores.values(GRAPH_SIMILARITY);
+        this.stereo = scores.values(STEREO);
+        this.energy = scores.values(ENERGY);
+        this.carbonOverlap = scores.values(CARBON_OVERLAP);
+        this.crossMappingTracer = new ArrayList<>();
 
         boolean isMappingFesiable = checkStatusFlag();
-        List<Double> scores = new ArrayList<>();
+        double maximumSimilarity = 0.0;
+        int candidates = 0;
 
-//        System.out.println("isMappingFesiable " + isMappingFesiable);
         if (isMappingFesiable) {
-            double maximumSimilarity = 0.0;
-
-            boolean maxValueI;
-            boolean maxValueJ;
-
             for (int i = 0; i < rowSize; i++) {
                 for (int j = 0; j < colSize; j++) {
-
-                    double similarity = similarityMatrix.getValue(i, j);
-                    //System.out.println("similarity "+similarity);
-                    //matrix.
-                    if (similarity > MIN_VALUE) {
-                        maxValueI = isMajorSubgraphRow(similarityMatrix, i, j);
-                        maxValueJ = isMajorSubgraphColumn(similarityMatrix, i, j);
-
-//                        System.out.println("similarity " + similarity);
-//                        System.out.println("i= " + i + ", j=" + j);
-//                        System.out.println(" maxValue I " + maxValueI);
-//                        System.out.println(" maxValue J " + maxValueJ);
-                        if (maxValueI && maxValueJ) {
-
-                            if (similarity > maximumSimilarity) {
-                                maximumSimilarity = similarity;
-                                initFlagMatrix();
-                                scores.clear();
-                            }
-                            if (similarity == maximumSimilarity) {
-                                this.flagMatrix[i][j] = true;
-                                scores.add(similarity);
-                            }
+                    double score = similarity[i * colSize + j];
+                    if (score > MIN_VALUE
+                            && isMajorSubgraphRow(similarity, i, j)
+                            && isMajorSubgraphColumn(similarity, i, j)) {
+                        if (score > maximumSimilarity) {
+                            maximumSimilarity = score;
+                            initFlagMatrix();
+                            candidates = 0;
+                        }
+                        if (score == maximumSimilarity) {
+                            this.flagMatrix[i][j] = true;
+                            candidates++;
                         }
                     }
                 }
@@ -167,7 +120,7 @@ public class ChooseWinner extends Selector implements Serializable {
         if (DEBUG) {
             System.out.println("resolveDeadLocks");
         }
-        resolveDeadLocks(scores);
+        resolveDeadLocks(candidates, maximumSimilarity);
         if (DEBUG) {
             System.out.println("setWinOverFlags");
         }
@@ -205,7 +158,7 @@ public class ChooseWinner extends Selector implements Serializable {
         return this.flagMatrix;
     }
 
-    private synchronized void initFlagMatrix() {
+    private void initFlagMatrix() {
         for (int i = 0; i < rowSize; i++) {
             for (int j = 0; j < colSize; j++) {
                 this.flagMatrix[i][j] = false;
@@ -213,48 +166,37 @@ public class ChooseWinner extends Selector implements Serializable {
         }
     }
 
-    private synchronized void initFlagMatrix(boolean[][] boolMatrix, int rowSize, int colSize) {
-        for (int i = 0; i < rowSize; i++) {
-            for (int j = 0; j < colSize; j++) {
-                boolMatrix[i][j] = false;
+    private boolean checkStatusFlag() {
+        for (double score : similarity) {
+            if (score > MIN_VALUE) {
+                return true;
             }
         }
+        return false;
     }
 
-    private synchronized boolean checkStatusFlag() {
+    private void setWinOverFlags() {
         for (int i = 0; i < rowSize; i++) {
             for (int j = 0; j < colSize; j++) {
-                if (similarityMatrix.getValue(i, j) > MIN_VALUE) {
-                    return true;
+                if (!this.flagMatrix[i][j]
+                        || !educts.containsKey(i) || !products.containsKey(j)) {
+                    continue;
                 }
-            }
-        }
-        return false;
-    }
-
-    private synchronized void setWinOverFlags() {
-        educts.keySet().stream().forEach((indexI) -> {
-            products.keySet().stream().forEach((indexJ) -> {
                 Cell cell = new Cell();
-                cell.indexI = indexI;
-                cell.indexJ = indexJ;
-                cell.eductName = educts.get(indexI).getID();
-                cell.productName = products.get(indexJ).getID();
-                if (this.flagMatrix[indexI][indexJ]) {
-                    if (cell.eductName.equalsIgnoreCase(cell.productName)) {
-                    } else {
-                        this.flagMatrix[indexI][indexJ] = !checkTwinMapping(cell);
-                    }
+                cell.indexI = i;
+                cell.indexJ = j;
+                cell.eductName = educts.get(i).getID();
+                cell.productName = products.get(j).getID();
+                if (!cell.eductName.equalsIgnoreCase(cell.productName)) {
+                    this.flagMatrix[i][j] = !checkTwinMapping(cell);
                 }
-            });
-        });
+            }
+        }
     }
 
-    private synchronized boolean checkTwinMapping(Cell refCell) {
+    private boolean checkTwinMapping(Cell refCell) {
         boolean _statusFlag = false;
         for (Cell cell : crossMappingTracer) {
-
-            //System.out.println("Visitor AtomContainer " + moleculeName + " i:" + _value.get(1) + " j:" + j);
             if (cell.eductName.equals(refCell.eductName)
                     && cell.productName.equals(refCell.productName)) {
                 if (cell.indexI == refCell.indexI
@@ -271,20 +213,57 @@ public class ChooseWinner extends Selector implements Serializable {
         return _statusFlag;
     }
 
-    private synchronized void resolveDeadLocks(List<Double> scores) {
-        boolean[][] deadlockFreeFlagMatrix = new boolean[rowSize][colSize];
-        initFlagMatrix(deadlockFreeFlagMatrix, rowSize, colSize);
-        scores.stream().map((score) -> new DeadLockResolver().resolver(score)).forEach((choosenCell) -> {
-            deadlockFreeFlagMatrix[choosenCell.indexI][choosenCell.indexJ] = true;
-        });
-        this.flagMatrix = deadlockFreeFlagMatrix;
-    }
-
     /**
-     * @param carbonOverlapMatrix the carbonOverlapMatrix to set
+     * Resolves deadlocks if more than one cell clashes with same scores. The
+     * decision is then made on the max. stereo score, min. energy and max.
+     * carbon overlap; the first cell (row major) wins if none is best on all
+     * three.
      */
-    public void setCarbonOverlapMatrix(EBIMatrix carbonOverlapMatrix) {
-        this.carbonOverlapMatrix = carbonOverlapMatrix;
+    private void resolveDeadLocks(int candidates, double choosenScore) {
+        if (candidates == 0 || choosenScore <= MIN_VALUE) {
+            initFlagMatrix();
+            return;
+        }
+        double maxStereo = 0.0;
+        double minEnergy = Double.MAX_VALUE;
+        double maxCarbonOverlap = Double.MIN_VALUE;
+        int first = -1;
+        for (int i = 0; i < rowSize; i++) {
+            for (int j = 0; j < colSize; j++) {
+                int cell = i * colSize + j;
+                if (flagMatrix[i][j] && similarity[cell] == choosenScore) {
+                    if (first == -1) {
+                        first = cell;
+                    }
+                    maxStereo = Math.max(maxStereo, stereo[cell]);
+                    minEnergy = Math.min(minEnergy, energy[cell]);
+                    maxCarbonOverlap = Math.max(maxCarbonOverlap, carbonOverlap[cell]);
+                }
+            }
+        }
+        if (DEBUG) {
+            System.out.println("maxStereo " + maxStereo + ", minEnergy " + minEnergy
+                    + ", maxCarbon " + maxCarbonOverlap);
+        }
+        int winner = first;
+        search:
+        for (int i = 0; i < rowSize; i++) {
+            for (int j = 0; j < colSize; j++) {
+                int cell = i * colSize + j;
+                if (flagMatrix[i][j] && similarity[cell] == choosenScore
+                        && stereo[cell] >= maxStereo
+                        && energy[cell] <= minEnergy
+                        && (maxCarbonOverlap == carbonOverlap[cell]
+                        || maxCarbonOverlap == 0)) {
+                    winner = cell;
+                    break search;
+                }
+            }
+        }
+        initFlagMatrix();
+        if (winner != -1) {
+            this.flagMatrix[winner / colSize][winner % colSize] = true;
+        }
     }
 
     /**
@@ -306,115 +285,4 @@ public class ChooseWinner extends Selector implements Serializable {
         int indexJ;
 
     }
-
-    /**
-     * Resolves deadlocks if more than one cell clashes with same scores. The
-     * decision is then made on the max. stereo score and max. energy score
-     */
-    class DeadLockResolver {
-
-        private synchronized double getMaxStereo(List<ChooseWinner.Cell> choosenCells) {
-            double max = 0.0;
-            for (ChooseWinner.Cell cell : choosenCells) {
-                double val = getStereoMatrix().getValue(cell.indexI, cell.indexJ);
-                if (val > max) {
-                    max = val;
-                }
-            }
-            return max;
-        }
-
-        private synchronized double getMinEnergy(List<ChooseWinner.Cell> choosenCells) {
-            double min = Double.MAX_VALUE;
-            for (ChooseWinner.Cell cell : choosenCells) {
-                double val = getEnergyMatrix().getValue(cell.indexI, cell.indexJ);
-                if (val < min) {
-                    min = val;
-                }
-            }
-            return min;
-        }
-
-        private synchronized double getMaxCarbonOverlap(List<ChooseWinner.Cell> choosenCells) {
-            double max = Double.MIN_VALUE;
-            for (ChooseWinner.Cell cell : choosenCells) {
-                double val = getCarbonOverlapMatrix().getValue(cell.indexI, cell.indexJ);
-                if (val > max) {
-                    max = val;
-                }
-            }
-            return max;
-        }
-
-        /**
-         * Returns best match for the given score
-         *
-         * @param choosenScore
-         * @return
-         */
-        public synchronized ChooseWinner.Cell resolver(double choosenScore) {
-            List<ChooseWinner.Cell> choosenCells = new ArrayList<>();
-            for (int i = 0; i < rowSize; i++) {
-                for (int j = 0; j < colSize; j++) {
-                    if (flagMatrix[i][j] && choosenScore > MIN_VALUE
-                            && similarityMatrix.getValue(i, j) == choosenScore) {
-                        ChooseWinner.Cell cell = new ChooseWinner.Cell();
-                        cell.indexI = i;
-                        cell.indexJ = j;
-                        cell.eductName = educts.get(i).getID();
-                        cell.productName = products.get(j).getID();
-                        choosenCells.add(cell);
-                    }
-                }
-            }
-
-            Cell winner = choosenCells.listIterator().next();
-
-            double maxStereo = getMaxStereo(choosenCells);
-            double minEnergy = getMinEnergy(choosenCells);
-            double maxCarbonOverlap = getMaxCarbonOverlap(choosenCells);
-            if (DEBUG) {
-                System.out.println("maxStereo " + maxStereo);
-            }
-            if (DEBUG) {
-                System.out.println("minEnergy " + minEnergy);
-            }
-            if (DEBUG) {
-                System.out.println("maxCarbon " + maxCarbonOverlap);
-            }
-            for (ChooseWinner.Cell cell : choosenCells) {
-                double stereoVal = stereoMatrix.getValue(cell.indexI, cell.indexJ);
-                double energyVal = energyMatrix.getValue(cell.indexI, cell.indexJ);
-                double carbonOverlap = carbonOverlapMatrix.getValue(cell.indexI, cell.indexJ);
-
-                if (DEBUG) {
-                    System.out.println("Comparing " + cell.indexI + "," + cell.indexJ);
-                }
-
-                if (DEBUG) {
-                    System.out.print("maxStereo " + maxStereo);
-                    System.out.println(", stereoVal " + stereoVal);
-                }
-                if (DEBUG) {
-                    System.out.print("minEnergy " + minEnergy);
-                    System.out.println(", energyVal " + energyVal);
-                }
-
-                if (DEBUG) {
-                    System.out.print("maxCarbon " + maxCarbonOverlap);
-                    System.out.println(", Carbon " + carbonOverlap);
-                }
-
-                if (stereoVal >= maxStereo
-                        && energyVal <= minEnergy
-                        && (maxCarbonOverlap == carbonOverlap
-                        || maxCarbonOverlap == 0)) {
-                    winner = cell;
-                    break;
-                }
-
-            }
-            return winner;
-        }
-    }
 }
@@ -18,6 +18,13 @@
  */
 package uk.ac.ebi.reactionblast.mapping.algorithm.checks;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FP_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FRAGMENT;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 import java.io.IOException;
 import static java.lang.Double.MAX_VALUE;
 import static java.lang.Double.MIN_VALUE;
@@ -60,8 +67,8 @@ public class MaxSelection extends Selector implements IResult {
 //        System.out.println("\n********* INSIDE MaxSelection**********");
         this.mHolder = mHolder;
         this.updatedHolder = (Holder) mHolder.clone();
-        rowSize = mHolder.getCliqueMatrix().getRowDimension();
-        colSize = mHolder.getCliqueMatrix().getColumnDimension();
+        rowSize = mHolder.getScores().getRowCount();
+        colSize = mHolder.getScores().getColumnCount();
         this.flagMatrix = new boolean[rowSize][colSize];
 
         for (int i = 0; i < rowSize; i++) {
@@ -87,8 +94,8 @@ public class MaxSelection extends Selector implements IResult {
             IAtomContainer ac1 = this.mHolder.getReactionContainer().getEduct(i);
             for (int j = 0; j < colSize; j++) {
                 IAtomContainer ac2 = this.mHolder.getReactionContainer().getProduct(j);
-                double cliqueVal = mHolder.getCliqueMatrix().getValue(i, j);
-                double simVal = mHolder.getGraphSimilarityMatrix().getValue(i, j);
+                double cliqueVal = mHolder.getScores().get(CLIQUE, i, j);
+                double simVal = mHolder.getScores().get(GRAPH_SIMILARITY, i, j);
                 //matrix.
                 if (cliqueVal > 0.0) {
                     maxValueI = isMajorSubgraphRow(mHolder, i, j);//mHolder.getCliqueMatrix().is_element_max_in_row(i, j); //, rowSize);
@@ -111,36 +118,36 @@ public class MaxSelection extends Selector implements IResult {
                              * mightr be a flase postivie match
                              */ else if (eMolSize > 1 && pMolSize > 1
                                     && ac1.getAtomCount() <= ac2.getAtomCount()
-                                    && isMCSSubgraph(ac1, mHolder.getCliqueMatrix().getValue(i, j))) {
+                                    && isMCSSubgraph(ac1, mHolder.getScores().get(CLIQUE, i, j))) {
 //                                    && isSubGraph(ac1, ac2)) {
 //                            System.out.println("sim " + simVal);
                                 this.flagMatrix[i][j] = true;
                             } else if (eMolSize > 1 && pMolSize > 1
                                     && ac2.getAtomCount() <= ac1.getAtomCount()
-                                    && isMCSSubgraph(ac2, mHolder.getCliqueMatrix().getValue(i, j))) {
+                                    && isMCSSubgraph(ac2, mHolder.getScores().get(CLIQUE, i, j))) {
 //                                    && isSubGraph(ac1, ac2)) {
 //                            System.out.println("sim " + simVal);
                                 this.flagMatrix[i][j] = true;
                             } else {
                                 this.flagMatrix[i][j] = false;
-                                this.updatedHolder.getGraphSimilarityMatrix().setValue(i, j, MIN_VALUE);
-                                this.updatedHolder.getCliqueMatrix().setValue(i, j, MIN_VALUE);
-                                this.updatedHolder.getStereoMatrix().setValue(i, j, MIN_VALUE);
-                                this.updatedHolder.getCarbonOverlapMatrix().setValue(i, j, MIN_VALUE);
-                                this.updatedHolder.getFragmentMatrix().setValue(i, j, MAX_VALUE);
-                                this.updatedHolder.getEnergyMatrix().setValue(i, j, MAX_VALUE);
-                                this.updatedHolder.getFPSimilarityMatrix().setValue(i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(GRAPH_SIMILARITY, i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(CLIQUE, i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(STEREO, i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(CARBON_OVERLAP, i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(FRAGMENT, i, j, MAX_VALUE);
+                                this.updatedHolder.getScores().set(ENERGY, i, j, MAX_VALUE);
+                                this.updatedHolder.getScores().set(FP_SIMILARITY, i, j, MIN_VALUE);
                             }
                         }
                     } else {
                         this.flagMatrix[i][j] = false;
-                        this.updatedHolder.getGraphSimilarityMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getCliqueMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getStereoMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getCarbonOverlapMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getFragmentMatrix().setValue(i, j, MAX_VALUE);
-                        this.updatedHolder.getEnergyMatrix().setValue(i, j, MAX_VALUE);
-                        this.updatedHolder.getFPSimilarityMatrix().setValue(i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(GRAPH_SIMILARITY, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(CLIQUE, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(STEREO, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(CARBON_OVERLAP, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(FRAGMENT, i, j, MAX_VALUE);
+                        this.updatedHolder.getScores().set(ENERGY, i, j, MAX_VALUE);
+                        this.updatedHolder.getScores().set(FP_SIMILARITY, i, j, MIN_VALUE);
                     }
                 }
             }
@@ -155,20 +162,20 @@ public class MaxSelection extends Selector implements IResult {
 
         for (int i = 0; i < rowSize; i++) {
             for (int j = 0; j < colSize; j++) {
-                double cliqueVal = this.updatedHolder.getCliqueMatrix().getValue(i, j);
-                double simVal = this.updatedHolder.getGraphSimilarityMatrix().getValue(i, j);
+                double cliqueVal = this.updatedHolder.getScores().get(CLIQUE, i, j);
+                double simVal = this.updatedHolder.getScores().get(GRAPH_SIMILARITY, i, j);
 
                 if (simVal != 1.0 && cliqueVal >= 1) {
                     if (flagMatrix[i][j]) {
                         flag = true;
                     } else {
-                        this.updatedHolder.getGraphSimilarityMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getCliqueMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getStereoMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getCarbonOverlapMatrix().setValue(i, j, MIN_VALUE);
-                        this.updatedHolder.getFragmentMatrix().setValue(i, j, MAX_VALUE);
-                        this.updatedHolder.getEnergyMatrix().setValue(i, j, MAX_VALUE);
-                        this.updatedHolder.getFPSimilarityMatrix().setValue(i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(GRAPH_SIMILARITY, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(CLIQUE, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(STEREO, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(CARBON_OVERLAP, i, j, MIN_VALUE);
+                        this.updatedHolder.getScores().set(FRAGMENT, i, j, MAX_VALUE);
+                        this.updatedHolder.getScores().set(ENERGY, i, j, MAX_VALUE);
+                        this.updatedHolder.getScores().set(FP_SIMILARITY, i, j, MIN_VALUE);
                     }
                 }
 
@@ -18,6 +18,13 @@
  */
 package uk.ac.ebi.reactionblast.mapping.algorithm.checks;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FP_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FRAGMENT;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 import java.io.IOException;
 import static java.lang.Double.MAX_VALUE;
 import static java.lang.Double.MIN_VALUE;
@@ -64,8 +71,8 @@ public class MinSelection extends Selector implements IResult {
 //        System.out.println("Check Subgraph MinSelection ");
         this.mHolder = mHolder;
         this.updatedHolder = (Holder) mHolder.clone();
-        rowSize = mHolder.getCliqueMatrix().getRowDimension();
-        colSize = mHolder.getCliqueMatrix().getColumnDimension();
+        rowSize = mHolder.getScores().getRowCount();
+        colSize = mHolder.getScores().getColumnCount();
 
         try {
             PhaseOneMatcher();
@@ -90,10 +97,10 @@ public class MinSelection extends Selector implements IResult {
             IAtomContainer ac1 = this.mHolder.getReactionContainer().getEduct(i);
             for (int j = 0; j < colSize; j++) {
                 IAtomContainer ac2 = this.mHolder.getReactionContainer().getProduct(j);
-                double cliqueVal = mHolder.getCliqueMatrix().getValue(i, j);
+                double cliqueVal = mHolder.getScores().get(CLIQUE, i, j);
                 //matrix.
                 if (cliqueVal > 0.0) {
-                    double simVal = mHolder.getGraphSimilarityMatrix().getValue(i, j);
+                    double simVal = mHolder.getScores().get(GRAPH_SIMILARITY, i, j);
                     if (simVal > 0 && ac1 != null && ac2 != null) {
                         int eMolSize = ac1.getAtomCount();
                         int pMolSize = ac2.getAtomCount();
@@ -108,22 +115,22 @@ public class MinSelection extends Selector implements IResult {
                          * This check will skip single atoms like H or O to be mapped with larger graph as that mightr
                          * be a flase postive match
                          */ else if (eMolSize > 1 && pMolSize > 1 && ac1.getAtomCount() <= ac2.getAtomCount()
-                                && isMCSSubgraph(ac1, mHolder.getCliqueMatrix().getValue(i, j))) {
+                                && isMCSSubgraph(ac1, mHolder.getScores().get(CLIQUE, i, j))) {
 //                            System.out.println("Subgraph sim " + simVal);
                             this.flagMatrix[i][j] = true;
                         } else if (eMolSize > 1 && pMolSize > 1 && ac2.getAtomCount() <= ac1.getAtomCount()
-                                && isMCSSubgraph(ac2, mHolder.getCliqueMatrix().getValue(i, j))) {
+                                && isMCSSubgraph(ac2, mHolder.getScores().get(CLIQUE, i, j))) {
 //                            System.out.println("Subgraph sim " + simVal);
                             this.flagMatrix[i][j] = true;
                         } else {
                             this.flagMatrix[i][j] = false;
-                            this.updatedHolder.getGraphSimilarityMatrix().setValue(i, j, MIN_VALUE);
-                            this.updatedHolder.getCliqueMatrix().setValue(i, j, MIN_VALUE);
-                            this.updatedHolder.getStereoMatrix().setValue(i, j, MIN_VALUE);
-                            this.updatedHolder.getCarbonOverlapMatrix().setValue(i, j, MIN_VALUE);
-                            this.updatedHolder.getFragmentMatrix().setValue(i, j, MAX_VALUE);
-                            this.updatedHolder.getEnergyMatrix().setValue(i, j, MAX_VALUE);
-                            this.updatedHolder.getFPSimilarityMatrix().setValue(i, j, MIN_VALUE);
+                            this.updatedHolder.getScores().set(GRAPH_SIMILARITY, i, j, MIN_VALUE);
+                            this.updatedHolder.getScores().set(CLIQUE, i, j, MIN_VALUE);
+                            this.updatedHolder.getScores().set(STEREO, i, j, MIN_VALUE);
+                            this.updatedHolder.getScores().set(CARBON_OVERLAP, i, j, MIN_VALUE);
+                            this.updatedHolder.getScores().set(FRAGMENT, i, j, MAX_VALUE);
+                            this.updatedHolder.getScores().set(ENERGY, i, j, MAX_VALUE);
+                            this.updatedHolder.getScores().set(FP_SIMILARITY, i, j, MIN_VALUE);
                         }
                     }
                 }
@@ -142,7 +149,7 @@ public class MinSelection extends Selector implements IResult {
             IAtomContainer ac1 = this.updatedHolder.getReactionContainer().getEduct(i);
             for (int j = 0; j < colSize; j++) {
                 IAtomContainer ac2 = this.updatedHolder.getReactionContainer().getProduct(j);
-                double graphSim = this.updatedHolder.getGraphSimilarityMatrix().getValue(i, j);
+                double graphSim = this.updatedHolder.getScores().get(GRAPH_SIMILARITY, i, j);
                 if (flagMatrix[i][j]) {
                     double eMolSize = ac1.getAtomCount();
                     double pMolSize = ac2.getAtomCount();
@@ -157,14 +164,14 @@ public class MinSelection extends Selector implements IResult {
 //                                    + isMinorSubgraphColumn + " : isMinorSubgraphRow "
 //                                    + isMinorSubgraphRow);
                             if (isMinorSubgraphColumn && isMinorSubgraphRow) {
-                                double updatedGraphSimScore = 1.01 - (this.mHolder.getGraphSimilarityMatrix().getValue(i, j));
-                                double updatedFPSimScore = 1.01 - (this.mHolder.getFPSimilarityMatrix().getValue(i, j));
-                                this.updatedHolder.getGraphSimilarityMatrix().setValue(i, j, updatedGraphSimScore);
-                                this.updatedHolder.getFPSimilarityMatrix().setValue(i, j, updatedFPSimScore);
+                                double updatedGraphSimScore = 1.01 - (this.mHolder.getScores().get(GRAPH_SIMILARITY, i, j));
+                                double updatedFPSimScore = 1.01 - (this.mHolder.getScores().get(FP_SIMILARITY, i, j));
+                                this.updatedHolder.getScores().set(GRAPH_SIMILARITY, i, j, updatedGraphSimScore);
+                                this.updatedHolder.getScores().set(FP_SIMILARITY, i, j, updatedFPSimScore);
                                 flag = true;
                             } else {
-                                this.updatedHolder.getGraphSimilarityMatrix().setValue(i, j, MIN_VALUE);
-                                this.updatedHolder.getFPSimilarityMatrix().setValue(i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(GRAPH_SIMILARITY, i, j, MIN_VALUE);
+                                this.updatedHolder.getScores().set(FP_SIMILARITY, i, j, MIN_VALUE);
                             }
                         }
                     }
@@ -220,7 +227,7 @@ public class MinSelection extends Selector implements IResult {
             for (int i = 0; i < reactionStructureInformationContainer.getEductCount(); i++) {
                 out.print(" " + reactionStructureInformationContainer.getEduct(i).getID() + ":(" + reactionStructureInformationContainer.getEduct(i).getAtomCount() + ")");
                 for (int j = 0; j < reactionStructureInformationContainer.getProductCount(); j++) {
-                    val = mh.getGraphSimilarityMatrix().getValue(i, j);
+                    val = mh.getScores().get(GRAPH_SIMILARITY, i, j);
                     result = format.format(val);
                     out.print("   " + result);
                 }
@@ -255,7 +262,7 @@ public class MinSelection extends Selector implements IResult {
             for (int i = 0; i < reactionStructureInformationContainer.getEductCount(); i++) {
                 out.print(" " + reactionStructureInformationContainer.getEduct(i).getID() + ":(" + reactionStructureInformationContainer.getEduct(i).getAtomCount() + ")");
                 for (int j = 0; j < reactionStructureInformationContainer.getProductCount(); j++) {
-                    val = mh.getCliqueMatrix().getValue(i, j);
+                    val = mh.getScores().get(CLIQUE, i, j);
                     result = format.format(val);
                     out.print("   " + result);
                 }
@@ -18,6 +18,13 @@
  */
 package uk.ac.ebi.reactionblast.mapping.algorithm.checks;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FP_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FRAGMENT;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 import java.io.Serializable;
 import static java.lang.Double.MAX_VALUE;
 import static java.lang.Double.MIN_VALUE;
@@ -62,8 +69,8 @@ public class ReactionIsomorphismHandler implements Serializable {
         this.matrixHolderWithStereoCheck = (Holder) mHolder.clone();
         this.isomorphismFlag = false;
 
-        rowSize = matrixHolder.getCliqueMatrix().getRowDimension();
-        colSize = matrixHolder.getCliqueMatrix().getColumnDimension();
+        rowSize = matrixHolder.getScores().getRowCount();
+        colSize = matrixHolder.getScores().getColumnCount();
 
         if (rowSize > 1 && rowSize == colSize) {
 
@@ -126,22 +133,22 @@ public class ReactionIsomorphismHandler implements Serializable {
             stSimilarity = true;
             for (int i = 0; i < rowSize; i++) {
 
-                matrixHolderWithStereoCheck.getGraphSimilarityMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getCliqueMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getStereoMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getCarbonOverlapMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getFragmentMatrix().set(i, i, MAX_VALUE);
-                matrixHolderWithStereoCheck.getEnergyMatrix().set(i, i, MAX_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(GRAPH_SIMILARITY, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(CLIQUE, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(STEREO, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(CARBON_OVERLAP, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(FRAGMENT, i, i, MAX_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(ENERGY, i, i, MAX_VALUE);
             }
         } else if (ColT) {
             stSimilarity = true;
             for (int i = rowSize - 1; i >= 0; i--) {
-                matrixHolderWithStereoCheck.getGraphSimilarityMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getCliqueMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getStereoMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getCarbonOverlapMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getFragmentMatrix().set(i, i, MAX_VALUE);
-                matrixHolderWithStereoCheck.getEnergyMatrix().set(i, i, MAX_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(GRAPH_SIMILARITY, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(CLIQUE, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(STEREO, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(CARBON_OVERLAP, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(FRAGMENT, i, i, MAX_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(ENERGY, i, i, MAX_VALUE);
             }
         }
 
@@ -176,22 +183,22 @@ public class ReactionIsomorphismHandler implements Serializable {
         if (RowT) {
             fpFlag = true;
             for (int i = 0; i < rowSize; i++) {
-                matrixHolderWithSimilarityCheck.getGraphSimilarityMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithSimilarityCheck.getCliqueMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithSimilarityCheck.getStereoMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getCarbonOverlapMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithSimilarityCheck.getFragmentMatrix().set(i, i, MAX_VALUE);
-                matrixHolderWithSimilarityCheck.getEnergyMatrix().set(i, i, MAX_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(GRAPH_SIMILARITY, i, i, MIN_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(CLIQUE, i, i, MIN_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(STEREO, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(CARBON_OVERLAP, i, i, MIN_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(FRAGMENT, i, i, MAX_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(ENERGY, i, i, MAX_VALUE);
             }
         } else if (ColT) {
             fpFlag = true;
             for (int i = rowSize - 1; i >= 0; i--) {
-                matrixHolderWithSimilarityCheck.getGraphSimilarityMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithSimilarityCheck.getCliqueMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithSimilarityCheck.getStereoMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithStereoCheck.getCarbonOverlapMatrix().setValue(i, i, MIN_VALUE);
-                matrixHolderWithSimilarityCheck.getFragmentMatrix().set(i, i, MAX_VALUE);
-                matrixHolderWithSimilarityCheck.getEnergyMatrix().set(i, i, MAX_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(GRAPH_SIMILARITY, i, i, MIN_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(CLIQUE, i, i, MIN_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(STEREO, i, i, MIN_VALUE);
+                matrixHolderWithStereoCheck.getScores().set(CARBON_OVERLAP, i, i, MIN_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(FRAGMENT, i, i, MAX_VALUE);
+                matrixHolderWithSimilarityCheck.getScores().set(ENERGY, i, i, MAX_VALUE);
             }
         }
         return fpFlag;
@@ -214,7 +221,7 @@ public class ReactionIsomorphismHandler implements Serializable {
                 IAtomContainer ac1 = matrixHolder.getReactionContainer().getEduct(i);
                 IAtomContainer ac2 = matrixHolder.getReactionContainer().getProduct(j);
                 //matrix.
-                if (matrixHolder.getFPSimilarityMatrix().getValue(i, j) == 1.
+                if (matrixHolder.getScores().get(FP_SIMILARITY, i, j) == 1.
                         && getTotalFormalCharge(ac1)
                         == getTotalFormalCharge(ac2)) {
 
@@ -18,6 +18,13 @@
  */
 package uk.ac.ebi.reactionblast.mapping.algorithm.checks;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FP_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FRAGMENT;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 import java.io.IOException;
 import java.io.Serializable;
 import static java.lang.System.getProperty;
@@ -174,7 +181,7 @@ public final class RuleBasedMappingHandler implements Serializable {
                         out.println("smallest P  " + smallestMatchedProduct);
                     }
 
-                    if (this.matrixHolder.getCliqueMatrix().getValue(i, j) == 0) {
+                    if (this.matrixHolder.getScores().get(CLIQUE, i, j) == 0) {
                         continue;
                     }
 
@@ -385,17 +392,17 @@ public final class RuleBasedMappingHandler implements Serializable {
                         /*
                         * reset the mapping for the unmatched
                          */
-                        matrixHolderClone.getGraphSimilarityMatrix().setValue(i, j, 1.00);
+                        matrixHolderClone.getScores().set(GRAPH_SIMILARITY, i, j, 1.00);
                     } else /*
                         * reset the mapping for the unmatched
                      */ {
-                        matrixHolderClone.getGraphSimilarityMatrix().setValue(i, j, Double.MIN_VALUE);
-                        matrixHolderClone.getCliqueMatrix().setValue(i, j, Double.MIN_VALUE);
-                        matrixHolderClone.getStereoMatrix().setValue(i, j, Double.MIN_VALUE);
-                        matrixHolderClone.getCarbonOverlapMatrix().setValue(i, j, Double.MIN_VALUE);
-                        matrixHolderClone.getFragmentMatrix().setValue(i, j, Double.MAX_VALUE);
-                        matrixHolderClone.getEnergyMatrix().setValue(i, j, Double.MAX_VALUE);
-                        matrixHolderClone.getFPSimilarityMatrix().setValue(i, j, Double.MIN_VALUE);
+                        matrixHolderClone.getScores().set(GRAPH_SIMILARITY, i, j, Double.MIN_VALUE);
+                        matrixHolderClone.getScores().set(CLIQUE, i, j, Double.MIN_VALUE);
+                        matrixHolderClone.getScores().set(STEREO, i, j, Double.MIN_VALUE);
+                        matrixHolderClone.getScores().set(CARBON_OVERLAP, i, j, Double.MIN_VALUE);
+                        matrixHolderClone.getScores().set(FRAGMENT, i, j, Double.MAX_VALUE);
+                        matrixHolderClone.getScores().set(ENERGY, i, j, Double.MAX_VALUE);
+                        matrixHolderClone.getScores().set(FP_SIMILARITY, i, j, Double.MIN_VALUE);
                     }
                 }
             }
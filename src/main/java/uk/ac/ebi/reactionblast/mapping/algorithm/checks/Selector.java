@@ -18,12 +18,15 @@
  */
 package uk.ac.ebi.reactionblast.mapping.algorithm.checks;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
 import java.io.IOException;
 import java.io.Serializable;
 import org.openscience.cdk.exception.CDKException;
 import uk.ac.ebi.reactionblast.mapping.algorithm.Holder;
+import uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable;
 import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
-import uk.ac.ebi.reactionblast.tools.EBIMatrix;
 
 /**
  * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
@@ -45,21 +48,21 @@ public abstract class Selector implements Serializable {
         ReactionContainer reactionStructureInformationContainer = orignal.getReactionContainer();
         Holder localHolder = (Holder) orignal.clone();
 
-        int inputRowSize = orignal.getCliqueMatrix().getRowDimension();
-        int inputColSize = orignal.getCliqueMatrix().getColumnDimension();
+        int inputRowSize = orignal.getScores().getRowCount();
+        int inputColSize = orignal.getScores().getColumnCount();
         /*
          * Flag matrix is assigned
          */
         for (int i = 0; i < inputRowSize; i++) {
             for (int j = 0; j < inputColSize; j++) {
                 double totalAtomCount = (double) (reactionStructureInformationContainer.getProduct(j).getAtomCount() + reactionStructureInformationContainer.getEduct(i).getAtomCount());
-                double cliqueValue = orignal.getCliqueMatrix().getValue(i, j);
+                double cliqueValue = orignal.getScores().get(CLIQUE, i, j);
                 double simValue = cliqueValue / totalAtomCount;
                 /*
                 Modify the cloned matrix with real similarity values
                  */
                 if (cliqueValue >= 1) {
-                    localHolder.getGraphSimilarityMatrix().set(i, j, simValue);
+                    localHolder.getScores().set(GRAPH_SIMILARITY, i, j, simValue);
                 }
             }
         }
@@ -84,12 +87,12 @@ public abstract class Selector implements Serializable {
      */
     protected synchronized boolean isMajorSubgraphColumn(Holder mh, int IndexI, int IndexJ) throws IOException, CDKException {
 
-        double queryColScore = mh.getCliqueMatrix().getValue(IndexI, IndexJ);
+        double queryColScore = mh.getScores().get(CLIQUE, IndexI, IndexJ);
         if (queryColScore > 0) {
             for (int col = 0; col < colSize; col++) {
                 if (flagMatrix[IndexI][col] && col != IndexJ) {
 //                    int pSize = mh.getReactionContainer().getProduct(col).getAtomCount();
-                    double colCSize = mh.getCliqueMatrix().getValue(IndexI, col);
+                    double colCSize = mh.getScores().get(CLIQUE, IndexI, col);
                     if (queryColScore < colCSize) { //&& colCSize < pSize) {
                         return false;
                     }
@@ -109,12 +112,12 @@ public abstract class Selector implements Serializable {
      * @throws CDKException
      */
     protected synchronized boolean isMajorSubgraphRow(Holder mh, int IndexI, int IndexJ) throws IOException, CDKException {
-        double queryRowScore = mh.getCliqueMatrix().getValue(IndexI, IndexJ);
+        double queryRowScore = mh.getScores().get(CLIQUE, IndexI, IndexJ);
         if (queryRowScore > 0) {
             for (int row = 0; row < rowSize; row++) {
                 if (flagMatrix[row][IndexJ] && row != IndexI) {
                     int eSize = mh.getReactionContainer().getEduct(row).getAtomCount();
-                    double rowRSize = mh.getCliqueMatrix().getValue(row, IndexJ);
+                    double rowRSize = mh.getScores().get(CLIQUE, row, IndexJ);
                     if (queryRowScore < rowRSize) {//&& rowRSize == eSize) {
                         return false;
                     }
@@ -135,11 +138,11 @@ public abstract class Selector implements Serializable {
      */
     protected synchronized boolean isMinEnergyColumn(Holder mh, int IndexI, int IndexJ) throws IOException, CDKException {
         //        System.out.println("CHECKING ENERGY\nI " + EdMap.get(IndexI) + " J " + PdMap.get(IndexJ));
-        double refEnergy = mh.getEnergyMatrix().getValue(IndexI, IndexJ);
-        if (mh.getCliqueMatrix().getValue(IndexI, IndexJ) > 0) {
+        double refEnergy = mh.getScores().get(ENERGY, IndexI, IndexJ);
+        if (mh.getScores().get(CLIQUE, IndexI, IndexJ) > 0) {
             for (int col = 0; col < colSize; col++) {
                 if (flagMatrix[IndexI][col] && col != IndexJ) {
-                    double colEnergy = mh.getEnergyMatrix().getValue(IndexI, col);
+                    double colEnergy = mh.getScores().get(ENERGY, IndexI, col);
                     if (refEnergy > 0 && colEnergy > 0 && refEnergy > colEnergy) {
                         return false;
                     }
@@ -159,11 +162,11 @@ public abstract class Selector implements Serializable {
      * @throws CDKException
      */
     protected synchronized boolean isMinEnergyRow(Holder mh, int IndexI, int IndexJ) throws IOException, CDKException {
-        double refEnergy = mh.getEnergyMatrix().getValue(IndexI, IndexJ);
-        if (mh.getCliqueMatrix().getValue(IndexI, IndexJ) > 0) {
+        double refEnergy = mh.getScores().get(ENERGY, IndexI, IndexJ);
+        if (mh.getScores().get(CLIQUE, IndexI, IndexJ) > 0) {
             for (int row = 0; row < rowSize; row++) {
                 if (flagMatrix[row][IndexJ] && row != IndexI) {
-                    double rowEnergy = mh.getEnergyMatrix().getValue(row, IndexJ);
+                    double rowEnergy = mh.getScores().get(ENERGY, row, IndexJ);
                     if (rowEnergy > 0 && refEnergy > 0 && refEnergy > rowEnergy) {
                         return false;
                     }
@@ -184,11 +187,11 @@ public abstract class Selector implements Serializable {
      */
     protected synchronized boolean isMinorSubgraphColumn(Holder mh, int IndexI, int IndexJ) throws IOException, CDKException {
         boolean flag = true;
-        double queryColScore = mh.getCliqueMatrix().getValue(IndexI, IndexJ);
+        double queryColScore = mh.getScores().get(CLIQUE, IndexI, IndexJ);
         if (queryColScore > 0.) {
             for (int col = 0; col < colSize; col++) {
                 if (flagMatrix[IndexI][col] && col != IndexJ) {
-                    double targetColScore = mh.getCliqueMatrix().getValue(IndexI, col);
+                    double targetColScore = mh.getScores().get(CLIQUE, IndexI, col);
                     if (queryColScore > targetColScore && targetColScore > 0.) {
                         return true;
                     }
@@ -207,11 +210,11 @@ public abstract class Selector implements Serializable {
      */
     protected synchronized boolean isMinorSubgraphRow(Holder mh, int IndexI, int IndexJ) {
         boolean flag = true;
-        double queryRowScore = mh.getCliqueMatrix().getValue(IndexI, IndexJ);
+        double queryRowScore = mh.getScores().get(CLIQUE, IndexI, IndexJ);
         if (queryRowScore > 0.) {
             for (int row = 0; row < rowSize; row++) {
                 if (flagMatrix[row][IndexJ] && row != IndexI) {
-                    double targetRowScore = mh.getCliqueMatrix().getValue(row, IndexJ);
+                    double targetRowScore = mh.getScores().get(CLIQUE, row, IndexJ);
                     if (queryRowScore > targetRowScore && targetRowScore > 0.) {
                         return false;
                     }
@@ -223,18 +226,18 @@ public abstract class Selector implements Serializable {
 
     /**
      *
-     * @param similarityMatrix
+     * @param scores row-major scores (see {@link ScoreTable#values})
      * @param IndexI
      * @param IndexJ
      * @return
      */
-    protected synchronized boolean isMinorSubgraphColumn(EBIMatrix similarityMatrix, int IndexI, int IndexJ) {
+    protected boolean isMinorSubgraphColumn(double[] scores, int IndexI, int IndexJ) {
         boolean flag = true;
-        double queryColScore = similarityMatrix.getValue(IndexI, IndexJ);
+        double queryColScore = scores[IndexI * colSize + IndexJ];
         if (queryColScore > 0.) {
             for (int col = 0; col < colSize; col++) {
                 if (flagMatrix[IndexI][col] && col != IndexJ) {
-                    double targetColScore = similarityMatrix.getValue(IndexI, col);
+                    double targetColScore = scores[IndexI * colSize + col];
                     if (queryColScore > targetColScore && targetColScore > 0.) {
                         return true;
                     }
@@ -246,18 +249,18 @@ public abstract class Selector implements Serializable {
 
     /**
      *
-     * @param similarityMatrix
+     * @param scores row-major scores (see {@link ScoreTable#values})
      * @param IndexI
      * @param IndexJ
      * @return
      */
-    protected synchronized boolean isMinorSubgraphRow(EBIMatrix similarityMatrix, int IndexI, int IndexJ) {
+    protected boolean isMinorSubgraphRow(double[] scores, int IndexI, int IndexJ) {
         boolean flag = true;
-        double queryRowScore = similarityMatrix.getValue(IndexI, IndexJ);
+        double queryRowScore = scores[IndexI * colSize + IndexJ];
         if (queryRowScore > 0.) {
             for (int row = 0; row < rowSize; row++) {
                 if (flagMatrix[row][IndexJ] && row != IndexI) {
-                    double targetRowScore = similarityMatrix.getValue(row, IndexJ);
+                    double targetRowScore = scores[row * colSize + IndexJ];
                     if (queryRowScore > targetRowScore && targetRowScore > 0.) {
                         return false;
                     }
@@ -269,18 +272,18 @@ public abstract class Selector implements Serializable {
 
     /**
      *
-     * @param similarityMatrix
+     * @param scores row-major scores (see {@link ScoreTable#values})
      * @param IndexI
      * @param IndexJ
      * @return
      */
-    protected synchronized boolean isMajorSubgraphColumn(EBIMatrix similarityMatrix, int IndexI, int IndexJ) {
+    protected boolean isMajorSubgraphColumn(double[] scores, int IndexI, int IndexJ) {
 
-        double queryColumnscore = similarityMatrix.getValue(IndexI, IndexJ);
+        double queryColumnscore = scores[IndexI * colSize + IndexJ];
         if (queryColumnscore > 0) {
             for (int col = 0; col < colSize; col++) {
                 if (flagMatrix[IndexI][col] && col != IndexJ) {
-                    double colCSize = similarityMatrix.getValue(IndexI, col);
+                    double colCSize = scores[IndexI * colSize + col];
                     if (queryColumnscore < colCSize) {
                         return false;
                     }
@@ -292,17 +295,17 @@ public abstract class Selector implements Serializable {
 
     /**
      *
-     * @param similarityMatrix
+     * @param scores row-major scores (see {@link ScoreTable#values})
      * @param IndexI
      * @param IndexJ
      * @return
      */
-    protected synchronized boolean isMajorSubgraphRow(EBIMatrix similarityMatrix, int IndexI, int IndexJ) {
-        double queryRowScore = similarityMatrix.getValue(IndexI, IndexJ);
+    protected boolean isMajorSubgraphRow(double[] scores, int IndexI, int IndexJ) {
+        double queryRowScore = scores[IndexI * colSize + IndexJ];
         if (queryRowScore > 0) {
             for (int row = 0; row < rowSize; row++) {
                 if (flagMatrix[row][IndexJ] && row != IndexI) {
-                    double rowRSize = similarityMatrix.getValue(row, IndexJ);
+                    double rowRSize = scores[row * colSize + IndexJ];
                     if (queryRowScore < rowRSize) {
                         return false;
                     }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2003-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.container.helper;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.logging.Level.SEVERE;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+import org.openscience.cdk.tools.ILoggingTool;
+import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
+import static org.openscience.smsd.tools.ExtAtomContainerManipulator.cloneWithIDs;
+import uk.ac.ebi.reactionblast.tools.CDKSMILES;
+import uk.ac.ebi.reactionblast.tools.labelling.SmilesMoleculeLabeller;
+
+/**
+ * The part of an educt matched in one mapping step, kept as the subset of the
+ * educt atom indices (and the bonds between them). The molecule and its
+ * canonical SMILES are only built, once, when asked for.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public final class MatchedFragment implements Serializable {
+
+    private static final long serialVersionUID = 7683429817622101L;
+    private static final ILoggingTool LOGGER = createLoggingTool(MatchedFragment.class);
+
+    private final String id;
+    private final int[] atomIndices;
+    private final IAtom[] atoms;
+    private final IBond[] bonds;
+    private String canonicalSMILES;
+
+    /**
+     *
+     * @param id educt ID
+     * @param eductAtoms atoms of the educt before the step
+     * @param eductBonds bonds of the educt before the step
+     * @param matched indices of the matched atoms
+     */
+    public MatchedFragment(String id, IAtom[] eductAtoms, IBond[] eductBonds, BitSet matched) {
+        this.id = id;
+        this.atomIndices = matched.stream().toArray();
+        this.atoms = new IAtom[atomIndices.length];
+        Map<IAtom, Boolean> members = new IdentityHashMap<>();
+        for (int i = 0; i < atomIndices.length; i++) {
+            atoms[i] = eductAtoms[atomIndices[i]];
+            members.put(atoms[i], Boolean.TRUE);
+        }
+        List<IBond> internal = new ArrayList<>();
+        for (IBond bond : eductBonds) {
+            if (members.containsKey(bond.getBegin()) && members.containsKey(bond.getEnd())) {
+                internal.add(bond);
+            }
+        }
+        this.bonds = internal.toArray(new IBond[internal.size()]);
+        this.canonicalSMILES = null;
+    }
+
+    /**
+     * @return number of matched atoms
+     */
+    public int getAtomCount() {
+        return atomIndices.length;
+    }
+
+    /**
+     * @return indices of the matched atoms in the educt before the step
+     */
+    public int[] getAtomIndices() {
+        return atomIndices.clone();
+    }
+
+    /**
+     * @return a new molecule of the matched atoms, with atom IDs
+     * @throws CloneNotSupportedException
+     */
+    public IAtomContainer getMolecule() throws CloneNotSupportedException {
+        if (atoms.length == 0) {
+            return null;
+        }
+        IAtomContainer fragment = atoms[0].getBuilder().newInstance(IAtomContainer.class);
+        fragment.setID(id);
+        for (IAtom atom : atoms) {
+            fragment.addAtom(atom);
+        }
+        for (IBond bond : bonds) {
+            fragment.addBond(bond);
+        }
+        return cloneWithIDs(fragment);
+    }
+
+    /**
+     * @return canonical SMILES of the matched part, null if it can't be
+     * generated
+     */
+    public synchronized String getCanonicalSMILES() {
+        if (canonicalSMILES == null && atoms.length > 0) {
+            try {
+                IAtomContainer mol = new SmilesMoleculeLabeller().getCanonicalMolecule(getMolecule());
+                canonicalSMILES = new CDKSMILES(mol, true, false).getCanonicalSMILES();
+            } catch (CloneNotSupportedException e) {
+                LOGGER.error(SEVERE, null, e);
+            }
+        }
+        return canonicalSMILES;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchedFragment{" + "id=" + id + ", atomCount=" + atomIndices.length + '}';
+    }
+}
@@ -39,6 +39,7 @@ public class MolMapping extends Object implements Serializable {
     private boolean rBLASTMapping;
     private IAtomContainer matchedMol = null;
     private String matchedSMILES = null;
+    private MatchedFragment matchedFragment = null;
 
     /**
      *
@@ -132,6 +133,9 @@ public class MolMapping extends Object implements Serializable {
      * @return the matchedSMILES
      */
     public synchronized String getMatchedSMILES() {
+        if (matchedSMILES == null && matchedFragment != null) {
+            matchedSMILES = matchedFragment.getCanonicalSMILES();
+        }
         return matchedSMILES;
     }
 
@@ -144,6 +148,25 @@ public class MolMapping extends Object implements Serializable {
         setIndexStep(step);
     }
 
+    /**
+     * Record the matched part, its SMILES is generated when first asked for
+     *
+     * @param matchedFragment
+     * @param step
+     */
+    public synchronized void setMatchedFragment(MatchedFragment matchedFragment, Integer step) {
+        this.matchedFragment = matchedFragment;
+        this.matchedSMILES = null;
+        setIndexStep(step);
+    }
+
+    /**
+     * @return the matched part, null if not recorded
+     */
+    public synchronized MatchedFragment getMatchedFragment() {
+        return matchedFragment;
+    }
+
     /**
      * @return the indexStep
      */
@@ -184,7 +207,7 @@ public class MolMapping extends Object implements Serializable {
         if (this.matchedMol != other.matchedMol && (this.matchedMol == null || !this.matchedMol.equals(other.matchedMol))) {
             return false;
         }
-        return !((this.matchedSMILES == null) ? (other.matchedSMILES != null) : !this.matchedSMILES.equals(other.matchedSMILES));
+        return this.matchedFragment == other.matchedFragment;
     }
 
     @Override
@@ -198,7 +221,7 @@ public class MolMapping extends Object implements Serializable {
         hash = 83 * hash + (this.keggMapping ? 1 : 0);
         hash = 83 * hash + (this.rBLASTMapping ? 1 : 0);
         hash = 83 * hash + (this.matchedMol != null ? this.matchedMol.hashCode() : 0);
-        hash = 83 * hash + (this.matchedSMILES != null ? this.matchedSMILES.hashCode() : 0);
+        hash = 83 * hash + (this.matchedFragment != null ? this.matchedFragment.hashCode() : 0);
         return hash;
     }
 
@@ -211,6 +234,6 @@ public class MolMapping extends Object implements Serializable {
 
     @Override
     public String toString() {
-        return "MolMapping{" + "mol1=" + mol1 + ", mol2=" + mol2 + ", indexI=" + indexI + ", indexJ=" + indexJ + ", indexStep=" + indexStep + ", keggMapping=" + keggMapping + ", rBLASTMapping=" + rBLASTMapping + ", matchedMol=" + matchedMol + ", matchedSMILES=" + matchedSMILES + '}';
+        return "MolMapping{" + "mol1=" + mol1 + ", mol2=" + mol2 + ", indexI=" + indexI + ", indexJ=" + indexJ + ", indexStep=" + indexStep + ", keggMapping=" + keggMapping + ", rBLASTMapping=" + rBLASTMapping + ", matchedMol=" + matchedMol + ", matchedSMILES=" + matchedSMILES + ", matchedFragment=" + matchedFragment + '}';
     }
 }
@@ -18,6 +18,7 @@
  */
 package uk.ac.ebi.reactionblast.mapping.graph;
 
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
 import java.io.IOException;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.System.gc;
@@ -38,23 +39,23 @@ import static java.util.logging.Level.SEVERE;
 import static java.util.logging.Level.WARNING;
 
 import org.openscience.cdk.exception.CDKException;
-import org.openscience.cdk.graph.CycleFinder;
-import org.openscience.cdk.graph.Cycles;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.smiles.SmilesGenerator;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import org.openscience.smsd.AtomAtomMapping;
+import org.openscience.smsd.helper.MCSUpperBound;
+import org.openscience.smsd.helper.RingInfo;
+import static org.openscience.smsd.tools.ExtAtomContainerManipulator.aromatizeDayLightAllCycles;
 import uk.ac.ebi.reactionblast.mapping.algorithm.Holder;
 import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
 import uk.ac.ebi.reactionblast.mapping.helper.Debugger;
+import static uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm.USER_DEFINED;
 import static java.util.Collections.synchronizedCollection;
 import java.util.concurrent.Executors;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 
-import org.openscience.cdk.aromaticity.Aromaticity;
-import static org.openscience.cdk.aromaticity.ElectronDonation.daylight;
 import org.openscience.cdk.smiles.SmiFlavor;
 
 /**
@@ -99,7 +100,7 @@ public class GraphMatcher extends Debugger {
                     if ((educt != null && product != null)
                             && (reactionStructureInformation.getEduct(substrateIndex).getAtomCount() > 0
                             && reactionStructureInformation.getProduct(productIndex).getAtomCount() > 0)
-                            || mh.getGraphSimilarityMatrix().getValue(substrateIndex, productIndex) == -1) {
+                            || mh.getScores().get(GRAPH_SIMILARITY, substrateIndex, productIndex) == -1) {
 //                        if (reactionStructureInformation.isEductModified(substrateIndex)
 //                                || reactionStructureInformation.isProductModified(productIndex)) {
 
@@ -196,19 +197,30 @@ public class GraphMatcher extends Debugger {
                     System.out.println("Finding cycles");
                 }
 
-                CycleFinder cycles = Cycles.or(Cycles.all(),
-                        Cycles.or(Cycles.relevant(),
-                                Cycles.essential()));
-
-                Aromaticity aromaticity = new Aromaticity(daylight(), cycles);
                 if (DEBUG) {
                     System.out.println("Done Finding cycles");
                 }
                 /*
                  * Aromatise molecule for escaping CDKtoBeam Aromatic bond error
                  */
-                aromaticity.apply(educt);
-                aromaticity.apply(product);
+                aromatizeDayLightAllCycles(educt);
+                aromatizeDayLightAllCycles(product);
+
+                /*
+                 * Pairs without a common element can't share any atom, their
+                 * (empty) solution needs no MCS job
+                 */
+                if (mh.getTheory() != USER_DEFINED
+                        && MCSUpperBound.of(educt).atomBound(MCSUpperBound.of(product)) == 0) {
+                    if (DEBUG) {
+                        System.out.println("No common element, skipping MCS of " + substrateIndex + ", " + productIndex);
+                    }
+                    MCSSolution empty = new MCSSolution(substrateIndex, productIndex,
+                            educt, product, new AtomAtomMapping(educt, product));
+                    callablesQueue.submit(() -> empty);
+                    taskCounter++;
+                    continue;
+                }
 
                 /*
                  * Report short cycyles
@@ -216,18 +228,14 @@ public class GraphMatcher extends Debugger {
                 if (DEBUG) {
                     System.out.println("Finding short cycles");
                 }
-                cycles = Cycles.vertexShort();
-                Cycles rings = cycles.find(educt);
+                int numberOfCyclesEduct = RingInfo.of(educt).getShortCycleCount();
                 if (DEBUG) {
                     System.out.println("Done Finding cycles educt");
                 }
-
-                int numberOfCyclesEduct = rings.numberOfCycles();
-                rings = cycles.find(product);
                 if (DEBUG) {
                     System.out.println("Finding cycles product");
                 }
-                int numberOfCyclesProduct = rings.numberOfCycles();
+                int numberOfCyclesProduct = RingInfo.of(product).getShortCycleCount();
                 if (numberOfCyclesEduct > 0 && numberOfCyclesProduct > 0) {
                     ring = true;
                 }
@@ -399,10 +407,9 @@ public class GraphMatcher extends Debugger {
 
             AtomAtomMapping atomAtomMapping = mcs.getAtomAtomMapping();
             AtomAtomMapping atomAtomMappingNew = new AtomAtomMapping(q, t);
-            atomAtomMapping.getMappingsByAtoms().keySet().stream().forEach((a) -> {
-                IAtom atomByID1 = getAtomByID(q, a);
-                IAtom b = atomAtomMapping.getMappingsByAtoms().get(a);
-                IAtom atomByID2 = getAtomByID(t, b);
+            atomAtomMapping.getMappingsByIndex().forEach((i, j) -> {
+                IAtom atomByID1 = getAtomByID(q, atomAtomMapping.getQuery().getAtom(i));
+                IAtom atomByID2 = getAtomByID(t, atomAtomMapping.getTarget().getAtom(j));
 //                if (DEBUG) {
 //                    out.println("atomByID1 " + atomByID1.getID() + " atomByID2 " + atomByID2.getID());
 //                }
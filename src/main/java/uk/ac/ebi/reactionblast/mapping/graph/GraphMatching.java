@@ -31,14 +31,18 @@ package uk.ac.ebi.reactionblast.mapping.graph;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.BitSet;
+import static java.util.Collections.newSetFromMap;
 import static java.util.Collections.unmodifiableMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import static java.util.logging.Level.SEVERE;
 
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
 import org.openscience.cdk.interfaces.IMapping;
 import org.openscience.cdk.interfaces.IReaction;
 import org.openscience.cdk.silent.SilentChemObjectBuilder;
@@ -46,9 +50,9 @@ import org.openscience.cdk.smiles.SmilesGenerator;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import uk.ac.ebi.reactionblast.mapping.algorithm.Holder;
+import uk.ac.ebi.reactionblast.mapping.container.helper.MatchedFragment;
 import uk.ac.ebi.reactionblast.mapping.interfaces.BestMatch;
 import uk.ac.ebi.reactionblast.mapping.interfaces.AbstractGraphMatching;
-import static org.openscience.smsd.tools.ExtAtomContainerManipulator.cloneWithIDs;
 
 /**
  *
@@ -61,7 +65,9 @@ public class GraphMatching extends AbstractGraphMatching implements Serializable
     private static final long serialVersionUID = 0xf06b2d5f9L;
     private final IAtomContainer educt;
     private final IAtomContainer product;
-    private IAtomContainer matchedPart = null;
+    private final IAtom[] eductAtoms;
+    private final IBond[] eductBonds;
+    private MatchedFragment matchedFragment = null;
     private Map<IAtom, IAtom> bestAtomMappingList;
     private int fragmentCount = 0;
     private final static boolean DEBUG = false;
@@ -78,20 +84,21 @@ public class GraphMatching extends AbstractGraphMatching implements Serializable
      */
     public GraphMatching(String reaction_ID, IAtomContainer eductOrg, IAtomContainer productOrg, String suffix, boolean removeHydrogen) throws Exception {
 
-        try {
-
-            educt = eductOrg;
-            product = productOrg;
-            educt.setID(eductOrg.getID());
-            product.setID(productOrg.getID());
-
-            if (educt.getAtomCount() > 0 && product.getAtomCount() > 0) {
-                setMatchedPart(cloneWithIDs(educt));
-            }
-        } catch (CloneNotSupportedException e) {
-            throw new CDKException("Error: In GraphMatching Class" + e);
+        educt = eductOrg;
+        product = productOrg;
+        educt.setID(eductOrg.getID());
+        product.setID(productOrg.getID());
+        /*
+         * Remember the educt as it is before the matched atoms are removed
+         */
+        eductAtoms = new IAtom[educt.getAtomCount()];
+        for (int i = 0; i < eductAtoms.length; i++) {
+            eductAtoms[i] = educt.getAtom(i);
+        }
+        eductBonds = new IBond[educt.getBondCount()];
+        for (int i = 0; i < eductBonds.length; i++) {
+            eductBonds[i] = educt.getBond(i);
         }
-
     }
 
     /**
@@ -172,10 +179,17 @@ public class GraphMatching extends AbstractGraphMatching implements Serializable
             }
         }
 
+        Set<IAtom> remaining = newSetFromMap(new IdentityHashMap<>());
         for (IAtom atom : educt.atoms()) {
-            IAtom matchedAtom = getAtomByID(matchedPart, atom.getID());
-            matchedPart.removeAtom(matchedAtom);
+            remaining.add(atom);
+        }
+        BitSet matched = new BitSet(eductAtoms.length);
+        for (int i = 0; i < eductAtoms.length; i++) {
+            if (!remaining.contains(eductAtoms[i])) {
+                matched.set(i);
+            }
         }
+        setMatchedFragment(new MatchedFragment(educt.getID(), eductAtoms, eductBonds, matched));
 
         if (DEBUG) {
             System.out.println("After removing Mol Size E: " + educt.getAtomCount()
@@ -238,17 +252,30 @@ public class GraphMatching extends AbstractGraphMatching implements Serializable
     }
 
     /**
-     * @return the matchedPart
+     * @return a new molecule of the matched part
      */
     @Override
     public synchronized IAtomContainer getMatchedPart() {
-        return matchedPart;
+        if (matchedFragment == null) {
+            return null;
+        }
+        try {
+            return matchedFragment.getMolecule();
+        } catch (CloneNotSupportedException e) {
+            LOGGER.error(SEVERE, null, e);
+            return null;
+        }
     }
 
     /**
-     * @param aMatchedPart the matchedPart to set
+     * @return the matched part as atom indices of the educt
      */
-    private synchronized void setMatchedPart(IAtomContainer aMatchedPart) {
-        matchedPart = aMatchedPart;
+    @Override
+    public synchronized MatchedFragment getMatchedFragment() {
+        return matchedFragment;
+    }
+
+    private synchronized void setMatchedFragment(MatchedFragment matchedFragment) {
+        this.matchedFragment = matchedFragment;
     }
 }
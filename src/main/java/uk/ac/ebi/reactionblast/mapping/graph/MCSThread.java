@@ -28,19 +28,15 @@ import static java.util.Collections.sort;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import static java.util.logging.Level.SEVERE;
 
 import static org.openscience.cdk.CDKConstants.UNSET;
-import org.openscience.cdk.aromaticity.Aromaticity;
-import static org.openscience.cdk.aromaticity.ElectronDonation.daylight;
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.fingerprint.CircularFingerprinter;
 import org.openscience.cdk.fingerprint.IBitFingerprint;
 import org.openscience.cdk.graph.ConnectivityChecker;
-import org.openscience.cdk.graph.Cycles;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IAtomContainerSet;
@@ -55,6 +51,7 @@ import org.openscience.smsd.Substructure;
 import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
 import org.openscience.smsd.algorithm.matchers.AtomMatcher;
 import org.openscience.smsd.algorithm.matchers.BondMatcher;
+import org.openscience.smsd.helper.MCSUpperBound;
 import org.openscience.smsd.helper.MoleculeInitializer;
 import org.openscience.smsd.interfaces.Algorithm;
 import org.openscience.smsd.tools.ExtAtomContainerManipulator;
@@ -134,12 +131,8 @@ public class MCSThread implements Callable<MCSSolution> {
         this.numberOfCyclesEduct = 0;
         this.numberOfCyclesProduct = 0;
 
-        Aromaticity aromaticity = new Aromaticity(daylight(),
-                Cycles.or(Cycles.all(),
-                        Cycles.or(Cycles.relevant(),
-                                Cycles.essential())));
-        aromaticity.apply(this.compound1);
-        aromaticity.apply(this.compound2);
+        ExtAtomContainerManipulator.aromatizeDayLightAllCycles(this.compound1);
+        ExtAtomContainerManipulator.aromatizeDayLightAllCycles(this.compound2);
 
         try {
             ExtAtomContainerManipulator.percieveAtomTypesAndConfigureAtoms(this.compound1);
@@ -196,17 +189,23 @@ public class MCSThread implements Callable<MCSSolution> {
             /*
                  Check if MCS matching required or not very IMP step
              */
-            boolean possibleVFmatch12 = isPossibleSubgraphMatch(getCompound1(), getCompound2());
+            MCSUpperBound bound1 = MCSUpperBound.of(getCompound1());
+            MCSUpperBound bound2 = MCSUpperBound.of(getCompound2());
+            boolean possibleVFmatch12 = bound1.isElementSubset(bound2);
             if (DEBUG1) {
                 System.out.println("VF Matcher 1->2 " + possibleVFmatch12);
             }
 
-            boolean possibleVFmatch21 = isPossibleSubgraphMatch(getCompound2(), getCompound1());
+            boolean possibleVFmatch21 = bound2.isElementSubset(bound1);
             if (DEBUG1) {
                 System.out.println("VF Matcher 2->1 " + possibleVFmatch21);
             }
 
-            if (moleculeConnected && possibleVFmatch12) {
+            /*
+             * Skip substructure searches the degrees rule out, they fall
+             * back to MCS anyway
+             */
+            if (moleculeConnected && possibleVFmatch12 && bound1.isPossibleSubgraph(bound2)) {
                 if (DEBUG1) {
                     System.out.println("Substructure 1");
                     this.startTime = currentTimeMillis();
@@ -268,7 +267,8 @@ public class MCSThread implements Callable<MCSSolution> {
                 }
             }
 
-            if (moleculeConnected && !possibleVFmatch12 && possibleVFmatch21) {
+            if (moleculeConnected && !possibleVFmatch12 && possibleVFmatch21
+                    && bound2.isPossibleSubgraph(bound1)) {
 
                 if (DEBUG1) {
                     System.out.println("Substructure 2");
@@ -315,8 +315,7 @@ public class MCSThread implements Callable<MCSSolution> {
                     }
                     AtomAtomMapping aam = new AtomAtomMapping(substructure.getTarget(), substructure.getQuery());
                     Map<IAtom, IAtom> mappings = substructure.getFirstAtomMapping().getMappingsByAtoms();
-                    mappings.keySet().stream().forEach((atom1) -> {
-                        IAtom atom2 = mappings.get(atom1);
+                    mappings.forEach((atom1, atom2) -> {
                         aam.put(atom2, atom1);
                     });
                     MCSSolution mcs = new MCSSolution(getQueryPosition(), getTargetPosition(),
@@ -403,54 +402,6 @@ public class MCSThread implements Callable<MCSSolution> {
         return ac;
     }
 
-    private synchronized boolean isPossibleSubgraphMatch(IAtomContainer q, IAtomContainer t) {
-
-        Map<String, Integer> atomUniqueCounter1 = new TreeMap<>();
-        Map<String, Integer> atomUniqueCounter2 = new TreeMap<>();
-
-        for (IAtom a : q.atoms()) {
-            if (!atomUniqueCounter1.containsKey(a.getSymbol())) {
-                atomUniqueCounter1.put(a.getSymbol(), 1);
-            } else {
-                int counter = atomUniqueCounter1.get(a.getSymbol()) + 1;
-                atomUniqueCounter1.put(a.getSymbol(), counter);
-            }
-        }
-
-        for (IAtom b : t.atoms()) {
-            if (!atomUniqueCounter2.containsKey(b.getSymbol())) {
-                atomUniqueCounter2.put(b.getSymbol(), 1);
-            } else {
-                int counter = atomUniqueCounter2.get(b.getSymbol()) + 1;
-                atomUniqueCounter2.put(b.getSymbol(), counter);
-            }
-        }
-
-        if (atomUniqueCounter1.size() > atomUniqueCounter2.size()) {
-            return false;
-        }
-
-        List<String> difference = new LinkedList<>(atomUniqueCounter1.keySet());
-        difference.removeAll(atomUniqueCounter2.keySet());
-
-        if (DEBUG2) {
-            System.out.println("atomUniqueCounter1 " + atomUniqueCounter1);
-            System.out.println("atomUniqueCounter1 " + atomUniqueCounter1.size());
-            System.out.println("atomUniqueCounter2 " + atomUniqueCounter2);
-            System.out.println("atomUniqueCounter2 " + atomUniqueCounter2.size());
-            System.out.println("diff " + difference.size());
-        }
-
-        if (difference.isEmpty()) {
-            if (!atomUniqueCounter1.keySet().stream().noneMatch((k)
-                    -> (atomUniqueCounter1.get(k) > atomUniqueCounter2.get(k)))) {
-                return false;
-            }
-        }
-
-        return difference.isEmpty();
-    }
-
     private synchronized int expectedMaxGraphmatch(IAtomContainer q, IAtomContainer t) {
 
         /*
@@ -32,11 +32,17 @@ import org.openscience.smsd.AtomAtomMapping;
 import org.openscience.smsd.Isomorphism;
 import org.openscience.smsd.interfaces.IAtomMapping;
 import uk.ac.ebi.reactionblast.mapping.algorithm.Holder;
+import uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CARBON_OVERLAP;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.CLIQUE;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.ENERGY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.FRAGMENT;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.GRAPH_SIMILARITY;
+import static uk.ac.ebi.reactionblast.mapping.algorithm.ScoreTable.Metric.STEREO;
 import uk.ac.ebi.reactionblast.mapping.algorithm.checks.ChooseWinner;
 import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
 import uk.ac.ebi.reactionblast.tools.BasicDebugger;
 import uk.ac.ebi.reactionblast.tools.CDKSMILES;
-import uk.ac.ebi.reactionblast.tools.EBIMatrix;
 import uk.ac.ebi.reactionblast.tools.ImageGenerator;
 import static java.lang.System.getProperty;
 import static java.text.NumberFormat.getInstance;
@@ -112,7 +118,7 @@ public abstract class Debugger extends BasicDebugger {
             for (int i = 0; i < EdMap.size(); i++) {
                 out.print(" " + EdMap.get(i) + ":(" + reactionStructureInformationContainer.getEduct(i).getAtomCount() + ")");
                 for (int j = 0; j < PdMap.size(); j++) {
-                    val = mh.getCliqueMatrix().getValue(i, j);
+                    val = mh.getScores().get(CLIQUE, i, j);
                     result = format.format(val);
                     out.print("   " + result);
                 }
@@ -148,7 +154,7 @@ public abstract class Debugger extends BasicDebugger {
             for (int i = 0; i < EdMap.size(); i++) {
                 out.print(" " + EdMap.get(i) + ":(" + reactionStructureInformationContainer.getEduct(i).getAtomCount() + ")");
                 for (int j = 0; j < PdMap.size(); j++) {
-                    val = mh.getGraphSimilarityMatrix().getValue(i, j);
+                    val = mh.getScores().get(GRAPH_SIMILARITY, i, j);
                     result = format.format(val);
                     out.print("   " + result);
                 }
@@ -201,7 +207,7 @@ public abstract class Debugger extends BasicDebugger {
      * @param PdMap
      */
     protected void printStereoMatrix(Holder mh, List<String> EdMap, List<String> PdMap) {
-        EBIMatrix StereoMatrix = mh.getStereoMatrix();
+        ScoreTable scores = mh.getScores();
 
         out.println();
         out.println("********* MATRIX **********");
@@ -224,7 +230,7 @@ public abstract class Debugger extends BasicDebugger {
                 out.print(" " + EdMap.get(i));
                 for (int j = 0; j
                         < PdMap.size(); j++) {
-                    val = StereoMatrix.getValue(i, j);
+                    val = scores.get(STEREO, i, j);
                     result
                             = format.format(val);
                     out.print("   " + result);
@@ -247,7 +253,7 @@ public abstract class Debugger extends BasicDebugger {
      * @param PdMap
      */
     protected void printFragmentMatrix(Holder mh, List<String> EdMap, List<String> PdMap) {
-        EBIMatrix fragmentMatrix = mh.getFragmentMatrix();
+        ScoreTable scores = mh.getScores();
 
         out.println();
         out.println("********* MATRIX **********");
@@ -270,7 +276,7 @@ public abstract class Debugger extends BasicDebugger {
                 out.print(" " + EdMap.get(i));
                 for (int j = 0; j
                         < PdMap.size(); j++) {
-                    val = fragmentMatrix.getValue(i, j);
+                    val = scores.get(FRAGMENT, i, j);
                     result
                             = format.format(val);
                     out.print("   " + result);
@@ -293,7 +299,7 @@ public abstract class Debugger extends BasicDebugger {
      * @param PdMap
      */
     protected void printCarbonMatrix(Holder mh, List<String> EdMap, List<String> PdMap) {
-        EBIMatrix carbonMatrix = mh.getCarbonOverlapMatrix();
+        ScoreTable scores = mh.getScores();
 
         out.println();
         out.println("********* MATRIX **********");
@@ -315,7 +321,7 @@ public abstract class Debugger extends BasicDebugger {
                 out.print(" " + EdMap.get(i));
                 for (int j = 0; j
                         < PdMap.size(); j++) {
-                    val = carbonMatrix.getValue(i, j);
+                    val = scores.get(CARBON_OVERLAP, i, j);
                     result = format.format(val);
                     out.print("   " + result);
                 }
@@ -337,7 +343,7 @@ public abstract class Debugger extends BasicDebugger {
      * @param PdMap
      */
     protected void printEnergyMatrix(Holder mh, List<String> EdMap, List<String> PdMap) {
-        EBIMatrix energyMatrixProfile = mh.getEnergyMatrix();
+        ScoreTable scores = mh.getScores();
 
         out.println();
         out.println("********* MATRIX **********");
@@ -360,7 +366,7 @@ public abstract class Debugger extends BasicDebugger {
                 out.print("\t" + EdMap.get(i));
                 for (int j = 0; j
                         < PdMap.size(); j++) {
-                    val = energyMatrixProfile.getValue(i, j);
+                    val = scores.get(ENERGY, i, j);
                     result = format.format(val);
                     out.print("\t" + result);
                 }
@@ -476,7 +482,7 @@ public abstract class Debugger extends BasicDebugger {
                 + " B: " + reactionStructureInformation.getProduct(productIndex).getAtomCount());
 
         out.println(
-                " GetValue: " + mh.getGraphSimilarityMatrix().getValue(substrateIndex, productIndex)
-                + ", " + mh.getStereoMatrix().getValue(substrateIndex, productIndex));
+                " GetValue: " + mh.getScores().get(GRAPH_SIMILARITY, substrateIndex, productIndex)
+                + ", " + mh.getScores().get(STEREO, substrateIndex, productIndex));
     }
 }
@@ -24,6 +24,7 @@ import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IReaction;
 import uk.ac.ebi.reactionblast.mapping.algorithm.Holder;
 import uk.ac.ebi.reactionblast.mapping.container.ReactionContainer;
+import uk.ac.ebi.reactionblast.mapping.container.helper.MatchedFragment;
 
 /**
  * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
@@ -49,6 +50,11 @@ public abstract class AbstractGraphMatching {
      */
     public abstract IAtomContainer getMatchedPart();
 
+    /**
+     * @return the matched part as atom indices of the educt
+     */
+    public abstract MatchedFragment getMatchedFragment();
+
     /**
      *
      * @return
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2003-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.interfaces;
+
+import uk.ac.ebi.reactionblast.mapping.algorithm.GameTheoryRound;
+
+/**
+ * Receives the metrics of each winner selection round of the game theory
+ * mapping algorithms. Called from the mapping threads, so implementations must
+ * be thread safe.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public interface IGameTheoryRoundListener {
+
+    /**
+     * A round has completed (winners mapped and the matrix updated)
+     *
+     * @param round
+     */
+    public void roundCompleted(GameTheoryRound round);
+
+    /**
+     * The rounds were stopped because the round or time limit was reached
+     * before all winners were mapped
+     *
+     * @param round last completed round, null if none was completed
+     */
+    public default void limitReached(GameTheoryRound round) {
+    }
+}
@@ -192,19 +192,7 @@ public class BEMatrix extends EBIMatrix implements Serializable {
         IAtom appA = atomArray.get(i1);
         atomArray.set(i1, atomArray.get(i2));
         atomArray.set(i2, appA);
-        double appD = 0.0d;
-        //column exchange
-        for (int i = 0; i < getRowDimension(); i++) {
-            appD = getValue(i, i1);
-            setValue(i, i1, getValue(i, i2));
-            setValue(i, i2, appD);
-        }
-        //row exchange
-        for (int i = 0; i < getColumnDimension(); i++) {
-            appD = getValue(i1, i);
-            setValue(i1, i, getValue(i2, i));
-            setValue(i2, i, appD);
-        }
+        super.pivot(i1, i2);
     }
 
     private double getFreeValenceElectrons(IAtom a) throws CDKException {
@@ -451,7 +439,7 @@ public class BEMatrix extends EBIMatrix implements Serializable {
     }
 
     @Override
-    public synchronized Object clone() throws CloneNotSupportedException {
+    public Object clone() throws CloneNotSupportedException {
         return super.clone(); //To change body of generated methods, choose Tools | Templates.
     }
 }
@@ -31,6 +31,7 @@ import static java.util.Collections.synchronizedMap;
 import static java.util.Collections.unmodifiableCollection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,13 +42,10 @@ import java.util.logging.Level;
 import static java.util.logging.Level.SEVERE;
 import static org.openscience.cdk.CDKConstants.MAPPED;
 import org.openscience.cdk.Mapping;
-import org.openscience.cdk.aromaticity.Aromaticity;
-import org.openscience.cdk.aromaticity.ElectronDonation;
 import static org.openscience.cdk.aromaticity.Kekulization.kekulize;
 import org.openscience.cdk.exception.CDKException;
 import static org.openscience.cdk.graph.ConnectivityChecker.isConnected;
 import static org.openscience.cdk.graph.ConnectivityChecker.partitionIntoMolecules;
-import org.openscience.cdk.graph.Cycles;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IAtomContainerSet;
@@ -62,11 +60,13 @@ import static org.openscience.cdk.tools.manipulator.AtomContainerSetManipulator.
 import static org.openscience.cdk.tools.manipulator.ReactionManipulator.getRelevantAtomContainer;
 import org.openscience.smsd.tools.BondEnergies;
 import static org.openscience.smsd.tools.BondEnergies.getInstance;
+import static org.openscience.smsd.tools.ExtAtomContainerManipulator.aromatizeDayLightAllCycles;
 import uk.ac.ebi.reactionblast.fingerprints.Feature;
 import uk.ac.ebi.reactionblast.fingerprints.PatternFingerprinter;
 import uk.ac.ebi.reactionblast.fingerprints.interfaces.IFeature;
 import uk.ac.ebi.reactionblast.fingerprints.interfaces.IPatternFingerprinter;
 import uk.ac.ebi.reactionblast.mechanism.helper.AtomAtomMappingContainer;
+import uk.ac.ebi.reactionblast.mechanism.helper.AtomSignatureContext;
 import uk.ac.ebi.reactionblast.mechanism.helper.AtomStereoChangeInformation;
 import uk.ac.ebi.reactionblast.mechanism.helper.BondChange;
 import uk.ac.ebi.reactionblast.mechanism.helper.MoleculeMoleculePair;
@@ -784,20 +784,15 @@ public class BondChangeCalculator extends AbstractChangeCalculator implements IC
     }
 
     private static void KekulizeReaction(IReaction r) throws CDKException {
-        ElectronDonation model = ElectronDonation.daylight();
 //        CycleFinder cycles = Cycles.or(Cycles.all(), Cycles.all(6));
 //        Aromaticity aromaticity = new Aromaticity(model, cycles);
 
-        Aromaticity aromaticity = new Aromaticity(model,
-                Cycles.or(Cycles.all(),
-                        Cycles.or(Cycles.relevant(),
-                                Cycles.essential())));
         // apply our configured model to each molecule
         for (IAtomContainer molecule : r.getReactants().atomContainers()) {
-            aromaticity.apply(molecule);
+            aromatizeDayLightAllCycles(molecule);
         }
         for (IAtomContainer molecule : r.getProducts().atomContainers()) {
-            aromaticity.apply(molecule);
+            aromatizeDayLightAllCycles(molecule);
         }
     }
 
@@ -1007,6 +1002,20 @@ public class BondChangeCalculator extends AbstractChangeCalculator implements IC
         return uniqueRPAIRS;
     }
 
+    /*
+     * One signature context per molecule, shared by its reaction centre atoms
+     */
+    private static AtomSignatureContext getSignatureContext(
+            Map<IAtomContainer, AtomSignatureContext> signatureContexts,
+            IAtomContainer mol) throws CloneNotSupportedException {
+        AtomSignatureContext context = signatureContexts.get(mol);
+        if (context == null) {
+            context = new AtomSignatureContext(mol);
+            signatureContexts.put(mol, context);
+        }
+        return context;
+    }
+
     private int chipTheBondCountSmallestFragmentSize(IAtomContainer cloneContainer, int chippedBondIndex) {
         int size = cloneContainer.getAtomCount();
         cloneContainer.removeBond(chippedBondIndex);
@@ -1433,6 +1442,7 @@ public class BondChangeCalculator extends AbstractChangeCalculator implements IC
             /*
          * Assign Reaction Center Fingerprints
              */
+            Map<IAtomContainer, AtomSignatureContext> signatureContexts = new IdentityHashMap<>();
             for (Map.Entry<IAtom, IAtom> mapRC : reactionCenterMap.entrySet()) {
 
                 IAtom sourceAtom = mapRC.getKey();
@@ -1463,7 +1473,10 @@ public class BondChangeCalculator extends AbstractChangeCalculator implements IC
                         level.append(circularSMILESSource).append(">>").append(circularSMILESSink);
                         reactionCenterWFingerprint.add(new Feature(level.toString(), 1.0));
                     }
-                    MoleculeMoleculePair molMolPair = getMolMolPair(sourceAtom, sinkAtom, relevantAtomContainer1, relevantAtomContainer2);
+                    MoleculeMoleculePair molMolPair = getMolMolPair(sourceAtom, sinkAtom,
+                            relevantAtomContainer1, relevantAtomContainer2,
+                            getSignatureContext(signatureContexts, relevantAtomContainer1),
+                            getSignatureContext(signatureContexts, relevantAtomContainer2));
                     this.reactionMoleculeMoleculePairList.add(molMolPair);
                 }
             }
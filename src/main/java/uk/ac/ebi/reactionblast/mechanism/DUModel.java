@@ -185,7 +185,7 @@ abstract class DUModel extends StereoCenteralityTool implements IChangeCalculato
         }
         Map<IAtom, IStereoAndConformation> chiralityCDK2D = new HashMap<>();
         try {
-            chiralityCDK2D = getChirality2D(reaction);
+            chiralityCDK2D = getChirality2D(reaction, generate2DCoordinates);
         } catch (CDKException | CloneNotSupportedException ex) {
             throw new Exception("WARNING: 2D CDK based stereo perception failed", ex);
         }
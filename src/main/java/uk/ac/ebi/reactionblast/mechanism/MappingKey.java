@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mechanism;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IAtomContainerSet;
+import org.openscience.cdk.interfaces.IMapping;
+import org.openscience.cdk.interfaces.IReaction;
+
+/**
+ * Order independent key of the reactant to product atom pairs of a mapped
+ * reaction. Each algorithm works on its own copy of the reaction, with atoms
+ * re-labelled, so atoms are identified by the rank they were given on their
+ * side of the input reaction ("OLD_RANK") and by the molecule they sit in.
+ * Hydrogens without a rank are identified by their heavy atom neighbour, as
+ * the hydrogens of one atom are interchangeable. Two solutions with the same
+ * key make the same bond changes.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+final class MappingKey {
+
+    private static final String OLD_RANK = "OLD_RANK";
+    private static final int RANK_BITS = 20;
+    private static final int HYDROGEN_FLAG = 1 << RANK_BITS;
+    private static final int MAX_MOLECULES = 1 << 10;
+
+    private final long[] pairs;
+    private final int hash;
+
+    private MappingKey(long[] pairs) {
+        this.pairs = pairs;
+        this.hash = Arrays.hashCode(pairs);
+    }
+
+    /**
+     * @param reaction mapped reaction
+     * @return the key or null if an atom can't be identified
+     */
+    static MappingKey of(IReaction reaction) {
+        Map<IAtom, Integer> reactantCodes = encode(reaction.getReactants());
+        Map<IAtom, Integer> productCodes = encode(reaction.getProducts());
+        if (reactantCodes == null || productCodes == null) {
+            return null;
+        }
+        long[] pairs = new long[reaction.getMappingCount()];
+        int n = 0;
+        for (IMapping mapping : reaction.mappings()) {
+            Integer r = reactantCodes.get(mapping.getChemObject(0));
+            Integer p = productCodes.get(mapping.getChemObject(1));
+            if (r == null || p == null) {
+                return null;
+            }
+            pairs[n++] = ((long) r << 32) | (p & 0xFFFFFFFFL);
+        }
+        long[] sorted = n == pairs.length ? pairs : Arrays.copyOf(pairs, n);
+        Arrays.sort(sorted);
+        return new MappingKey(sorted);
+    }
+
+    private static Map<IAtom, Integer> encode(IAtomContainerSet molecules) {
+        if (molecules.getAtomContainerCount() >= MAX_MOLECULES) {
+            return null;
+        }
+        Map<IAtom, Integer> codes = new IdentityHashMap<>();
+        for (int i = 0; i < molecules.getAtomContainerCount(); i++) {
+            IAtomContainer molecule = molecules.getAtomContainer(i);
+            int prefix = i << (RANK_BITS + 1);
+            for (IAtom atom : molecule.atoms()) {
+                int rank = rank(atom);
+                if (rank >= 0) {
+                    codes.put(atom, prefix | rank);
+                    continue;
+                }
+                if (!"H".equals(atom.getSymbol())) {
+                    return null;
+                }
+                int neighbour = 0;
+                for (IAtom a : molecule.getConnectedAtomsList(atom)) {
+                    neighbour = Math.max(rank(a), 0);
+                    break;
+                }
+                codes.put(atom, prefix | HYDROGEN_FLAG | neighbour);
+            }
+        }
+        return codes;
+    }
+
+    /*
+     * One based rank of the atom, -1 if not ranked
+     */
+    private static int rank(IAtom atom) {
+        Object rank = atom.getProperty(OLD_RANK);
+        if (!(rank instanceof Integer)) {
+            return -1;
+        }
+        int r = (Integer) rank + 1;
+        return r > 0 && r < HYDROGEN_FLAG ? r : -1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MappingKey)) {
+            return false;
+        }
+        MappingKey other = (MappingKey) obj;
+        return hash == other.hash && Arrays.equals(pairs, other.pairs);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
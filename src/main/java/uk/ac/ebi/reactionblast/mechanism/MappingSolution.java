@@ -192,9 +192,10 @@ public class MappingSolution implements Serializable {
     }
 
     /**
-     * @return the generate3D
+     * @return true if 3D coordinates were asked for (recorded only, no 3D
+     * coordinates are built)
      */
-    boolean isGenerate3D() {
+    public boolean isGenerate3D() {
         return generate3D;
     }
 
@@ -206,9 +207,10 @@ public class MappingSolution implements Serializable {
     }
 
     /**
-     * @return the generate2D
+     * @return true if 2D coordinates were asked for, the molecules of the
+     * selected solution are then laid out
      */
-    boolean isGenerate2D() {
+    public boolean isGenerate2D() {
         return generate2D;
     }
 
@@ -20,18 +20,27 @@ package uk.ac.ebi.reactionblast.mechanism;
 
 import java.io.Serializable;
 import static java.lang.Integer.MIN_VALUE;
+import static java.lang.Runtime.getRuntime;
 import static java.lang.System.gc;
 import static java.lang.System.out;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import static java.util.Collections.unmodifiableCollection;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import java.util.concurrent.Future;
 import static java.util.logging.Level.SEVERE;
 import static org.openscience.cdk.CDKConstants.ATOM_ATOM_MAPPING;
 import static org.openscience.cdk.CDKConstants.MAPPED;
 import org.openscience.cdk.exception.CDKException;
+import static org.openscience.cdk.geometry.GeometryUtil.has2DCoordinates;
 import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IAtomContainerSet;
@@ -41,6 +50,7 @@ import static org.openscience.cdk.interfaces.IBond.Order.SINGLE;
 import static org.openscience.cdk.interfaces.IBond.Order.TRIPLE;
 import org.openscience.cdk.interfaces.IMapping;
 import org.openscience.cdk.interfaces.IReaction;
+import org.openscience.cdk.layout.StructureDiagramGenerator;
 import org.openscience.cdk.smiles.SmilesGenerator;
 import static org.openscience.cdk.smiles.SmilesGenerator.generic;
 import org.openscience.cdk.tools.ILoggingTool;
@@ -159,8 +169,13 @@ public class ReactionMechanismTool implements Serializable {
                         map.getChemObject(1).setFlag(MAPPED, true);
                     }
                 }
-                boolean selected = isMappingSolutionAcceptable(null, USER_DEFINED, reaction, generate2D, generate3D);
-                LOGGER.info("is solution: " + USER_DEFINED + " selected: " + selected);
+                MappingSolution mappingSolution = annotate(reaction)
+                        .toMappingSolution(USER_DEFINED, null, 0);
+                mappingSolution.setChosen(true);
+                generateCoordinates(mappingSolution, generate2D, generate3D);
+                this.selectedMapping = mappingSolution;
+                this.allSolutions.add(mappingSolution);
+                LOGGER.info("is solution: " + USER_DEFINED + " selected: " + true);
             } catch (Exception e) {
                 throw new CDKException(NEW_LINE + "ERROR: Unable to calculate bond changes: " + e.getMessage());
             }
@@ -182,43 +197,7 @@ public class ReactionMechanismTool implements Serializable {
                 if (DEBUG) {
                     System.out.println("!!!!Calculating Best Mapping Model!!!!");
                 }
-                boolean selected;
-                for (IMappingAlgorithm algorithm : solutions.keySet()) {
-
-                    Reactor reactor = solutions.get(algorithm);
-
-                    if (reactor == null) {
-                        System.out.println("Reactor is NULL");
-                        return;
-                    }
-
-                    if (DEBUG) {
-
-                        SmilesGenerator withAtomClasses = new SmilesGenerator(
-                                SmiFlavor.Unique
-                                | SmiFlavor.Stereo
-                                | SmiFlavor.AtomAtomMap);
-                        out.println("reaction mapped " + withAtomClasses.create(reactor.getReactionWithAtomAtomMapping()));
-                    }
-
-                    int atomCountR = getNonHydrogenMappingAtomCount(reactor.getReactionWithAtomAtomMapping().getReactants());
-                    int atomCountP = getNonHydrogenMappingAtomCount(reactor.getReactionWithAtomAtomMapping().getProducts());
-
-                    if (atomCountR != atomCountP) {
-                        //LOGGER.warn("ERROR in Mapping - Unmapped atoms present in the reaction: "
-                        //        + NEW_LINE + reactor.toString());
-                        LOGGER.warn("Unmapped atoms present in this reaction" + "(" + algorithm + ") algorithm.");
-//                        throw new AssertionError(newline + "Unmapped atoms present in the reaction mapped by AAM "
-//                                + "(" + algorithm + ") algorithm." + newline);
-                    }
-                    if (DEBUG) {
-                        System.out.println("===isMappingSolutionAcceptable===");
-                    }
-                    selected = isMappingSolutionAcceptable(solutions.get(algorithm), algorithm, reactor.getReactionWithAtomAtomMapping(), generate2D, generate3D);
-                    if (DEBUG) {
-                        System.out.println("is solution: " + algorithm + " selected: " + selected);
-                    }
-                }
+                selectMappingSolution(solutions, generate2D, generate3D);
                 gc();
             } catch (Exception e) {
                 throw new Exception(NEW_LINE + "ERROR: Unable to calculate bond changes: " + e);
@@ -304,102 +283,185 @@ public class ReactionMechanismTool implements Serializable {
         return atomUniqueCounter1.keySet().equals(atomUniqueCounter2.keySet());
     }
 
-    private synchronized boolean isMappingSolutionAcceptable(Reactor reactor,
-            IMappingAlgorithm ma,
-            IReaction reaction,
+    /*
+     * Annotate the distinct mapping solutions in parallel, then pick the
+     * winner by folding the feasibility rules over them in algorithm order.
+     * Candidates are scored on their topology and the stereo of the input
+     * coordinates, no layout is made for them; only the selected solution is
+     * laid out.
+     */
+    private void selectMappingSolution(Map<IMappingAlgorithm, Reactor> solutions,
             boolean generate2D,
             boolean generate3D) throws Exception {
-
-        boolean chosen = false;
+        Map<IMappingAlgorithm, Future<BondChangeSummary>> annotations = new LinkedHashMap<>();
+        Map<MappingKey, Future<BondChangeSummary>> distinctMappings = new HashMap<>();
+        ExecutorService executor = newAnnotationExecutor(solutions.size());
         try {
-            BondChangeCalculator bcc;
-            int fragmentDeltaChanges;
-            if (reactor == null && ma.equals(USER_DEFINED)) {
-                bcc = new BondChangeCalculator(reaction);
-                bcc.computeBondChanges(generate2D, generate3D);
-                fragmentDeltaChanges = 0;
-                int bondChange = (int) getTotalBondChange(bcc.getFormedCleavedWFingerprint());
-                bondChange += getTotalBondChange(bcc.getOrderChangesWFingerprint());
-                int stereoChanges = (int) getTotalBondChange(bcc.getStereoChangesWFingerprint());
-                boolean skipHydrogenRealtedBondChanges = true;
-                int bondBreakingEnergy = getTotalBondChangeEnergy(bcc.getFormedCleavedWFingerprint(), skipHydrogenRealtedBondChanges);
-                int totalSmallestFragmentCount = bcc.getTotalSmallestFragmentSize();
-                int totalCarbonBondChanges = getTotalCarbonBondChange(bcc.getFormedCleavedWFingerprint());
-                int localScore = bondChange + fragmentDeltaChanges;
-                MappingSolution mappingSolution = new MappingSolution(
-                        bcc,
-                        ma,
-                        bcc.getReaction(),
-                        reactor,
-                        bondBreakingEnergy,
-                        totalCarbonBondChanges,
-                        bondChange,
-                        fragmentDeltaChanges,
-                        stereoChanges,
-                        totalSmallestFragmentCount,
-                        localScore,
-                        bcc.getEnergyDelta());
-
-                chosen = true;
-                mappingSolution.setChosen(chosen);
-                this.selectedMapping = mappingSolution;
-                this.allSolutions.add(mappingSolution);
-            } else {
+            for (IMappingAlgorithm algorithm : solutions.keySet()) {
+                Reactor reactor = solutions.get(algorithm);
                 if (reactor == null) {
-                    throw new CDKException("Reactor is NULL");
+                    /*
+                     * The selection stops here, see foldMappingSolutions
+                     */
+                    break;
                 }
+                IReaction mappedReaction = reactor.getReactionWithAtomAtomMapping();
 
-                bcc = new BondChangeCalculator(reactor.getReactionWithAtomAtomMapping());
-                bcc.computeBondChanges(generate2D, generate3D);
-                fragmentDeltaChanges = reactor.getDelta();
-
-                int bondCleavedFormed = (int) getTotalBondChange(bcc.getFormedCleavedWFingerprint());
-                int bondChange = bondCleavedFormed;
-                bondChange += getTotalBondChange(bcc.getOrderChangesWFingerprint());
-                int stereoChanges = (int) getTotalBondChange(bcc.getStereoChangesWFingerprint());
-                boolean skipHydrogenRealtedBondChanges = true;
-                int bondBreakingEnergy = getTotalBondChangeEnergy(bcc.getFormedCleavedWFingerprint(), skipHydrogenRealtedBondChanges);
-                int totalSmallestFragmentCount = bcc.getTotalSmallestFragmentSize();
-                int totalCarbonBondChanges = getTotalCarbonBondChange(bcc.getFormedCleavedWFingerprint());
-
-                LOGGER.info(
-                        "Score: " + fragmentDeltaChanges + " : " + bondChange);
-                LOGGER.info(
-                        ", Energy Barrier: " + bondBreakingEnergy);
-                LOGGER.info(
-                        ", Energy Delta: " + bcc.getEnergyDelta());
-
-                int localScore = bondChange + fragmentDeltaChanges;
-                bcc.getReaction().setFlag(MAPPED, true);
-
-                MappingSolution mappingSolution = new MappingSolution(
-                        bcc,
-                        ma,
-                        bcc.getReaction(),
-                        reactor,
-                        bondBreakingEnergy,
-                        totalCarbonBondChanges,
-                        bondChange,
-                        fragmentDeltaChanges,
-                        stereoChanges,
-                        totalSmallestFragmentCount,
-                        localScore,
-                        bcc.getEnergyDelta());
-
-                if (ma == null) {
-                    throw new CDKException("Model is pointing to NULL");
+                if (DEBUG) {
+                    SmilesGenerator withAtomClasses = new SmilesGenerator(
+                            SmiFlavor.Unique
+                            | SmiFlavor.Stereo
+                            | SmiFlavor.AtomAtomMap);
+                    out.println("reaction mapped " + withAtomClasses.create(mappedReaction));
                 }
-                LOGGER.info("MA: " + ma.description());
-                if (isChangeFeasible(mappingSolution)) {
-                    chosen = true;
-                    mappingSolution.setChosen(chosen);
-                    this.selectedMapping = mappingSolution;
+
+                int atomCountR = getNonHydrogenMappingAtomCount(mappedReaction.getReactants());
+                int atomCountP = getNonHydrogenMappingAtomCount(mappedReaction.getProducts());
+
+                if (atomCountR != atomCountP) {
+                    LOGGER.warn("Unmapped atoms present in this reaction" + "(" + algorithm + ") algorithm.");
+                }
+
+                /*
+                 * Algorithms often agree on the mapping, annotate it only once
+                 */
+                MappingKey key = MappingKey.of(mappedReaction);
+                Future<BondChangeSummary> annotation = key == null ? null : distinctMappings.get(key);
+                if (annotation == null) {
+                    annotation = executor.submit(() -> annotate(mappedReaction));
+                    if (key != null) {
+                        distinctMappings.put(key, annotation);
+                    }
+                } else {
+                    LOGGER.info("Mapping of " + algorithm.description()
+                            + " is identical to an earlier solution, reusing its bond changes");
+                }
+                annotations.put(algorithm, annotation);
+            }
+            foldMappingSolutions(solutions, annotations);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (selectedMapping != null) {
+            generateCoordinates(selectedMapping, generate2D, generate3D);
+        }
+    }
+
+    /*
+     * Apply the feasibility rules to the annotated solutions in algorithm
+     * order. A missing solution ends the selection, the solutions before it
+     * are kept.
+     */
+    private void foldMappingSolutions(Map<IMappingAlgorithm, Reactor> solutions,
+            Map<IMappingAlgorithm, Future<BondChangeSummary>> annotations) throws Exception {
+        for (IMappingAlgorithm algorithm : solutions.keySet()) {
+            Reactor reactor = solutions.get(algorithm);
+            if (reactor == null) {
+                LOGGER.error("Reactor is NULL for " + algorithm.description());
+                return;
+            }
+            BondChangeSummary summary;
+            try {
+                summary = annotations.get(algorithm).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            int fragmentDeltaChanges = reactor.getDelta();
+            LOGGER.info(
+                    "Score: " + fragmentDeltaChanges + " : " + summary.bondChanges);
+            LOGGER.info(
+                    ", Energy Barrier: " + summary.bondBreakingEnergy);
+            LOGGER.info(
+                    ", Energy Delta: " + summary.bcc.getEnergyDelta());
+            summary.bcc.getReaction().setFlag(MAPPED, true);
+            boolean selected = isMappingSolutionAcceptable(
+                    summary.toMappingSolution(algorithm, reactor, fragmentDeltaChanges));
+            if (DEBUG) {
+                System.out.println("is solution: " + algorithm + " selected: " + selected);
+            }
+        }
+    }
+
+    /*
+     * Record the coordinate flags on the selected solution and lay out, in
+     * place, its molecules without 2D coordinates. No 3D model builder is run,
+     * 3D is only recorded.
+     */
+    private void generateCoordinates(MappingSolution solution,
+            boolean generate2D,
+            boolean generate3D) {
+        solution.setGenerate2D(generate2D);
+        solution.setGenerate3D(generate3D);
+        if (!generate2D) {
+            return;
+        }
+        StructureDiagramGenerator sdg = new StructureDiagramGenerator();
+        IReaction reaction = solution.getReaction();
+        for (IAtomContainerSet molecules : new IAtomContainerSet[]{reaction.getReactants(), reaction.getProducts()}) {
+            for (IAtomContainer ac : molecules.atomContainers()) {
+                if (ac.getAtomCount() == 0 || has2DCoordinates(ac)) {
+                    continue;
+                }
+                try {
+                    sdg.generateCoordinates(ac);
+                } catch (CDKException | RuntimeException e) {
+                    LOGGER.warn("WARNING: 2D layout failed for " + ac.getID() + " " + e.getMessage());
                 }
-                this.allSolutions.add(mappingSolution);
             }
-        } catch (Exception e) {
-            throw new Exception(NEW_LINE + "ERROR: Unable to calculate bond changes: " + e.getMessage());
         }
+    }
+
+    private static ExecutorService newAnnotationExecutor(int jobs) {
+        if (DEBUG) {
+            return newSingleThreadExecutor();
+        }
+        int threadsAvailable = getRuntime().availableProcessors() - 1;
+        if (threadsAvailable > 4) {
+            threadsAvailable = 4;
+        }
+        if (threadsAvailable > jobs) {
+            threadsAvailable = jobs;
+        }
+        if (threadsAvailable < 1) {
+            threadsAvailable = 1;
+        }
+        return newFixedThreadPool(threadsAvailable);
+    }
+
+    /*
+     * Bond changes of a mapped reaction, independent of the other solutions
+     */
+    private BondChangeSummary annotate(IReaction mappedReaction) throws Exception {
+        BondChangeCalculator bcc = new BondChangeCalculator(mappedReaction);
+        bcc.computeBondChanges(false, false);
+
+        int bondChange = (int) getTotalBondChange(bcc.getFormedCleavedWFingerprint());
+        bondChange += getTotalBondChange(bcc.getOrderChangesWFingerprint());
+        int stereoChanges = (int) getTotalBondChange(bcc.getStereoChangesWFingerprint());
+        boolean skipHydrogenRealtedBondChanges = true;
+        int bondBreakingEnergy = getTotalBondChangeEnergy(bcc.getFormedCleavedWFingerprint(), skipHydrogenRealtedBondChanges);
+        int totalSmallestFragmentCount = bcc.getTotalSmallestFragmentSize();
+        int totalCarbonBondChanges = getTotalCarbonBondChange(bcc.getFormedCleavedWFingerprint());
+        return new BondChangeSummary(bcc, bondChange, stereoChanges, bondBreakingEnergy,
+                totalSmallestFragmentCount, totalCarbonBondChanges);
+    }
+
+    private synchronized boolean isMappingSolutionAcceptable(MappingSolution mappingSolution) throws CDKException {
+        IMappingAlgorithm ma = mappingSolution.getAlgorithmID();
+        if (ma == null) {
+            throw new CDKException("Model is pointing to NULL");
+        }
+        if (mappingSolution.getReactor() == null) {
+            throw new CDKException("Reactor is NULL");
+        }
+        boolean chosen = false;
+        LOGGER.info("MA: " + ma.description());
+        if (isChangeFeasible(mappingSolution)) {
+            chosen = true;
+            mappingSolution.setChosen(chosen);
+            this.selectedMapping = mappingSolution;
+        }
+        this.allSolutions.add(mappingSolution);
         return chosen;
     }
 
@@ -593,13 +655,13 @@ public class ReactionMechanismTool implements Serializable {
         return false;
     }
 
-    private synchronized double getTotalBondChange(IPatternFingerprinter fingerprint) throws CDKException {
+    private double getTotalBondChange(IPatternFingerprinter fingerprint) throws CDKException {
         double total = 0;
         total = fingerprint.getFeatures().stream().map((key) -> key.getWeight()).filter((val) -> (val > 0.)).map((val) -> val).reduce(total, (accumulator, _item) -> accumulator + _item); //&& !key.contains("H")
         return total;
     }
 
-    private synchronized int getTotalCarbonBondChange(IPatternFingerprinter fingerprint) throws CDKException {
+    private int getTotalCarbonBondChange(IPatternFingerprinter fingerprint) throws CDKException {
         double total = 0;
         total = fingerprint.getFeatures().stream().filter((key) -> (key.getPattern().contains("C-C")
                 || key.getPattern().contains("C=C")
@@ -609,7 +671,7 @@ public class ReactionMechanismTool implements Serializable {
         return (int) total;
     }
 
-    private synchronized int getTotalBondChangeEnergy(IPatternFingerprinter fingerprint, boolean skipHydrogen) {
+    private int getTotalBondChangeEnergy(IPatternFingerprinter fingerprint, boolean skipHydrogen) {
         int total = 0;
         try {
             BondEnergies be = getInstance();
@@ -718,4 +780,41 @@ public class ReactionMechanismTool implements Serializable {
         }
         return count;
     }
+
+    private static final class BondChangeSummary {
+
+        private final BondChangeCalculator bcc;
+        private final int bondChanges;
+        private final int stereoChanges;
+        private final int bondBreakingEnergy;
+        private final int smallestFragmentCount;
+        private final int carbonBondChanges;
+
+        BondChangeSummary(BondChangeCalculator bcc, int bondChanges, int stereoChanges,
+                int bondBreakingEnergy, int smallestFragmentCount, int carbonBondChanges) {
+            this.bcc = bcc;
+            this.bondChanges = bondChanges;
+            this.stereoChanges = stereoChanges;
+            this.bondBreakingEnergy = bondBreakingEnergy;
+            this.smallestFragmentCount = smallestFragmentCount;
+            this.carbonBondChanges = carbonBondChanges;
+        }
+
+        MappingSolution toMappingSolution(IMappingAlgorithm ma, Reactor reactor, int fragmentDeltaChanges) throws Exception {
+            int localScore = bondChanges + fragmentDeltaChanges;
+            return new MappingSolution(
+                    bcc,
+                    ma,
+                    bcc.getReaction(),
+                    reactor,
+                    bondBreakingEnergy,
+                    carbonBondChanges,
+                    bondChanges,
+                    fragmentDeltaChanges,
+                    stereoChanges,
+                    smallestFragmentCount,
+                    localScore,
+                    bcc.getEnergyDelta());
+        }
+    }
 }
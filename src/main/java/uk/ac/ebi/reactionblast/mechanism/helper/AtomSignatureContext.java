@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mechanism.helper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Locale.ROOT;
+import org.openscience.cdk.graph.GraphUtil;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import static org.openscience.smsd.tools.ExtAtomContainerManipulator.removeHydrogensExceptSingleAndPreserveAtomID;
+import uk.ac.ebi.reactionblast.signature.RBlastMoleculeSignature;
+
+/**
+ * Atom signatures of one molecule. The hydrogens are stripped and the
+ * molecule signature is set up once, and every reaction centre atom of the
+ * molecule shares it. A breadth-first walk from the atom gives its
+ * eccentricity, heights beyond it yield the full height signature, which is
+ * generated only once per atom. Not thread safe.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class AtomSignatureContext {
+
+    private static final int MAXIMUM_HEIGHT = -1;
+
+    private final RBlastMoleculeSignature moleculeSignature;
+    private final Map<String, Integer> atomIndexByID;
+    private final int[][] adjacency;
+    private final Map<Long, String> signatures;
+
+    /**
+     *
+     * @param mol molecule (with hydrogens)
+     * @throws CloneNotSupportedException
+     */
+    public AtomSignatureContext(IAtomContainer mol) throws CloneNotSupportedException {
+        IAtomContainer molWithoutH = removeHydrogensExceptSingleAndPreserveAtomID(mol);
+        this.moleculeSignature = new RBlastMoleculeSignature(molWithoutH);
+        this.moleculeSignature.setUseCharge(true);
+        this.moleculeSignature.setBondSensitive(true);
+        this.moleculeSignature.setUseAromatics(true);
+        this.adjacency = GraphUtil.toAdjList(molWithoutH);
+        this.atomIndexByID = new HashMap<>();
+        for (int i = 0; i < molWithoutH.getAtomCount(); i++) {
+            String id = molWithoutH.getAtom(i).getID();
+            if (id != null) {
+                atomIndexByID.putIfAbsent(id.toUpperCase(ROOT), i);
+            }
+        }
+        this.signatures = new HashMap<>();
+    }
+
+    /**
+     * Return signature of height h, -1 for the full height
+     *
+     * @param atom atom matched by ID
+     * @param height
+     * @return canonical signature or empty string if the atom is not found
+     */
+    public String getSignature(IAtom atom, int height) {
+        int atomIndex = getAtomIndex(atom);
+        if (atomIndex < 0) {
+            return "";
+        }
+        return getSignature(atomIndex, height, eccentricity(atomIndex));
+    }
+
+    /**
+     * Return signatures of the atom for each of the heights
+     *
+     * @param atom atom matched by ID
+     * @param heights heights, -1 for the full height
+     * @return canonical signatures in the order of the heights
+     */
+    public String[] getSignatures(IAtom atom, int... heights) {
+        String[] result = new String[heights.length];
+        int atomIndex = getAtomIndex(atom);
+        if (atomIndex < 0) {
+            Arrays.fill(result, "");
+            return result;
+        }
+        int eccentricity = eccentricity(atomIndex);
+        for (int i = 0; i < heights.length; i++) {
+            result[i] = getSignature(atomIndex, heights[i], eccentricity);
+        }
+        return result;
+    }
+
+    private String getSignature(int atomIndex, int height, int eccentricity) {
+        /*
+         * Nothing is left to expand beyond the eccentricity
+         */
+        int effectiveHeight = height < 0 || height > eccentricity ? MAXIMUM_HEIGHT : height;
+        long key = ((long) atomIndex << 32) | (effectiveHeight & 0xFFFFFFFFL);
+        String signature = signatures.get(key);
+        if (signature == null) {
+            signature = moleculeSignature.getAtomSignature(atomIndex, effectiveHeight).toCanonicalString();
+            signatures.put(key, signature);
+        }
+        return signature;
+    }
+
+    private int getAtomIndex(IAtom atom) {
+        if (atom.getID() == null) {
+            return -1;
+        }
+        Integer index = atomIndexByID.get(atom.getID().toUpperCase(ROOT));
+        return index == null ? -1 : index;
+    }
+
+    private int eccentricity(int atomIndex) {
+        int[] distance = new int[adjacency.length];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[adjacency.length];
+        int head = 0;
+        int tail = 0;
+        distance[atomIndex] = 0;
+        queue[tail++] = atomIndex;
+        int eccentricity = 0;
+        while (head < tail) {
+            int v = queue[head++];
+            eccentricity = distance[v];
+            for (int w : adjacency[v]) {
+                if (distance[w] < 0) {
+                    distance[w] = distance[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return eccentricity;
+    }
+}
@@ -22,11 +22,10 @@ import java.io.Serializable;
 import static java.util.logging.Level.SEVERE;
 
 import org.openscience.cdk.exception.CDKException;
-import org.openscience.cdk.exception.InvalidSmilesException;
 import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.isomorphism.matchers.IQueryAtomContainer;
 import org.openscience.cdk.silent.SilentChemObjectBuilder;
 import org.openscience.cdk.smiles.SmilesParser;
-import static org.openscience.cdk.smiles.smarts.parser.SMARTSParser.parse;
 import org.openscience.cdk.tools.ILoggingTool;
 import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
@@ -51,9 +50,14 @@ class CountSubstructures extends MoleculeInitializer implements Serializable {
     private static final long serialVersionUID = 12343289751445148L;
     private SmilesParser sp;
     private IAtomContainer mol;
+    private final AtomMatcher atomMatcher;
+    private final BondMatcher bondMatcher;
+    private int[] elementCounts;
 
     CountSubstructures(IAtomContainer atomContainer) throws CloneNotSupportedException {
         sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        atomMatcher = AtomBondMatcher.atomMatcher(false, false);
+        bondMatcher = AtomBondMatcher.bondMatcher(false, false);
         try {
             this.mol = null;
             mol = removeHydrogensExceptSingleAndPreserveAtomID(atomContainer);
@@ -64,16 +68,27 @@ class CountSubstructures extends MoleculeInitializer implements Serializable {
     }
 
     public int substructureSize(String smiles) throws CDKException {
-        AtomMatcher atomMatcher = AtomBondMatcher.atomMatcher(false, false);
-        BondMatcher bondMatcher = AtomBondMatcher.bondMatcher(false, false);
+        return substructureSize(SubstructurePattern.compile(smiles, sp));
+    }
 
-        try {
-            IAtomContainer parseSmiles = sp.parseSmiles(smiles);
-            VF2 vf = new VF2(parseSmiles, mol, atomMatcher, bondMatcher);
-            return vf.isSubgraph() ? vf.getFirstAtomMapping().getCount() : 0;
-        } catch (InvalidSmilesException ex) {
-            VF2 vf = new VF2(parse(smiles, mol.getBuilder()), mol);
-            return vf.isSubgraph() ? vf.getFirstAtomMapping().getCount() : 0;
+    /**
+     * Size of the first match of a compiled pattern, patterns which can't fit
+     * into the molecule by their atom, bond and element counts are not
+     * searched.
+     *
+     * @param pattern
+     * @return matched atom count, 0 if not a substructure
+     */
+    int substructureSize(SubstructurePattern pattern) {
+        if (elementCounts == null) {
+            elementCounts = SubstructurePattern.elementCounts(mol);
+        }
+        if (!pattern.fits(mol.getAtomCount(), mol.getBondCount(), elementCounts)) {
+            return 0;
         }
+        VF2 vf = pattern.isQuery()
+                ? new VF2((IQueryAtomContainer) pattern.getQuery(), mol)
+                : new VF2(pattern.getQuery(), mol, atomMatcher, bondMatcher);
+        return vf.isSubgraph() ? vf.getFirstAtomMapping().getCount() : 0;
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mechanism.helper;
+
+import org.openscience.cdk.exception.CDKException;
+import org.openscience.cdk.exception.InvalidSmilesException;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.isomorphism.matchers.IQueryAtomContainer;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import org.openscience.cdk.smiles.SmilesParser;
+import static org.openscience.cdk.smiles.smarts.parser.SMARTSParser.parse;
+
+/**
+ * A reaction centre pattern parsed once (SMILES, else SMARTS) together with
+ * the bounds a molecule has to meet to contain it: atom and bond counts and,
+ * for SMILES patterns, the count of each element.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+final class SubstructurePattern {
+
+    private static final int ELEMENTS = 119;
+
+    private final String pattern;
+    private final IAtomContainer query;
+    private final int[] elementCounts;
+
+    private SubstructurePattern(String pattern, IAtomContainer query, int[] elementCounts) {
+        this.pattern = pattern;
+        this.query = query;
+        this.elementCounts = elementCounts;
+    }
+
+    /**
+     *
+     * @param pattern SMILES or SMARTS
+     * @param sp
+     * @return compiled pattern
+     * @throws CDKException if the pattern is neither SMILES nor SMARTS
+     */
+    static SubstructurePattern compile(String pattern, SmilesParser sp) throws CDKException {
+        try {
+            IAtomContainer query = sp.parseSmiles(pattern);
+            return new SubstructurePattern(pattern, query, elementCounts(query));
+        } catch (InvalidSmilesException ex) {
+            IQueryAtomContainer query = parse(pattern, SilentChemObjectBuilder.getInstance());
+            return new SubstructurePattern(pattern, query, null);
+        }
+    }
+
+    /**
+     * @param molecule
+     * @return count of the atoms by atomic number, unset and pseudo atoms are
+     * counted as 0
+     */
+    static int[] elementCounts(IAtomContainer molecule) {
+        int[] counts = new int[ELEMENTS];
+        for (IAtom atom : molecule.atoms()) {
+            Integer element = atom.getAtomicNumber();
+            counts[element == null || element < 0 || element >= ELEMENTS ? 0 : element]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @param atomCount
+     * @param bondCount
+     * @param moleculeElementCounts
+     * @return false if a molecule with these counts can't contain the pattern
+     */
+    boolean fits(int atomCount, int bondCount, int[] moleculeElementCounts) {
+        if (query.getAtomCount() > atomCount || query.getBondCount() > bondCount) {
+            return false;
+        }
+        if (elementCounts != null) {
+            for (int i = 0; i < ELEMENTS; i++) {
+                if (elementCounts[i] > moleculeElementCounts[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the pattern string
+     */
+    String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return parsed pattern, an IQueryAtomContainer for SMARTS
+     */
+    IAtomContainer getQuery() {
+        return query;
+    }
+
+    /**
+     * @return true if the pattern was parsed as SMARTS
+     */
+    boolean isQuery() {
+        return query instanceof IQueryAtomContainer;
+    }
+}
@@ -50,6 +50,8 @@ import static org.openscience.cdk.interfaces.IBond.Order.TRIPLE;
 import org.openscience.cdk.interfaces.IReaction;
 import org.openscience.cdk.interfaces.IRingSet;
 import org.openscience.cdk.silent.RingSet;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import org.openscience.cdk.smiles.SmilesParser;
 import static org.openscience.cdk.smiles.SmilesGenerator.unique;
 import org.openscience.cdk.tools.ILoggingTool;
 import org.openscience.cdk.tools.LoggingToolFactory;
@@ -59,10 +61,8 @@ import uk.ac.ebi.reactionblast.fingerprints.Feature;
 import uk.ac.ebi.reactionblast.fingerprints.PatternFingerprinter;
 import uk.ac.ebi.reactionblast.fingerprints.interfaces.IPatternFingerprinter;
 import uk.ac.ebi.reactionblast.mechanism.interfaces.EnumSubstrateProduct;
-import uk.ac.ebi.reactionblast.signature.RBlastMoleculeSignature;
 import static org.openscience.smsd.tools.ExtAtomContainerManipulator.aromatizeDayLight;
 import static org.openscience.smsd.tools.ExtAtomContainerManipulator.cloneWithIDs;
-import static org.openscience.smsd.tools.ExtAtomContainerManipulator.removeHydrogensExceptSingleAndPreserveAtomID;
 
 /**
  *
@@ -236,17 +236,7 @@ public abstract class Utility extends MatrixPrinter implements Serializable {
      * @throws CloneNotSupportedException
      */
     protected static String getSignature(IAtomContainer mol, IAtom atom, int height) throws CloneNotSupportedException {
-        IAtomContainer molWithoutH = removeHydrogensExceptSingleAndPreserveAtomID(mol);
-        int atomIndex = getAtomIndexByID(molWithoutH, atom);
-        RBlastMoleculeSignature moleculeSignature = new RBlastMoleculeSignature(molWithoutH);
-        moleculeSignature.setUseCharge(true);
-        moleculeSignature.setBondSensitive(true);
-        moleculeSignature.setUseAromatics(true);
-        if (atomIndex >= 0) {
-            return moleculeSignature.getAtomSignature(atomIndex, height).toCanonicalString();
-        } else {
-            return "";
-        }
+        return new AtomSignatureContext(mol).getSignature(atom, height);
     }
 
     /**
@@ -256,16 +246,28 @@ public abstract class Utility extends MatrixPrinter implements Serializable {
      * @throws CloneNotSupportedException
      */
     protected static void setFragmentMatches(SortedMap<String, Integer> atomRCChangesMap, List<IAtomContainer> fragments) throws CloneNotSupportedException {
+        /*
+         * Parse each pattern once for all the fragments
+         */
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        List<SubstructurePattern> patterns = new ArrayList<>(atomRCChangesMap.size());
+        for (String pattern : atomRCChangesMap.keySet()) {
+            try {
+                patterns.add(SubstructurePattern.compile(pattern, sp));
+            } catch (CDKException ex) {
+                LOGGER.error(SEVERE, null, ex);
+            }
+        }
         for (IAtomContainer fragment : fragments) {
             CountSubstructures countSubstructures = new CountSubstructures(fragment);
-            atomRCChangesMap.keySet().stream().forEach((pattern) -> {
-                int hit = 0;
-                try {
-                    hit = countSubstructures.substructureSize(pattern);
-                } catch (CDKException ex) {
-                    LOGGER.error(SEVERE, null, ex);
+            Set<String> hits = new HashSet<>();
+            for (SubstructurePattern pattern : patterns) {
+                if (countSubstructures.substructureSize(pattern) > 0) {
+                    hits.add(pattern.getPattern());
                 }
-                int val = hit == 0 ? 0 : atomRCChangesMap.get(pattern) + 1;
+            }
+            atomRCChangesMap.keySet().stream().forEach((pattern) -> {
+                int val = hits.contains(pattern) ? atomRCChangesMap.get(pattern) + 1 : 0;
                 atomRCChangesMap.put(pattern, val);
             });
         }
@@ -296,24 +298,31 @@ public abstract class Utility extends MatrixPrinter implements Serializable {
      * @throws CloneNotSupportedException
      */
     protected static void setCircularSignatureFingerprints(String rid, IAtomContainer mol, IAtom atom, Map<Integer, IPatternFingerprinter> patternFP) throws CDKException, CloneNotSupportedException {
+        setCircularSignatureFingerprints(rid, new AtomSignatureContext(mol), atom, patternFP);
+    }
 
-        for (int i = 1; i < 5; i++) {
-            if (!patternFP.containsKey(i)) {
+    /**
+     * Signature fingerprints of heights 1 to 4 and of the full height, the
+     * context should be shared by all the reaction centre atoms of a molecule
+     *
+     * @param rid
+     * @param signatures signature context of the molecule of the atom
+     * @param atom
+     * @param patternFP
+     * @throws CDKException
+     */
+    protected static void setCircularSignatureFingerprints(String rid, AtomSignatureContext signatures, IAtom atom, Map<Integer, IPatternFingerprinter> patternFP) throws CDKException {
+        int[] heights = {1, 2, 3, 4, -1};
+        String[] atomSignatures = signatures.getSignatures(atom, heights);
+        for (int i = 0; i < heights.length; i++) {
+            int height = heights[i];
+            if (!patternFP.containsKey(height)) {
                 IPatternFingerprinter fp = new PatternFingerprinter();
-                fp.setFingerprintID(rid + ":" + "Signature: " + i);
-                patternFP.put(i, fp);
+                fp.setFingerprintID(rid + ":" + "Signature: " + height);
+                patternFP.put(height, fp);
             }
-            String signature = getSignature(mol, atom, i);
-            patternFP.get(i).add(new Feature(signature, 1.0));
-        }
-
-        if (!patternFP.containsKey(-1)) {
-            IPatternFingerprinter fp = new PatternFingerprinter();
-            fp.setFingerprintID(rid + ":" + "Signature: " + -1);
-            patternFP.put(-1, fp);
+            patternFP.get(height).add(new Feature(atomSignatures[i], 1.0));
         }
-        String signature = getSignature(mol, atom, -1);
-        patternFP.get(-1).add(new Feature(signature, 1.0));
     }
 
     /**
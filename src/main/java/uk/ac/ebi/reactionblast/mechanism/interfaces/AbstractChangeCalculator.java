@@ -29,6 +29,7 @@ import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IBond;
 import org.openscience.cdk.interfaces.IReaction;
 import uk.ac.ebi.reactionblast.fingerprints.interfaces.IPatternFingerprinter;
+import uk.ac.ebi.reactionblast.mechanism.helper.AtomSignatureContext;
 import uk.ac.ebi.reactionblast.mechanism.helper.MoleculeMoleculePair;
 import uk.ac.ebi.reactionblast.mechanism.helper.ReactantProductPair;
 import uk.ac.ebi.reactionblast.mechanism.helper.ReactionCenterFragment;
@@ -169,23 +170,47 @@ public abstract class AbstractChangeCalculator extends Utility {
             IAtom productAtom,
             IAtomContainer atomContainerR,
             IAtomContainer atomContainerP) throws Exception {
+        return getMolMolPair(reactantAtom, productAtom, atomContainerR, atomContainerP,
+                new AtomSignatureContext(atomContainerR), new AtomSignatureContext(atomContainerP));
+    }
+
+    /**
+     *
+     * @param reactantAtom
+     * @param productAtom
+     * @param atomContainerR
+     * @param atomContainerP
+     * @param signaturesR signature context of the reactant molecule
+     * @param signaturesP signature context of the product molecule
+     * @return
+     * @throws Exception
+     */
+    protected static MoleculeMoleculePair getMolMolPair(
+            IAtom reactantAtom,
+            IAtom productAtom,
+            IAtomContainer atomContainerR,
+            IAtomContainer atomContainerP,
+            AtomSignatureContext signaturesR,
+            AtomSignatureContext signaturesP) throws Exception {
 
         int atomIndexR = getAtomIndexByID(atomContainerR, reactantAtom);
 
-        String signatureR1 = getSignature(atomContainerR, reactantAtom, 1);
-        String signatureR2 = getSignature(atomContainerR, reactantAtom, 2);
-        String signatureR3 = getSignature(atomContainerR, reactantAtom, 3);
-        String signatureR = getSignature(atomContainerR, reactantAtom, -1);
+        String[] reactantSignatures = signaturesR.getSignatures(reactantAtom, 1, 2, 3, -1);
+        String signatureR1 = reactantSignatures[0];
+        String signatureR2 = reactantSignatures[1];
+        String signatureR3 = reactantSignatures[2];
+        String signatureR = reactantSignatures[3];
 
         IAtomContainer fragR1 = getCircularFragment(atomContainerR, atomIndexR, 1);
         IAtomContainer fragR2 = getCircularFragment(atomContainerR, atomIndexR, 2);
         IAtomContainer fragR3 = getCircularFragment(atomContainerR, atomIndexR, 3);
         IAtomContainer fragR = getCircularFragment(atomContainerR, atomIndexR, -1);
 
-        String signatureP1 = getSignature(atomContainerP, productAtom, 1);
-        String signatureP2 = getSignature(atomContainerP, productAtom, 2);
-        String signatureP3 = getSignature(atomContainerP, productAtom, 3);
-        String signatureP = getSignature(atomContainerP, productAtom, -1);
+        String[] productSignatures = signaturesP.getSignatures(productAtom, 1, 2, 3, -1);
+        String signatureP1 = productSignatures[0];
+        String signatureP2 = productSignatures[1];
+        String signatureP3 = productSignatures[2];
+        String signatureP = productSignatures[3];
 
         int atomIndexP = getAtomIndexByID(atomContainerP, productAtom);
 
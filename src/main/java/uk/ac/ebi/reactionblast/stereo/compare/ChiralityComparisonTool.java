@@ -68,8 +68,7 @@ public class ChiralityComparisonTool {
 
         Isomorphism isomorphism = new Isomorphism(atomContainerA, atomContainerB, DEFAULT, atomMatcher, bondMatcher);
         Map<IAtom, IAtom> atomMap = isomorphism.getFirstAtomMapping().getMappingsByAtoms();
-        atomMap.keySet().stream().forEach((atomA) -> {
-            IAtom atomB = atomMap.get(atomA);
+        atomMap.forEach((atomA, atomB) -> {
             boolean isStereoA = chiralityMapA.containsKey(atomA);
             boolean isStereoB = chiralityMapB.containsKey(atomB);
             if (isStereoA && isStereoB) {
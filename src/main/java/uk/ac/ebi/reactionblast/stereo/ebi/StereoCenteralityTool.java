@@ -64,12 +64,26 @@ public abstract class StereoCenteralityTool extends Utility {
      * @throws java.lang.CloneNotSupportedException
      */
     public static Map<IAtom, IStereoAndConformation> getChirality2D(IReaction reaction) throws CDKException, CloneNotSupportedException {
+        return getChirality2D(reaction, true);
+    }
+
+    /**
+     * 2D stereo of the reaction, molecules without 2D coordinates are only laid
+     * out if asked for.
+     *
+     * @param reaction
+     * @param generate2D lay out molecules without 2D coordinates
+     * @return
+     * @throws CDKException
+     * @throws java.lang.CloneNotSupportedException
+     */
+    public static Map<IAtom, IStereoAndConformation> getChirality2D(IReaction reaction, boolean generate2D) throws CDKException, CloneNotSupportedException {
         Map<IAtom, IStereoAndConformation> chiralityMap = new HashMap<>();
-        CDKPerceptor perceptor = new CDKPerceptor();
+        CDKPerceptor perceptor = CDKPerceptor.getInstance();
         for (IAtomContainer ac : reaction.getReactants().atomContainers()) {
             IAtomContainer containerWithoutH = removeHydrogensExceptSingleAndPreserveAtomID(ac);
 //            System.LOGGER.debug("R 2D CDK based stereo perception for " + ac.getID());
-            Map<IAtom, IStereoAndConformation> chirality2D = getChirality2D(containerWithoutH, perceptor);
+            Map<IAtom, IStereoAndConformation> chirality2D = getChirality2D(containerWithoutH, perceptor, generate2D);
 //            System.LOGGER.debug("R 2D CDK based stereo " + chirality2D.size());
             if (!chirality2D.isEmpty()) {
                 chirality2D.entrySet().stream().forEach((m) -> {
@@ -84,7 +98,7 @@ public abstract class StereoCenteralityTool extends Utility {
         for (IAtomContainer ac : reaction.getProducts().atomContainers()) {
             IAtomContainer containerWithoutH = removeHydrogensExceptSingleAndPreserveAtomID(ac);
 //            System.LOGGER.debug("P 2D CDK based stereo perception for " + ac.getID());
-            Map<IAtom, IStereoAndConformation> chirality2D = getChirality2D(containerWithoutH, perceptor);
+            Map<IAtom, IStereoAndConformation> chirality2D = getChirality2D(containerWithoutH, perceptor, generate2D);
 //            System.LOGGER.debug("P 2D CDK based stereo " + chirality2D.size());
             if (!chirality2D.isEmpty()) {
                 chirality2D.entrySet().stream().forEach((m) -> {
@@ -106,8 +120,19 @@ public abstract class StereoCenteralityTool extends Utility {
      * @return
      */
     public static Map<IAtom, IStereoAndConformation> getChirality2D(IAtomContainer ac, CDKPerceptor perceptor) {
+        return getChirality2D(ac, perceptor, true);
+    }
+
+    /**
+     *
+     * @param ac
+     * @param perceptor
+     * @param generate2D lay out the molecule if it has no 2D coordinates
+     * @return
+     */
+    public static Map<IAtom, IStereoAndConformation> getChirality2D(IAtomContainer ac, CDKPerceptor perceptor, boolean generate2D) {
         Map<IAtom, IStereoAndConformation> chiralityMap = new HashMap<>();
-        perceptor.perceive(ac);
+        perceptor.perceive(ac, generate2D);
         for (IAtom atom : ac.atoms()) {
             if (Tetrahedral.R.equals(atom.getProperty("descriptor"))) {
                 chiralityMap.put(atom, IStereoAndConformation.R);
@@ -37,7 +37,7 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.List;
+import static java.util.Arrays.fill;
 import static java.util.Locale.US;
 import static java.util.logging.Level.SEVERE;
 
@@ -89,6 +89,10 @@ import uk.ac.ebi.reactionblast.tools.matrix.SingularValueDecomposition;
  * r.normInf();
  * </PRE></DD> </DL>
  *
+ * <P>
+ * The elements are stored in one array packed by rows. The class is not
+ * synchronized, a matrix is meant to be used by one thread at a time.
+ *
  * @author The MathWorks, Inc. and the National Institute of Standards and
  * Technology.
  * @version 5 August 1998
@@ -97,7 +101,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
 
     static final String NEW_LINE = getProperty("line.separator");
 
-    private static final long serialVersionUID = 19787786981017786L;
+    private static final long serialVersionUID = 19787786981017787L;
     private static final ILoggingTool LOGGER
             = LoggingToolFactory.createLoggingTool(EBIMatrix.class);
 
@@ -109,21 +113,22 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return
      * @keyword Gauss elimination
      */
-    public static List<Double> elimination(EBIMatrix matrix, List<Double> vector) {
+    public static double[] elimination(EBIMatrix matrix, double[] vector) {
         int i, j, k, ipvt;
-        int n = vector.size();
+        int n = vector.length;
         int[] pivot = new int[n];
         double c, temp;
-        //double[] x = new double[n];
-        EBIMatrix a = matrix.duplicate();
-        List<Double> b = new ArrayList<>(vector);
+        EBIMatrix m = matrix.duplicate();
+        double[] a = m.matrix;
+        int w = m.columns;
+        double[] b = vector.clone();
         for (j = 0; j < (n - 1); j++) {
-            c = abs(a.matrix[j][j]);
+            c = abs(a[j * w + j]);
             pivot[j] = j;
             ipvt = j;
             for (i = j + 1; i < n; i++) {
-                if (abs(a.matrix[i][j]) > c) {
-                    c = abs(a.matrix[i][j]);
+                if (abs(a[i * w + j]) > c) {
+                    c = abs(a[i * w + j]);
                     ipvt = i;
                 }
             }
@@ -133,41 +138,40 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
                 pivot[j] = ipvt;
                 pivot[ipvt] = j;
                 for (k = 0; k < n; k++) {
-                    temp = a.matrix[j][k];
-                    a.matrix[j][k] = a.matrix[pivot[j]][k];
-                    a.matrix[pivot[j]][k] = temp;
+                    temp = a[j * w + k];
+                    a[j * w + k] = a[pivot[j] * w + k];
+                    a[pivot[j] * w + k] = temp;
                 }
 
-                temp = b.get(j);
-                b.set(j, b.get(pivot[j]));
-                b.set(pivot[j], temp);
+                temp = b[j];
+                b[j] = b[pivot[j]];
+                b[pivot[j]] = temp;
             }
 
             // Store multipliers
             for (i = j + 1; i < n; i++) {
-                a.matrix[i][j] /= a.matrix[j][j];
+                a[i * w + j] /= a[j * w + j];
             }
 
             // Give elements below the diagonal a zero value
             for (i = j + 1; i < n; i++) {
                 for (k = j + 1; k < n; k++) {
-                    a.matrix[i][k] -= a.matrix[i][j] * a.matrix[j][k];
+                    a[i * w + k] -= a[i * w + j] * a[j * w + k];
                 }
-                b.set(i, b.get(i) - a.matrix[i][j] * b.get(j));
+                b[i] -= a[i * w + j] * b[j];
 
-                a.matrix[i][j] = 0.0; // Not necessary
+                a[i * w + j] = 0.0; // Not necessary
             }
         }
-        // Rueckwaertseinsetzen (which is?)
-        List<Double> result = new ArrayList<>(n);
-        result.set(n - 1, b.get(n - 1) / a.matrix[n - 1][n - 1]);
+        // Back substitution
+        double[] result = new double[n];
+        result[n - 1] = b[n - 1] / a[(n - 1) * w + n - 1];
         for (j = n - 2; j >= 0; j--) {
-            result.set(j, b.get(j));
+            result[j] = b[j];
             for (k = n - 1; k > j; k--) {
-                result.set(j, result.get(j) - result.get(k) * a.matrix[j][k]);
+                result[j] -= result[k] * a[j * w + k];
             }
-
-            result.set(j, result.get(j) / a.matrix[j][k]);
+            result[j] /= a[j * w + j];
         }
         return result;
     }
@@ -182,11 +186,9 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      */
     public static EBIMatrix random(int m, int n) {
         EBIMatrix A = new EBIMatrix(m, n);
-        double[][] X = A.getArray();
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                X[i][j] = Math.random();
-            }
+        double[] X = A.matrix;
+        for (int i = 0; i < X.length; i++) {
+            X[i] = Math.random();
         }
         return A;
     }
@@ -201,11 +203,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      */
     public static EBIMatrix identity(int m, int n) {
         EBIMatrix A = new EBIMatrix(m, n);
-        double[][] X = A.getArray();
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                X[i][j] = (i == j ? 1.0 : 0.0);
-            }
+        for (int i = 0; i < min(m, n); i++) {
+            A.matrix[i * n + i] = 1.0;
         }
         return A;
     }
@@ -285,27 +284,37 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return
      */
     public static EBIMatrix constructWithCopy(double[][] A) {
-        int m = A.length;
-        int n = A[0].length;
-        EBIMatrix X = new EBIMatrix(m, n);
-        double[][] C = X.getArray();
-        for (int i = 0; i < m; i++) {
-            if (A[i].length != n) {
-                throw new IllegalArgumentException("All rows must have the same length.");
-            }
-            arraycopy(A[i], 0, C[i], 0, n);
+        return new EBIMatrix(A);
+    }
+
+    /**
+     * Wrap a row packed array, the array is used as the storage of the matrix
+     * and not copied.
+     *
+     * @param vals One-dimensional array of doubles, packed by rows.
+     * @param m Number of rows.
+     * @param n Number of columns.
+     * @return matrix backed by vals
+     */
+    public static EBIMatrix wrap(double[] vals, int m, int n) {
+        if (vals.length != m * n) {
+            throw new IllegalArgumentException("Array length must be m * n.");
         }
+        EBIMatrix X = new EBIMatrix(0, 0);
+        X.matrix = vals;
+        X.rows = m;
+        X.columns = n;
         return X;
     }
     /*
      * ------------------------ Class variables ------------------------
      */
     /**
-     * Array for internal storage of elements.
+     * Array for internal storage of elements, packed by rows.
      *
      * @serial internal array storage.
      */
-    private double[][] matrix;
+    private double[] matrix;
     /**
      * Row and column dimensions.
      *
@@ -326,7 +335,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
     public EBIMatrix(int rows, int columns) {
         this.rows = rows;
         this.columns = columns;
-        matrix = new double[rows][columns];
+        matrix = new double[rows * columns];
     }
 
     /**
@@ -343,23 +352,27 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
                 throw new IllegalArgumentException("All rows must have the same length.");
             }
         }
-        matrix = new double[rows][columns];
+        matrix = new double[rows * columns];
         for (int i = 0; i < rows; i++) {
-            arraycopy(A[i], 0, matrix[i], 0, columns);
+            arraycopy(A[i], 0, matrix, i * columns, columns);
         }
     }
 
     /**
-     * data construct a matrix quickly without checking arguments.
+     * data construct a matrix from the first m rows and n columns of a 2-D
+     * array without checking arguments, the elements are copied.
      *
      * @param A
      * @param m
      * @param n
      */
     public EBIMatrix(double[][] A, int m, int n) {
-        this.matrix = A;
         this.rows = m;
         this.columns = n;
+        this.matrix = new double[m * n];
+        for (int i = 0; i < m; i++) {
+            arraycopy(A[i], 0, matrix, i * n, min(n, A[i].length));
+        }
     }
 
     /*
@@ -375,12 +388,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
     public EBIMatrix(int m, int n, double s) {
         this.rows = m;
         this.columns = n;
-        matrix = new double[m][n];
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                matrix[i][j] = s;
-            }
-        }
+        matrix = new double[m * n];
+        fill(matrix, s);
     }
 
     /**
@@ -396,10 +405,10 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
         if (m * columns != vals.length) {
             throw new IllegalArgumentException("Array length must be a multiple of m.");
         }
-        matrix = new double[m][columns];
+        matrix = new double[m * columns];
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < columns; j++) {
-                matrix[i][j] = vals[i + j * m];
+                matrix[i * columns + j] = vals[i + j * m];
             }
         }
     }
@@ -408,12 +417,19 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @param v default value for the Matrix cells
      */
-    public synchronized void initMatrix(double v) {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] = v;
-            }
+    public void initMatrix(double v) {
+        fill(matrix, v);
+    }
+
+    /*
+     * Offset of the element (i,j) in the storage, index errors are reported
+     * as they were on the rows of a two-dimensional array
+     */
+    private int index(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= columns) {
+            throw new ArrayIndexOutOfBoundsException("(" + i + ", " + j + ")");
         }
+        return i * columns + j;
     }
 
     /**
@@ -424,11 +440,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return matrix(i,j)
      * @exception ArrayIndexOutOfBoundsException
      */
-    public synchronized double getValue(int i, int j) {
+    public double getValue(int i, int j) {
 
         double val = -1.0d;
         if (i <= rows && j <= columns) {
-            val = matrix[i][j];
+            val = matrix[index(i, j)];
         } else {
 
             LOGGER.debug("Error: Array of out bound");
@@ -436,18 +452,25 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
         return val;
     }
 
+    /**
+     * Get a single element.
+     *
+     * @param i Row index.
+     * @param j dataolumn index.
+     * @return matrix(i,j)
+     * @exception ArrayIndexOutOfBoundsException
+     */
+    public double get(int i, int j) {
+        return matrix[index(i, j)];
+    }
+
     /**
      * Make a deep duplicate of a matrix
      *
      * @return
      */
-    public synchronized EBIMatrix duplicate() {
-        EBIMatrix result = new EBIMatrix(rows, columns);
-        double[][] data = result.getArray();
-        for (int i = 0; i < rows; i++) {
-            arraycopy(matrix[i], 0, data[i], 0, columns);
-        }
-        return result;
+    public EBIMatrix duplicate() {
+        return wrap(matrix.clone(), rows, columns);
     }
 
     /**
@@ -457,19 +480,19 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @throws java.lang.CloneNotSupportedException
      */
     @Override
-    public synchronized Object clone() throws CloneNotSupportedException {
+    public Object clone() throws CloneNotSupportedException {
         return this.duplicate();
     }
 
     /**
-     * data duplicate the internal two-dimensional array.
+     * data duplicate the internal array in two dimensions.
      *
      * @return Two-dimensional array duplicate of matrix elements.
      */
-    public synchronized double[][] getArrayCopy() {
+    public double[][] getArrayCopy() {
         double[][] C = new double[rows][columns];
         for (int i = 0; i < rows; i++) {
-            arraycopy(matrix[i], 0, C[i], 0, columns);
+            arraycopy(matrix, i * columns, C[i], 0, columns);
         }
         return C;
     }
@@ -479,11 +502,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return EBIMatrix elements packed in a one-dimensional array by columns.
      */
-    public synchronized double[] getColumnPackedCopy() {
+    public double[] getColumnPackedCopy() {
         double[] vals = new double[rows * columns];
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < columns; j++) {
-                vals[i + j * rows] = matrix[i][j];
+                vals[i + j * rows] = matrix[i * columns + j];
             }
         }
         return vals;
@@ -494,20 +517,28 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return EBIMatrix elements packed in a one-dimensional array by rows.
      */
-    public synchronized double[] getRowPackedCopy() {
-        double[] vals = new double[rows * columns];
-        for (int i = 0; i < rows; i++) {
-            arraycopy(matrix[i], 0, vals, i * columns, columns);
-        }
-        return vals;
+    public double[] getRowPackedCopy() {
+        return matrix.clone();
     }
 
     /**
-     * Access the internal two-dimensional array.
+     * The elements are stored packed by rows, a two-dimensional array is only
+     * built on request.
      *
-     * @return Pointer to the two-dimensional array of matrix elements.
+     * @return Two-dimensional array duplicate of matrix elements.
+     * @see #getRowPackedArray
      */
-    public synchronized double[][] getArray() {
+    public double[][] getArray() {
+        return getArrayCopy();
+    }
+
+    /**
+     * Access the internal array, element (i,j) is at i * columns + j. Writes
+     * to the array change the matrix.
+     *
+     * @return the internal array packed by rows
+     */
+    public double[] getRowPackedArray() {
         return matrix;
     }
 
@@ -521,18 +552,15 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return matrix(rowStart:row,colStart:colEnd)
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized EBIMatrix getMatrix(int rowStart, int rowEnd, int colStart, int colEnd) {
-        EBIMatrix X = new EBIMatrix(rowEnd - rowStart + 1, colEnd - colStart + 1);
-        double[][] B = X.getArray();
-        try {
-            for (int i = rowStart; i <= rowEnd; i++) {
-                for (int j = colStart; j <= colEnd; j++) {
-                    B[i - rowStart][j - colStart] = matrix[i][j];
-                }
-            }
-        } catch (ArrayIndexOutOfBoundsException e) {
+    public EBIMatrix getMatrix(int rowStart, int rowEnd, int colStart, int colEnd) {
+        if (rowStart < 0 || rowEnd >= rows || colStart < 0 || colEnd >= columns) {
             throw new ArrayIndexOutOfBoundsException("Submatrix indices");
         }
+        int n = colEnd - colStart + 1;
+        EBIMatrix X = new EBIMatrix(rowEnd - rowStart + 1, n);
+        for (int i = rowStart; i <= rowEnd; i++) {
+            arraycopy(matrix, i * columns + colStart, X.matrix, (i - rowStart) * n, n);
+        }
         return X;
     }
 
@@ -541,12 +569,13 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return matrix'
      */
-    public synchronized EBIMatrix transpose() {
+    public EBIMatrix transpose() {
         EBIMatrix X = new EBIMatrix(columns, rows);
-        double[][] C = X.getArray();
+        double[] C = X.matrix;
         for (int i = 0; i < rows; i++) {
+            int offset = i * columns;
             for (int j = 0; j < columns; j++) {
-                C[j][i] = matrix[i][j];
+                C[j * rows + i] = matrix[offset + j];
             }
         }
         return X;
@@ -559,14 +588,13 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param value
      * @return
      */
-    public synchronized boolean setValue(int row, int col, double value) {
+    public boolean setValue(int row, int col, double value) {
 
-        double val = value;
         boolean flag = false;
 
         if (row <= rows && col <= columns) {
+            matrix[index(row, col)] = value;
             flag = true;
-            matrix[row][col] = val;
         } else {
             try {
 
@@ -584,7 +612,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return rows, the number of rows.
      */
-    public synchronized int getRowDimension() {
+    public int getRowDimension() {
         return this.rows;
     }
 
@@ -593,40 +621,24 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return columns, the number of columns.
      */
-    public synchronized int getColumnDimension() {
+    public int getColumnDimension() {
         return this.columns;
     }
 
     /**
      *
-     * @return
+     * @return diagonal of a square matrix, empty otherwise
      */
-    public synchronized List<Double> getDiagonalElements() {
-
-        List<Double> val = new ArrayList<>();
-
-        if (rows == columns) {
-
-            for (int i = 0; i < rows; i++) {
-
-                for (int j = 0; j < columns; j++) {
-
-                    if (i == j) {
-
-                        val.add(matrix[i][j]);
-
-                    }
-
-                }
-
-            }
-        } else {
-
+    public double[] getDiagonalElements() {
+        if (rows != columns) {
             out.println("Row =/= Columns");
+            return new double[0];
+        }
+        double[] val = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            val[i] = matrix[i * columns + i];
         }
-
         return val;
-
     }
 
     /**
@@ -637,13 +649,12 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return matrix(r(:),c(:))
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized EBIMatrix getMatrix(int[] r, int[] c) {
+    public EBIMatrix getMatrix(int[] r, int[] c) {
         EBIMatrix X = new EBIMatrix(r.length, c.length);
-        double[][] B = X.getArray();
         try {
             for (int i = 0; i < r.length; i++) {
                 for (int j = 0; j < c.length; j++) {
-                    B[i][j] = matrix[r[i]][c[j]];
+                    X.matrix[i * c.length + j] = matrix[index(r[i], c[j])];
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -661,13 +672,12 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return matrix(rowStart:row,c(:))
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized EBIMatrix getMatrix(int rowStart, int rowEnd, int[] c) {
+    public EBIMatrix getMatrix(int rowStart, int rowEnd, int[] c) {
         EBIMatrix X = new EBIMatrix(rowEnd - rowStart + 1, c.length);
-        double[][] B = X.getArray();
         try {
             for (int i = rowStart; i <= rowEnd; i++) {
                 for (int j = 0; j < c.length; j++) {
-                    B[i - rowStart][j] = matrix[i][c[j]];
+                    X.matrix[(i - rowStart) * c.length + j] = matrix[index(i, c[j])];
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -685,18 +695,18 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return matrix(r(:),colStart:colEnd)
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized EBIMatrix getMatrix(int[] r, int colStart, int colEnd) {
-        EBIMatrix X = new EBIMatrix(r.length, colEnd - colStart + 1);
-        double[][] B = X.getArray();
-        try {
-            for (int i = 0; i < r.length; i++) {
-                for (int j = colStart; j <= colEnd; j++) {
-                    B[i][j - colStart] = matrix[r[i]][j];
-                }
-            }
-        } catch (ArrayIndexOutOfBoundsException e) {
+    public EBIMatrix getMatrix(int[] r, int colStart, int colEnd) {
+        if (colStart < 0 || colEnd >= columns) {
             throw new ArrayIndexOutOfBoundsException("Submatrix indices");
         }
+        int n = colEnd - colStart + 1;
+        EBIMatrix X = new EBIMatrix(r.length, n);
+        for (int i = 0; i < r.length; i++) {
+            if (r[i] < 0 || r[i] >= rows) {
+                throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+            }
+            arraycopy(matrix, r[i] * columns + colStart, X.matrix, i * n, n);
+        }
         return X;
     }
 
@@ -708,8 +718,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param s matrix(i,j).
      * @exception ArrayIndexOutOfBoundsException
      */
-    public synchronized void set(int i, int j, double s) {
-        matrix[i][j] = s;
+    public void set(int i, int j, double s) {
+        matrix[index(i, j)] = s;
     }
 
     /**
@@ -723,11 +733,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      *
      */
-    public synchronized void setMatrix(int rowStart, int rowEnd, int colStart, int colEnd, EBIMatrix X) {
+    public void setMatrix(int rowStart, int rowEnd, int colStart, int colEnd, EBIMatrix X) {
         try {
             for (int i = rowStart; i <= rowEnd; i++) {
                 for (int j = colStart; j <= colEnd; j++) {
-                    matrix[i][j] = X.getValue(i - rowStart, j - colStart);
+                    matrix[index(i, j)] = X.get(i - rowStart, j - colStart);
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -743,11 +753,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param X matrix(r(:),c(:))
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized void setMatrix(int[] r, int[] c, EBIMatrix X) {
+    public void setMatrix(int[] r, int[] c, EBIMatrix X) {
         try {
             for (int i = 0; i < r.length; i++) {
                 for (int j = 0; j < c.length; j++) {
-                    matrix[r[i]][c[j]] = X.getValue(i, j);
+                    matrix[index(r[i], c[j])] = X.get(i, j);
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -764,11 +774,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param X matrix(r(:),colStart:colEnd)
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized void setMatrix(int[] r, int colStart, int colEnd, EBIMatrix X) {
+    public void setMatrix(int[] r, int colStart, int colEnd, EBIMatrix X) {
         try {
             for (int i = 0; i < r.length; i++) {
                 for (int j = colStart; j <= colEnd; j++) {
-                    matrix[r[i]][j] = X.getValue(i, j - colStart);
+                    matrix[index(r[i], j)] = X.get(i, j - colStart);
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -785,11 +795,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param X matrix(rowStart:row,c(:))
      * @exception ArrayIndexOutOfBoundsException Submatrix indices
      */
-    public synchronized void setMatrix(int rowStart, int rowEnd, int[] c, EBIMatrix X) {
+    public void setMatrix(int rowStart, int rowEnd, int[] c, EBIMatrix X) {
         try {
             for (int i = rowStart; i <= rowEnd; i++) {
                 for (int j = 0; j < c.length; j++) {
-                    matrix[i][c[j]] = X.getValue(i - rowStart, j);
+                    matrix[index(i, c[j])] = X.get(i - rowStart, j);
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -798,117 +808,83 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
     }
 
     /**
+     * True if no element of the row iPos is greater than (iPos,jPos). The
+     * scan runs over the contiguous row without branching.
      *
      * @param iPos index
      * @param jPos index
      * @return
      */
-    public synchronized boolean is_element_max_in_column(int iPos, int jPos) {
-
-        boolean flag = true;
-        double refValue = matrix[iPos][jPos];
-
+    public boolean is_element_max_in_column(int iPos, int jPos) {
+        int offset = index(iPos, jPos) - jPos;
+        double refValue = matrix[offset + jPos];
+        boolean greater = false;
         for (int j = 0; j < columns; j++) {
-            if (j != jPos) {
-                double searchValue = matrix[iPos][j];
-
-                if (searchValue > refValue) {
-                    flag = false;
-
-                }
-            }
+            greater |= matrix[offset + j] > refValue;
         }
-
-        return flag;
+        return !greater;
     }
 
     /**
+     * True if no element of the row iPos is smaller than (iPos,jPos).
      *
      * @param iPos index
      * @param jPos index
      * @return
      */
-    public synchronized boolean is_element_min_in_column(int iPos, int jPos) {
-
-        boolean flag = true;
-        double refValue = matrix[iPos][jPos];
-
+    public boolean is_element_min_in_column(int iPos, int jPos) {
+        int offset = index(iPos, jPos) - jPos;
+        double refValue = matrix[offset + jPos];
+        boolean smaller = false;
         for (int j = 0; j < columns; j++) {
-            if (j != jPos) {
-                double searchValue = matrix[iPos][j];
-
-                if (searchValue < refValue) {
-                    flag = false;
-
-                }
-            }
+            smaller |= matrix[offset + j] < refValue;
         }
-
-        return flag;
+        return !smaller;
     }
 
     /**
+     * Resize the matrix, all elements are reset to zero.
      *
      * @param RowSize Size of the new Matrix Row
      * @param ColSize Size of the new Matrix dataoloumn
      */
-    public synchronized void reSizeMatrix(int RowSize, int ColSize) {
+    public void reSizeMatrix(int RowSize, int ColSize) {
 
         this.rows = RowSize;
         this.columns = ColSize;
-        matrix = new double[rows][columns];
+        matrix = new double[rows * columns];
     }
 
     /**
+     * True if no element of the column jPos is greater than (iPos,jPos).
      *
      * @param iPos index
      * @param jPos index
      * @return
      */
-    public synchronized boolean is_element_max_in_row(int iPos, int jPos) {
-
-        boolean flag = true;
-
-        double refValue = matrix[iPos][jPos];
-
-        for (int i = 0; i < rows; i++) {
-            if (i != iPos) {
-                double searchValue = matrix[i][jPos];
-
-                if (searchValue > refValue) {
-                    flag = false;
-
-                }
-            }
+    public boolean is_element_max_in_row(int iPos, int jPos) {
+        double refValue = matrix[index(iPos, jPos)];
+        boolean greater = false;
+        for (int k = jPos; k < matrix.length; k += columns) {
+            greater |= matrix[k] > refValue;
         }
-
-        return flag;
+        return !greater;
     }
 
     /**
+     * True if no element of the column jPos is smaller than (iPos,jPos).
      *
      * @param iPos index
      * @param jPos index
      * @return
      */
-    public synchronized boolean is_element_min_in_row(int iPos, int jPos) {
-
-        boolean flag = true;
-
-        double refValue = matrix[iPos][jPos];
-
-        for (int i = 0; i < rows; i++) {
-            if (i != iPos) {
-                double searchValue = matrix[i][jPos];
-
-                if (searchValue < refValue) {
-                    flag = false;
-
-                }
-            }
+    public boolean is_element_min_in_row(int iPos, int jPos) {
+        double refValue = matrix[index(iPos, jPos)];
+        boolean smaller = false;
+        for (int k = jPos; k < matrix.length; k += columns) {
+            smaller |= matrix[k] < refValue;
         }
-
-        return flag;
+        return !smaller;
     }
 
     /**
@@ -916,17 +892,16 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param coloumn1
      * @param coloumn2
      */
-    public synchronized void swapColumns(int coloumn1, int coloumn2) {
+    public void swapColumns(int coloumn1, int coloumn2) {
 
-        double tempValue;
         //column exchange
-
         if (coloumn1 <= getColumnDimension() && coloumn2 <= getColumnDimension()) {
             for (int i = 0; i < rows; i++) {
-                tempValue = matrix[i][coloumn1];
-                matrix[i][coloumn1] = matrix[i][coloumn2];
-                matrix[i][coloumn2] = tempValue;
-                tempValue = 0.0;
+                int a = index(i, coloumn1);
+                int b = index(i, coloumn2);
+                double tempValue = matrix[a];
+                matrix[a] = matrix[b];
+                matrix[b] = tempValue;
             }
         } else {
             try {
@@ -943,16 +918,16 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param row2
      * @throws org.openscience.cdk.exception.CDKException
      */
-    public synchronized void swapRows(int row1, int row2) throws CDKException {
+    public void swapRows(int row1, int row2) throws CDKException {
 
-        double tempValue;
         //row exchange
-
         if (row1 <= getRowDimension() && row2 <= getRowDimension()) {
+            int a = index(row1, 0);
+            int b = index(row2, 0);
             for (int i = 0; i < columns; i++) {
-                tempValue = matrix[row1][i];
-                matrix[row1][i] = matrix[row2][i];
-                matrix[row2][i] = tempValue;
+                double tempValue = matrix[a + i];
+                matrix[a + i] = matrix[b + i];
+                matrix[b + i] = tempValue;
             }
         } else {
             throw new CDKException("Index out of range" + row1 + ", " + row2);
@@ -965,21 +940,25 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param row chosen row
      * @param col chosen col
      */
-    public synchronized void pivot(int row, int col) {
+    public void pivot(int row, int col) {
 
         //label pivot
         double tempValue;
         //column exchange
         for (int i = 0; i < rows; i++) {
-            tempValue = matrix[i][row];
-            matrix[i][row] = matrix[i][col];
-            matrix[i][col] = tempValue;
+            int a = index(i, row);
+            int b = index(i, col);
+            tempValue = matrix[a];
+            matrix[a] = matrix[b];
+            matrix[b] = tempValue;
         }
         //row exchange
         for (int i = 0; i < columns; i++) {
-            tempValue = matrix[row][i];
-            matrix[row][i] = matrix[col][i];
-            matrix[col][i] = tempValue;
+            int a = index(row, i);
+            int b = index(col, i);
+            tempValue = matrix[a];
+            matrix[a] = matrix[b];
+            matrix[b] = tempValue;
         }
     }
 
@@ -989,17 +968,20 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param S
      * @return
      */
-    public synchronized EBIMatrix normalize(EBIMatrix S) {
+    public EBIMatrix normalize(EBIMatrix S) {
         int p, q, i, j;
         double length;
         EBIMatrix result = duplicate();
+        double[] r = result.matrix;
+        double[] s = S.matrix;
+        int w = S.columns;
         for (p = 0; p < columns; p++) // Loops over all vectors
         {
             // Calculates the normalization factor
             length = 0;
             for (i = 0; i < rows; i++) {
                 for (j = 0; j < rows; j++) {
-                    length += result.matrix[i][p] * result.matrix[j][p] * S.matrix[i][j];
+                    length += r[i * columns + p] * r[j * columns + p] * s[i * w + j];
                 }
             }
 
@@ -1008,7 +990,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
             // Normalizes the vector
             if (length != 0d) {
                 for (q = 0; q < rows; q++) {
-                    result.matrix[q][p] /= length;
+                    r[q * columns + p] /= length;
                 }
             } else {
                 out.println("Warning(orthonormalize):" + (p + 1) + ". Vector has length null");
@@ -1023,39 +1005,30 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param a
      * @return
      */
-    public synchronized EBIMatrix mul(double a) {
-        EBIMatrix result = new EBIMatrix(rows, columns);
-        int i, j;
-        for (i = 0; i < rows; i++) {
-            for (j = 0; j < columns; j++) {
-                result.matrix[i][j] = matrix[i][j] * a;
-            }
-        }
-
-        return result;
+    public EBIMatrix mul(double a) {
+        return times(a);
     }
 
     /**
      * Multiplies a Vector with this EBIMatrix.
      *
      * @param a
-     * @return
+     * @return product, null if the length of a is not the column dimension
      */
-    public synchronized List<Double> mul(List<Double> a) {
+    public double[] mul(double[] a) {
         if ((a == null)
-                || (columns != a.size())) {
+                || (columns != a.length)) {
             return null;
         }
 
-        List<Double> result = new ArrayList<>(rows);
-        int i, j;
-        double sum;
-        for (i = 0; i < rows; i++) {
-            sum = 0;
-            for (j = 0; j < columns; j++) {
-                sum += (matrix[i][j]) * (a.get(j));
+        double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            int offset = i * columns;
+            double sum = 0;
+            for (int j = 0; j < columns; j++) {
+                sum += matrix[offset + j] * a[j];
             }
-            result.add(i, sum);
+            result[i] = sum;
         }
         return result;
     }
@@ -1066,26 +1039,12 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param b
      * @return
      */
-    public synchronized EBIMatrix mul(EBIMatrix b) {
+    public EBIMatrix mul(EBIMatrix b) {
         if ((b == null)
                 || (columns != b.getRowDimension())) {
             return null;
         }
-
-        EBIMatrix result = new EBIMatrix(rows, b.getColumnDimension());
-        int i, j, k;
-        double sum;
-        for (i = 0; i < rows; i++) {
-            for (k = 0; k < b.getColumnDimension(); k++) {
-                sum = 0;
-                for (j = 0; j < columns; j++) {
-                    sum += matrix[i][j] * b.matrix[j][k];
-                }
-                result.matrix[i][k] = sum;
-            }
-        }
-
-        return result;
+        return times(b);
     }
 
     /*
@@ -1094,7 +1053,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
     /**
      * dataheck if size(matrix) == size(B) *
      */
-    private synchronized void checkMatrixDimensions(EBIMatrix B) {
+    private void checkMatrixDimensions(EBIMatrix B) {
         if (B.getRowDimension() != rows || B.getColumnDimension() != columns) {
             throw new IllegalArgumentException("EBIMatrix dimensions must agree.");
         }
@@ -1106,16 +1065,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix.*B
      */
-    public synchronized EBIMatrix arrayTimes(EBIMatrix B) {
-        checkMatrixDimensions(B);
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = matrix[i][j] * B.matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix arrayTimes(EBIMatrix B) {
+        return duplicate().arrayTimesEquals(B);
     }
 
     /**
@@ -1124,12 +1075,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix.*B
      */
-    public synchronized EBIMatrix arrayTimesEquals(EBIMatrix B) {
+    public EBIMatrix arrayTimesEquals(EBIMatrix B) {
         checkMatrixDimensions(B);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] *= B.matrix[i][j];
-            }
+        double[] b = B.matrix;
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] *= b[i];
         }
         return this;
     }
@@ -1140,16 +1090,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix./B
      */
-    public synchronized EBIMatrix arrayRightDivide(EBIMatrix B) {
-        checkMatrixDimensions(B);
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = matrix[i][j] / B.matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix arrayRightDivide(EBIMatrix B) {
+        return duplicate().arrayRightDivideEquals(B);
     }
 
     /**
@@ -1158,12 +1100,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix./B
      */
-    public synchronized EBIMatrix arrayRightDivideEquals(EBIMatrix B) {
+    public EBIMatrix arrayRightDivideEquals(EBIMatrix B) {
         checkMatrixDimensions(B);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] /= B.matrix[i][j];
-            }
+        double[] b = B.matrix;
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] /= b[i];
         }
         return this;
     }
@@ -1174,16 +1115,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix.\B
      */
-    public synchronized EBIMatrix arrayLeftDivide(EBIMatrix B) {
-        checkMatrixDimensions(B);
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = B.matrix[i][j] / matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix arrayLeftDivide(EBIMatrix B) {
+        return duplicate().arrayLeftDivideEquals(B);
     }
 
     /**
@@ -1192,12 +1125,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix.\B
      */
-    public synchronized EBIMatrix arrayLeftDivideEquals(EBIMatrix B) {
+    public EBIMatrix arrayLeftDivideEquals(EBIMatrix B) {
         checkMatrixDimensions(B);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] = B.matrix[i][j] / matrix[i][j];
-            }
+        double[] b = B.matrix;
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = b[i] / matrix[i];
         }
         return this;
     }
@@ -1208,15 +1140,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param s scalar
      * @return s*matrix
      */
-    public synchronized EBIMatrix times(double s) {
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = s * matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix times(double s) {
+        return duplicate().timesEquals(s);
     }
 
     /**
@@ -1225,11 +1150,9 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param s scalar
      * @return replace matrix by s*matrix
      */
-    public synchronized EBIMatrix timesEquals(double s) {
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] = s * matrix[i][j];
-            }
+    public EBIMatrix timesEquals(double s) {
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = s * matrix[i];
         }
         return this;
     }
@@ -1242,24 +1165,25 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @exception IllegalArgumentException EBIMatrix inner dimensions must
      * agree.
      */
-    public synchronized EBIMatrix times(EBIMatrix B) {
+    public EBIMatrix times(EBIMatrix B) {
         if (B.getRowDimension() != columns) {
             throw new IllegalArgumentException("EBIMatrix inner dimensions must agree.");
         }
-        EBIMatrix X = new EBIMatrix(rows, B.getColumnDimension());
-        double[][] C = X.getArray();
-        double[] Bcolj = new double[columns];
-        for (int j = 0; j < B.getColumnDimension(); j++) {
+        int n = B.columns;
+        EBIMatrix X = new EBIMatrix(rows, n);
+        double[] C = X.matrix;
+        double[] b = B.matrix;
+        /*
+         * i-k-j order, the inner loop runs over contiguous rows of B and C
+         */
+        for (int i = 0; i < rows; i++) {
+            int c = i * n;
             for (int k = 0; k < columns; k++) {
-                Bcolj[k] = B.matrix[k][j];
-            }
-            for (int i = 0; i < rows; i++) {
-                double[] Arowi = matrix[i];
-                double s = 0;
-                for (int k = 0; k < columns; k++) {
-                    s += Arowi[k] * Bcolj[k];
+                double a = matrix[i * columns + k];
+                int r = k * n;
+                for (int j = 0; j < n; j++) {
+                    C[c + j] += a * b[r + j];
                 }
-                C[i][j] = s;
             }
         }
         return X;
@@ -1271,7 +1195,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return LUDecomposition
      * @see LUDecomposition
      */
-    public synchronized LUDecomposition lu() {
+    public LUDecomposition lu() {
         return new LUDecomposition(this);
     }
 
@@ -1281,7 +1205,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return QRDecomposition
      * @see QRDecomposition
      */
-    public synchronized QRDecomposition qr() {
+    public QRDecomposition qr() {
         return new QRDecomposition(this);
     }
 
@@ -1291,7 +1215,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return dataholeskyDecomposition
      * @see CholeskyDecomposition
      */
-    public synchronized CholeskyDecomposition chol() {
+    public CholeskyDecomposition chol() {
         return new CholeskyDecomposition(this);
     }
 
@@ -1301,7 +1225,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return SingularValueDecomposition
      * @see SingularValueDecomposition
      */
-    public synchronized SingularValueDecomposition svd() {
+    public SingularValueDecomposition svd() {
         return new SingularValueDecomposition(this);
     }
 
@@ -1311,7 +1235,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return EigenvalueDecomposition
      * @see EigenvalueDecomposition
      */
-    public synchronized EigenvalueDecomposition eig() {
+    public EigenvalueDecomposition eig() {
         return new EigenvalueDecomposition(this);
     }
 
@@ -1321,7 +1245,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B right hand side
      * @return solution if matrix is square, least squares solution otherwise
      */
-    public synchronized EBIMatrix solve(EBIMatrix B) {
+    public EBIMatrix solve(EBIMatrix B) {
         return (rows == columns ? (new LUDecomposition(this)).solve(B) : (new QRDecomposition(this)).solve(B));
     }
 
@@ -1331,7 +1255,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B right hand side
      * @return solution if matrix is square, least squares solution otherwise.
      */
-    public synchronized EBIMatrix solveTranspose(EBIMatrix B) {
+    public EBIMatrix solveTranspose(EBIMatrix B) {
         return transpose().solve(B.transpose());
     }
 
@@ -1340,7 +1264,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return inverse(matrix) if matrix is square, pseudoinverse otherwise.
      */
-    public synchronized EBIMatrix inverse() {
+    public EBIMatrix inverse() {
         return solve(identity(rows, rows));
     }
 
@@ -1349,7 +1273,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return determinant
      */
-    public synchronized double det() {
+    public double det() {
         return new LUDecomposition(this).det();
     }
 
@@ -1358,7 +1282,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return effective numerical rank, obtained from SVD.
      */
-    public synchronized int rank() {
+    public int rank() {
         return new SingularValueDecomposition(this).rank();
     }
 
@@ -1367,7 +1291,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return ratio of largest to smallest singular value.
      */
-    public synchronized double cond() {
+    public double cond() {
         return new SingularValueDecomposition(this).cond();
     }
 
@@ -1376,10 +1300,10 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return sum of the diagonal elements.
      */
-    public synchronized double trace() {
+    public double trace() {
         double t = 0;
         for (int i = 0; i < min(rows, columns); i++) {
-            t += matrix[i][i];
+            t += matrix[i * columns + i];
         }
         return t;
     }
@@ -1391,35 +1315,30 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return EBIMatrix m, with m^t * this * m = diagonal
      *
      */
-    public synchronized EBIMatrix diagonalize(int nrot) {
+    public EBIMatrix diagonalize(int nrot) {
         EBIMatrix m = duplicate();
         if (m.getRowDimension() != m.getColumnDimension()) {
             LOGGER.debug("EBIMatrix.diagonal: Sizes mismatched");
             return null;
         }
         int n = m.getRowDimension();
+        double[] a = m.matrix;
 
         int j, iq, ip, i;
 
         double tresh, theta, tau, t, sm, s, h, g, c;
-        double[] b, z;
+        double[] b, z, d;
 
-        EBIMatrix v = new EBIMatrix(columns, columns);
-        List<Double> d = new ArrayList<>(columns);
+        EBIMatrix v = identity(n, n);
+        double[] vm = v.matrix;
 
         b = new double[n + 1];
         z = new double[n + 1];
+        d = new double[n];
 
         for (ip = 0; ip < n; ip++) {
-            for (iq = 0; iq < n; iq++) {
-                v.matrix[ip][iq] = 0.0;
-            }
-            v.matrix[ip][ip] = 1.0;
-        }
-
-        for (ip = 0; ip < n; ip++) {
-            d.add(ip, m.matrix[ip][ip]);
-            b[ip] = m.matrix[ip][ip];
+            d[ip] = a[ip * n + ip];
+            b[ip] = a[ip * n + ip];
             z[ip] = 0.0;
         }
 
@@ -1428,7 +1347,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
             sm = 0.0;
             for (ip = 0; ip < n - 1; ip++) {
                 for (iq = ip + 1; iq < n; iq++) {
-                    sm += abs(m.matrix[ip][iq]);
+                    sm += abs(a[ip * n + iq]);
                 }
             }
 
@@ -1445,16 +1364,16 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
 
             for (ip = 0; ip < n - 1; ip++) {
                 for (iq = ip + 1; iq < n; iq++) {
-                    g = 100.0 * abs(m.matrix[ip][iq]);
-                    if ((i > 4) && (abs(d.get(ip) + g) == abs(d.get(ip)))
-                            && (abs(d.get(ip) + g) == abs(d.get(ip)))) {
-                        m.matrix[ip][iq] = 0.0;
-                    } else if (abs(m.matrix[ip][iq]) > tresh) {
-                        h = d.get(iq) - d.get(ip);
+                    g = 100.0 * abs(a[ip * n + iq]);
+                    if ((i > 4) && (abs(d[ip] + g) == abs(d[ip]))
+                            && (abs(d[ip] + g) == abs(d[ip]))) {
+                        a[ip * n + iq] = 0.0;
+                    } else if (abs(a[ip * n + iq]) > tresh) {
+                        h = d[iq] - d[ip];
                         if (abs(h) + g == abs(h)) {
-                            t = (m.matrix[ip][iq]) / h;
+                            t = (a[ip * n + iq]) / h;
                         } else {
-                            theta = 0.5 * h / (m.matrix[ip][iq]);
+                            theta = 0.5 * h / (a[ip * n + iq]);
                             t = 1.0 / (abs(theta) + sqrt(1.0 + theta * theta));
                             if (theta < 0.0) {
                                 t = -t;
@@ -1463,39 +1382,39 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
                         c = 1.0 / sqrt(1 + t * t);
                         s = t * c;
                         tau = s / (1.0 + c);
-                        h = t * m.matrix[ip][iq];
+                        h = t * a[ip * n + iq];
                         z[ip] -= h;
                         z[iq] += h;
-                        d.set(ip, d.get(ip) - h);
-                        d.set(iq, d.get(iq) + h);
-                        m.matrix[ip][iq] = 0.0;
+                        d[ip] -= h;
+                        d[iq] += h;
+                        a[ip * n + iq] = 0.0;
 
                         // Case of rotaions 1<=j<p
                         for (j = 0; j < ip; j++) {
-                            g = m.matrix[j][ip];
-                            h = m.matrix[j][iq];
-                            m.matrix[j][ip] = g - s * (h + g * tau);
-                            m.matrix[j][iq] = h + s * (g - h * tau);
+                            g = a[j * n + ip];
+                            h = a[j * n + iq];
+                            a[j * n + ip] = g - s * (h + g * tau);
+                            a[j * n + iq] = h + s * (g - h * tau);
                         }
                         // Case of rotaions p<j<q
                         for (j = ip + 1; j < iq; j++) {
-                            g = m.matrix[ip][j];
-                            h = m.matrix[j][iq];
-                            m.matrix[ip][j] = g - s * (h + g * tau);
-                            m.matrix[j][iq] = h + s * (g - h * tau);
+                            g = a[ip * n + j];
+                            h = a[j * n + iq];
+                            a[ip * n + j] = g - s * (h + g * tau);
+                            a[j * n + iq] = h + s * (g - h * tau);
                         }
                         // Case of rotaions q<j<=n
                         for (j = iq + 1; j < n; j++) {
-                            g = m.matrix[ip][j];
-                            h = m.matrix[iq][j];
-                            m.matrix[ip][j] = g - s * (h + g * tau);
-                            m.matrix[iq][j] = h + s * (g - h * tau);
+                            g = a[ip * n + j];
+                            h = a[iq * n + j];
+                            a[ip * n + j] = g - s * (h + g * tau);
+                            a[iq * n + j] = h + s * (g - h * tau);
                         }
                         for (j = 0; j < n; j++) {
-                            g = v.matrix[j][ip];
-                            h = v.matrix[j][iq];
-                            v.matrix[j][ip] = g - s * (h + g * tau);
-                            v.matrix[j][iq] = h + s * (g - h * tau);
+                            g = vm[j * n + ip];
+                            h = vm[j * n + iq];
+                            vm[j * n + ip] = g - s * (h + g * tau);
+                            vm[j * n + iq] = h + s * (g - h * tau);
                         }
                         ++nrot;
                     }
@@ -1504,7 +1423,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
 
             for (ip = 0; ip < n; ip++) {
                 b[ip] += z[ip];
-                d.set(ip, b[ip]);
+                d[ip] = b[ip];
                 z[ip] = 0.0;
             }
         }
@@ -1520,18 +1439,16 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @keyword orthonormalization
      * @keyword Gram-Schmidt algorithm
      */
-    public synchronized EBIMatrix orthonormalize(EBIMatrix S) {
+    public EBIMatrix orthonormalize(EBIMatrix S) {
         int p, q, k, i, j;
         double innersum;
         double length;
-        //EBIMatrix scr = S.mul(this);
         EBIMatrix result = duplicate();
+        double[] r = result.matrix;
+        double[] s = S.matrix;
+        int w = S.columns;
         for (p = 0; p < columns; p++) // Loops over all vectors
         {
-            for (i = 0; i < rows; i++) {
-                result.matrix[i][p] = matrix[i][p];
-            }
-
             for (k = 0; k < p; k++) // Substracts the previous vector 
             {
                 // First the calculation of the product <phi_p|phi_k>=length
@@ -1540,31 +1457,27 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
                 {
                     innersum = 0;
                     for (j = 0; j < rows; j++) {
-                        innersum += result.matrix[j][p] * S.matrix[i][j];
+                        innersum += r[j * columns + p] * s[i * w + j];
                     }
-                    length += result.matrix[i][k] * innersum;
+                    length += r[i * columns + k] * innersum;
                 }
-
                 // Then the substraction of  phi_k*length
                 for (q = 0; q < rows; q++) {
-                    result.matrix[q][p] -= result.matrix[q][k] * length;
+                    r[q * columns + p] -= r[q * columns + k] * length;
                 }
             }
-
             // Calculates the integral for normalization
             length = 0;
             for (i = 0; i < rows; i++) {
                 for (j = 0; j < rows; j++) {
-                    length += result.matrix[i][p] * result.matrix[j][p] * S.matrix[i][j];
+                    length += r[i * columns + p] * r[j * columns + p] * s[i * w + j];
                 }
             }
-
             length = sqrt(length);
-
             // Normalizes the vector
             if (length != 0d) {
                 for (q = 0; q < rows; q++) {
-                    result.matrix[q][p] /= length;
+                    r[q * columns + p] /= length;
                 }
             } else {
                 out.println("Warning(orthonormalize):" + (p + 1) + ". Vector has length null");
@@ -1583,7 +1496,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param width Field width for each column.
      * @see java.text.DecimalFormat#setDecimalFormatSymbols
      */
-    public synchronized void print(NumberFormat format, int width) {
+    public void print(NumberFormat format, int width) {
         print(new PrintWriter(out, true), format, width);
     }
 
@@ -1594,7 +1507,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param w dataolumn width.
      * @param d Number of digits after the decimal.
      */
-    public synchronized void print(int w, int d) {
+    public void print(int w, int d) {
         print(new PrintWriter(out, true), w, d);
     }
 
@@ -1606,7 +1519,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param w dataolumn width.
      * @param d Number of digits after the decimal.
      */
-    public synchronized void print(PrintWriter output, int w, int d) {
+    public void print(PrintWriter output, int w, int d) {
         DecimalFormat format = new DecimalFormat();
         format.setDecimalFormatSymbols(new DecimalFormatSymbols(US));
         format.setMinimumIntegerDigits(1);
@@ -1631,11 +1544,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param width dataolumn width.
      * @see java.text.DecimalFormat#setDecimalFormatSymbols
      */
-    public synchronized void print(PrintWriter output, NumberFormat format, int width) {
+    public void print(PrintWriter output, NumberFormat format, int width) {
         output.println();  // start on new line.
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < columns; j++) {
-                String s = format.format(matrix[i][j]); // format the number
+                String s = format.format(matrix[i * columns + j]); // format the number
                 int padding = max(1, width - s.length()); // At _least_ 1 space
                 for (int k = 0; k < padding; k++) {
                     output.print(' ');
@@ -1653,7 +1566,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return
      */
     @Override
-    public synchronized String toString() {
+    public String toString() {
         if ((rows <= 0) || (columns <= 0)) {
             return "[]";
         }
@@ -1664,27 +1577,27 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
         StringBuilder str = new StringBuilder();
         for (i = 0; i < (rows - 1); i++) {
             for (j = 0; j < (columns - 1); j++) {
-                if (round(matrix[i][j] * 10000) != 0) {
-                    str.append(format.format(matrix[i][j])).append(" ");
+                if (round(matrix[i * columns + j] * 10000) != 0) {
+                    str.append(format.format(matrix[i * columns + j])).append(" ");
                 } else {
                     str.append("-------- ");
                 }
             }
-            if (round(matrix[i][columns - 1] * 10000) != 0) {
-                str.append(format.format(matrix[i][columns - 1])).append(NEW_LINE);
+            if (round(matrix[i * columns + columns - 1] * 10000) != 0) {
+                str.append(format.format(matrix[i * columns + columns - 1])).append(NEW_LINE);
             } else {
                 str.append("--------").append(NEW_LINE);
             }
         }
         for (j = 0; j < (columns - 1); j++) {
-            if (round(matrix[rows - 1][j] * 10000) != 0) {
-                str.append(format.format(matrix[rows - 1][j])).append(" ");
+            if (round(matrix[(rows - 1) * columns + j] * 10000) != 0) {
+                str.append(format.format(matrix[(rows - 1) * columns + j])).append(" ");
             } else {
                 str.append("-------- ");
             }
         }
-        if (round(matrix[rows - 1][columns - 1] * 10000) != 0) {
-            str.append(format.format(matrix[rows - 1][columns - 1]));
+        if (round(matrix[matrix.length - 1] * 10000) != 0) {
+            str.append(format.format(matrix[matrix.length - 1]));
         } else {
             str.append("-------- ");
         }
@@ -1696,12 +1609,9 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @return
      */
     public double contraction() {
-        int i, j;
         double result = 0d;
-        for (i = 0; i < getRowDimension(); i++) {
-            for (j = 0; j < getColumnDimension(); j++) {
-                result += matrix[i][j];
-            }
+        for (double value : matrix) {
+            result += value;
         }
         return result;
     }
@@ -1721,11 +1631,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
                 for (int k = 0; k < U.getColumnDimension(); k++) {
                     innersum = 0d;
                     for (int l = 0; l < U.getColumnDimension(); l++) {
-                        innersum += matrix[k][l] * U.matrix[l][j];
+                        innersum += matrix[k * columns + l] * U.matrix[l * U.columns + j];
                     }
-                    sum += U.matrix[k][i] * innersum;
+                    sum += U.matrix[k * U.columns + i] * innersum;
                 }
-                result.matrix[i][j] = sum;
+                result.matrix[i * result.columns + j] = sum;
             }
         }
         return result;
@@ -1736,12 +1646,12 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return maximum column sum.
      */
-    public synchronized double norm1() {
+    public double norm1() {
         double f = 0;
         for (int j = 0; j < columns; j++) {
             double s = 0;
             for (int i = 0; i < rows; i++) {
-                s += abs(matrix[i][j]);
+                s += abs(matrix[i * columns + j]);
             }
             f = max(f, s);
         }
@@ -1753,7 +1663,7 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return maximum singular value.
      */
-    public synchronized double norm2() {
+    public double norm2() {
         return (new SingularValueDecomposition(this).norm2());
     }
 
@@ -1762,12 +1672,12 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return maximum row sum.
      */
-    public synchronized double normInf() {
+    public double normInf() {
         double f = 0;
         for (int i = 0; i < rows; i++) {
             double s = 0;
             for (int j = 0; j < columns; j++) {
-                s += abs(matrix[i][j]);
+                s += abs(matrix[i * columns + j]);
             }
             f = max(f, s);
         }
@@ -1779,11 +1689,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return sqrt of sum of squares of all elements.
      */
-    public synchronized double normF() {
+    public double normF() {
         double f = 0;
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < columns; j++) {
-                f = hypot(f, matrix[i][j]);
+                f = hypot(f, matrix[i * columns + j]);
             }
         }
         return f;
@@ -1794,15 +1704,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      *
      * @return -matrix
      */
-    public synchronized EBIMatrix uminus() {
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = -matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix uminus() {
+        return times(-1.0);
     }
 
     /**
@@ -1811,16 +1714,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix + B
      */
-    public synchronized EBIMatrix plus(EBIMatrix B) {
-        checkMatrixDimensions(B);
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = matrix[i][j] + B.matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix plus(EBIMatrix B) {
+        return duplicate().plusEquals(B);
     }
 
     /**
@@ -1829,12 +1724,11 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix + B
      */
-    public synchronized EBIMatrix plusEquals(EBIMatrix B) {
+    public EBIMatrix plusEquals(EBIMatrix B) {
         checkMatrixDimensions(B);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] += B.matrix[i][j];
-            }
+        double[] b = B.matrix;
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] += b[i];
         }
         return this;
     }
@@ -1845,16 +1739,8 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix - B
      */
-    public synchronized EBIMatrix minus(EBIMatrix B) {
-        checkMatrixDimensions(B);
-        EBIMatrix X = new EBIMatrix(rows, columns);
-        double[][] C = X.getArray();
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                C[i][j] = matrix[i][j] - B.matrix[i][j];
-            }
-        }
-        return X;
+    public EBIMatrix minus(EBIMatrix B) {
+        return duplicate().minusEquals(B);
     }
 
     /**
@@ -1863,14 +1749,12 @@ public class EBIMatrix extends Object implements Cloneable, java.io.Serializable
      * @param B another matrix
      * @return matrix - B
      */
-    public synchronized EBIMatrix minusEquals(EBIMatrix B) {
+    public EBIMatrix minusEquals(EBIMatrix B) {
         checkMatrixDimensions(B);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                matrix[i][j] -= B.matrix[i][j];
-            }
+        double[] b = B.matrix;
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] -= b[i];
         }
         return this;
     }
-
 }
@@ -18,8 +18,23 @@
  */
 package uk.ac.ebi.reactionblast.tools.bulk;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.openscience.cdk.interfaces.IAtomContainer;
 import org.openscience.cdk.interfaces.IReaction;
+import org.openscience.cdk.tools.ILoggingTool;
+import static org.openscience.cdk.tools.LoggingToolFactory.createLoggingTool;
 import uk.ac.ebi.reactionblast.interfaces.IDataSource;
 import uk.ac.ebi.reactionblast.interfaces.IDataStore;
 import uk.ac.ebi.reactionblast.interfaces.ITransformation;
@@ -27,22 +42,59 @@ import uk.ac.ebi.reactionblast.interfaces.ITransformation;
 /**
  * Transforms a number of reactions (or molecules in reactions) in turn.
  *
+ * With more than one transform thread, or a batch size above one, the work is
+ * run as a pipeline: a reader thread pulls entries from the data source, a
+ * pool of workers applies the transformation and the calling thread hands the
+ * results to the data store in batches. At most queueCapacity entries are in
+ * flight between the reader and the store, so a slow store (or a slow entry,
+ * when the output is ordered) holds back the reader instead of buffering the
+ * whole source. The transformation must be thread safe when more than one
+ * transform thread is used. As in the sequential run, a failure to read,
+ * transform or store is not swallowed: the pipeline drains and the first
+ * failure is then rethrown.
+ *
  * @author maclean
  *
  */
 public class BulkTransformer {
 
+    private final static ILoggingTool LOGGER
+            = createLoggingTool(BulkTransformer.class);
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+
     /**
      * The transformation, or series of transformations, to apply.
      */
     private final ITransformation transformation;
+    private final int transformThreads;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final boolean ordered;
 
     /**
      *
      * @param transformation
      */
     public BulkTransformer(ITransformation transformation) {
+        this(transformation, 1, DEFAULT_QUEUE_CAPACITY, 1, true);
+    }
+
+    /**
+     *
+     * @param transformation
+     * @param transformThreads number of threads in the transform stage
+     * @param queueCapacity maximum number of entries in flight
+     * @param batchSize number of entries handed to
+     * {@link IDataStore#storeAll(java.util.List)} at a time
+     * @param ordered store the entries in data source order
+     */
+    public BulkTransformer(ITransformation transformation, int transformThreads,
+            int queueCapacity, int batchSize, boolean ordered) {
         this.transformation = transformation;
+        this.transformThreads = Math.max(1, transformThreads);
+        this.batchSize = Math.max(1, batchSize);
+        this.queueCapacity = Math.max(Math.max(queueCapacity, this.transformThreads), this.batchSize);
+        this.ordered = ordered;
     }
 
     /**
@@ -63,7 +115,15 @@ public class BulkTransformer {
         }
     }
 
+    private boolean isPipelined() {
+        return transformThreads > 1 || batchSize > 1;
+    }
+
     private void transformReactions(IDataSource<IReaction> dataSource, IDataStore dataStore) {
+        if (isPipelined()) {
+            runPipeline(dataSource, dataStore);
+            return;
+        }
         IDataSource<IReaction> rxnDataSource = dataSource;
         for (IReaction reaction : rxnDataSource.getAll()) {
             if (reaction != null) {
@@ -77,6 +137,10 @@ public class BulkTransformer {
     }
 
     private void transformMolecules(IDataSource<IAtomContainer> dataSource, IDataStore dataStore) {
+        if (isPipelined()) {
+            runPipeline(dataSource, dataStore);
+            return;
+        }
         IDataSource<IAtomContainer> molDataSource = dataSource;
         for (IAtomContainer molecule : molDataSource.getAll()) {
             if (molecule != null) {
@@ -88,4 +152,178 @@ public class BulkTransformer {
             }
         }
     }
+
+    /**
+     * Read, transform and store stages connected by queues. The semaphore
+     * bounds the number of entries between reading and storing.
+     */
+    private <T> void runPipeline(IDataSource<T> dataSource, IDataStore<T> dataStore) {
+        final Semaphore inFlight = new Semaphore(queueCapacity);
+        final BlockingQueue<Result<T>> results = new LinkedBlockingQueue<>();
+        final ExecutorService workers = newFixedThreadPool(transformThreads,
+                new StageThreadFactory("BulkTransformer-transform"));
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread reader = new StageThreadFactory("BulkTransformer-read").newThread(() -> {
+            int index = 0;
+            try {
+                for (T entry : dataSource.getAll()) {
+                    inFlight.acquire();
+                    final int sequence = index++;
+                    final T input = entry;
+                    workers.execute(() -> {
+                        T value = null;
+                        try {
+                            value = apply(input);
+                        } catch (RuntimeException | Error ex) {
+                            failure.compareAndSet(null, ex);
+                        } finally {
+                            // post even if the transformation threw an Error,
+                            // the write stage waits for every sequence
+                            results.add(new Result<>(sequence, value));
+                        }
+                    });
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                LOGGER.error("Error while reading from the data source " + ex.getMessage());
+                failure.compareAndSet(null, ex);
+            } finally {
+                results.add(new Result<>(index, null, true));
+            }
+        });
+        reader.start();
+
+        try {
+            writeResults(results, inFlight, dataStore, failure);
+        } catch (InterruptedException ex) {
+            reader.interrupt();
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdown();
+            try {
+                workers.awaitTermination(1, SECONDS);
+                reader.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Throwable first = failure.get();
+        if (first instanceof RuntimeException) {
+            throw (RuntimeException) first;
+        }
+        if (first instanceof Error) {
+            throw (Error) first;
+        }
+    }
+
+    /**
+     * The write stage, run on the calling thread.
+     */
+    private <T> void writeResults(BlockingQueue<Result<T>> results, Semaphore inFlight,
+            IDataStore<T> dataStore, AtomicReference<Throwable> failure) throws InterruptedException {
+        final Map<Integer, Result<T>> pending = new HashMap<>();
+        final List<T> batch = new ArrayList<>(batchSize);
+        int total = -1;
+        int done = 0;
+        int nextSequence = 0;
+        while (total < 0 || done < total) {
+            Result<T> result = results.take();
+            if (result.endOfInput) {
+                total = result.sequence;
+                continue;
+            }
+            if (!ordered) {
+                done++;
+                addToBatch(result, batch, inFlight, dataStore, failure);
+                continue;
+            }
+            pending.put(result.sequence, result);
+            Result<T> next;
+            while ((next = pending.remove(nextSequence)) != null) {
+                nextSequence++;
+                done++;
+                addToBatch(next, batch, inFlight, dataStore, failure);
+            }
+        }
+        if (!batch.isEmpty()) {
+            store(batch, dataStore, failure);
+        }
+    }
+
+    private <T> void addToBatch(Result<T> result, List<T> batch, Semaphore inFlight, IDataStore<T> dataStore,
+            AtomicReference<Throwable> failure) {
+        if (result.value != null) {
+            batch.add(result.value);
+        }
+        if (batch.size() >= batchSize) {
+            store(batch, dataStore, failure);
+            inFlight.release(batch.size());
+            batch.clear();
+        }
+        if (result.value == null) {
+            inFlight.release();
+        }
+    }
+
+    /*
+     * A failed batch is recorded, the remaining batches are still stored
+     */
+    private <T> void store(List<T> batch, IDataStore<T> dataStore, AtomicReference<Throwable> failure) {
+        try {
+            dataStore.storeAll(new ArrayList<>(batch));
+        } catch (RuntimeException ex) {
+            LOGGER.error("Error while storing a batch of " + batch.size() + " entries " + ex.getMessage());
+            failure.compareAndSet(null, ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T apply(T entry) {
+        if (entry == null) {
+            return null;
+        }
+        return (T) transformation.transform(entry);
+    }
+
+    /**
+     * A transformed entry and its position in the data source.
+     */
+    private static class Result<T> {
+
+        private final int sequence;
+        private final T value;
+        private final boolean endOfInput;
+
+        Result(int sequence, T value) {
+            this(sequence, value, false);
+        }
+
+        Result(int sequence, T value, boolean endOfInput) {
+            this.sequence = sequence;
+            this.value = value;
+            this.endOfInput = endOfInput;
+        }
+    }
+
+    /**
+     * Named daemon threads, so a stuck stage never keeps the JVM alive.
+     */
+    private static class StageThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        StageThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
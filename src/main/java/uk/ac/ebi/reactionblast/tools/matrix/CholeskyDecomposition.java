@@ -51,7 +51,8 @@ public class CholeskyDecomposition implements java.io.Serializable {
     public CholeskyDecomposition(EBIMatrix Arg) {
 
         // Initialize.
-        double[][] A = Arg.getArray();
+        double[] A = Arg.getRowPackedArray();
+        int columns = Arg.getColumnDimension();
         n = Arg.getRowDimension();
         L = new double[n][n];
         isspd = (Arg.getColumnDimension() == n);
@@ -65,11 +66,11 @@ public class CholeskyDecomposition implements java.io.Serializable {
                 for (int i = 0; i < k; i++) {
                     s += Lrowk[i] * Lrowj[i];
                 }
-                Lrowj[k] = s = (A[j][k] - s) / L[k][k];
+                Lrowj[k] = s = (A[j * columns + k] - s) / L[k][k];
                 d += s * s;
-                isspd &= (A[k][j] == A[j][k]);
+                isspd &= (A[k * columns + j] == A[j * columns + k]);
             }
-            d = A[j][j] - d;
+            d = A[j * columns + j] - d;
             isspd &= (d > 0.0);
             L[j][j] = sqrt(max(d, 0.0));
             for (int k = j + 1; k < n; k++) {
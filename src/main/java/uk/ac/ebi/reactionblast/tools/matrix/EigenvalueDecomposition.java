@@ -81,7 +81,7 @@ public class EigenvalueDecomposition implements java.io.Serializable {
      * @param Arg
      */
     public EigenvalueDecomposition(EBIMatrix Arg) {
-        double[][] A = Arg.getArray();
+        double[] A = Arg.getRowPackedArray();
         n = Arg.getColumnDimension();
         V = new double[n][n];
         d = new double[n];
@@ -90,13 +90,13 @@ public class EigenvalueDecomposition implements java.io.Serializable {
         issymmetric = true;
         for (int j = 0; (j < n) & issymmetric; j++) {
             for (int i = 0; (i < n) & issymmetric; i++) {
-                issymmetric = (A[i][j] == A[j][i]);
+                issymmetric = (A[i * n + j] == A[j * n + i]);
             }
         }
 
         if (issymmetric) {
             for (int i = 0; i < n; i++) {
-                arraycopy(A[i], 0, V[i], 0, n);
+                arraycopy(A, i * n, V[i], 0, n);
             }
 
             // Tridiagonalize.
@@ -111,7 +111,7 @@ public class EigenvalueDecomposition implements java.io.Serializable {
 
             for (int j = 0; j < n; j++) {
                 for (int i = 0; i < n; i++) {
-                    H[i][j] = A[i][j];
+                    H[i][j] = A[i * n + j];
                 }
             }
 
@@ -887,16 +887,16 @@ public class EigenvalueDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getD() {
         EBIMatrix X = new EBIMatrix(n, n);
-        double[][] D = X.getArray();
+        double[] D = X.getRowPackedArray();
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                D[i][j] = 0.0;
+                D[i * n + j] = 0.0;
             }
-            D[i][i] = d[i];
+            D[i * n + i] = d[i];
             if (e[i] > 0) {
-                D[i][i + 1] = e[i];
+                D[i * n + i + 1] = e[i];
             } else if (e[i] < 0) {
-                D[i][i - 1] = e[i];
+                D[i * n + i - 1] = e[i];
             }
         }
         return X;
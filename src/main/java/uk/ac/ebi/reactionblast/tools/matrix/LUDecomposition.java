@@ -204,15 +204,15 @@ public class LUDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getL() {
         EBIMatrix X = new EBIMatrix(m, n);
-        double[][] L = X.getArray();
+        double[] L = X.getRowPackedArray();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
                 if (i > j) {
-                    L[i][j] = LU[i][j];
+                    L[i * n + j] = LU[i][j];
                 } else if (i == j) {
-                    L[i][j] = 1.0;
+                    L[i * n + j] = 1.0;
                 } else {
-                    L[i][j] = 0.0;
+                    L[i * n + j] = 0.0;
                 }
             }
         }
@@ -226,13 +226,13 @@ public class LUDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getU() {
         EBIMatrix X = new EBIMatrix(n, n);
-        double[][] U = X.getArray();
+        double[] U = X.getRowPackedArray();
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 if (i <= j) {
-                    U[i][j] = LU[i][j];
+                    U[i * n + j] = LU[i][j];
                 } else {
-                    U[i][j] = 0.0;
+                    U[i * n + j] = 0.0;
                 }
             }
         }
@@ -299,24 +299,24 @@ public class LUDecomposition implements java.io.Serializable {
         // Copy right hand side with pivoting
         int nx = B.getColumnDimension();
         EBIMatrix Xmat = B.getMatrix(piv, 0, nx - 1);
-        double[][] X = Xmat.getArray();
+        double[] X = Xmat.getRowPackedArray();
 
         // Solve L*Y = B(piv,:)
         for (int k = 0; k < n; k++) {
             for (int i = k + 1; i < n; i++) {
                 for (int j = 0; j < nx; j++) {
-                    X[i][j] -= X[k][j] * LU[i][k];
+                    X[i * nx + j] -= X[k * nx + j] * LU[i][k];
                 }
             }
         }
         // Solve U*X = Y;
         for (int k = n - 1; k >= 0; k--) {
             for (int j = 0; j < nx; j++) {
-                X[k][j] /= LU[k][k];
+                X[k * nx + j] /= LU[k][k];
             }
             for (int i = 0; i < k; i++) {
                 for (int j = 0; j < nx; j++) {
-                    X[i][j] -= X[k][j] * LU[i][k];
+                    X[i * nx + j] -= X[k * nx + j] * LU[i][k];
                 }
             }
         }
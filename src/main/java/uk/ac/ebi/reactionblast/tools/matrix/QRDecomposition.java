@@ -120,13 +120,13 @@ public class QRDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getH() {
         EBIMatrix X = new EBIMatrix(m, n);
-        double[][] H = X.getArray();
+        double[] H = X.getRowPackedArray();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
                 if (i >= j) {
-                    H[i][j] = QR[i][j];
+                    H[i * n + j] = QR[i][j];
                 } else {
-                    H[i][j] = 0.0;
+                    H[i * n + j] = 0.0;
                 }
             }
         }
@@ -140,15 +140,15 @@ public class QRDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getR() {
         EBIMatrix X = new EBIMatrix(n, n);
-        double[][] R = X.getArray();
+        double[] R = X.getRowPackedArray();
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 if (i < j) {
-                    R[i][j] = QR[i][j];
+                    R[i * n + j] = QR[i][j];
                 } else if (i == j) {
-                    R[i][j] = Rdiag[i];
+                    R[i * n + j] = Rdiag[i];
                 } else {
-                    R[i][j] = 0.0;
+                    R[i * n + j] = 0.0;
                 }
             }
         }
@@ -162,21 +162,21 @@ public class QRDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getQ() {
         EBIMatrix X = new EBIMatrix(m, n);
-        double[][] Q = X.getArray();
+        double[] Q = X.getRowPackedArray();
         for (int k = n - 1; k >= 0; k--) {
             for (int i = 0; i < m; i++) {
-                Q[i][k] = 0.0;
+                Q[i * n + k] = 0.0;
             }
-            Q[k][k] = 1.0;
+            Q[k * n + k] = 1.0;
             for (int j = k; j < n; j++) {
                 if (QR[k][k] != 0) {
                     double s = 0.0;
                     for (int i = k; i < m; i++) {
-                        s += QR[i][k] * Q[i][j];
+                        s += QR[i][k] * Q[i * n + j];
                     }
                     s = -s / QR[k][k];
                     for (int i = k; i < m; i++) {
-                        Q[i][j] += s * QR[i][k];
+                        Q[i * n + j] += s * QR[i][k];
                     }
                 }
             }
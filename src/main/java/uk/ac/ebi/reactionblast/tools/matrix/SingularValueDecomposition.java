@@ -501,12 +501,12 @@ public class SingularValueDecomposition implements java.io.Serializable {
      */
     public EBIMatrix getS() {
         EBIMatrix X = new EBIMatrix(n, n);
-        double[][] S = X.getArray();
+        double[] S = X.getRowPackedArray();
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                S[i][j] = 0.0;
+                S[i * n + j] = 0.0;
             }
-            S[i][i] = this.s[i];
+            S[i * n + i] = this.s[i];
         }
         return X;
     }
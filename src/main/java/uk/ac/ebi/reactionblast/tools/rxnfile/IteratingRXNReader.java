@@ -0,0 +1,419 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.tools.rxnfile;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.openscience.cdk.exception.CDKException;
+import org.openscience.cdk.interfaces.IChemObjectBuilder;
+import org.openscience.cdk.interfaces.IReaction;
+import org.openscience.cdk.io.IChemObjectReader.Mode;
+import static org.openscience.cdk.io.IChemObjectReader.Mode.RELAXED;
+import org.openscience.cdk.tools.ILoggingTool;
+import org.openscience.cdk.tools.LoggingToolFactory;
+
+/**
+ * Streams reactions out of RDF files, files with several concatenated RXN
+ * records and directories of RXN files. Molblocks are parsed in place from one
+ * buffered reader per file and only one reaction is held ahead of the caller,
+ * so memory stays bounded by the largest reaction rather than by the size of
+ * the input.
+ *
+ * RDF data fields ($DTYPE/$DATUM) following a reaction are stored as reaction
+ * properties. The reaction ID is taken from the $RIREG/$REREG identifier when
+ * present, else from the RXN file name (without extension), else from the
+ * running record index.
+ *
+ * <pre>
+ * try (IteratingRXNReader reader = new IteratingRXNReader(new File("reactions.rdf"),
+ *         SilentChemObjectBuilder.getInstance())) {
+ *     while (reader.hasNext()) {
+ *         IReaction reaction = reader.next();
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class IteratingRXNReader implements Iterator<IReaction>, Closeable {
+
+    private static final ILoggingTool LOGGER
+            = LoggingToolFactory.createLoggingTool(IteratingRXNReader.class);
+    /*
+     * Longest line we may need to push back when we look for the next record
+     */
+    private static final int MARK_LIMIT = 8192;
+    /*
+     * Size of the window mapped at a time in memory mapped mode
+     */
+    private static final long MAP_WINDOW = 64L * 1024L * 1024L;
+
+    private final IChemObjectBuilder builder;
+    private final Mode mode;
+    private final boolean memoryMapped;
+    private final Deque<File> pendingFiles;
+    private boolean skipErrors;
+
+    private BufferedReader input;
+    private MDLRXNV2000Reader rxnReader;
+    private String sourceName;
+    private int recordIndex;
+    private IReaction nextReaction;
+    private boolean nextAvailable;
+
+    /**
+     * Stream reactions from a reader (RDF or one or more RXN records).
+     *
+     * @param in
+     * @param builder
+     */
+    public IteratingRXNReader(Reader in, IChemObjectBuilder builder) {
+        this(in, builder, RELAXED);
+    }
+
+    /**
+     * Stream reactions from a reader (RDF or one or more RXN records).
+     *
+     * @param in
+     * @param builder
+     * @param mode
+     */
+    public IteratingRXNReader(Reader in, IChemObjectBuilder builder, Mode mode) {
+        this.builder = builder;
+        this.mode = mode;
+        this.memoryMapped = false;
+        this.pendingFiles = new ArrayDeque<>();
+        this.skipErrors = false;
+        this.recordIndex = 0;
+        this.nextAvailable = false;
+        open(in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in), null);
+    }
+
+    /**
+     * Stream reactions from an RDF/RXN file or from all RXN/RDF files in a
+     * directory (in file name order).
+     *
+     * @param fileOrDirectory
+     * @param builder
+     * @throws IOException
+     */
+    public IteratingRXNReader(File fileOrDirectory, IChemObjectBuilder builder) throws IOException {
+        this(fileOrDirectory, builder, RELAXED, false);
+    }
+
+    /**
+     * Stream reactions from an RDF/RXN file or from all RXN/RDF files in a
+     * directory (in file name order).
+     *
+     * @param fileOrDirectory
+     * @param builder
+     * @param mode
+     * @param memoryMapped map files into memory instead of reading them
+     * through a stream, useful for large RDF files
+     * @throws IOException
+     */
+    public IteratingRXNReader(File fileOrDirectory, IChemObjectBuilder builder,
+            Mode mode, boolean memoryMapped) throws IOException {
+        this.builder = builder;
+        this.mode = mode;
+        this.memoryMapped = memoryMapped;
+        this.pendingFiles = new ArrayDeque<>();
+        this.skipErrors = false;
+        this.recordIndex = 0;
+        this.nextAvailable = false;
+        if (fileOrDirectory.isDirectory()) {
+            File[] files = fileOrDirectory.listFiles((File dir, String name) -> {
+                String lower = name.toLowerCase();
+                return lower.endsWith(".rxn") || lower.endsWith(".rdf");
+            });
+            if (files != null) {
+                Arrays.sort(files);
+                pendingFiles.addAll(Arrays.asList(files));
+            }
+        } else if (fileOrDirectory.isFile()) {
+            pendingFiles.add(fileOrDirectory);
+        } else {
+            throw new IOException("RXN file not found! " + fileOrDirectory.getName());
+        }
+    }
+
+    /**
+     * Skip records which fail to parse instead of ending the iteration.
+     *
+     * @param skipErrors
+     */
+    public void setSkipErrors(boolean skipErrors) {
+        this.skipErrors = skipErrors;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextAvailable) {
+            return nextReaction != null;
+        }
+        nextReaction = readNext();
+        nextAvailable = true;
+        return nextReaction != null;
+    }
+
+    @Override
+    public IReaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        nextAvailable = false;
+        IReaction reaction = nextReaction;
+        nextReaction = null;
+        return reaction;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pendingFiles.clear();
+        nextReaction = null;
+        nextAvailable = true;
+        closeCurrent();
+    }
+
+    private IReaction readNext() {
+        while (true) {
+            try {
+                if (input == null && !openNextFile()) {
+                    return null;
+                }
+                IReaction reaction = readRecord();
+                if (reaction != null) {
+                    return reaction;
+                }
+                closeCurrent();
+            } catch (IOException | CDKException | RuntimeException ex) {
+                LOGGER.error("Error while reading reaction " + (recordIndex) + " from "
+                        + sourceName + ": " + ex.getMessage());
+                LOGGER.debug(ex);
+                if (!skipErrors) {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        LOGGER.debug(e);
+                    }
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the next reaction record of the current input.
+     *
+     * @return the reaction or null at the end of the input
+     */
+    private IReaction readRecord() throws IOException, CDKException {
+        String registryID = null;
+        String line;
+        /*
+         * Skip $RDFILE, $DATM and any stray lines up to the $RXN header
+         */
+        while (true) {
+            input.mark(MARK_LIMIT);
+            line = input.readLine();
+            if (line == null) {
+                return null;
+            }
+            if (line.startsWith("$RXN")) {
+                input.reset();
+                break;
+            }
+            if (line.startsWith("$RFMT")) {
+                registryID = readRegistryID(line);
+            }
+        }
+
+        recordIndex++;
+        IReaction reaction = rxnReader.readReaction(builder);
+        if (registryID != null) {
+            reaction.setID(registryID);
+        } else if (sourceName != null && recordIndex == 1) {
+            reaction.setID(sourceName);
+        } else if (sourceName != null) {
+            reaction.setID(sourceName + "_" + recordIndex);
+        } else {
+            reaction.setID(String.valueOf(recordIndex));
+        }
+        readDataFields(reaction);
+        return reaction;
+    }
+
+    /**
+     * Read the $DTYPE/$DATUM pairs after a reaction, stopping in front of the
+     * next record.
+     */
+    private void readDataFields(IReaction reaction) throws IOException {
+        String field = null;
+        StringBuilder datum = null;
+        String line;
+        while (true) {
+            input.mark(MARK_LIMIT);
+            line = input.readLine();
+            if (line == null) {
+                break;
+            }
+            if (line.startsWith("$RXN") || line.startsWith("$RFMT")) {
+                input.reset();
+                break;
+            }
+            if (line.startsWith("$DTYPE")) {
+                if (field != null && datum != null) {
+                    reaction.setProperty(field, datum.toString());
+                }
+                field = line.substring("$DTYPE".length()).trim();
+                datum = null;
+            } else if (line.startsWith("$DATUM")) {
+                datum = new StringBuilder(line.substring("$DATUM".length()).trim());
+            } else if (datum != null && !line.startsWith("$")) {
+                datum.append(line);
+            }
+        }
+        if (field != null && datum != null) {
+            reaction.setProperty(field, datum.toString());
+        }
+    }
+
+    private static String readRegistryID(String rfmtLine) {
+        String[] tokens = rfmtLine.trim().split("\\s+");
+        for (int i = 1; i < tokens.length - 1; i++) {
+            if (tokens[i].equals("$RIREG") || tokens[i].equals("$REREG")) {
+                return tokens[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private boolean openNextFile() throws IOException {
+        File file = pendingFiles.poll();
+        if (file == null) {
+            return false;
+        }
+        InputStream stream = memoryMapped
+                ? new MappedFileInputStream(file)
+                : new FileInputStream(file);
+        String name = file.getName();
+        int extension = name.lastIndexOf('.');
+        open(new BufferedReader(new InputStreamReader(stream, ISO_8859_1)),
+                extension > 0 ? name.substring(0, extension) : name);
+        return true;
+    }
+
+    private void open(BufferedReader reader, String name) {
+        this.input = reader;
+        this.sourceName = name;
+        this.recordIndex = 0;
+        this.rxnReader = new MDLRXNV2000Reader(reader, mode);
+    }
+
+    private void closeCurrent() throws IOException {
+        if (input != null) {
+            try {
+                input.close();
+            } finally {
+                input = null;
+                rxnReader = null;
+            }
+        }
+    }
+
+    /**
+     * Sequential input stream over a file mapped into memory a window at a
+     * time, so files larger than 2GB can be mapped as well.
+     */
+    private static class MappedFileInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private MappedByteBuffer buffer;
+
+        MappedFileInputStream(File file) throws IOException {
+            this.channel = new FileInputStream(file).getChannel();
+            this.size = channel.size();
+            this.position = 0;
+            this.buffer = null;
+        }
+
+        private boolean ensureMapped() throws IOException {
+            if (buffer != null && buffer.hasRemaining()) {
+                return true;
+            }
+            if (position >= size) {
+                return false;
+            }
+            long length = Math.min(MAP_WINDOW, size - position);
+            buffer = channel.map(READ_ONLY, position, length);
+            position += length;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureMapped()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureMapped()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            long remaining = (buffer == null ? 0 : buffer.remaining()) + (size - position);
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer = null;
+            channel.close();
+        }
+    }
+}
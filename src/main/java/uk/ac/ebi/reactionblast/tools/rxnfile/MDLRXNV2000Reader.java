@@ -68,8 +68,10 @@ import org.openscience.cdk.io.IChemObjectReader.Mode;
  */
 public class MDLRXNV2000Reader extends DefaultChemObjectReader {
 
-    private static final String NEW_LINE = System.getProperty("line.separator");
     BufferedReader input = null;
+    private BufferedReader molBlockInput = null;
+    private MolBlockReader molBlock = null;
+    private MDLV2000Reader molBlockParser = null;
     private static ILoggingTool LOGGER = LoggingToolFactory.createLoggingTool(MDLRXNV2000Reader.class);
 
     /**
@@ -200,12 +202,43 @@ public class MDLRXNV2000Reader extends DefaultChemObjectReader {
         return false;
     }
 
+    /**
+     * Read a molblock ("$MOL" line up to and including "M  END") directly from
+     * the shared input. The molblock parser is reused across molecules and
+     * reads through a bounded view, so no per-molecule string copy is made.
+     *
+     * @param builder
+     * @param blockMode parser mode of the molblock
+     * @return molecule read from the molblock
+     * @throws IOException
+     * @throws CDKException
+     */
+    private IAtomContainer readMolBlock(IChemObjectBuilder builder, Mode blockMode) throws IOException, CDKException {
+        String announceMDLFileLine = input.readLine();
+        if (announceMDLFileLine == null) {
+            throw new CDKException("Unexpected end of file while reading molblock");
+        }
+        if (molBlock == null || molBlockInput != input) {
+            molBlockInput = input;
+            molBlock = new MolBlockReader(input);
+            molBlockParser = new MDLV2000Reader(molBlock, super.mode);
+        }
+        molBlock.startBlock();
+        molBlockParser.setReader(molBlock);
+        molBlockParser.setReaderMode(blockMode);
+        IAtomContainer molecule = molBlockParser.read(builder.newInstance(IAtomContainer.class));
+        if (molecule == null) {
+            throw new CDKException("Unexpected end of file while reading molblock");
+        }
+        return molecule;
+    }
+
     /**
      * Read a Reaction from a file in MDL RXN format
      *
      * @return The Reaction that was read from the MDL file.
      */
-    private IReaction readReaction(IChemObjectBuilder builder) throws CDKException {
+    IReaction readReaction(IChemObjectBuilder builder) throws CDKException {
         IReaction reaction = builder.newInstance(IReaction.class);
         try {
             input.readLine(); // first line should be $RXN
@@ -244,27 +277,11 @@ public class MDLRXNV2000Reader extends DefaultChemObjectReader {
             throw new CDKException("Error while counts line of RXN file", exception);
         }
 
-        // now read the reactants
+        // now read the reactants, products and agents in place, products and
+        // agents are always parsed relaxed
         try {
             for (int i = 1; i <= reactantCount; i++) {
-                StringBuilder molFile = new StringBuilder();
-                input.readLine(); // announceMDLFileLine
-                String molFileLine = "";
-                do {
-                    molFileLine = input.readLine();
-                    molFile.append(molFileLine);
-                    molFile.append(NEW_LINE);
-                } while (!molFileLine.equals("M  END"));
-
-                IAtomContainer reactant;
-                try ( // read MDL molfile content
-                        // Changed this to mdlv2000 reader
-                        MDLV2000Reader reader = new MDLV2000Reader(new StringReader(molFile.toString()), super.mode)) {
-                    reactant = (IAtomContainer) reader.read(builder.newInstance(IAtomContainer.class));
-                }
-
-                // add reactant
-                reaction.addReactant(reactant);
+                reaction.addReactant(readMolBlock(builder, super.mode));
             }
         } catch (CDKException exception) {
             // rethrow exception from MDLReader
@@ -274,26 +291,9 @@ public class MDLRXNV2000Reader extends DefaultChemObjectReader {
             throw new CDKException("Error while reading reactant", exception);
         }
 
-        // now read the products
         try {
             for (int i = 1; i <= productCount; i++) {
-                StringBuilder molFile = new StringBuilder();
-                input.readLine(); // String announceMDLFileLine =
-                String molFileLine = "";
-                do {
-                    molFileLine = input.readLine();
-                    molFile.append(molFileLine);
-                    molFile.append(NEW_LINE);
-                } while (!molFileLine.equals("M  END"));
-
-                IAtomContainer product;
-                try ( // read MDL molfile content
-                        MDLV2000Reader reader = new MDLV2000Reader(new StringReader(molFile.toString()))) {
-                    product = (IAtomContainer) reader.read(builder.newInstance(IAtomContainer.class));
-                }
-
-                // add reactant
-                reaction.addProduct(product);
+                reaction.addProduct(readMolBlock(builder, Mode.RELAXED));
             }
         } catch (CDKException exception) {
             // rethrow exception from MDLReader
@@ -302,33 +302,17 @@ public class MDLRXNV2000Reader extends DefaultChemObjectReader {
             LOGGER.debug(exception);
             throw new CDKException("Error while reading products", exception);
         }
-        // now read the agents
+
         try {
             for (int i = 1; i <= agentCount; i++) {
-                StringBuilder molFile = new StringBuilder();
-                input.readLine(); // String announceMDLFileLine =
-                String molFileLine = "";
-                do {
-                    molFileLine = input.readLine();
-                    molFile.append(molFileLine);
-                    molFile.append(NEW_LINE);
-                } while (!molFileLine.equals("M  END"));
-
-                IAtomContainer agent;
-                try ( // read MDL molfile content
-                        MDLV2000Reader reader = new MDLV2000Reader(new StringReader(molFile.toString()))) {
-                    agent = (IAtomContainer) reader.read(builder.newInstance(IAtomContainer.class));
-                }
-
-                // add agent
-                reaction.addAgent(agent);
+                reaction.addAgent(readMolBlock(builder, Mode.RELAXED));
             }
         } catch (CDKException exception) {
             // rethrow exception from MDLReader
             throw exception;
         } catch (IOException | IllegalArgumentException exception) {
             LOGGER.debug(exception);
-            throw new CDKException("Error while reading products", exception);
+            throw new CDKException("Error while reading agents", exception);
         }
 
         // now try to map things, if wanted
@@ -0,0 +1,93 @@
+/* Copyright (C) 2003-2007  The Chemistry Development Kit (CDK) project
+ *
+ * Contact: cdk-devel@lists.sourceforge.net
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation; either version 2.1
+ * of the License, or (at your option) any later version.
+ * All we ask is that proper credit is given for our work, which includes
+ * - but is not limited to - adding the above copyright notice to the beginning
+ * of your source code files, and to any copyright notice that you may distribute
+ * with programs based on this work.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package uk.ac.ebi.reactionblast.tools.rxnfile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * A line oriented view over a shared {@link BufferedReader} that ends after
+ * the "M  END" line of a single molblock. This lets the {@link MDLV2000Reader}
+ * parse a molblock embedded in an RXN/RDF record in place, without copying the
+ * block into an intermediate string first.
+ *
+ * Only {@link #readLine()} is supported, which is all the MDL V2000 parser
+ * uses. Closing the view does not close the underlying reader.
+ *
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+class MolBlockReader extends BufferedReader {
+
+    private static final String END_OF_MOLBLOCK = "M  END";
+    private final BufferedReader input;
+    private boolean endOfBlock;
+
+    /**
+     * @param input shared reader positioned at the header line of a molblock
+     */
+    MolBlockReader(BufferedReader input) {
+        super(new StringReader(""), 1);
+        this.input = input;
+        this.endOfBlock = false;
+    }
+
+    /**
+     * Reposition the view at the next molblock of the underlying reader.
+     */
+    void startBlock() {
+        this.endOfBlock = false;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        if (endOfBlock) {
+            return null;
+        }
+        String line = input.readLine();
+        if (line == null || line.equals(END_OF_MOLBLOCK)) {
+            endOfBlock = true;
+        }
+        return line;
+    }
+
+    @Override
+    public int read() throws IOException {
+        throw new UnsupportedOperationException("MolBlockReader is line oriented");
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        throw new UnsupportedOperationException("MolBlockReader is line oriented");
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return !endOfBlock && input.ready();
+    }
+
+    @Override
+    public void close() throws IOException {
+        endOfBlock = true;
+    }
+}
@@ -3,10 +3,20 @@
  */
 package org.openscience.smsd.mcs;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Test;
+import org.openscience.cdk.CDKConstants;
+import org.openscience.cdk.interfaces.IAtom;
 import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
 import org.openscience.cdk.isomorphism.AtomMatcher;
 import org.openscience.cdk.isomorphism.BondMatcher;
 import org.openscience.cdk.isomorphism.Mappings;
@@ -19,7 +29,12 @@ import org.openscience.smsd.AtomAtomMapping;
 import org.openscience.smsd.Isomorphism;
 import org.openscience.smsd.Substructure;
 import org.openscience.smsd.algorithm.matchers.AtomBondMatcher;
+import org.openscience.smsd.algorithm.matchers.CompiledMatcher;
+import org.openscience.smsd.helper.AtomEquivalence;
+import org.openscience.smsd.helper.MCSUpperBound;
 import org.openscience.smsd.helper.MoleculeInitializer;
+import org.openscience.smsd.helper.RingInfo;
+import org.openscience.smsd.helper.SolutionSet;
 import org.openscience.smsd.interfaces.Algorithm;
 
 /**
@@ -400,4 +415,232 @@ public class MCSTest {
         assertEquals("O[C@H](CO)[C@@H]([C@H](CO)O)O", mcs.getFirstAtomMapping().getCommonFragmentAsSMILES());
 
     }
+
+    /**
+     * Benzene embeds into naphthalene 24 ways, 6 up to the naphthalene
+     * symmetry.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSubstructureModuloSymmetry() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        IAtomContainer query = sp.parseSmiles("c1ccccc1");
+        IAtomContainer target = sp.parseSmiles("c1ccc2ccccc2c1");
+        MoleculeInitializer.initializeMolecule(query);
+        MoleculeInitializer.initializeMolecule(target);
+
+        org.openscience.smsd.algorithm.matchers.AtomMatcher atomMatcher = AtomBondMatcher.atomMatcher(false, false);
+        org.openscience.smsd.algorithm.matchers.BondMatcher bondMatcher = AtomBondMatcher.bondMatcher(false, false);
+
+        Substructure smsd = new Substructure(query, target, atomMatcher, bondMatcher, true,
+                SolutionSet.UNLIMITED, true);
+        assertEquals(6, smsd.getAllAtomMapping().size());
+
+        AtomEquivalence symmetry = AtomEquivalence.of(target);
+        assertEquals(4, symmetry.getAutomorphismCount());
+        int count = 0;
+        for (AtomAtomMapping mapping : smsd.getAllAtomMapping()) {
+            count += symmetry.expand(mapping, Integer.MAX_VALUE).size();
+        }
+        assertEquals(24, count);
+
+        org.openscience.smsd.graph.algorithm.VentoFoggia vf
+                = org.openscience.smsd.graph.algorithm.VentoFoggia.findSubstructure(query, atomMatcher, bondMatcher);
+        assertEquals(24, vf.matchAll(target).count());
+        assertEquals(6, vf.matchAll(target).uniqueModuloSymmetry().count());
+        assertEquals(6, vf.matchAllModuloSymmetry(target).count());
+    }
+
+    /**
+     * The solution limit caps the number of mappings of the largest size.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSubstructureSolutionLimit() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        IAtomContainer query = sp.parseSmiles("c1ccccc1");
+        IAtomContainer target = sp.parseSmiles("c1ccc2ccccc2c1");
+        MoleculeInitializer.initializeMolecule(query);
+        MoleculeInitializer.initializeMolecule(target);
+
+        org.openscience.smsd.algorithm.matchers.AtomMatcher atomMatcher = AtomBondMatcher.atomMatcher(false, false);
+        org.openscience.smsd.algorithm.matchers.BondMatcher bondMatcher = AtomBondMatcher.bondMatcher(false, false);
+
+        Substructure smsd = new Substructure(query, target, atomMatcher, bondMatcher, true, 5);
+        assertEquals(5, smsd.getAllAtomMapping().size());
+        for (AtomAtomMapping mapping : smsd.getAllAtomMapping()) {
+            assertEquals(6, mapping.getCount());
+        }
+        assertTrue(new Substructure(query, target, atomMatcher, bondMatcher, true)
+                .getAllAtomMapping().size() > 5);
+    }
+
+    /**
+     * CDKMCS reports each maximum mapping once.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCDKMCSUniqueMappings() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        IAtomContainer query = sp.parseSmiles("Cc1ccccc1");
+        IAtomContainer target = sp.parseSmiles("c1ccc2ccccc2c1");
+        MoleculeInitializer.initializeMolecule(query);
+        MoleculeInitializer.initializeMolecule(target);
+
+        org.openscience.smsd.algorithm.matchers.AtomMatcher atomMatcher = AtomBondMatcher.atomMatcher(false, false);
+        org.openscience.smsd.algorithm.matchers.BondMatcher bondMatcher = AtomBondMatcher.bondMatcher(false, false);
+
+        Isomorphism all = new Isomorphism(query, target, Algorithm.CDKMCS, atomMatcher, bondMatcher);
+        List<AtomAtomMapping> mappings = all.getAllAtomMapping();
+        assertEquals(7, all.getFirstAtomMapping().getCount());
+        assertEquals(mappings.size(), new java.util.HashSet<>(mappings).size());
+    }
+
+    /**
+     * Neopentane has few enough carbons for hexane but a carbon of degree 4.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUpperBound() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        MCSUpperBound benzene = MCSUpperBound.of(sp.parseSmiles("c1ccccc1"));
+        MCSUpperBound naphthalene = MCSUpperBound.of(sp.parseSmiles("c1ccc2ccccc2c1"));
+        MCSUpperBound phenol = MCSUpperBound.of(sp.parseSmiles("Oc1ccccc1"));
+        assertEquals(6, benzene.atomBound(naphthalene));
+        assertEquals(6, phenol.bondBound(naphthalene));
+        assertEquals(true, benzene.isPossibleSubgraph(naphthalene));
+        assertEquals(false, naphthalene.isPossibleSubgraph(benzene));
+        assertEquals(false, phenol.isElementSubset(naphthalene));
+
+        MCSUpperBound neopentane = MCSUpperBound.of(sp.parseSmiles("CC(C)(C)C"));
+        MCSUpperBound hexane = MCSUpperBound.of(sp.parseSmiles("CCCCCC"));
+        assertEquals(true, neopentane.isElementSubset(hexane));
+        assertEquals(false, neopentane.isPossibleSubgraph(hexane));
+        assertEquals(0, MCSUpperBound.of(sp.parseSmiles("[H+]")).atomBound(hexane));
+    }
+
+    /**
+     * The compiled matchers give the answers of the atom and bond matchers.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCompiledMatcher() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        IAtomContainer query = sp.parseSmiles("OC(=O)c1ccccc1C1CCCC1");
+        IAtomContainer target = sp.parseSmiles("OC(=O)c1ccc2ccccc2c1C1CCCCC1");
+        MoleculeInitializer.initializeMolecule(query);
+        MoleculeInitializer.initializeMolecule(target);
+
+        for (boolean rings : new boolean[]{false, true}) {
+            org.openscience.smsd.algorithm.matchers.AtomMatcher atomMatcher = AtomBondMatcher.atomMatcher(true, rings);
+            org.openscience.smsd.algorithm.matchers.BondMatcher bondMatcher = AtomBondMatcher.bondMatcher(true, rings);
+            CompiledMatcher matcher = CompiledMatcher.compile(atomMatcher, bondMatcher, query, target);
+            for (int i = 0; i < query.getAtomCount(); i++) {
+                for (int j = 0; j < target.getAtomCount(); j++) {
+                    assertEquals(atomMatcher.matches(query.getAtom(i), target.getAtom(j)), matcher.atomMatches(i, j));
+                }
+            }
+            for (int i = 0; i < query.getBondCount(); i++) {
+                for (int j = 0; j < target.getBondCount(); j++) {
+                    assertEquals(AtomBondMatcher.matchAtomAndBond(query.getBond(i), target.getBond(j),
+                            atomMatcher, bondMatcher, true), matcher.matchAtomAndBond(i, j));
+                }
+            }
+        }
+        CompiledMatcher matcher = CompiledMatcher.compile(AtomBondMatcher.atomMatcher(false, false),
+                AtomBondMatcher.bondMatcher(false, false), query, target);
+        assertEquals(query.indexOf(query.getBond(query.getAtom(0), query.getAtom(1))), matcher.queryBond(1, 0));
+        assertEquals(-1, matcher.targetBond(0, 2));
+    }
+
+    /**
+     * Ring information is found again once bonds are added or removed.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRingInfoAfterBondChange() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        IAtomContainer ac = sp.parseSmiles("CCCCCC");
+        RingInfo chain = RingInfo.of(ac);
+        assertSame(chain, RingInfo.of(ac));
+        assertEquals(0, chain.getRingCount());
+        assertFalse(chain.isInRing(0));
+
+        ac.addBond(0, 5, IBond.Order.SINGLE);
+        RingInfo ring = RingInfo.of(ac);
+        assertNotSame(chain, ring);
+        assertEquals(1, ring.getRingCount());
+        assertEquals(1L << 6, ring.getAtomRingSizeMask(0));
+        assertEquals(1L << 6, ring.getBondRingSizeMask(5));
+        assertArrayEquals(new int[]{6}, ring.getAtomRingSizes(0));
+
+        ac.addBond(0, 3, IBond.Order.SINGLE);
+        RingInfo bicycle = RingInfo.of(ac);
+        assertEquals(3, bicycle.getRingCount());
+        assertEquals((1L << 4) | (1L << 6), bicycle.getAtomRingSizeMask(0));
+        assertEquals(1L << 4, bicycle.getBondRingSizeMask(6));
+        assertArrayEquals(new int[]{4, 4, 6}, bicycle.getAtomRingSizes(0));
+        assertArrayEquals(new int[]{4, 6}, bicycle.getAtomRingSizes(1));
+
+        ac.removeBond(ac.getBond(ac.getAtom(0), ac.getAtom(5)));
+        RingInfo opened = RingInfo.of(ac);
+        assertEquals(1, opened.getRingCount());
+        assertEquals(1L << 4, opened.getAtomRingSizeMask(0));
+        assertFalse(opened.isInRing(5));
+        assertFalse(opened.isBondInRing(ac.indexOf(ac.getBond(ac.getAtom(4), ac.getAtom(5)))));
+    }
+
+    /**
+     * The ring size masks set by the initializer agree with the RING_SIZES
+     * lists the atom matcher falls back to.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRingSizeMasks() throws Exception {
+        SmilesParser sp = new SmilesParser(SilentChemObjectBuilder.getInstance());
+        String[] smiles = {
+            "c1ccc2ccccc2c1",
+            "C1CCC2(CC1)CCC2",
+            "C12C3C4C1C5C2C3C45",
+            "C1CC2CCC1CC2",
+            "c1ccc2c(c1)[nH]c1ccccc12",
+            "C1" + String.join("", Collections.nCopies(68, "C")) + "C1"
+        };
+        List<IAtom> atoms = new ArrayList<>();
+        for (String smi : smiles) {
+            IAtomContainer ac = sp.parseSmiles(smi);
+            MoleculeInitializer.initializeMolecule(ac);
+            for (IAtom atom : ac.atoms()) {
+                if (!atom.isInRing()) {
+                    continue;
+                }
+                List<Integer> sizes = atom.getProperty(CDKConstants.RING_SIZES);
+                long mask = 0;
+                for (int size : sizes) {
+                    mask |= 1L << Math.min(size, RingInfo.LARGE_RING);
+                }
+                assertEquals(smi, Long.valueOf(mask), atom.getProperty(RingInfo.RING_SIZE_MASK));
+                atoms.add(atom);
+            }
+        }
+        for (IAtom q : atoms) {
+            long maskQ = q.getProperty(RingInfo.RING_SIZE_MASK);
+            List<Integer> sizesQ = q.getProperty(CDKConstants.RING_SIZES);
+            for (IAtom t : atoms) {
+                long maskT = t.getProperty(RingInfo.RING_SIZE_MASK);
+                List<Integer> sizesT = t.getProperty(CDKConstants.RING_SIZES);
+                if (RingInfo.isExact(maskQ) && RingInfo.isExact(maskT)) {
+                    assertEquals(sizesT.containsAll(sizesQ) || sizesQ.containsAll(sizesT),
+                            (maskQ & ~maskT) == 0 || (maskT & ~maskQ) == 0);
+                }
+            }
+        }
+    }
 }
@@ -21,6 +21,8 @@ package uk.ac.ebi.aamtool;
 import uk.ac.ebi.reactionblast.tools.MappingUtility;
 import java.io.FileNotFoundException;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.logging.Logger;
@@ -30,13 +32,20 @@ import org.openscience.cdk.smiles.SmilesParser;
 import uk.ac.ebi.reactionblast.fingerprints.Feature;
 import uk.ac.ebi.reactionblast.fingerprints.PatternFingerprinter;
 import uk.ac.ebi.reactionblast.fingerprints.interfaces.IPatternFingerprinter;
+import uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm;
 import uk.ac.ebi.reactionblast.mechanism.BondChangeCalculator;
 import uk.ac.ebi.reactionblast.mechanism.ReactionMechanismTool;
 import static java.util.logging.Logger.getLogger;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import org.openscience.cdk.silent.SilentChemObjectBuilder;
 import uk.ac.ebi.reactionblast.fingerprints.interfaces.IFeature;
+import static uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm.MAX;
+import static uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm.MIN;
+import static uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm.MIXTURE;
+import static uk.ac.ebi.reactionblast.mapping.interfaces.IMappingAlgorithm.RINGS;
 import static uk.ac.ebi.reactionblast.tools.ReactionSimilarityTool.getSimilarity;
 import static uk.ac.ebi.reactionblast.tools.TestUtility.BUG_RXN_DIR;
 import static uk.ac.ebi.reactionblast.tools.TestUtility.KEGG_RXN_DIR;
@@ -1855,6 +1864,171 @@ public class RXNMappingTest extends MappingUtility {
 //                .getFormedCleavedWFingerprint();
 //        assertEquals(1, formedCleavedWFingerprint.getFeatureCount());
 //    }
+    /*
+     * Winner selection over all four algorithms
+     *
+     * MIN, fp
+     * ID=R05219:Bond Cleaved and Formed (4)
+     * [C-C:2.0, C-O:1.0, C-S:1.0, H-O:2.0]
+     *
+     * MIN 6 changes BE 1322.0, MAX and RINGS 14 changes BE 2920.0, MIXTURE 16
+     * changes BE 2920.0
+     */
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    public void R05219Solutions() throws Exception {
+
+        String reactionID = "R05219";
+        ReactionMechanismTool testReactions = testReactions(reactionID, KEGG_RXN_DIR);
+        assertEquals(MIN, testReactions.getSelectedSolution().getAlgorithmID());
+        assertEquals("[C-C:2.0, C-O:1.0, C-S:1.0, H-O:2.0]", testReactions
+                .getSelectedSolution()
+                .getBondChangeCalculator()
+                .getFormedCleavedWFingerprint()
+                .getFeatures().toString());
+        assertEquals("[MAX:14,2920.0,0, MIN:6,1322.0,0, MIXTURE:16,2920.0,0, RINGS:14,2920.0,0]",
+                solutions(testReactions).toString());
+    }
+
+    /*
+     * Winner selection over all four algorithms
+     *
+     * MAX, fp
+     * ID=R00023:Bond Cleaved and Formed (3)
+     * [C-H:2.0, H-N:4.0, N=N:1.0]
+     *
+     * MIN 15 changes BE 2838.0, MAX, MIXTURE and RINGS 7 changes BE 418.0
+     */
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    public void R00023Solutions() throws Exception {
+
+        String reactionID = "R00023";
+        ReactionMechanismTool testReactions = testReactions(reactionID, KEGG_RXN_DIR);
+        assertEquals(MAX, testReactions.getSelectedSolution().getAlgorithmID());
+        assertEquals("[C-H:2.0, H-N:4.0, N=N:1.0]", testReactions
+                .getSelectedSolution()
+                .getBondChangeCalculator()
+                .getFormedCleavedWFingerprint()
+                .getFeatures().toString());
+        assertEquals("[MAX:7,418.0,0, MIN:15,2838.0,0, MIXTURE:7,418.0,0, RINGS:7,418.0,0]",
+                solutions(testReactions).toString());
+    }
+
+    /*
+     * MIN, MIXTURE and RINGS agree on the mapping and share its bond changes
+     *
+     * MIN, fp
+     * ID=R05069:Bond Cleaved and Formed (1)
+     * [C-C:2.0]
+     *
+     * MIN, MIXTURE and RINGS BE 692.0, MAX BE 2314.0
+     */
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    public void R05069Solutions() throws Exception {
+
+        String reactionID = "R05069";
+        ReactionMechanismTool testReactions = testReactions(reactionID, KEGG_RXN_DIR);
+        assertEquals(MIN, testReactions.getSelectedSolution().getAlgorithmID());
+        assertEquals("[C-C:2.0]", testReactions
+                .getSelectedSolution()
+                .getBondChangeCalculator()
+                .getFormedCleavedWFingerprint()
+                .getFeatures().toString());
+        assertEquals("[MAX:4,2314.0,0, MIN:4,692.0,0, MIXTURE:4,692.0,0, RINGS:4,692.0,0]",
+                solutions(testReactions).toString());
+
+        Map<IMappingAlgorithm, BondChangeCalculator> calculators = new EnumMap<>(IMappingAlgorithm.class);
+        testReactions.getAllSolutions().forEach((s) -> {
+            calculators.put(s.getAlgorithmID(), s.getBondChangeCalculator());
+        });
+        assertSame(calculators.get(MIN), calculators.get(MIXTURE));
+        assertSame(calculators.get(MIN), calculators.get(RINGS));
+        assertNotSame(calculators.get(MIN), calculators.get(MAX));
+    }
+
+    /*
+     * The solutions are annotated in parallel, the last one (RINGS) wins
+     *
+     * RINGS, fp
+     * ID=R08639:Bond Cleaved and Formed (2)
+     * [H-O:2.0, O-P:2.0]
+     *
+     * RINGS 4 changes BE 670.0, MIN, MAX and MIXTURE 6 changes BE 706.0
+     */
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    public void R08639Solutions() throws Exception {
+
+        String reactionID = "R08639";
+        ReactionMechanismTool testReactions = testReactions(reactionID, KEGG_RXN_DIR);
+        assertEquals(RINGS, testReactions.getSelectedSolution().getAlgorithmID());
+        assertEquals("[H-O:2.0, O-P:2.0]", testReactions
+                .getSelectedSolution()
+                .getBondChangeCalculator()
+                .getFormedCleavedWFingerprint()
+                .getFeatures().toString());
+        assertEquals("[MAX:6,706.0,0, MIN:6,706.0,0, MIXTURE:6,706.0,0, RINGS:4,670.0,0]",
+                solutions(testReactions).toString());
+    }
+
+    /*
+     * Reaction centre signatures
+     *
+     * MIN, fp
+     * ID=R03627:Reaction Center (21)
+     */
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    public void R03627ReactionCentre() throws Exception {
+
+        String reactionID = "R03627";
+        ReactionMechanismTool testReactions = testReactions(reactionID, KEGG_RXN_DIR);
+        IPatternFingerprinter reactionCenterWFingerprint = testReactions
+                .getSelectedSolution()
+                .getBondChangeCalculator()
+                .getReactionCenterWFingerprint();
+        assertEquals(21, reactionCenterWFingerprint.getFeatureCount());
+        assertEquals("[[CH2]:2.0, [CH2]C=CCC=C[CH2]>>[CH2]C=CC=CC[CH2]:1.0, "
+                + "[CH2]C=CC[CH2]:1.0, [CH2]C=CC[CH2]>>[CH]=CCC[CH2]:1.0, [CH]:4.0, "
+                + "[CH]=CC=C[CH2]:1.0, [CH]=CCC=CC[CH2]>>[CH]=CC=CCC[CH2]:1.0, "
+                + "[CH]=CCC=[CH]:1.0, [CH]=CCC=[CH]>>[CH]=CC=C[CH2]:1.0, "
+                + "[CH]=CCC[CH2]:1.0, [CH]=C[CH2]:3.0, [CH]=C[CH2]>>[CH]=C[CH2]:1.0, "
+                + "[CH]=C[CH2]>>[CH]C[CH2]:1.0, [CH]C=CC[CH2]:1.0, [CH]C=[CH]:1.0, "
+                + "[CH]CC=CCC[CH2]>>[CH]C=CCCC[CH2]:1.0, [CH]CC=C[CH2]:1.0, "
+                + "[CH]CC=C[CH2]>>[CH]C=CC[CH2]:1.0, [CH]C[CH2]:1.0, [CH]C[CH]:1.0, "
+                + "[CH]C[CH]>>[CH]C=[CH]:1.0]",
+                reactionCenterWFingerprint.getFeatures().toString());
+    }
+
+    /*
+     * Bond changes, bond energy and fragment changes of each solution
+     */
+    private Set<String> solutions(ReactionMechanismTool testReactions) {
+        Set<String> solutions = new TreeSet<>();
+        testReactions.getAllSolutions().forEach((s) -> {
+            solutions.add(s.getAlgorithmID() + ":" + s.getTotalBondChanges()
+                    + "," + s.getBondEnergySum() + "," + s.getTotalFragmentChanges());
+        });
+        return solutions;
+    }
+
     private Set<IFeature> ignoreHydrogenChanges(Collection<IFeature> features) {
         Set<IFeature> selected = new TreeSet<>();
         features.stream().filter((f) -> (!f.getPattern().contains("H"))).forEachOrdered((f) -> {
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad @ ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.aamtool;
+
+import java.io.File;
+import java.io.IOException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class ReportWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Each record is written as an element of the EC_BLAST document
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testXML() throws Exception {
+        String name = new File(folder.getRoot(), "job").getPath();
+        try (ReportWriter report = ReportWriter.forFormat("XML", name)) {
+            report.write("R1", true, record("BC", "C-C"), null);
+            report.write(null, true, record("BC", "C=O"), null);
+        }
+        String xml = read(name + ".xml");
+        assertTrue(xml.contains("<EC_BLAST>"));
+        assertTrue(xml.contains("<ANNOTATION ID=\"R1\">"));
+        assertTrue(xml.contains("<BC>C=O</BC>"));
+        assertTrue(xml.trim().endsWith("</EC_BLAST>"));
+        assertFalse(new File(name + ".jsonl").exists());
+    }
+
+    /**
+     * The text records follow each other, labelled by their ID
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testText() throws Exception {
+        String name = new File(folder.getRoot(), "job").getPath();
+        try (ReportWriter report = ReportWriter.forFormat("TEXT", name)) {
+            report.write("R1", true, record("BC", "C-C"), "BC C-C");
+            report.write(null, true, record("BC", "C=O"), "BC C=O");
+        }
+        String text = read(name + ".txt");
+        assertTrue(text.contains("REACTION R1"));
+        assertTrue(text.indexOf("BC C-C") < text.indexOf("BC C=O"));
+        assertFalse(new File(name + ".xml").exists());
+    }
+
+    /**
+     * One JSON object per record, a missing ID is written as null
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testJSONLines() throws Exception {
+        String name = new File(folder.getRoot(), "job").getPath();
+        try (ReportWriter report = ReportWriter.forFormat("JSONL", name)) {
+            report.write("R\"1", true, record("BC", "C-C"), null);
+            report.write(null, true, record("BC", "C=O"), null);
+        }
+        List<String> lines = Files.readAllLines(new File(name + ".jsonl").toPath(), UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("{\"ID\":\"R\\\"1\",\"ANNOTATION\":{\"BC\":\"C-C\"}}", lines.get(0));
+        assertEquals("{\"ID\":null,\"ANNOTATION\":{\"BC\":\"C=O\"}}", lines.get(1));
+    }
+
+    private static Element record(String name, String value) throws ParserConfigurationException {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element record = doc.createElement("ANNOTATION");
+        Element child = doc.createElement(name);
+        child.setTextContent(value);
+        record.appendChild(child);
+        return record;
+    }
+
+    private static String read(String file) throws IOException {
+        return new String(Files.readAllBytes(new File(file).toPath()), UTF_8);
+    }
+}
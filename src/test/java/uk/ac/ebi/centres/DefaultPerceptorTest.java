@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2012. John May
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301 USA
+ */
+package uk.ac.ebi.centres;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+import org.openscience.cdk.layout.StructureDiagramGenerator;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import org.openscience.cdk.smiles.SmilesParser;
+import static org.openscience.cdk.tools.manipulator.AtomContainerManipulator.convertImplicitToExplicitHydrogens;
+import static org.openscience.cdk.tools.manipulator.AtomContainerManipulator.percieveAtomTypesAndConfigureAtoms;
+import uk.ac.ebi.centres.cdk.CDKPerceptor;
+import static uk.ac.ebi.centres.descriptor.General.NONE;
+import static uk.ac.ebi.centres.descriptor.General.UNKNOWN;
+
+/**
+ * Descriptors of molecules with several centres, some of which can only be
+ * decided once another centre has a descriptor. The expected descriptors are
+ * those assigned when every undecided centre was perceived again each pass.
+ *
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class DefaultPerceptorTest {
+
+    /*
+     * Descriptors of the atoms ("index:descriptor") and of the double bonds
+     * ("b index:descriptor") in atom and bond order
+     */
+    private static String perceive(String smiles) throws Exception {
+        IAtomContainer container = new SmilesParser(SilentChemObjectBuilder.getInstance()).parseSmiles(smiles);
+        percieveAtomTypesAndConfigureAtoms(container);
+        convertImplicitToExplicitHydrogens(container);
+        new StructureDiagramGenerator().generateCoordinates(container);
+        new CDKPerceptor().perceive(container);
+
+        StringBuilder descriptors = new StringBuilder();
+        for (IAtom atom : container.atoms()) {
+            append(descriptors, "", container.indexOf(atom), atom.getProperty("descriptor"));
+        }
+        for (IBond bond : container.bonds()) {
+            append(descriptors, "b", container.indexOf(bond), bond.getProperty("descriptor"));
+        }
+        return descriptors.toString();
+    }
+
+    private static void append(StringBuilder descriptors, String prefix, int index, Object descriptor) {
+        if (descriptor == null || descriptor == NONE || descriptor == UNKNOWN) {
+            return;
+        }
+        if (descriptors.length() > 0) {
+            descriptors.append(' ');
+        }
+        descriptors.append(prefix).append(index).append(':').append(descriptor);
+    }
+
+    /**
+     * myo-Inositol, all six centres are pseudo-asymmetric
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testInositol() throws Exception {
+        assertEquals("1:r 2:r 4:r 6:r 8:r 10:r",
+                perceive("O[C@H]1[C@H](O)[C@@H](O)[C@H](O)[C@@H](O)[C@@H]1O"));
+    }
+
+    /**
+     * The two branches of the centre only differ in the E/Z configuration of
+     * their double bond
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCentreDependentOnDoubleBonds() throws Exception {
+        assertEquals("3:S b1:E b5:Z", perceive("C/C=C/[C@H](O)/C=C\\C"));
+        assertEquals("3:R b1:E b5:Z", perceive("C/C=C/[C@@H](O)/C=C\\C"));
+    }
+
+    /**
+     * cis-1,4-Dimethylcyclohexane, the two centres depend on each other
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testDimethylcyclohexane() throws Exception {
+        assertEquals("1:s 4:s", perceive("C[C@H]1CC[C@@H](C)CC1"));
+    }
+
+    /**
+     * 2,3,4-Trihydroxyglutaric acid, the middle centre is left undecided
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testTrihydroxyglutaricAcid() throws Exception {
+        assertEquals("3:S 7:S", perceive("OC(=O)[C@H](O)[C@H](O)[C@@H](O)C(=O)O"));
+        assertEquals("3:S 7:S", perceive("OC(=O)[C@H](O)[C@@H](O)[C@@H](O)C(=O)O"));
+    }
+
+    /**
+     * Threonine and glucose, independent centres
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testIndependentCentres() throws Exception {
+        assertEquals("1:R 3:R", perceive("C[C@@H](O)[C@H](N)C(=O)O"));
+        assertEquals("2:R 4:S 6:S 8:R 10:R", perceive("OC[C@H]1O[C@H](O)[C@H](O)[C@@H](O)[C@@H]1O"));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad at ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mapping.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import uk.ac.ebi.reactionblast.mapping.interfaces.IGameTheoryRoundListener;
+
+/**
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class GameTheoryRoundsTest {
+
+    private static class RecordingListener implements IGameTheoryRoundListener {
+
+        final List<GameTheoryRound> completed = new ArrayList<>();
+        final List<GameTheoryRound> limits = new ArrayList<>();
+
+        @Override
+        public void roundCompleted(GameTheoryRound round) {
+            completed.add(round);
+        }
+
+        @Override
+        public void limitReached(GameTheoryRound round) {
+            limits.add(round);
+        }
+    }
+
+    private static void completeRound(GameTheoryRounds rounds, int pairsSolved) {
+        assertTrue(rounds.startRound());
+        assertTrue(rounds.winnersSearched(true));
+        rounds.winnersMapped(pairsSolved);
+        rounds.matrixUpdated();
+    }
+
+    /**
+     * Every completed round is reported with its number, no limit is hit
+     */
+    @Test
+    public void testListener() {
+        RecordingListener listener = new RecordingListener();
+        GameTheoryRounds rounds = new GameTheoryRounds("R1", "MIN",
+                new GameTheoryOptions(Integer.MAX_VALUE, 0, listener));
+        completeRound(rounds, 2);
+        completeRound(rounds, 1);
+        assertTrue(rounds.startRound());
+        assertFalse(rounds.winnersSearched(false));
+        assertFalse(rounds.startRound());
+
+        assertEquals(3, rounds.getRounds());
+        assertEquals(2, listener.completed.size());
+        assertEquals(1, listener.completed.get(0).getRound());
+        assertEquals(2, listener.completed.get(0).getPairsSolved());
+        assertEquals(2, listener.completed.get(1).getRound());
+        assertEquals(1, listener.completed.get(1).getPairsSolved());
+        assertEquals("R1", listener.completed.get(1).getReactionID());
+        assertEquals("MIN", listener.completed.get(1).getAlgorithm());
+        assertTrue(listener.limits.isEmpty());
+    }
+
+    /**
+     * No round is started past maxRounds, the last round is passed to
+     * limitReached
+     */
+    @Test
+    public void testRoundLimit() {
+        RecordingListener listener = new RecordingListener();
+        GameTheoryRounds rounds = new GameTheoryRounds("R1", "MAX",
+                new GameTheoryOptions(1, 0, listener));
+        completeRound(rounds, 3);
+        assertFalse(rounds.startRound());
+        assertFalse(rounds.startRound());
+
+        assertEquals(1, rounds.getRounds());
+        assertEquals(1, listener.completed.size());
+        assertEquals(1, listener.limits.size());
+        assertSame(listener.completed.get(0), listener.limits.get(0));
+    }
+
+    /**
+     * No round is started once the time budget is spent
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testTimeBudget() throws InterruptedException {
+        RecordingListener listener = new RecordingListener();
+        GameTheoryRounds rounds = new GameTheoryRounds("R1", "RINGS",
+                new GameTheoryOptions(Integer.MAX_VALUE, 1, listener));
+        Thread.sleep(20);
+        assertFalse(rounds.startRound());
+
+        assertEquals(0, rounds.getRounds());
+        assertTrue(listener.completed.isEmpty());
+        assertEquals(1, listener.limits.size());
+        assertNull(listener.limits.get(0));
+    }
+
+    /**
+     * Runs keep their own limits
+     */
+    @Test
+    public void testOptionsPerRun() {
+        GameTheoryRounds limited = new GameTheoryRounds("R1", "MIN",
+                new GameTheoryOptions(1, 0, null));
+        GameTheoryRounds unlimited = new GameTheoryRounds("R2", "MIN",
+                GameTheoryOptions.DEFAULT);
+        completeRound(limited, 1);
+        completeRound(unlimited, 1);
+        assertFalse(limited.startRound());
+        completeRound(unlimited, 1);
+        assertEquals(1, limited.getRounds());
+        assertEquals(2, unlimited.getRounds());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoRounds() {
+        new GameTheoryOptions(0, 0, null);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad at ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.mechanism;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+import org.openscience.cdk.exception.InvalidSmilesException;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IAtomContainerSet;
+import org.openscience.cdk.interfaces.IMapping;
+import org.openscience.cdk.interfaces.IReaction;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import org.openscience.cdk.smiles.SmilesParser;
+
+/**
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class MappingKeyTest {
+
+    private static final String REACTION = "[H]C([H])(C)O>>[H]C(C)=O.[H][H]";
+
+    /*
+     * Ranks the heavy atoms of each side in input order, hydrogens are left
+     * unranked
+     */
+    private static IReaction reaction() throws InvalidSmilesException {
+        IReaction reaction = new SmilesParser(SilentChemObjectBuilder.getInstance()).parseReactionSmiles(REACTION);
+        rank(reaction.getReactants());
+        rank(reaction.getProducts());
+        return reaction;
+    }
+
+    private static void rank(IAtomContainerSet molecules) {
+        int rank = 0;
+        for (IAtomContainer molecule : molecules.atomContainers()) {
+            for (IAtom atom : molecule.atoms()) {
+                if (!"H".equals(atom.getSymbol())) {
+                    atom.setProperty("OLD_RANK", rank++);
+                }
+            }
+        }
+    }
+
+    /*
+     * Maps the reactant atoms to the product atoms at the given positions,
+     * atoms are numbered over all molecules of a side in input order
+     */
+    private static IReaction map(IReaction reaction, int[][] pairs) {
+        for (int[] pair : pairs) {
+            reaction.addMapping(reaction.getBuilder().newInstance(IMapping.class,
+                    atom(reaction.getReactants(), pair[0]),
+                    atom(reaction.getProducts(), pair[1])));
+        }
+        return reaction;
+    }
+
+    private static IAtom atom(IAtomContainerSet molecules, int index) {
+        for (IAtomContainer molecule : molecules.atomContainers()) {
+            if (index < molecule.getAtomCount()) {
+                return molecule.getAtom(index);
+            }
+            index -= molecule.getAtomCount();
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    /*
+     * Reactant [H]C([H])(C)O: H0 C1 H2 C3 O4, products [H]C(C)=O: H0 C1 C2
+     * O3 and [H][H]: H4 H5
+     */
+    private static final int[][] MAPPING = {{0, 0}, {1, 1}, {2, 4}, {3, 2}, {4, 3}};
+
+    /**
+     * Copies of a reaction mapped alike have equal keys, whatever the order of
+     * the mappings
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSameMapping() throws Exception {
+        MappingKey key = MappingKey.of(map(reaction(), MAPPING));
+        int[][] reversed = new int[MAPPING.length][];
+        for (int i = 0; i < MAPPING.length; i++) {
+            reversed[i] = MAPPING[MAPPING.length - 1 - i];
+        }
+        MappingKey other = MappingKey.of(map(reaction(), reversed));
+        assertNotNull(key);
+        assertEquals(key, other);
+        assertEquals(key.hashCode(), other.hashCode());
+    }
+
+    /**
+     * The hydrogens of one atom are interchangeable
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testHydrogensInterchangeable() throws Exception {
+        MappingKey key = MappingKey.of(map(reaction(), MAPPING));
+        MappingKey swapped = MappingKey.of(map(reaction(),
+                new int[][]{{2, 0}, {1, 1}, {0, 4}, {3, 2}, {4, 3}}));
+        assertEquals(key, swapped);
+    }
+
+    /**
+     * Different atom pairs give different keys
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testDifferentMapping() throws Exception {
+        MappingKey key = MappingKey.of(map(reaction(), MAPPING));
+        MappingKey carbonsSwapped = MappingKey.of(map(reaction(),
+                new int[][]{{0, 0}, {1, 2}, {2, 4}, {3, 1}, {4, 3}}));
+        MappingKey hydrogenMoved = MappingKey.of(map(reaction(),
+                new int[][]{{0, 5}, {1, 1}, {2, 4}, {3, 2}, {4, 3}}));
+        MappingKey partial = MappingKey.of(map(reaction(),
+                new int[][]{{1, 1}, {3, 2}, {4, 3}}));
+        assertNotEquals(key, carbonsSwapped);
+        assertNotEquals(key, hydrogenMoved);
+        assertNotEquals(key, partial);
+    }
+
+    /**
+     * No key without the input ranks of the heavy atoms
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testUnrankedAtom() throws Exception {
+        IReaction reaction = map(reaction(), MAPPING);
+        atom(reaction.getProducts(), 3).removeProperty("OLD_RANK");
+        assertNull(MappingKey.of(reaction));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad at ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.tools.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import uk.ac.ebi.reactionblast.interfaces.IDataSource;
+import uk.ac.ebi.reactionblast.interfaces.IDataStore;
+import uk.ac.ebi.reactionblast.interfaces.ITransformation;
+
+/**
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class BulkTransformerTest {
+
+    private static final int ENTRIES = 50;
+
+    /**
+     * Passes molecules through, a RuntimeException for every 7th and an Error
+     * for every 10th
+     */
+    private static final ITransformation<IAtomContainer> FAILING = new ITransformation<IAtomContainer>() {
+        @Override
+        public TargetType getTargetType() {
+            return TargetType.MOLECULE;
+        }
+
+        @Override
+        public IAtomContainer transform(IAtomContainer molecule) {
+            int index = Integer.parseInt(molecule.getID());
+            if (index % 10 == 9) {
+                throw new StackOverflowError("transform " + index);
+            }
+            if (index % 7 == 6) {
+                throw new IllegalStateException("transform " + index);
+            }
+            return molecule;
+        }
+    };
+
+    private static List<String> run(BulkTransformer transformer, Throwable[] failure) {
+        List<IAtomContainer> molecules = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            IAtomContainer molecule = SilentChemObjectBuilder.getInstance().newAtomContainer();
+            molecule.setID(String.valueOf(i));
+            molecules.add(molecule);
+        }
+        IDataSource<IAtomContainer> source = new IDataSource<IAtomContainer>() {
+            @Override
+            public IAtomContainer get(String id) {
+                return molecules.get(Integer.parseInt(id));
+            }
+
+            @Override
+            public Iterable<IAtomContainer> getAll() {
+                return molecules;
+            }
+
+            @Override
+            public void setTransformation(ITransformation<IAtomContainer> transformation) {
+            }
+
+            @Override
+            public List<String> getIDList() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        List<String> stored = Collections.synchronizedList(new ArrayList<>());
+        IDataStore<IAtomContainer> store = molecule -> stored.add(molecule.getID());
+        try {
+            transformer.transform(source, store);
+        } catch (RuntimeException | Error ex) {
+            failure[0] = ex;
+        }
+        return stored;
+    }
+
+    private static List<String> expected() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            if (i % 10 != 9 && i % 7 != 6) {
+                ids.add(String.valueOf(i));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Entries whose transformation throws are skipped in source order, the
+     * first failure is rethrown once the pipeline has drained
+     */
+    @Test(timeout = 30000)
+    public void testOrderedPipelineSurvivesFailures() {
+        Throwable[] failure = new Throwable[1];
+        assertEquals(expected(), run(new BulkTransformer(FAILING, 4, 8, 3, true), failure));
+        assertNotNull(failure[0]);
+        assertTrue(failure[0].getMessage().startsWith("transform "));
+    }
+
+    /**
+     * Entries whose transformation throws are skipped in completion order, the
+     * first failure is rethrown once the pipeline has drained
+     */
+    @Test(timeout = 30000)
+    public void testUnorderedPipelineSurvivesFailures() {
+        Throwable[] failure = new Throwable[1];
+        List<String> stored = new ArrayList<>(run(new BulkTransformer(FAILING, 4, 8, 3, false), failure));
+        stored.sort((a, b) -> Integer.parseInt(a) - Integer.parseInt(b));
+        assertEquals(expected(), stored);
+        assertNotNull(failure[0]);
+        assertTrue(failure[0].getMessage().startsWith("transform "));
+    }
+
+    /**
+     * The sequential run stops at the first failure and rethrows it
+     */
+    @Test(timeout = 30000)
+    public void testSequentialRethrowsFailure() {
+        Throwable[] failure = new Throwable[1];
+        List<String> stored = run(new BulkTransformer(FAILING), failure);
+        assertEquals(expected().subList(0, 6), stored);
+        assertTrue(failure[0] instanceof IllegalStateException);
+        assertEquals("transform 6", failure[0].getMessage());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad at ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.tools.rxnfile;
+
+import java.io.File;
+import java.io.FileReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import org.junit.Test;
+import org.openscience.cdk.interfaces.IReaction;
+import static org.openscience.cdk.io.IChemObjectReader.Mode.RELAXED;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+import static org.openscience.cdk.tools.manipulator.ReactionManipulator.getAtomCount;
+
+/**
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class IteratingRXNReaderTest {
+
+    private static final String RDF_FILE = "rxn/infochem/master_rdf_files/MapTestExamplesV1.0.rdf";
+    private static final String RXN_FILE = "rxn/rhea/10001.rxn";
+
+    private static File resource(String name) throws Exception {
+        return new File(IteratingRXNReaderTest.class.getClassLoader().getResource(name).toURI());
+    }
+
+    /**
+     * All records of an RDF file are streamed with their data fields
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRDFStreaming() throws Exception {
+        int count = 0;
+        try (IteratingRXNReader reader = new IteratingRXNReader(resource(RDF_FILE),
+                SilentChemObjectBuilder.getInstance())) {
+            while (reader.hasNext()) {
+                IReaction reaction = reader.next();
+                assertNotNull(reaction.getID());
+                if (count == 0) {
+                    assertEquals("0000001", reaction.getID());
+                    assertEquals("G1_trivial", reaction.getProperty("RXN:GROUP"));
+                    assertEquals(2, reaction.getReactantCount());
+                }
+                count++;
+            }
+            assertFalse(reader.hasNext());
+        }
+        assertEquals(104, count);
+    }
+
+    /**
+     * Memory mapped and buffered streaming yield the same reactions
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testMemoryMappedStreaming() throws Exception {
+        File rdf = resource(RDF_FILE);
+        try (IteratingRXNReader buffered = new IteratingRXNReader(rdf, SilentChemObjectBuilder.getInstance());
+                IteratingRXNReader mapped = new IteratingRXNReader(rdf, SilentChemObjectBuilder.getInstance(),
+                        RELAXED, true)) {
+            while (buffered.hasNext()) {
+                IReaction expected = buffered.next();
+                IReaction actual = mapped.next();
+                assertEquals(expected.getID(), actual.getID());
+                assertEquals(getAtomCount(expected), getAtomCount(actual));
+                assertEquals(expected.getMappingCount(), actual.getMappingCount());
+            }
+            assertFalse(mapped.hasNext());
+        }
+    }
+
+    /**
+     * A single RXN file streams the same reaction as the RXN reader
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testSingleRXNFile() throws Exception {
+        File rxn = resource(RXN_FILE);
+        IReaction expected;
+        try (MDLRXNV2000Reader reader = new MDLRXNV2000Reader(new FileReader(rxn))) {
+            expected = reader.read(SilentChemObjectBuilder.getInstance().newInstance(IReaction.class));
+        }
+        try (IteratingRXNReader reader = new IteratingRXNReader(rxn, SilentChemObjectBuilder.getInstance())) {
+            IReaction actual = reader.next();
+            assertEquals("10001", actual.getID());
+            assertEquals(expected.getReactantCount(), actual.getReactantCount());
+            assertEquals(expected.getProductCount(), actual.getProductCount());
+            assertEquals(getAtomCount(expected), getAtomCount(actual));
+            assertFalse(reader.hasNext());
+        }
+    }
+}
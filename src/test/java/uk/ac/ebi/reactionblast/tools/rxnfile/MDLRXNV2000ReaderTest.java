@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2007-2018 Syed Asad Rahman <asad at ebi.ac.uk>.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package uk.ac.ebi.reactionblast.tools.rxnfile;
+
+import java.io.StringReader;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.openscience.cdk.exception.CDKException;
+import org.openscience.cdk.interfaces.IReaction;
+import static org.openscience.cdk.io.IChemObjectReader.Mode.STRICT;
+import org.openscience.cdk.silent.SilentChemObjectBuilder;
+
+/**
+ * @contact Syed Asad Rahman, EMBL-EBI, Cambridge, UK.
+ * @author Syed Asad Rahman <asad @ ebi.ac.uk>
+ */
+public class MDLRXNV2000ReaderTest {
+
+    private static String molBlock(String symbol) {
+        return "$MOL\n"
+                + "\n"
+                + "  test\n"
+                + "\n"
+                + "  1  0  0  0  0  0  0  0  0  0999 V2000\n"
+                + "    0.0000    0.0000    0.0000 " + symbol
+                + "   0  0  0  0  0  0  0  0  0  0  0  0\n"
+                + "M  END\n";
+    }
+
+    private static IReaction read(String reactant, String product) throws CDKException {
+        String rxn = "$RXN\n\n  test\n\n  1  1\n" + molBlock(reactant) + molBlock(product);
+        MDLRXNV2000Reader reader = new MDLRXNV2000Reader(new StringReader(rxn), STRICT);
+        return reader.read(SilentChemObjectBuilder.getInstance().newInstance(IReaction.class));
+    }
+
+    /**
+     * Strict mode applies to the reactants, products are parsed relaxed
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testStrictReactantsRelaxedProducts() throws Exception {
+        IReaction reaction = read("C ", "Xx");
+        assertEquals(1, reaction.getReactantCount());
+        assertEquals(1, reaction.getProductCount());
+        assertEquals(1, reaction.getProducts().getAtomContainer(0).getAtomCount());
+    }
+
+    /**
+     * Invalid reactant symbols are rejected in strict mode
+     *
+     * @throws Exception
+     */
+    @Test(expected = CDKException.class)
+    public void testStrictReactants() throws Exception {
+        read("Xx", "C ");
+    }
+}